@@ -0,0 +1,60 @@
+package com.smartrent.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-query cost of {@link SearchQueryParser#parse} over the golden corpus
+ * used by {@code SearchQueryParserGoldenTest}. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchQueryParserBenchmark {
+
+    private static final Path CORPUS = Path.of("src/test/resources/search/query-parser-golden.tsv");
+
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void loadCorpus() throws IOException {
+        List<String> loaded = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(CORPUS);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                loaded.add(line.substring(0, line.indexOf('\t')));
+            }
+        }
+        queries = loaded.toArray(new String[0]);
+    }
+
+    /** One query per invocation, cycling through the corpus. */
+    @Benchmark
+    public void parse(Blackhole bh) {
+        String q = queries[next];
+        next = next + 1 == queries.length ? 0 : next + 1;
+        bh.consume(SearchQueryParser.parse(q));
+    }
+}
@@ -0,0 +1,85 @@
+package com.smartrent.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the retention sweeps over the telemetry tables
+ * (see {@code RetentionServiceImpl}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.retention")
+public class RetentionProperties {
+
+    /**
+     * Runs the scheduled sweeps at all.
+     * Default: true
+     */
+    private boolean enabled = true;
+
+    /**
+     * Only counts what would be deleted: no rows are deleted, no partitions are
+     * dropped or added and the sweep cursors do not move.
+     * Default: false
+     */
+    private boolean dryRun = false;
+
+    /**
+     * Rows examined per batch, i.e. the largest single DELETE.
+     * Default: 1000
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Pause between two batches in milliseconds, so replicas and concurrent
+     * writers keep up.
+     * Default: 200ms
+     */
+    private long pauseMs = 200;
+
+    /**
+     * Batches per table and run; a sweep cut short resumes from its cursor.
+     * Default: 200
+     */
+    private int maxBatchesPerRun = 200;
+
+    /**
+     * Days closed into a daily rollup per table and run (first run backfills).
+     * Default: 31
+     */
+    private int maxRollupDaysPerRun = 31;
+
+    /**
+     * Monthly partitions kept ahead of the current month on partitioned tables.
+     * Default: 2
+     */
+    private int partitionMonthsAhead = 2;
+
+    private Policy searchQueryImpressions = new Policy(true, 90);
+
+    private Policy searchSuggestionClicks = new Policy(true, 90);
+
+    private Policy views = new Policy(true, 180);
+
+    private Policy phoneClicks = new Policy(true, 365);
+
+    /** Retention of one table. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+
+        /** Sweeps this table. */
+        private boolean enabled;
+
+        /**
+         * Raw rows older than this many days are deleted (phone clicks:
+         * compacted), once they are rolled up.
+         */
+        private int retentionDays;
+    }
+}
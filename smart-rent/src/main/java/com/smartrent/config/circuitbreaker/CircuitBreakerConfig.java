@@ -7,6 +7,7 @@ import io.github.resilience4j.timelimiter.TimeLimiterConfig;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
 import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
@@ -114,6 +115,37 @@ public class CircuitBreakerConfig {
         };
     }
 
+    /**
+     * Circuit breaker for the AI recommendation endpoints.
+     * The time limiter is the request's latency budget: past it the caller ranks
+     * locally instead of holding the servlet thread for the Feign read timeout.
+     * Timeouts and slow calls count as failures, so a degraded AI service opens
+     * the circuit and later requests skip the call entirely.
+     */
+    @Bean
+    public Customizer<Resilience4JCircuitBreakerFactory> recommendationAiCustomizer(
+            @Value("${recommendation.ai.timeout-ms:2500}") long timeoutMs,
+            @Value("${recommendation.ai.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${recommendation.ai.wait-in-open-seconds:30}") long waitInOpenSeconds) {
+        return factory -> factory.configure(builder -> builder
+                .timeLimiterConfig(TimeLimiterConfig.custom()
+                        .timeoutDuration(Duration.ofMillis(timeoutMs))
+                        .cancelRunningFuture(true)
+                        .build())
+                .circuitBreakerConfig(io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.custom()
+                        .failureRateThreshold(failureRateThreshold)
+                        .slowCallDurationThreshold(Duration.ofMillis(timeoutMs))
+                        .slowCallRateThreshold(failureRateThreshold)
+                        .waitDurationInOpenState(Duration.ofSeconds(waitInOpenSeconds))
+                        .slidingWindowSize(20)
+                        .slidingWindowType(SlidingWindowType.COUNT_BASED)
+                        .minimumNumberOfCalls(10)
+                        .permittedNumberOfCallsInHalfOpenState(3)
+                        .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                        .build())
+                .build(), "recommendationAi");
+    }
+
     /**
      * Circuit breaker configuration customizer for fine-tuning
      * This allows for additional customization of circuit breaker behavior
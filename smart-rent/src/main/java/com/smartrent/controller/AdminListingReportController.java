@@ -4,6 +4,10 @@ import com.smartrent.dto.request.ResolveReportRequest;
 import com.smartrent.dto.response.ApiResponse;
 import com.smartrent.dto.response.ListingReportResponse;
 import com.smartrent.dto.response.PageResponse;
+import com.smartrent.enums.ReportStatus;
+import com.smartrent.infra.exception.DomainException;
+import com.smartrent.infra.exception.model.DomainCode;
+import com.smartrent.service.export.CsvDownloads;
 import com.smartrent.service.report.ListingReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,10 +21,12 @@ import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +42,8 @@ public class AdminListingReportController {
 
     ListingReportService listingReportService;
 
+    CsvDownloads csvDownloads;
+
     @GetMapping
     @Operation(
             summary = "Get all listing reports (Admin)",
@@ -123,6 +131,28 @@ public class AdminListingReportController {
                 .build();
     }
 
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export listing reports as CSV (Admin)",
+            description = "Streams all reports, newest first, as CSV. Optionally filtered by status. Only accessible by admins."
+    )
+    public ResponseEntity<StreamingResponseBody> exportReports(
+            @Parameter(description = "Filter by status (PENDING, RESOLVED, REJECTED)", example = "PENDING")
+            @RequestParam(required = false) String status) {
+        // Validated here: once the body starts streaming, an error can no longer become a 400
+        ReportStatus reportStatus = null;
+        if (status != null && !status.isEmpty()) {
+            try {
+                reportStatus = ReportStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new DomainException(DomainCode.BAD_REQUEST_ERROR, "Invalid status: " + status);
+            }
+        }
+        ReportStatus exportStatus = reportStatus;
+        return csvDownloads.response("listing-reports.csv",
+                out -> listingReportService.exportReportsCsv(exportStatus, out));
+    }
+
     @GetMapping("/{reportId}")
     @Operation(
             summary = "Get report by ID (Admin)",
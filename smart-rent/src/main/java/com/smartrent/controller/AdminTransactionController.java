@@ -5,6 +5,7 @@ import com.smartrent.dto.response.*;
 import com.smartrent.enums.PaymentProvider;
 import com.smartrent.enums.TransactionStatus;
 import com.smartrent.enums.TransactionType;
+import com.smartrent.service.export.CsvDownloads;
 import com.smartrent.service.transaction.TransactionHistoryService;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,11 +15,10 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -33,6 +33,8 @@ public class AdminTransactionController {
 
     TransactionHistoryService transactionHistoryService;
 
+    CsvDownloads csvDownloads;
+
     @GetMapping
     public ApiResponse<PageResponse<TransactionHistoryItemResponse>> getTransactions(
             @RequestParam(required = false) String customerId,
@@ -105,7 +107,7 @@ public class AdminTransactionController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportTransactions(
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
             @RequestParam(required = false) String customerId,
             @RequestParam(required = false) String landlordId,
             @RequestParam(required = false) String transactionId,
@@ -115,12 +117,9 @@ public class AdminTransactionController {
             @RequestParam(required = false) TransactionType paymentType,
             @RequestParam(required = false) String createdAt,
             @RequestParam(required = false) String q) {
-        byte[] csv = transactionHistoryService.exportCsv(
-                filter(customerId, landlordId, transactionId, customer, status, paymentGateway, paymentType, createdAt, q));
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\"")
-                .contentType(new MediaType("text", "csv"))
-                .body(csv);
+        TransactionFilterRequest filter =
+                filter(customerId, landlordId, transactionId, customer, status, paymentGateway, paymentType, createdAt, q);
+        return csvDownloads.response("transactions.csv", out -> transactionHistoryService.exportCsv(filter, out));
     }
 
     private TransactionFilterRequest filter(
@@ -2,6 +2,10 @@ package com.smartrent.controller;
 
 import com.smartrent.dto.request.ListingFilterRequest;
 import com.smartrent.dto.response.*;
+import com.smartrent.infra.exception.AppException;
+import com.smartrent.infra.exception.model.DomainCode;
+import com.smartrent.infra.repository.AdminRepository;
+import com.smartrent.service.export.CsvDownloads;
 import com.smartrent.service.listing.ListingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,8 +15,10 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/v1/listings")
@@ -25,6 +31,7 @@ import org.springframework.web.bind.annotation.*;
         - `GET /admin/{id}` - Get full listing detail with admin verification info (use after picking a row from the list)
         - `GET /{id}/admin` - Legacy alias for the detail endpoint above; same payload
         - `POST /admin/list` - Paginated admin listing view returning a SLIM summary per row + dashboard statistics
+        - `POST /admin/export` - CSV export of every listing matching the same filter (streamed)
 
         **Dashboard statistics:** pendingVerification, verified, expired, rejected counts, VIP tier breakdown.
 
@@ -52,6 +59,10 @@ public class ListingAdminController {
 
     private final ListingService listingService;
 
+    private final AdminRepository adminRepository;
+
+    private final CsvDownloads csvDownloads;
+
     @GetMapping("/admin/{id}")
     @Operation(
         summary = "Get full listing detail for admin (Admin only)",
@@ -248,4 +259,26 @@ public class ListingAdminController {
         AdminListingListResponse response = listingService.getAllListingsForAdmin(filter, adminId);
         return ApiResponse.<AdminListingListResponse>builder().data(response).build();
     }
+
+    @PostMapping("/admin/export")
+    @Operation(
+        summary = "Export listings for admin as CSV",
+        description = """
+            Streams every listing matching the filter as CSV, newest first. Accepts the same
+            filter body as `POST /v1/listings/admin/list`; `page`, `size` and sort fields are ignored.
+            """,
+        parameters = {
+            @Parameter(name = "X-Admin-Id", description = "Admin ID", required = true)
+        }
+    )
+    public ResponseEntity<StreamingResponseBody> exportListingsForAdmin(
+            @RequestHeader("X-Admin-Id") String adminId,
+            @Valid @RequestBody ListingFilterRequest filter) {
+        // Checked here: once the body starts streaming, an error can no longer become a 401
+        adminRepository.findById(adminId)
+                .orElseThrow(() -> new AppException(DomainCode.UNAUTHORIZED, "Admin not found"));
+        filter.setIsAdminRequest(true);
+        return csvDownloads.response("listings.csv",
+                out -> listingService.exportListingsForAdminCsv(filter, adminId, out));
+    }
 }
@@ -8,6 +8,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -21,8 +23,15 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Recommendations", description = "Endpoints for hybrid AI recommendations (similar & personalized feed)")
 public class RecommendationController {
 
+    static final String TRACE_HEADER = "X-Recommendation-Trace";
+    static final String DEBUG_TRACE_HEADER = "X-Debug-Trace";
+
     RecommendationService recommendationService;
 
+    @NonFinal
+    @Value("${recommendation.trace-header.enabled:false}")
+    boolean traceHeaderEnabled;
+
     /**
      * GET /v1/recommendations/similar/{listingId}
      *
@@ -42,12 +51,13 @@ public class RecommendationController {
     public ResponseEntity<ApiResponse<RecommendationResponse>> getSimilarListings(
             @AuthenticationPrincipal Jwt jwt,
             @PathVariable Long listingId,
-            @RequestParam(defaultValue = "8") int topN) {
+            @RequestParam(defaultValue = "8") int topN,
+            @RequestHeader(value = DEBUG_TRACE_HEADER, defaultValue = "false") boolean debugTrace) {
 
         String userId = (jwt != null) ? jwt.getSubject() : null;
         RecommendationResponse response = recommendationService.getSimilarListings(listingId, topN, userId);
 
-        return ResponseEntity.ok(ApiResponse.<RecommendationResponse>builder()
+        return ok(response, debugTrace).body(ApiResponse.<RecommendationResponse>builder()
                 .code(String.valueOf(HttpStatus.OK.value()))
                 .message("Successfully retrieved similar listings")
                 .data(response)
@@ -75,7 +85,8 @@ public class RecommendationController {
     public ResponseEntity<ApiResponse<RecommendationResponse>> getPersonalizedFeed(
             @AuthenticationPrincipal Jwt jwt,
             @RequestParam(required = false) String userId,
-            @RequestParam(defaultValue = "20") int topN) {
+            @RequestParam(defaultValue = "20") int topN,
+            @RequestHeader(value = DEBUG_TRACE_HEADER, defaultValue = "false") boolean debugTrace) {
 
         String finalUserId = (jwt != null) ? jwt.getSubject() : userId;
 
@@ -89,10 +100,23 @@ public class RecommendationController {
 
         RecommendationResponse response = recommendationService.getPersonalizedFeed(finalUserId, topN);
 
-        return ResponseEntity.ok(ApiResponse.<RecommendationResponse>builder()
+        return ok(response, debugTrace).body(ApiResponse.<RecommendationResponse>builder()
                 .code(String.valueOf(HttpStatus.OK.value()))
                 .message("Successfully retrieved personalized feed")
                 .data(response)
                 .build());
     }
+
+    /**
+     * 200 builder carrying the pipeline trace in {@value #TRACE_HEADER} when
+     * trace headers are enabled and the caller sent {@code X-Debug-Trace: true}.
+     * A cached response has no trace, since no pipeline ran for it.
+     */
+    private ResponseEntity.BodyBuilder ok(RecommendationResponse response, boolean debugTrace) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (traceHeaderEnabled && debugTrace && response != null) {
+            builder.header(TRACE_HEADER, response.getTrace() != null ? response.getTrace() : "cached");
+        }
+        return builder;
+    }
 }
@@ -0,0 +1,40 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.admin.analytics.AdminFactCubeService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Closes finished days into the admin daily fact cube, then closes again the
+ * days whose rows changed since the last tick. Checked every
+ * {@code application.admin-fact-cube.interval-ms}; a tick on a day that is
+ * already closed only reads the watermark and the changed rows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AdminFactCubeScheduler {
+
+    AdminFactCubeService adminFactCubeService;
+
+    @Scheduled(fixedDelayString = "${application.admin-fact-cube.interval-ms:3600000}",
+            initialDelayString = "${application.admin-fact-cube.initial-delay-ms:120000}")
+    public void closeDays() {
+        try {
+            adminFactCubeService.closeNewDays();
+        } catch (Exception e) {
+            log.warn("admin-fact-cube: run failed, retrying next tick (non-fatal): {}", e.getMessage(), e);
+        }
+        try {
+            adminFactCubeService.restateChangedDays();
+        } catch (Exception e) {
+            log.warn("admin-fact-cube: restating changed days failed, retrying next tick (non-fatal): {}",
+                    e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.engagement.EngagementCounters;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-seeds the {@link EngagementCounters} of listings that saw events since
+ * the previous run from the event tables, every
+ * {@code application.engagement-counters.reconcile-interval-ms}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EngagementCounterReconcileScheduler {
+
+    EngagementCounters engagementCounters;
+
+    @NonFinal
+    @Value("${application.engagement-counters.reconcile-batch-size:500}")
+    int batchSize;
+
+    @Scheduled(fixedDelayString = "${application.engagement-counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${application.engagement-counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        int reseeded = engagementCounters.reconcileDirty(batchSize);
+        if (reseeded > 0) {
+            log.info("engagement-counters: reconciled {} listings", reseeded);
+        }
+    }
+}
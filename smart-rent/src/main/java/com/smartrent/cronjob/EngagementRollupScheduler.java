@@ -0,0 +1,33 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.analytics.EngagementRollupService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rolls newly completed hours of views, phone clicks and saves up into the
+ * engagement rollup tables every {@code application.engagement-rollup.interval-ms}.
+ * A run that falls behind catches up {@code max-hours-per-run} hours at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EngagementRollupScheduler {
+
+    EngagementRollupService engagementRollupService;
+
+    @Scheduled(fixedDelayString = "${application.engagement-rollup.interval-ms:600000}",
+            initialDelayString = "${application.engagement-rollup.initial-delay-ms:60000}")
+    public void rollUp() {
+        try {
+            engagementRollupService.rollUpNewHours();
+        } catch (Exception e) {
+            log.warn("engagement-rollup: run failed, retrying next tick (non-fatal): {}", e.getMessage(), e);
+        }
+    }
+}
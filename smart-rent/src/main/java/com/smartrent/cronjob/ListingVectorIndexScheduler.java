@@ -0,0 +1,51 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.recommendation.ListingVectorIndex;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Builds the recommendation {@link ListingVectorIndex} once the application
+ * is ready, folds in edited listings every minute, and rebuilds it in full
+ * every few hours (dropping deleted listings and picking up new amenities).
+ * Until the first build finishes, recommendations use the SQL channels.
+ *
+ * <p>The startup build is handed to the task scheduler rather than run on the
+ * thread publishing {@link ApplicationReadyEvent}, which would otherwise hold
+ * up the remaining ready listeners for the whole load of the catalog.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ListingVectorIndexScheduler {
+
+    ListingVectorIndex listingVectorIndex;
+    TaskScheduler taskScheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        taskScheduler.schedule(listingVectorIndex::rebuild, Instant.now());
+    }
+
+    @Scheduled(
+            fixedDelayString = "${recommendation.vector-index.refresh-interval-ms:60000}",
+            initialDelayString = "${recommendation.vector-index.refresh-interval-ms:60000}")
+    public void refreshChanged() {
+        listingVectorIndex.refreshChanged();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${recommendation.vector-index.rebuild-interval-ms:21600000}",
+            initialDelayString = "${recommendation.vector-index.rebuild-interval-ms:21600000}")
+    public void rebuild() {
+        listingVectorIndex.rebuild();
+    }
+}
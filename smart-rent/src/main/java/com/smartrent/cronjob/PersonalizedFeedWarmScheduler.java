@@ -0,0 +1,26 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.recommendation.PersonalizedFeedWarmer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands users who stopped interacting a moment ago to the
+ * {@link PersonalizedFeedWarmer}, so their feed is cached before they return
+ * to the homepage.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PersonalizedFeedWarmScheduler {
+
+    PersonalizedFeedWarmer personalizedFeedWarmer;
+
+    @Scheduled(fixedDelayString = "${recommendation.prewarm.tick-ms:1000}")
+    public void warmQuietUsers() {
+        personalizedFeedWarmer.warmQuietUsers();
+    }
+}
@@ -0,0 +1,25 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.phoneclickdetail.PhoneClickStreamConsumer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persists queued phone clicks from the Redis Stream every
+ * {@code application.phone-click-ingest.poll-interval-ms}.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PhoneClickIngestScheduler {
+
+    PhoneClickStreamConsumer phoneClickStreamConsumer;
+
+    @Scheduled(fixedDelayString = "${application.phone-click-ingest.poll-interval-ms:500}")
+    public void poll() {
+        phoneClickStreamConsumer.poll();
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.recommendation.RegionCandidatePools;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the recommendation {@link RegionCandidatePools} once the application
+ * is ready, folds in edited listings every minute, and rebuilds them in full
+ * every half hour to refill bands that lost listings. Until the first build
+ * finishes, recommendations use the SQL channels.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RegionCandidatePoolScheduler {
+
+    RegionCandidatePools regionCandidatePools;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        regionCandidatePools.rebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${recommendation.region-pools.refresh-interval-ms:60000}",
+            initialDelayString = "${recommendation.region-pools.refresh-interval-ms:60000}")
+    public void refreshChanged() {
+        regionCandidatePools.refreshChanged();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${recommendation.region-pools.rebuild-interval-ms:1800000}",
+            initialDelayString = "${recommendation.region-pools.rebuild-interval-ms:1800000}")
+    public void rebuild() {
+        regionCandidatePools.rebuild();
+    }
+}
@@ -0,0 +1,33 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.retention.RetentionService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sweeps the telemetry tables every {@code application.retention.interval-ms}.
+ * Each run deletes at most {@code max-batches-per-run} batches per table, so a
+ * large backlog is worked off over several runs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RetentionScheduler {
+
+    RetentionService retentionService;
+
+    @Scheduled(fixedDelayString = "${application.retention.interval-ms:3600000}",
+            initialDelayString = "${application.retention.initial-delay-ms:600000}")
+    public void sweep() {
+        try {
+            retentionService.sweepAll();
+        } catch (Exception e) {
+            log.warn("retention: run failed, retrying next tick (non-fatal): {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.discovery.LocationFuzzyIndex;
+import com.smartrent.service.discovery.TypoToleranceService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the in-memory search indexes fresh without ever building them on the
+ * request path.
+ *
+ * <p>The typo-correction index ({@link TypoToleranceService}) is built once
+ * the application is ready and then rebuilt on a fixed delay. Its vocabulary
+ * (place names, curated phrases, title tokens) drifts slowly, so the default
+ * interval is a few hours; a rebuild takes well under a second of DB time
+ * because every source is a scalar projection.
+ *
+ * <p>The location index ({@link LocationFuzzyIndex}) is checked far more
+ * often: each tick only reads a {@code [count, max(updated_at)]} fingerprint
+ * per source table and reloads just the segments that moved, so an admin
+ * edit to a ward or street is searchable within minutes at the cost of a few
+ * aggregate queries per tick.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SearchIndexRefreshScheduler {
+
+    TypoToleranceService typoToleranceService;
+    LocationFuzzyIndex locationFuzzyIndex;
+
+    /**
+     * Builds the indexes as soon as the application is up so the first
+     * "did you mean" request already has a vocabulary. A failure is logged by
+     * the service and never blocks startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        locationFuzzyIndex.refresh();
+        typoToleranceService.rebuildIndex();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${discovery.typo-index.refresh-interval-ms:21600000}",
+            initialDelayString = "${discovery.typo-index.refresh-interval-ms:21600000}")
+    public void refreshTypoIndex() {
+        log.debug("Refreshing typo-correction index");
+        typoToleranceService.rebuildIndex();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${discovery.location-index.refresh-interval-ms:300000}",
+            initialDelayString = "${discovery.location-index.refresh-interval-ms:300000}")
+    public void refreshLocationIndex() {
+        log.debug("Checking location index sources for changes");
+        locationFuzzyIndex.refresh();
+    }
+}
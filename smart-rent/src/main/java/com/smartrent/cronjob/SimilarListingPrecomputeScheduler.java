@@ -0,0 +1,54 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.recommendation.SimilarListingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Keeps {@code listing_similar_items} current so {@code getSimilarListings}
+ * never ranks on the request path.
+ *
+ * <p>Each tick recomputes a bounded batch of stale rows (listing edited since,
+ * missing, or older than the max age), sized from the table so every row is
+ * refreshed within the max age, between {@code batch-size} and
+ * {@code max-batch-size}. A fresh deployment backfills gradually; until a
+ * listing has its row, the live AI path still serves it.
+ */
+@Slf4j
+@Component
+public class SimilarListingPrecomputeScheduler {
+
+    private final SimilarListingStore similarListingStore;
+    private final int batchSize;
+    private final int maxBatchSize;
+    private final Duration interval;
+    private final Duration maxAge;
+
+    public SimilarListingPrecomputeScheduler(
+            SimilarListingStore similarListingStore,
+            @Value("${recommendation.similar-precompute.batch-size:200}") int batchSize,
+            @Value("${recommendation.similar-precompute.max-batch-size:5000}") int maxBatchSize,
+            @Value("${recommendation.similar-precompute.interval-ms:300000}") long intervalMs,
+            @Value("${recommendation.similar-precompute.max-age-hours:24}") long maxAgeHours) {
+        this.similarListingStore = similarListingStore;
+        this.batchSize = batchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.interval = Duration.ofMillis(intervalMs);
+        this.maxAge = Duration.ofHours(maxAgeHours);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${recommendation.similar-precompute.interval-ms:300000}",
+            initialDelayString = "${recommendation.similar-precompute.initial-delay-ms:60000}")
+    public void refreshSimilarListings() {
+        try {
+            similarListingStore.refreshStale(batchSize, maxBatchSize, interval, maxAge);
+        } catch (Exception e) {
+            log.warn("similar-precompute: tick failed (non-fatal): {}", e.getMessage(), e);
+        }
+    }
+}
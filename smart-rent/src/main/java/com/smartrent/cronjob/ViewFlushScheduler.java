@@ -0,0 +1,25 @@
+package com.smartrent.cronjob;
+
+import com.smartrent.service.view.ViewWriteBehindBuffer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the {@link ViewWriteBehindBuffer} into the {@code views} table every
+ * {@code application.view-tracking.flush-interval-ms}.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ViewFlushScheduler {
+
+    ViewWriteBehindBuffer viewWriteBehindBuffer;
+
+    @Scheduled(fixedDelayString = "${application.view-tracking.flush-interval-ms:1000}")
+    public void flush() {
+        viewWriteBehindBuffer.flush();
+    }
+}
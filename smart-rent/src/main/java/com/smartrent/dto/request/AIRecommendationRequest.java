@@ -131,4 +131,28 @@ public class AIRecommendationRequest {
         @JsonProperty("meets_shift_condition")
         Boolean meetsShiftCondition;
     }
+
+    /** Several similar-listing requests in one call; results come back in the same order. */
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class SimilarListingBatchAiRequest {
+        @JsonProperty("requests")
+        List<SimilarListingAiRequest> requests;
+    }
+
+    /** Several personalized-feed requests in one call; results come back in the same order. */
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class PersonalizedFeedBatchAiRequest {
+        @JsonProperty("requests")
+        List<PersonalizedFeedAiRequest> requests;
+    }
 }
@@ -1,5 +1,6 @@
 package com.smartrent.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,4 +22,21 @@ public class RecommendationResponse {
     String mode;
     Integer totalReturned;
     Boolean coldStart;
+    /**
+     * What ordered the listings: "ai", "local" (in-process ranking, used for
+     * cold start and whenever the AI is down or over budget) or "precomputed".
+     */
+    String ranker;
+    /**
+     * True when the request hit {@code recommendation.deadline-ms} and some
+     * stages were skipped; such responses are not cached.
+     */
+    Boolean partial;
+    /**
+     * Stage timings of the request that computed this response. Not serialized,
+     * so it is absent on cache hits; the controller can return it in the
+     * {@code X-Recommendation-Trace} header.
+     */
+    @JsonIgnore
+    String trace;
 }
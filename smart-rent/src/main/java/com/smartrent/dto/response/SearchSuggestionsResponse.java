@@ -21,6 +21,7 @@ import java.util.Map;
  *   <li>{@code impressionId} — telemetry handle; pass this back in the click-tracking request
  *                              ({@code POST /v1/listings/search-suggestions/click}) so the backend
  *                              can correlate the click to this specific impression.</li>
+ *   <li>{@code partial}     — some suggestion source was dropped at the latency budget or failed.</li>
  * </ul>
  */
 @Schema(description = "Response envelope for the search suggestions endpoint")
@@ -57,4 +58,11 @@ public class SearchSuggestionsResponse {
         example = "{\"productType\":\"ROOM\",\"maxPrice\":5000000,\"locationText\":\"tan binh\"}"
     )
     Map<String, Object> appliedFilters;
+
+    @Schema(
+        description = "True when a suggestion source missed the latency budget or failed, so the " +
+                      "list may be incomplete. Partial responses are not cached.",
+        example = "false"
+    )
+    boolean partial;
 }
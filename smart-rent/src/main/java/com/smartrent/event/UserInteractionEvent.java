@@ -0,0 +1,14 @@
+package com.smartrent.event;
+
+/**
+ * Raised when a user saves or unsaves a listing, clicks a phone number, or
+ * syncs recently viewed listings — anything that changes their personalized
+ * feed.
+ *
+ * <p>Consumed after the transaction commits to recompute the feed in the
+ * background, so the user's next homepage load hits a warm cache.
+ *
+ * @param userId the user whose feed is now stale
+ */
+public record UserInteractionEvent(String userId) {
+}
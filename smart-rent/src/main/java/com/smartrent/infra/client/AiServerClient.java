@@ -4,6 +4,7 @@ import com.smartrent.dto.request.AiParsedCriteriaDto;
 import com.smartrent.dto.request.AiSuggestionRequest;
 import com.smartrent.dto.request.SearchRequest;
 import com.smartrent.dto.response.AiSuggestionResponse;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -14,8 +15,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 @FeignClient(name = "ai-server", url = "${ai.server.url:${AI_SERVICE_BASE_URL:http://localhost:8000}}")
 public interface AiServerClient {
 
+    /**
+     * Parses a free-text search. Takes its own timeouts so the strict search
+     * bounds do not apply to the other endpoints of this client.
+     */
     @PostMapping("/api/v1/search/parse")
-    AiParsedCriteriaDto parseNaturalLanguage(@RequestBody SearchRequest request);
+    AiParsedCriteriaDto parseNaturalLanguage(@RequestBody SearchRequest request, Request.Options options);
 
     @PostMapping("/api/v1/search/suggestions")
     AiSuggestionResponse suggestSearchQueries(@RequestBody AiSuggestionRequest request);
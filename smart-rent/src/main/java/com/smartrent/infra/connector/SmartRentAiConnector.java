@@ -11,6 +11,7 @@ import com.smartrent.infra.connector.model.ChatRequestModel;
 import com.smartrent.infra.connector.model.ChatResponseModel;
 import com.smartrent.infra.connector.model.CompletionRequestModel;
 import com.smartrent.infra.connector.model.CompletionResponseModel;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -50,17 +51,35 @@ public interface SmartRentAiConnector {
   /**
    * Get similar listings via AI content-based filtering.
    * Optionally personalized if user_interactions is provided.
+   * {@code options} carries the caller's remaining request budget as timeouts.
    */
   @PostMapping(value = "/api/v1/recommendations/similar", consumes = MediaType.APPLICATION_JSON_VALUE)
   List<RecommendationItemDto> getSimilarListings(
-      @RequestBody AIRecommendationRequest.SimilarListingAiRequest request);
+      @RequestBody AIRecommendationRequest.SimilarListingAiRequest request, Request.Options options);
 
   /**
    * Get personalized feed via AI hybrid CF+CBF.
+   * {@code options} carries the caller's remaining request budget as timeouts.
    */
   @PostMapping(value = "/api/v1/recommendations/personalized", consumes = MediaType.APPLICATION_JSON_VALUE)
   List<RecommendationItemDto> getPersonalizedFeed(
-      @RequestBody AIRecommendationRequest.PersonalizedFeedAiRequest request);
+      @RequestBody AIRecommendationRequest.PersonalizedFeedAiRequest request, Request.Options options);
+
+  /**
+   * Batched {@link #getSimilarListings}: one result list per request, in request order.
+   * {@code options} carries the largest remaining budget among the batch's callers as timeouts.
+   */
+  @PostMapping(value = "/api/v1/recommendations/similar/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  List<List<RecommendationItemDto>> getSimilarListingsBatch(
+      @RequestBody AIRecommendationRequest.SimilarListingBatchAiRequest request, Request.Options options);
+
+  /**
+   * Batched {@link #getPersonalizedFeed}: one result list per request, in request order.
+   * {@code options} carries the largest remaining budget among the batch's callers as timeouts.
+   */
+  @PostMapping(value = "/api/v1/recommendations/personalized/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  List<List<RecommendationItemDto>> getPersonalizedFeedBatch(
+      @RequestBody AIRecommendationRequest.PersonalizedFeedBatchAiRequest request, Request.Options options);
 
   /**
    * Verify listing using AI multimodal analysis.
@@ -79,4 +79,8 @@ public interface LegacyDistrictRepository extends JpaRepository<District, Intege
             @Param("normalized") String normalized,
             @Param("compactKey") String compactKey,
             Pageable pageable);
-}
\ No newline at end of file
+
+    /** Change fingerprint {@code [count, max(updated_at)]} — see {@link LegacyProvinceRepository#findChangeFingerprint}. */
+    @Query("SELECT COUNT(d), MAX(d.updatedAt) FROM District d")
+    List<Object[]> findChangeFingerprint();
+}
@@ -55,4 +55,11 @@ public interface LegacyProvinceRepository extends JpaRepository<LegacyProvince,
             @Param("normalized") String normalized,
             @Param("compactKey") String compactKey,
             org.springframework.data.domain.Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Change fingerprint {@code [count, max(updated_at)]} used by the in-memory
+     * location index to skip rebuilding a segment whose source did not change.
+     */
+    @Query("SELECT COUNT(p), MAX(p.updatedAt) FROM LegacyProvince p")
+    List<Object[]> findChangeFingerprint();
+}
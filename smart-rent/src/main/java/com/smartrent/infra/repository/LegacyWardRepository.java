@@ -78,4 +78,24 @@ public interface LegacyWardRepository extends JpaRepository<LegacyWard, Integer>
             @Param("normalized") String normalized,
             @Param("compactKey") String compactKey,
             Pageable pageable);
+
+    /**
+     * Distinct ward short names ("Phúc Xá", "Bến Nghé") for in-memory search
+     * vocabularies. A scalar projection so the ~10k-row scan never hydrates
+     * the TEXT bounds / geo columns of the full entity.
+     */
+    @Query("SELECT DISTINCT w.shortName FROM LegacyWard w WHERE w.shortName IS NOT NULL")
+    List<String> findDistinctShortNames();
+
+    /** Change fingerprint {@code [count, max(updated_at)]} — see {@link LegacyProvinceRepository#findChangeFingerprint}. */
+    @Query("SELECT COUNT(w), MAX(w.updatedAt) FROM LegacyWard w")
+    List<Object[]> findChangeFingerprint();
+
+    /**
+     * Slim rows for the in-memory location index:
+     * {@code [id, code, name, shortName, provinceCode, districtCode]}. Avoids
+     * hydrating the TEXT bounds / geo columns of ~10k full entities.
+     */
+    @Query("SELECT w.id, w.code, w.name, w.shortName, w.provinceCode, w.districtCode FROM LegacyWard w")
+    List<Object[]> findSearchIndexRows();
 }
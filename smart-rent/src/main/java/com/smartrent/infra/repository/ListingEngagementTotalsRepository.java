@@ -0,0 +1,67 @@
+package com.smartrent.infra.repository;
+
+import com.smartrent.infra.repository.entity.ListingEngagementTotals;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Per-owner leaderboards over {@code listing_engagement_totals}; each page is
+ * one range of the {@code (owner_id, clicks|saves)} index.
+ */
+@Repository
+public interface ListingEngagementTotalsRepository extends JpaRepository<ListingEngagementTotals, Long> {
+
+    @Query(value = "SELECT t.listing_id AS listingId, t.clicks AS cnt " +
+           "FROM listing_engagement_totals t " +
+           "WHERE t.owner_id = :ownerId AND t.clicks > 0 " +
+           "ORDER BY t.clicks DESC",
+           countQuery = "SELECT COUNT(*) FROM listing_engagement_totals t " +
+           "WHERE t.owner_id = :ownerId AND t.clicks > 0",
+           nativeQuery = true)
+    Page<Object[]> findClickLeaderboard(@Param("ownerId") String ownerId, Pageable pageable);
+
+    @Query(value = "SELECT t.listing_id AS listingId, t.clicks AS cnt " +
+           "FROM listing_engagement_totals t JOIN listings l ON l.listing_id = t.listing_id " +
+           "WHERE t.owner_id = :ownerId AND t.clicks > 0 " +
+           "AND LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "ORDER BY t.clicks DESC",
+           countQuery = "SELECT COUNT(*) FROM listing_engagement_totals t " +
+           "JOIN listings l ON l.listing_id = t.listing_id " +
+           "WHERE t.owner_id = :ownerId AND t.clicks > 0 " +
+           "AND LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%'))",
+           nativeQuery = true)
+    Page<Object[]> findClickLeaderboardWithSearch(
+            @Param("ownerId") String ownerId, @Param("keyword") String keyword, Pageable pageable);
+
+    @Query(value = "SELECT t.listing_id AS listingId, t.saves AS cnt " +
+           "FROM listing_engagement_totals t " +
+           "WHERE t.owner_id = :ownerId AND t.saves > 0 " +
+           "ORDER BY t.saves DESC",
+           countQuery = "SELECT COUNT(*) FROM listing_engagement_totals t " +
+           "WHERE t.owner_id = :ownerId AND t.saves > 0",
+           nativeQuery = true)
+    Page<Object[]> findSaveLeaderboard(@Param("ownerId") String ownerId, Pageable pageable);
+
+    @Query(value = "SELECT t.listing_id AS listingId, t.saves AS cnt " +
+           "FROM listing_engagement_totals t JOIN listings l ON l.listing_id = t.listing_id " +
+           "WHERE t.owner_id = :ownerId AND t.saves > 0 " +
+           "AND LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "ORDER BY t.saves DESC",
+           countQuery = "SELECT COUNT(*) FROM listing_engagement_totals t " +
+           "JOIN listings l ON l.listing_id = t.listing_id " +
+           "WHERE t.owner_id = :ownerId AND t.saves > 0 " +
+           "AND LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%'))",
+           nativeQuery = true)
+    Page<Object[]> findSaveLeaderboardWithSearch(
+            @Param("ownerId") String ownerId, @Param("keyword") String keyword, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(t.clicks), 0) FROM ListingEngagementTotals t WHERE t.ownerId = :ownerId")
+    long sumClicksByOwnerId(@Param("ownerId") String ownerId);
+
+    @Query("SELECT COALESCE(SUM(t.saves), 0) FROM ListingEngagementTotals t WHERE t.ownerId = :ownerId")
+    long sumSavesByOwnerId(@Param("ownerId") String ownerId);
+}
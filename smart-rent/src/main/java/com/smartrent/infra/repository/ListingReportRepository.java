@@ -2,10 +2,13 @@ package com.smartrent.infra.repository;
 
 import com.smartrent.enums.ReportStatus;
 import com.smartrent.infra.repository.entity.ListingReport;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -61,6 +64,18 @@ public interface ListingReportRepository extends JpaRepository<ListingReport, Lo
      */
     List<ListingReport> findByStatusOrderByCreatedAtDesc(ReportStatus status);
 
+    /**
+     * One keyset page of the admin CSV export: reports with an id below {@code beforeId}
+     * (from the newest when null), newest first, optionally by status (null means all).
+     * Only the page size of {@code pageable} is used.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT r FROM listing_reports r WHERE (:status IS NULL OR r.status = :status)"
+            + " AND (:beforeId IS NULL OR r.reportId < :beforeId) ORDER BY r.reportId DESC")
+    List<ListingReport> findPageByStatus(@Param("status") ReportStatus status,
+                                         @Param("beforeId") Long beforeId,
+                                         Pageable pageable);
+
     /**
      * Count reports by status
      */
@@ -76,21 +91,6 @@ public interface ListingReportRepository extends JpaRepository<ListingReport, Lo
      */
     Page<ListingReport> findByResolvedByOrderByResolvedAtDesc(String adminId, Pageable pageable);
 
-    @Query(value = "SELECT DATE(r.created_at) AS label, COUNT(*) AS cnt " +
-            "FROM listing_reports r WHERE r.created_at BETWEEN :start AND :end " +
-            "GROUP BY DATE(r.created_at) ORDER BY label ASC", nativeQuery = true)
-    List<Object[]> countReportsByDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
-    @Query(value = "SELECT DATE_FORMAT(r.created_at, '%Y-%m') AS label, COUNT(*) AS cnt " +
-            "FROM listing_reports r WHERE r.created_at BETWEEN :start AND :end " +
-            "GROUP BY DATE_FORMAT(r.created_at, '%Y-%m') ORDER BY label ASC", nativeQuery = true)
-    List<Object[]> countReportsByMonth(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
-    @Query(value = "SELECT r.category AS label, COUNT(*) AS cnt FROM listing_reports r " +
-            "WHERE r.created_at BETWEEN :start AND :end " +
-            "GROUP BY r.category ORDER BY cnt DESC", nativeQuery = true)
-    List<Object[]> countReportsByCategory(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
     @Query(value = "SELECT r.status AS label, COUNT(*) AS cnt FROM listing_reports r " +
             "WHERE r.created_at BETWEEN :start AND :end " +
             "GROUP BY r.status ORDER BY cnt DESC", nativeQuery = true)
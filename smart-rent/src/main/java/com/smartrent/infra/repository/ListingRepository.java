@@ -671,30 +671,8 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
         @Param("userIds") Collection<String> userIds,
         Pageable pageable);
 
-    @Query(value = "SELECT DATE(l.created_at) AS label, COUNT(*) AS cnt " +
-            "FROM listings l WHERE l.created_at BETWEEN :start AND :end " +
-            "AND l.is_draft = false AND l.is_shadow = false " +
-            "GROUP BY DATE(l.created_at) ORDER BY label ASC", nativeQuery = true)
-    List<Object[]> countNewListingsByDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
-    @Query(value = "SELECT DATE_FORMAT(l.created_at, '%Y-%m') AS label, COUNT(*) AS cnt " +
-            "FROM listings l WHERE l.created_at BETWEEN :start AND :end " +
-            "AND l.is_draft = false AND l.is_shadow = false " +
-            "GROUP BY DATE_FORMAT(l.created_at, '%Y-%m') ORDER BY label ASC", nativeQuery = true)
-    List<Object[]> countNewListingsByMonth(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
     long countByCreatedAtBeforeAndIsDraftFalseAndIsShadowFalse(LocalDateTime dateTime);
 
-    @Query(value = "SELECT l.listing_type AS label, COUNT(*) AS cnt FROM listings l " +
-            "WHERE l.created_at BETWEEN :start AND :end AND l.is_draft = false AND l.is_shadow = false " +
-            "GROUP BY l.listing_type ORDER BY cnt DESC", nativeQuery = true)
-    List<Object[]> countNewListingsByType(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
-    @Query(value = "SELECT l.product_type AS label, COUNT(*) AS cnt FROM listings l " +
-            "WHERE l.created_at BETWEEN :start AND :end AND l.is_draft = false AND l.is_shadow = false " +
-            "GROUP BY l.product_type ORDER BY cnt DESC", nativeQuery = true)
-    List<Object[]> countNewListingsByProductType(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
     @Query(value = "SELECT CASE WHEN l.verified = true THEN 'VERIFIED' ELSE 'UNVERIFIED' END AS label, COUNT(*) AS cnt " +
             "FROM listings l WHERE l.created_at BETWEEN :start AND :end AND l.is_draft = false AND l.is_shadow = false " +
             "GROUP BY l.verified", nativeQuery = true)
@@ -828,6 +806,49 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
         Pageable pageable
     );
 
+    /**
+     * Keyset page of listing ids that can be publicly visible (same coarse
+     * filter as the candidate queries), for the full {@code ListingVectorIndex}
+     * build. The exact visibility rules are applied in Java afterwards.
+     */
+    @Query("""
+        SELECT l.listingId FROM listings l
+        WHERE l.listingId > :afterId
+        AND l.isDraft = false
+        AND l.isShadow = false
+        AND l.verified = true
+        AND l.expired = false
+        ORDER BY l.listingId ASC
+    """)
+    List<Long> findVectorIndexIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * {@code [listingId, updatedAt]} of every listing changed after
+     * {@code since}, keyset-paged on {@code (updatedAt, listingId)}. Includes
+     * listings that became hidden so the vector index can drop them. The
+     * leading {@code updatedAt >= :since} makes it a range scan of
+     * {@code idx_listings_updated_at_id} (V129) from the watermark.
+     */
+    @Query("""
+        SELECT l.listingId, l.updatedAt FROM listings l
+        WHERE l.updatedAt >= :since
+        AND (l.updatedAt > :since OR l.listingId > :afterId)
+        ORDER BY l.updatedAt ASC, l.listingId ASC
+    """)
+    List<Object[]> findIdsUpdatedSince(
+        @Param("since") LocalDateTime since,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /** {@code [listingId, ownerUserId]} for those of {@code ids} that still exist. */
+    @Query("SELECT l.listingId, l.userId FROM listings l WHERE l.listingId IN :ids")
+    List<Object[]> findOwnerIdsByListingIds(@Param("ids") Collection<Long> ids);
+
+    /** {@code [listingId, amenityId]} pairs for the given listings. */
+    @Query(value = "SELECT listing_id, amenity_id FROM listing_amenities WHERE listing_id IN (:ids)", nativeQuery = true)
+    List<Object[]> findAmenityPairsByListingIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Budget-based candidate pool for personalized feed multi-channel retrieval.
      */
@@ -1046,6 +1067,24 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
         @Param("lim")           int     limit
     );
 
+    /**
+     * Titles of the most recently created publicly-visible listings, newest
+     * first. Feeds the title-token vocabulary of the typo-correction index;
+     * ordered by the primary key so the scan is a cheap backward range read.
+     */
+    @Query(nativeQuery = true, value = """
+        SELECT   l.title
+        FROM     listings l
+        WHERE    l.is_draft  = false
+          AND    l.is_shadow = false
+          AND    l.verified  = true
+          AND    l.expired   = false
+          AND    l.title IS NOT NULL
+        ORDER BY l.listing_id DESC
+        LIMIT    :lim
+        """)
+    List<String> findRecentPublicTitles(@Param("lim") int limit);
+
     /**
      * Comparable rental prices near a point, for the price-comparables aggregate
      * endpoint. Returns raw {@code [price, area]} tuples for publicly-visible,
@@ -20,4 +20,11 @@ public interface ListingRepositoryCustom {
     List<Listing> findByCursor(Specification<Listing> spec,
                                List<ListingCursorSupport.CursorKey> keys,
                                int limit);
+
+    /**
+     * Up to {@code size} read-only listings matching {@code spec} with an id below
+     * {@code beforeId} (from the newest when null), newest first: one keyset page
+     * of an export.
+     */
+    List<Listing> findPageBefore(Specification<Listing> spec, Long beforeId, int size);
 }
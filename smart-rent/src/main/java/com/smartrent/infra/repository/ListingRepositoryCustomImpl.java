@@ -8,8 +8,10 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -39,4 +41,27 @@ public class ListingRepositoryCustomImpl implements ListingRepositoryCustom {
 
         return em.createQuery(cq).setMaxResults(limit).getResultList();
     }
+
+    @Override
+    public List<Listing> findPageBefore(Specification<Listing> spec, Long beforeId, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Listing> cq = cb.createQuery(Listing.class);
+        Root<Listing> root = cq.from(Listing.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate p = spec.toPredicate(root, cq, cb);
+        if (p != null) {
+            predicates.add(p);
+        }
+        if (beforeId != null) {
+            predicates.add(cb.lessThan(root.get("listingId"), beforeId));
+        }
+        cq.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("listingId")));
+
+        return em.createQuery(cq)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(size)
+                .getResultList();
+    }
 }
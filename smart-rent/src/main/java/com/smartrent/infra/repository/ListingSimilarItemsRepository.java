@@ -0,0 +1,96 @@
+package com.smartrent.infra.repository;
+
+import com.smartrent.infra.repository.entity.ListingSimilarItems;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for {@link ListingSimilarItems} — the offline similar-listings
+ * table maintained by {@code SimilarListingPrecomputeScheduler}.
+ */
+@Repository
+public interface ListingSimilarItemsRepository extends JpaRepository<ListingSimilarItems, Long> {
+
+    /**
+     * Public listings changed since {@code since} whose similar list is
+     * missing or was computed from an older version of the listing, oldest
+     * change first. A range scan of {@code idx_listings_updated_at_id} (V129).
+     */
+    @Query(nativeQuery = true, value = """
+        SELECT l.listing_id
+        FROM   listings l
+        LEFT JOIN listing_similar_items s ON s.listing_id = l.listing_id
+        WHERE  l.updated_at >= :since
+          AND  l.is_draft = false AND l.is_shadow = false
+          AND  l.verified = true AND l.expired = false
+          AND  (s.listing_id IS NULL
+                OR s.source_updated_at IS NULL
+                OR l.updated_at > s.source_updated_at)
+        ORDER BY l.updated_at, l.listing_id
+        LIMIT  :limit
+        """)
+    List<Long> findChangedListingIdsNeedingRefresh(@Param("since") LocalDateTime since,
+                                                   @Param("limit") int limit);
+
+    /**
+     * Public listings after {@code afterId} that have no row at all, in id
+     * order — the backfill of listings not changed recently enough for
+     * {@link #findChangedListingIdsNeedingRefresh}. Walks the primary key.
+     */
+    @Query(nativeQuery = true, value = """
+        SELECT l.listing_id
+        FROM   listings l
+        LEFT JOIN listing_similar_items s ON s.listing_id = l.listing_id
+        WHERE  l.listing_id > :afterId
+          AND  l.is_draft = false AND l.is_shadow = false
+          AND  l.verified = true AND l.expired = false
+          AND  s.listing_id IS NULL
+        ORDER BY l.listing_id
+        LIMIT  :limit
+        """)
+    List<Long> findMissingListingIdsAfter(@Param("afterId") long afterId,
+                                          @Param("limit") int limit);
+
+    /**
+     * Rows computed before {@code staleBefore}, oldest first, so listings
+     * posted since then get a chance to enter them. A range scan of
+     * {@code idx_listing_similar_items_computed_at}.
+     */
+    @Query(nativeQuery = true, value = """
+        SELECT s.listing_id
+        FROM   listing_similar_items s
+        WHERE  s.computed_at < :staleBefore
+        ORDER BY s.computed_at
+        LIMIT  :limit
+        """)
+    List<Long> findListingIdsComputedBefore(@Param("staleBefore") LocalDateTime staleBefore,
+                                            @Param("limit") int limit);
+
+    /** Drops rows of listings changed since {@code since} that are no longer public. */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        DELETE s FROM listing_similar_items s
+        JOIN   listings l ON l.listing_id = s.listing_id
+        WHERE  l.updated_at >= :since
+          AND  (l.is_draft = true OR l.is_shadow = true
+                OR l.verified = false OR l.expired = true)
+        """)
+    int deleteForListingsHiddenSince(@Param("since") LocalDateTime since);
+
+    /** Drops rows for listings that were deleted or are no longer public. */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        DELETE s FROM listing_similar_items s
+        LEFT JOIN listings l ON l.listing_id = s.listing_id
+        WHERE  l.listing_id IS NULL
+           OR  l.is_draft = true OR l.is_shadow = true
+           OR  l.verified = false OR l.expired = true
+        """)
+    int deleteForNonPublicListings();
+}
@@ -0,0 +1,24 @@
+package com.smartrent.infra.repository;
+
+import com.smartrent.infra.repository.entity.OwnerLead;
+import com.smartrent.infra.repository.entity.OwnerLeadId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OwnerLeadRepository extends JpaRepository<OwnerLead, OwnerLeadId> {
+
+    /**
+     * Users who clicked on any of the owner's listings, most recent lead first (paginated)
+     */
+    @Query(value = "SELECT ol.id.userId FROM owner_leads ol WHERE ol.id.ownerId = :ownerId " +
+           "ORDER BY ol.lastClickedAt DESC",
+           countQuery = "SELECT COUNT(ol) FROM owner_leads ol WHERE ol.id.ownerId = :ownerId")
+    Page<String> findRecentLeadUserIds(@Param("ownerId") String ownerId, Pageable pageable);
+
+    long countByIdOwnerId(String ownerId);
+}
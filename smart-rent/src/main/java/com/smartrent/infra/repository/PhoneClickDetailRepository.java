@@ -8,8 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -118,14 +118,10 @@ public interface PhoneClickDetailRepository extends JpaRepository<PhoneClickDeta
     Page<String> findDistinctUserIdsByListingId(@Param("listingId") Long listingId, Pageable pageable);
 
     /**
-     * Get all phone clicks for a specific listing by a specific user
+     * All distinct user IDs who clicked on a listing's phone number (seeds the clicker HyperLogLog)
      */
-    @Query("SELECT pc FROM phone_clicks pc " +
-           "WHERE pc.listing.listingId = :listingId AND pc.user.userId = :userId " +
-           "ORDER BY pc.clickedAt DESC")
-    List<PhoneClickDetail> findByListingIdAndUserId(
-            @Param("listingId") Long listingId,
-            @Param("userId") String userId);
+    @Query("SELECT DISTINCT pc.user.userId FROM phone_clicks pc WHERE pc.listing.listingId = :listingId")
+    List<String> findClickerIdsByListingId(@Param("listingId") Long listingId);
 
     /**
      * Count distinct users who clicked on a specific listing
@@ -134,13 +130,6 @@ public interface PhoneClickDetailRepository extends JpaRepository<PhoneClickDeta
            "WHERE pc.listing.listingId = :listingId")
     long countDistinctUsersForListing(@Param("listingId") Long listingId);
 
-    /**
-     * Get distinct user IDs who clicked on any listing owned by a specific user (paginated)
-     */
-    @Query("SELECT DISTINCT pc.user.userId FROM phone_clicks pc " +
-           "WHERE pc.listing.userId = :ownerId")
-    Page<String> findDistinctUserIdsByListingOwnerId(@Param("ownerId") String ownerId, Pageable pageable);
-
     /**
      * Search distinct user IDs who clicked on any listing owned by a specific user,
      * filtered by a keyword matched against the clicking user's name, email or contact phone (paginated)
@@ -158,37 +147,37 @@ public interface PhoneClickDetailRepository extends JpaRepository<PhoneClickDeta
             Pageable pageable);
 
     /**
-     * Get all phone clicks for listings owned by a specific user, filtered by clicking user
+     * Click times of a page of users on a specific listing, most recent first
+     *
+     * @return rows of [userId (String), clickedAt (LocalDateTime)]
      */
-    @Query("SELECT pc FROM phone_clicks pc " +
-           "WHERE pc.listing.userId = :ownerId AND pc.user.userId = :clickingUserId " +
+    @Query("SELECT pc.user.userId, pc.clickedAt FROM phone_clicks pc " +
+           "WHERE pc.listing.listingId = :listingId AND pc.user.userId IN :userIds " +
            "ORDER BY pc.clickedAt DESC")
-    List<PhoneClickDetail> findByListingOwnerIdAndClickingUserId(
+    List<Object[]> findClickTimesByListingIdAndUserIds(
+            @Param("listingId") Long listingId,
+            @Param("userIds") Collection<String> userIds);
+
+    /**
+     * Per-listing click summary of a page of users on the listings owned by a specific user
+     *
+     * @return rows of [userId (String), listingId (Long), title (String), lastClickedAt (LocalDateTime), clickCount (Long)]
+     */
+    @Query("SELECT pc.user.userId, pc.listing.listingId, pc.listing.title, MAX(pc.clickedAt), COUNT(pc) " +
+           "FROM phone_clicks pc " +
+           "WHERE pc.listing.userId = :ownerId AND pc.user.userId IN :userIds " +
+           "GROUP BY pc.user.userId, pc.listing.listingId, pc.listing.title")
+    List<Object[]> summarizeClicksByListingOwnerIdAndUserIds(
             @Param("ownerId") String ownerId,
-            @Param("clickingUserId") String clickingUserId);
+            @Param("userIds") Collection<String> userIds);
 
     long countByListing_ListingIdAndClickedAtAfter(Long listingId, LocalDateTime since);
 
-    @Query("SELECT CAST(pc.clickedAt AS LocalDate) AS clickDate, COUNT(pc) AS cnt " +
-           "FROM phone_clicks pc WHERE pc.listing.listingId = :listingId " +
-           "GROUP BY CAST(pc.clickedAt AS LocalDate) ORDER BY clickDate ASC")
-    List<Object[]> countClicksGroupedByDate(@Param("listingId") Long listingId);
-
-    @Query("SELECT FUNCTION('DAYOFWEEK', pc.clickedAt) AS dow, COUNT(pc) AS cnt " +
-           "FROM phone_clicks pc WHERE pc.listing.listingId = :listingId " +
-           "GROUP BY FUNCTION('DAYOFWEEK', pc.clickedAt)")
-    List<Object[]> countClicksGroupedByDayOfWeek(@Param("listingId") Long listingId);
-
     @Query("SELECT pc.listing.listingId AS listingId, COUNT(pc) AS cnt " +
            "FROM phone_clicks pc WHERE pc.listing.userId = :ownerId " +
            "GROUP BY pc.listing.listingId")
     List<Object[]> countClicksPerListingForOwner(@Param("ownerId") String ownerId);
 
-    @Query(value = "SELECT listing_id, DATE(clicked_at) AS click_date, COUNT(*) AS cnt " +
-           "FROM phone_clicks WHERE DATE(clicked_at) = :targetDate " +
-           "GROUP BY listing_id, DATE(clicked_at)", nativeQuery = true)
-    List<Object[]> countClicksGroupedByListingAndDate(@Param("targetDate") LocalDate targetDate);
-
     // ─── Date-range-aware analytics queries ───
 
     @Query("SELECT CAST(pc.clickedAt AS LocalDate) AS clickDate, COUNT(pc) AS cnt " +
@@ -197,50 +186,6 @@ public interface PhoneClickDetailRepository extends JpaRepository<PhoneClickDeta
            "GROUP BY CAST(pc.clickedAt AS LocalDate) ORDER BY clickDate ASC")
     List<Object[]> countClicksGroupedByDateSince(@Param("listingId") Long listingId, @Param("since") LocalDateTime since);
 
-    @Query("SELECT FUNCTION('DAYOFWEEK', pc.clickedAt) AS dow, COUNT(pc) AS cnt " +
-           "FROM phone_clicks pc WHERE pc.listing.listingId = :listingId " +
-           "AND pc.clickedAt >= :since " +
-           "GROUP BY FUNCTION('DAYOFWEEK', pc.clickedAt)")
-    List<Object[]> countClicksGroupedByDayOfWeekSince(@Param("listingId") Long listingId, @Param("since") LocalDateTime since);
-
-    long countByListing_ListingIdAndClickedAtBetween(Long listingId, LocalDateTime start, LocalDateTime end);
-
-    // ─── Paginated owner analytics ───
-
-    @Query(value = "SELECT pc.listing_id AS listingId, COUNT(*) AS cnt " +
-           "FROM phone_clicks pc JOIN listings l ON pc.listing_id = l.listing_id " +
-           "WHERE l.user_id = :ownerId " +
-           "GROUP BY pc.listing_id ORDER BY cnt DESC",
-           countQuery = "SELECT COUNT(DISTINCT pc.listing_id) " +
-           "FROM phone_clicks pc JOIN listings l ON pc.listing_id = l.listing_id " +
-           "WHERE l.user_id = :ownerId",
-           nativeQuery = true)
-    Page<Object[]> countClicksPerListingForOwnerPaged(@Param("ownerId") String ownerId, Pageable pageable);
-
-    @Query(value = "SELECT pc.listing_id AS listingId, COUNT(*) AS cnt " +
-           "FROM phone_clicks pc JOIN listings l ON pc.listing_id = l.listing_id " +
-           "WHERE l.user_id = :ownerId AND LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-           "GROUP BY pc.listing_id ORDER BY cnt DESC",
-           countQuery = "SELECT COUNT(DISTINCT pc.listing_id) " +
-           "FROM phone_clicks pc JOIN listings l ON pc.listing_id = l.listing_id " +
-           "WHERE l.user_id = :ownerId AND LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%'))",
-           nativeQuery = true)
-    Page<Object[]> countClicksPerListingForOwnerPagedWithSearch(
-            @Param("ownerId") String ownerId, @Param("keyword") String keyword, Pageable pageable);
-
-    /**
-     * Count total phone clicks across ALL listings owned by a user (not paginated).
-     * Used for owner-wide dashboard/customer stats, independent of page size.
-     */
-    @Query("SELECT COUNT(pc) FROM phone_clicks pc WHERE pc.listing.userId = :ownerId")
-    long countByListingOwnerId(@Param("ownerId") String ownerId);
-
-    /**
-     * Count distinct users who clicked on any listing owned by a user (not paginated).
-     */
-    @Query("SELECT COUNT(DISTINCT pc.user.userId) FROM phone_clicks pc WHERE pc.listing.userId = :ownerId")
-    long countDistinctUsersByListingOwnerId(@Param("ownerId") String ownerId);
-
     // ─── Recommendation Signal Queries ───
 
     /**
@@ -0,0 +1,9 @@
+package com.smartrent.infra.repository;
+
+import com.smartrent.infra.repository.entity.RetentionCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RetentionCursorRepository extends JpaRepository<RetentionCursor, String> {
+}
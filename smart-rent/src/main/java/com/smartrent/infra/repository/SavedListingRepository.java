@@ -36,12 +36,6 @@ public interface SavedListingRepository extends JpaRepository<SavedListing, Save
 
     // ─── Owner Analytics: Saved Listings Trend ───
 
-    @Query(value = "SELECT DATE(sl.created_at) AS save_date, COUNT(*) AS save_count " +
-            "FROM saved_listings sl " +
-            "WHERE sl.listing_id = :listingId " +
-            "GROUP BY DATE(sl.created_at) ORDER BY save_date ASC", nativeQuery = true)
-    List<Object[]> countSavesGroupedByDate(@Param("listingId") Long listingId);
-
     @Query(value = "SELECT sl.listing_id, COUNT(*) AS save_count " +
             "FROM saved_listings sl " +
             "JOIN listings l ON sl.listing_id = l.listing_id " +
@@ -49,12 +43,6 @@ public interface SavedListingRepository extends JpaRepository<SavedListing, Save
             "GROUP BY sl.listing_id ORDER BY save_count DESC", nativeQuery = true)
     List<Object[]> countSavesPerListingForOwner(@Param("ownerId") String ownerId);
 
-    @Query(value = "SELECT COUNT(*) " +
-            "FROM saved_listings sl " +
-            "JOIN listings l ON sl.listing_id = l.listing_id " +
-            "WHERE l.user_id = :ownerId", nativeQuery = true)
-    long countTotalSavesForOwner(@Param("ownerId") String ownerId);
-
     @Query(value = "SELECT sl.listing_id, COUNT(*) AS save_count " +
             "FROM saved_listings sl " +
             "JOIN listings l ON sl.listing_id = l.listing_id " +
@@ -71,37 +59,12 @@ public interface SavedListingRepository extends JpaRepository<SavedListing, Save
 
     long countByIdListingId(Long listingId);
 
-    long countByIdListingIdAndCreatedAtGreaterThanEqual(Long listingId, LocalDateTime since);
-
     @Query(value = "SELECT DATE(sl.created_at) AS save_date, COUNT(*) AS save_count " +
             "FROM saved_listings sl " +
             "WHERE sl.listing_id = :listingId AND sl.created_at >= :since " +
             "GROUP BY DATE(sl.created_at) ORDER BY save_date ASC", nativeQuery = true)
     List<Object[]> countSavesGroupedByDateSince(@Param("listingId") Long listingId, @Param("since") LocalDateTime since);
 
-    @Query(value = "SELECT sl.listing_id, COUNT(*) AS save_count " +
-            "FROM saved_listings sl " +
-            "JOIN listings l ON sl.listing_id = l.listing_id " +
-            "WHERE l.user_id = :ownerId " +
-            "GROUP BY sl.listing_id ORDER BY save_count DESC",
-            countQuery = "SELECT COUNT(DISTINCT sl.listing_id) " +
-            "FROM saved_listings sl JOIN listings l ON sl.listing_id = l.listing_id " +
-            "WHERE l.user_id = :ownerId",
-            nativeQuery = true)
-    Page<Object[]> countSavesPerListingForOwnerPaged(@Param("ownerId") String ownerId, Pageable pageable);
-
-    @Query(value = "SELECT sl.listing_id, COUNT(*) AS save_count " +
-            "FROM saved_listings sl " +
-            "JOIN listings l ON sl.listing_id = l.listing_id " +
-            "WHERE l.user_id = :ownerId AND LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "GROUP BY sl.listing_id ORDER BY save_count DESC",
-            countQuery = "SELECT COUNT(DISTINCT sl.listing_id) " +
-            "FROM saved_listings sl JOIN listings l ON sl.listing_id = l.listing_id " +
-            "WHERE l.user_id = :ownerId AND LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%'))",
-            nativeQuery = true)
-    Page<Object[]> countSavesPerListingForOwnerPagedWithSearch(
-            @Param("ownerId") String ownerId, @Param("keyword") String keyword, Pageable pageable);
-
     // ─── Recommendation Signal Queries ───
 
     /**
@@ -28,4 +28,19 @@ public interface StreetRepository extends JpaRepository<Street, Integer> {
     Page<Street> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
     Optional<Street> findById(Integer id);
-}
\ No newline at end of file
+
+    /**
+     * Change fingerprint {@code [count, max(id)]} for the in-memory location
+     * index. The street table has no {@code updated_at}, so the row count plus
+     * the highest id is the best available watermark.
+     */
+    @Query("SELECT COUNT(s), MAX(s.id) FROM Street s")
+    List<Object[]> findChangeFingerprint();
+
+    /**
+     * Slim rows for the in-memory location index:
+     * {@code [id, name, prefix, provinceId, districtId]} (legacy ids).
+     */
+    @Query("SELECT s.id, s.name, s.prefix, s.provinceId, s.districtId FROM Street s WHERE s.name IS NOT NULL")
+    List<Object[]> findSearchIndexRows();
+}
@@ -20,7 +20,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, String>, JpaSpecificationExecutor<Transaction> {
+public interface TransactionRepository extends JpaRepository<Transaction, String>, JpaSpecificationExecutor<Transaction>, TransactionRepositoryCustom {
 
     List<Transaction> findByUserId(String userId);
 
@@ -65,26 +65,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, String
     @Query("SELECT t FROM transactions t WHERE t.userId = :userId AND t.status = :status ORDER BY t.createdAt DESC")
     Page<Transaction> findByUserIdAndStatusOrderByCreatedAtDesc(@Param("userId") String userId, @Param("status") TransactionStatus status, Pageable pageable);
 
-    // ─── Admin Dashboard: Revenue Over Time ───
-
-    @Query(value = "SELECT DATE(t.created_at) AS revenue_date, SUM(t.amount) AS total_amount, COUNT(*) AS tx_count " +
-            "FROM transactions t " +
-            "WHERE t.status = 'COMPLETED' AND t.created_at BETWEEN :startDate AND :endDate " +
-            "GROUP BY DATE(t.created_at) ORDER BY revenue_date ASC", nativeQuery = true)
-    List<Object[]> findDailyRevenue(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-
-    @Query(value = "SELECT t.transaction_type, SUM(t.amount) AS total_amount, COUNT(*) AS tx_count " +
-            "FROM transactions t " +
-            "WHERE t.status = 'COMPLETED' AND t.created_at BETWEEN :startDate AND :endDate " +
-            "GROUP BY t.transaction_type ORDER BY total_amount DESC", nativeQuery = true)
-    List<Object[]> findRevenueGroupedByType(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-
-    @Query(value = "SELECT DATE_FORMAT(t.created_at, '%Y-%m') AS revenue_month, SUM(t.amount) AS total_amount, COUNT(*) AS tx_count " +
-            "FROM transactions t " +
-            "WHERE t.status = 'COMPLETED' AND t.created_at BETWEEN :startDate AND :endDate " +
-            "GROUP BY DATE_FORMAT(t.created_at, '%Y-%m') ORDER BY revenue_month ASC", nativeQuery = true)
-    List<Object[]> findMonthlyRevenue(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-
     @Modifying
     @Query("UPDATE transactions t SET t.status = 'CANCELLED', t.updatedAt = CURRENT_TIMESTAMP " +
             "WHERE t.status = 'PENDING' AND t.createdAt < :cutoff")
@@ -0,0 +1,36 @@
+package com.smartrent.infra.repository;
+
+import com.smartrent.infra.repository.entity.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Queries over a transaction {@link Specification} that must not load every
+ * matching row at once: grouped aggregates computed in the database, and
+ * keyset pages for exports.
+ */
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Transactions matching {@code spec}, grouped by status.
+     *
+     * @return rows of [status (TransactionStatus), count (Long), summed amount (BigDecimal, null when none)]
+     */
+    List<Object[]> countAndSumByStatus(Specification<Transaction> spec);
+
+    /**
+     * COMPLETED transactions matching {@code spec}, grouped by the calendar day
+     * of {@code createdAt}, or by its month when {@code monthly}.
+     *
+     * @return rows of [year (Integer), month (Integer), day (Integer, absent when monthly),
+     *         count (Long), summed amount (BigDecimal)] in period order
+     */
+    List<Object[]> sumCompletedByPeriod(Specification<Transaction> spec, boolean monthly);
+
+    /**
+     * Up to {@code size} read-only transactions matching {@code spec} with an id after
+     * {@code afterId} (from the start when null), in id order: one keyset page of an export.
+     */
+    List<Transaction> findPageAfter(Specification<Transaction> spec, String afterId, int size);
+}
@@ -0,0 +1,103 @@
+package com.smartrent.infra.repository;
+
+import com.smartrent.enums.TransactionStatus;
+import com.smartrent.infra.repository.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spring Data picks this up by the {@code <RepositoryName>Impl} naming convention
+ * (same package as {@link TransactionRepository}).
+ */
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Object[]> countAndSumByStatus(Specification<Transaction> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        Root<Transaction> root = cq.from(Transaction.class);
+
+        Predicate p = spec.toPredicate(root, cq, cb);
+        if (p != null) {
+            cq.where(p);
+        }
+        cq.multiselect(root.get("status"), cb.count(root), cb.sum(root.<BigDecimal>get("amount")))
+                .groupBy(root.get("status"));
+
+        return em.createQuery(cq).getResultList();
+    }
+
+    @Override
+    public List<Object[]> sumCompletedByPeriod(Specification<Transaction> spec, boolean monthly) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        Root<Transaction> root = cq.from(Transaction.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate p = spec.toPredicate(root, cq, cb);
+        if (p != null) {
+            predicates.add(p);
+        }
+        predicates.add(cb.equal(root.get("status"), TransactionStatus.COMPLETED));
+        predicates.add(cb.isNotNull(root.get("createdAt")));
+        cq.where(predicates.toArray(new Predicate[0]));
+
+        // Year/month/day parts rather than a formatted string: no literal pattern
+        // argument that would have to match between SELECT and GROUP BY.
+        Expression<LocalDateTime> createdAt = root.get("createdAt");
+        List<Expression<?>> period = new ArrayList<>();
+        period.add(cb.function("YEAR", Integer.class, createdAt));
+        period.add(cb.function("MONTH", Integer.class, createdAt));
+        if (!monthly) {
+            period.add(cb.function("DAY", Integer.class, createdAt));
+        }
+
+        List<Selection<?>> columns = new ArrayList<>(period);
+        columns.add(cb.count(root));
+        columns.add(cb.sum(root.<BigDecimal>get("amount")));
+        cq.multiselect(columns)
+                .groupBy(period)
+                .orderBy(period.stream().map(cb::asc).toList());
+
+        return em.createQuery(cq).getResultList();
+    }
+
+    @Override
+    public List<Transaction> findPageAfter(Specification<Transaction> spec, String afterId, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Transaction> cq = cb.createQuery(Transaction.class);
+        Root<Transaction> root = cq.from(Transaction.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate p = spec.toPredicate(root, cq, cb);
+        if (p != null) {
+            predicates.add(p);
+        }
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(root.get("transactionId"), afterId));
+        }
+        cq.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("transactionId")));
+
+        return em.createQuery(cq)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
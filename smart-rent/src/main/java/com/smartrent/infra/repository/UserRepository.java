@@ -24,16 +24,6 @@ public interface UserRepository extends JpaRepository<User, String>, JpaSpecific
 
         boolean existsByTaxNumber(String taxNumber);
 
-        @Query(value = "SELECT DATE(u.created_at) AS label, COUNT(*) AS cnt " +
-                        "FROM users u WHERE u.created_at BETWEEN :start AND :end " +
-                        "GROUP BY DATE(u.created_at) ORDER BY label ASC", nativeQuery = true)
-        List<Object[]> countNewUsersByDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
-        @Query(value = "SELECT DATE_FORMAT(u.created_at, '%Y-%m') AS label, COUNT(*) AS cnt " +
-                        "FROM users u WHERE u.created_at BETWEEN :start AND :end " +
-                        "GROUP BY DATE_FORMAT(u.created_at, '%Y-%m') ORDER BY label ASC", nativeQuery = true)
-        List<Object[]> countNewUsersByMonth(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
         long countByCreatedAtBefore(LocalDateTime dateTime);
 
         // Classifies by whether the user ever submitted a broker application (verification
@@ -2,9 +2,12 @@ package com.smartrent.infra.repository;
 
 import com.smartrent.infra.repository.entity.View;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface ViewRepository extends JpaRepository<View, Long> {
@@ -15,4 +18,10 @@ public interface ViewRepository extends JpaRepository<View, Long> {
 
     boolean existsByIpAddressAndListing_ListingIdAndViewedAtAfter(
             String ipAddress, Long listingId, LocalDateTime after);
+
+    @Query("SELECT CAST(v.viewedAt AS LocalDate) AS viewDate, COUNT(v) AS cnt " +
+           "FROM views v WHERE v.listing.listingId = :listingId " +
+           "AND v.viewedAt >= :since " +
+           "GROUP BY CAST(v.viewedAt AS LocalDate)")
+    List<Object[]> countViewsGroupedByDateSince(@Param("listingId") Long listingId, @Param("since") LocalDateTime since);
 }
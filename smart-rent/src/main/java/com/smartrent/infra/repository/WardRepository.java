@@ -49,4 +49,22 @@ public interface WardRepository extends JpaRepository<Ward, Integer> {
             "LOWER(w.keywords) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "ORDER BY w.name")
     Page<Ward> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Distinct new-structure ward short names for in-memory search
+     * vocabularies (scalar projection — no entity hydration).
+     */
+    @Query("SELECT DISTINCT w.shortName FROM Ward w WHERE w.shortName IS NOT NULL")
+    List<String> findDistinctShortNames();
+
+    /** Change fingerprint {@code [count, max(updated_at)]} for the in-memory location index. */
+    @Query("SELECT COUNT(w), MAX(w.updatedAt) FROM Ward w")
+    List<Object[]> findChangeFingerprint();
+
+    /**
+     * Slim rows for the in-memory location index:
+     * {@code [id, code, name, shortName, provinceCode, provinceName]}.
+     */
+    @Query("SELECT w.id, w.code, w.name, w.shortName, w.provinceCode, w.provinceName FROM Ward w")
+    List<Object[]> findSearchIndexRows();
+}
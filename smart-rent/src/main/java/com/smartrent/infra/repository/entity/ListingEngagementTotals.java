@@ -0,0 +1,47 @@
+package com.smartrent.infra.repository.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * All-time engagement of one listing, maintained by the transactions that
+ * insert views, phone clicks and saves. See V125.
+ */
+@Entity
+@Table(
+    name = "listing_engagement_totals",
+    indexes = {
+        @Index(name = "idx_listing_engagement_totals_owner_clicks", columnList = "owner_id, clicks"),
+        @Index(name = "idx_listing_engagement_totals_owner_saves", columnList = "owner_id, saves")
+    }
+)
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ListingEngagementTotals {
+
+    @Id
+    @Column(name = "listing_id")
+    Long listingId;
+
+    @Column(name = "owner_id", nullable = false, length = 36)
+    String ownerId;
+
+    @Column(name = "views", nullable = false)
+    Long views;
+
+    @Column(name = "clicks", nullable = false)
+    Long clicks;
+
+    @Column(name = "saves", nullable = false)
+    Long saves;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    LocalDateTime updatedAt;
+}
@@ -0,0 +1,43 @@
+package com.smartrent.infra.repository.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed top-N similar listings for one public listing, written by
+ * {@code SimilarListingPrecomputeScheduler} and read by
+ * {@code getSimilarListings}. See V123 for the column semantics.
+ */
+@Entity
+@Table(
+    name = "listing_similar_items",
+    indexes = {
+        @Index(name = "idx_listing_similar_items_computed_at", columnList = "computed_at")
+    }
+)
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ListingSimilarItems {
+
+    @Id
+    @Column(name = "listing_id")
+    Long listingId;
+
+    /** {@code "listingId:score"} pairs, best first, comma-separated. */
+    @Column(name = "similar_items", nullable = false, length = 2048)
+    String similarItems;
+
+    /** The listing's {@code updated_at} this row was computed from. */
+    @Column(name = "source_updated_at")
+    LocalDateTime sourceUpdatedAt;
+
+    @Column(name = "computed_at", nullable = false)
+    LocalDateTime computedAt;
+}
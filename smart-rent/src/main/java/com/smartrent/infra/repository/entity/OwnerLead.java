@@ -0,0 +1,39 @@
+package com.smartrent.infra.repository.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user who clicked a phone number on any of an owner's listings, with how
+ * often and when. Maintained by the phone-click insert. See V125.
+ */
+@Entity(name = "owner_leads")
+@Table(
+    name = "owner_leads",
+    indexes = {
+        @Index(name = "idx_owner_leads_recent", columnList = "owner_id, last_clicked_at")
+    }
+)
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OwnerLead {
+
+    @EmbeddedId
+    OwnerLeadId id;
+
+    @Column(name = "click_count", nullable = false)
+    Integer clickCount;
+
+    @Column(name = "first_clicked_at", nullable = false)
+    LocalDateTime firstClickedAt;
+
+    @Column(name = "last_clicked_at", nullable = false)
+    LocalDateTime lastClickedAt;
+}
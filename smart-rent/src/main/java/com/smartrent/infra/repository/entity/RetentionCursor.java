@@ -0,0 +1,32 @@
+package com.smartrent.infra.repository.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position of one table's retention sweep: every row with an id up to
+ * {@code lastId} has been examined in the current pass. See V128.
+ */
+@Entity
+@Table(name = "retention_cursors")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RetentionCursor {
+
+    @Id
+    @Column(name = "table_name", length = 64)
+    String tableName;
+
+    @Column(name = "last_id", nullable = false)
+    Long lastId;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    LocalDateTime updatedAt;
+}
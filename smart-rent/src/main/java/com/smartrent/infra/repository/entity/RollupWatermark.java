@@ -0,0 +1,32 @@
+package com.smartrent.infra.repository.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one incremental rollup: every hour before {@code rolledUpTo}
+ * has been processed. See V124.
+ */
+@Entity
+@Table(name = "rollup_watermarks")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RollupWatermark {
+
+    @Id
+    @Column(name = "rollup_name", length = 64)
+    String rollupName;
+
+    @Column(name = "rolled_up_to", nullable = false)
+    LocalDateTime rolledUpTo;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    LocalDateTime updatedAt;
+}
@@ -0,0 +1,77 @@
+package com.smartrent.service.admin.analytics;
+
+import com.smartrent.infra.repository.RollupWatermarkRepository;
+import com.smartrent.infra.repository.entity.RollupWatermark;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Daily facts of one {@link AdminFactMetric} over a range of days: the days
+ * before the cube watermark are read from {@code admin_daily_facts}, the
+ * rest (normally only today) from the raw tables with the metric's own
+ * daily query. Before the first close every day is read live.
+ */
+@Component
+public class AdminFactCubeReader {
+
+    /** One day and dimension value of a metric; {@code dimension} is null for a NULL value or no breakdown. */
+    public record Fact(LocalDate date, String dimension, long count, BigDecimal amount) {}
+
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AdminFactCubeReader(RollupWatermarkRepository rollupWatermarkRepository) {
+        this.rollupWatermarkRepository = rollupWatermarkRepository;
+    }
+
+    /** Facts of {@code metric} for the days {@code from} to {@code to}, both inclusive. */
+    @Transactional(readOnly = true)
+    public List<Fact> facts(AdminFactMetric metric, LocalDate from, LocalDate to) {
+        LocalDate end = to.plusDays(1);
+        LocalDate closedUntil = rollupWatermarkRepository.findById(AdminFactCubeService.ROLLUP_NAME)
+                .map(RollupWatermark::getRolledUpTo)
+                .map(LocalDateTime::toLocalDate)
+                .orElse(from);
+
+        List<Fact> facts = new ArrayList<>();
+        LocalDate liveFrom = from;
+        if (closedUntil.isAfter(from)) {
+            LocalDate cubeEnd = closedUntil.isBefore(end) ? closedUntil : end;
+            addRows(facts, entityManager.createNativeQuery(
+                            "SELECT fact_date, dimension, fact_count, fact_amount FROM admin_daily_facts "
+                                    + "WHERE metric = ?1 AND fact_date >= ?2 AND fact_date < ?3")
+                    .setParameter(1, metric.name())
+                    .setParameter(2, from)
+                    .setParameter(3, cubeEnd)
+                    .getResultList());
+            liveFrom = cubeEnd;
+        }
+        if (liveFrom.isBefore(end)) {
+            addRows(facts, entityManager.createNativeQuery(metric.dailyQuery())
+                    .setParameter(1, liveFrom.atStartOfDay())
+                    .setParameter(2, end.atStartOfDay())
+                    .getResultList());
+        }
+        return facts;
+    }
+
+    private static void addRows(List<Fact> facts, List<?> rows) {
+        for (Object row : rows) {
+            Object[] cols = (Object[]) row;
+            String dimension = cols[1] == null || cols[1].toString().isEmpty() ? null : cols[1].toString();
+            LocalDate date = cols[0] instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) cols[0];
+            facts.add(new Fact(date, dimension,
+                    ((Number) cols[2]).longValue(), new BigDecimal(cols[3].toString())));
+        }
+    }
+}
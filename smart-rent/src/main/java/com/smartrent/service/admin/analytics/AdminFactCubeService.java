@@ -0,0 +1,43 @@
+package com.smartrent.service.admin.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Maintains the admin daily fact cube ({@code admin_daily_facts}) read by
+ * {@link AdminFactCubeReader}.
+ */
+public interface AdminFactCubeService {
+
+    /** Name of the cube's row in {@code rollup_watermarks}; every day before it is closed. */
+    String ROLLUP_NAME = "admin_daily_facts";
+
+    /** Row in {@code rollup_watermarks} up to which updated rows have been restated. */
+    String CHANGES_NAME = "admin_daily_facts:changes";
+
+    /**
+     * Closes the days completed since the stored watermark, re-closing the
+     * last {@code restate-days} closed days too, and advances it. The first
+     * run backfills all history. Returns the number of cube rows written.
+     */
+    int closeNewDays();
+
+    /**
+     * Closes again the closed days whose rows were updated since the last
+     * call (see {@link AdminFactMetric#changedDaysQuery()}) or marked by
+     * {@link #markChanged}. Returns the number of cube rows written.
+     */
+    int restateChangedDays();
+
+    /**
+     * Marks {@code day} to be closed again by the next
+     * {@link #restateChangedDays}, in the caller's transaction. For changes
+     * that leave no updated row behind, such as a deleted listing or user.
+     */
+    void markChanged(LocalDate day);
+
+    /**
+     * Recloses the days in {@code [from, to)} in chunks, in parallel. Does not
+     * move the watermark. Returns the number of cube rows written.
+     */
+    int backfill(LocalDate from, LocalDate to);
+}
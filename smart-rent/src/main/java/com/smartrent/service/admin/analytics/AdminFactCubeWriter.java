@@ -0,0 +1,143 @@
+package com.smartrent.service.admin.analytics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Closes a range of days into {@code admin_daily_facts}: for every
+ * {@link AdminFactMetric}, the cube rows of those days are deleted and
+ * recomputed from the raw tables in one {@code INSERT … SELECT}.
+ *
+ * <p>Closing a range again (a restated day, an overlapping backfill) simply
+ * replaces its rows, including dimension values that no longer occur. The
+ * days to close again because their rows changed are found through
+ * {@link #changedDays} and {@link #markedDays}.
+ */
+@Component
+public class AdminFactCubeWriter {
+
+    private static final String DELETE_DAYS =
+            "DELETE FROM admin_daily_facts WHERE metric = ?1 AND fact_date >= ?2 AND fact_date < ?3";
+
+    private static final String MARK_DAY =
+            "INSERT INTO admin_fact_dirty_days (fact_date, marks) VALUES (?1, 1) ON DUPLICATE KEY UPDATE marks = marks + 1";
+
+    private static final String UNMARK_DAY = "DELETE FROM admin_fact_dirty_days WHERE fact_date = ?1 AND marks = ?2";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Recomputes the days in {@code [from, to)}; returns the number of cube rows written. */
+    @Transactional
+    public int closeDays(LocalDate from, LocalDate to) {
+        int rows = 0;
+        for (AdminFactMetric metric : AdminFactMetric.values()) {
+            entityManager.createNativeQuery(DELETE_DAYS)
+                    .setParameter(1, metric.name())
+                    .setParameter(2, from)
+                    .setParameter(3, to)
+                    .executeUpdate();
+            // The metric name is an enum constant, so it is inlined rather than bound:
+            // the daily query already owns the ?1 / ?2 positions.
+            rows += entityManager.createNativeQuery(
+                            "INSERT INTO admin_daily_facts (metric, fact_date, dimension, fact_count, fact_amount) "
+                                    + "SELECT '" + metric.name() + "', f.fact_date, f.dimension, f.fact_count, f.fact_amount "
+                                    + "FROM (" + metric.dailyQuery() + ") f")
+                    .setParameter(1, from.atStartOfDay())
+                    .setParameter(2, to.atStartOfDay())
+                    .executeUpdate();
+        }
+        return rows;
+    }
+
+    /**
+     * Days holding rows of any metric updated in {@code [from, to)}, by the
+     * metrics' {@link AdminFactMetric#changedDaysQuery()}.
+     */
+    @Transactional(readOnly = true)
+    public SortedSet<LocalDate> changedDays(LocalDateTime from, LocalDateTime to) {
+        Set<String> queries = new LinkedHashSet<>();
+        for (AdminFactMetric metric : AdminFactMetric.values()) {
+            if (metric.changedDaysQuery() != null) {
+                queries.add(metric.changedDaysQuery());
+            }
+        }
+        SortedSet<LocalDate> days = new TreeSet<>();
+        for (String sql : queries) {
+            for (Object day : entityManager.createNativeQuery(sql)
+                    .setParameter(1, from)
+                    .setParameter(2, to)
+                    .getResultList()) {
+                if (day != null) {
+                    days.add(toLocalDate(day));
+                }
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Marks {@code day} to be closed again, in the caller's transaction: for
+     * changes {@link #changedDays} cannot see, such as a deleted row.
+     */
+    @Transactional
+    public void markDay(LocalDate day) {
+        entityManager.createNativeQuery(MARK_DAY)
+                .setParameter(1, day)
+                .executeUpdate();
+    }
+
+    /** The marked days with their mark counts, to pass back to {@link #unmarkDay} once closed. */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Map<LocalDate, Integer> markedDays() {
+        Map<LocalDate, Integer> days = new TreeMap<>();
+        for (Object[] row : (List<Object[]>) entityManager.createNativeQuery(
+                "SELECT fact_date, marks FROM admin_fact_dirty_days").getResultList()) {
+            days.put(toLocalDate(row[0]), ((Number) row[1]).intValue());
+        }
+        return days;
+    }
+
+    /** Unmarks {@code day} unless it was marked again since {@link #markedDays} read {@code marks}. */
+    @Transactional
+    public void unmarkDay(LocalDate day, int marks) {
+        entityManager.createNativeQuery(UNMARK_DAY)
+                .setParameter(1, day)
+                .setParameter(2, marks)
+                .executeUpdate();
+    }
+
+    /** The day of the earliest row any metric is computed from, or null when there is none. */
+    @Transactional(readOnly = true)
+    public LocalDate earliestFactDate() {
+        LocalDate earliest = null;
+        for (String jpql : new String[] {
+                "SELECT MIN(t.createdAt) FROM transactions t",
+                "SELECT MIN(u.createdAt) FROM users u",
+                "SELECT MIN(r.createdAt) FROM listing_reports r",
+                "SELECT MIN(l.createdAt) FROM listings l"}) {
+            LocalDateTime first = entityManager.createQuery(jpql, LocalDateTime.class).getSingleResult();
+            if (first != null && (earliest == null || first.toLocalDate().isBefore(earliest))) {
+                earliest = first.toLocalDate();
+            }
+        }
+        return earliest;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
@@ -0,0 +1,96 @@
+package com.smartrent.service.admin.analytics;
+
+/**
+ * The metrics of the admin daily fact cube ({@code admin_daily_facts}).
+ *
+ * <p>Each metric is defined by one native query returning
+ * {@code (fact_date, dimension, fact_count, fact_amount)} per day and
+ * dimension value for the rows created in {@code [?1, ?2)}. The same query
+ * closes days into the cube and answers the still-open days live, so both
+ * always agree.
+ *
+ * <p>A metric whose rows change after their day is closed also has a
+ * {@link #changedDaysQuery()}, from which changed days are re-closed: a
+ * transaction refunded or cancelled weeks later, a draft listing published.
+ * Breakdowns by a status without one (report status, broker or listing
+ * verification) are not cubed.
+ */
+public enum AdminFactMetric {
+
+    /** Completed transactions by transaction type, with their summed amount. */
+    REVENUE("SELECT DATE(t.created_at) AS fact_date, t.transaction_type AS dimension, "
+            + "COUNT(*) AS fact_count, SUM(t.amount) AS fact_amount "
+            + "FROM transactions t "
+            + "WHERE t.status = 'COMPLETED' AND t.created_at >= ?1 AND t.created_at < ?2 "
+            + "GROUP BY DATE(t.created_at), t.transaction_type",
+            Queries.TRANSACTIONS_CHANGED),
+
+    /** All transactions by status, with their summed amount. */
+    TRANSACTIONS_BY_STATUS("SELECT DATE(t.created_at) AS fact_date, t.status AS dimension, "
+            + "COUNT(*) AS fact_count, SUM(t.amount) AS fact_amount "
+            + "FROM transactions t WHERE t.created_at >= ?1 AND t.created_at < ?2 "
+            + "GROUP BY DATE(t.created_at), t.status",
+            Queries.TRANSACTIONS_CHANGED),
+
+    /** New user accounts. */
+    NEW_USERS("SELECT DATE(u.created_at) AS fact_date, '' AS dimension, COUNT(*) AS fact_count, 0 AS fact_amount "
+            + "FROM users u WHERE u.created_at >= ?1 AND u.created_at < ?2 "
+            + "GROUP BY DATE(u.created_at)"),
+
+    /** New listing reports by report category. */
+    REPORTS_BY_CATEGORY("SELECT DATE(r.created_at) AS fact_date, r.category AS dimension, "
+            + "COUNT(*) AS fact_count, 0 AS fact_amount "
+            + "FROM listing_reports r WHERE r.created_at >= ?1 AND r.created_at < ?2 "
+            + "GROUP BY DATE(r.created_at), r.category"),
+
+    /** New non-draft, non-shadow listings by listing type. */
+    LISTINGS_BY_TYPE("SELECT DATE(l.created_at) AS fact_date, COALESCE(l.listing_type, '') AS dimension, "
+            + "COUNT(*) AS fact_count, 0 AS fact_amount "
+            + "FROM listings l WHERE l.created_at >= ?1 AND l.created_at < ?2 "
+            + "AND l.is_draft = false AND l.is_shadow = false "
+            + "GROUP BY DATE(l.created_at), COALESCE(l.listing_type, '')",
+            Queries.LISTINGS_CHANGED),
+
+    /** New non-draft, non-shadow listings by product type. */
+    LISTINGS_BY_PRODUCT_TYPE("SELECT DATE(l.created_at) AS fact_date, COALESCE(l.product_type, '') AS dimension, "
+            + "COUNT(*) AS fact_count, 0 AS fact_amount "
+            + "FROM listings l WHERE l.created_at >= ?1 AND l.created_at < ?2 "
+            + "AND l.is_draft = false AND l.is_shadow = false "
+            + "GROUP BY DATE(l.created_at), COALESCE(l.product_type, '')",
+            Queries.LISTINGS_CHANGED);
+
+    private static final class Queries {
+        /** Every status change sets updated_at, the bulk cancellation of stale pending ones included. */
+        static final String TRANSACTIONS_CHANGED = "SELECT DISTINCT DATE(t.created_at) FROM transactions t "
+                + "WHERE t.updated_at >= ?1 AND t.updated_at < ?2";
+
+        /** Listings are published, retyped and so on after creation; deletions are marked instead. */
+        static final String LISTINGS_CHANGED = "SELECT DISTINCT DATE(l.created_at) FROM listings l "
+                + "WHERE l.updated_at >= ?1 AND l.updated_at < ?2";
+    }
+
+    private final String dailyQuery;
+    private final String changedDaysQuery;
+
+    AdminFactMetric(String dailyQuery) {
+        this(dailyQuery, null);
+    }
+
+    AdminFactMetric(String dailyQuery, String changedDaysQuery) {
+        this.dailyQuery = dailyQuery;
+        this.changedDaysQuery = changedDaysQuery;
+    }
+
+    /** Native query of {@code (fact_date, dimension, fact_count, fact_amount)} rows over {@code [?1, ?2)}. */
+    public String dailyQuery() {
+        return dailyQuery;
+    }
+
+    /**
+     * Native query of the days (by creation) of this metric's rows updated in
+     * {@code [?1, ?2)}, or null when they do not change after creation.
+     */
+    public String changedDaysQuery() {
+        return changedDaysQuery;
+    }
+}
@@ -4,10 +4,12 @@ import com.smartrent.dto.response.*;
 import com.smartrent.enums.BrokerVerificationStatus;
 import com.smartrent.infra.repository.ListingReportRepository;
 import com.smartrent.infra.repository.ListingRepository;
-import com.smartrent.infra.repository.TransactionRepository;
 import com.smartrent.infra.repository.UserMembershipRepository;
 import com.smartrent.infra.repository.UserRepository;
 import com.smartrent.service.admin.analytics.AdminAnalyticsService;
+import com.smartrent.service.admin.analytics.AdminFactCubeReader;
+import com.smartrent.service.admin.analytics.AdminFactCubeReader.Fact;
+import com.smartrent.service.admin.analytics.AdminFactMetric;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -19,8 +21,13 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
@@ -28,11 +35,11 @@ import java.util.List;
 @Slf4j
 public class AdminAnalyticsServiceImpl implements AdminAnalyticsService {
 
-    TransactionRepository transactionRepository;
     UserMembershipRepository userMembershipRepository;
     UserRepository userRepository;
     ListingReportRepository listingReportRepository;
     ListingRepository listingRepository;
+    AdminFactCubeReader adminFactCubeReader;
 
     private static final String GRANULARITY_DAY = "DAY";
     private static final String GRANULARITY_MONTH = "MONTH";
@@ -53,48 +60,34 @@ public class AdminAnalyticsServiceImpl implements AdminAnalyticsService {
     }
 
     private RevenueOverTimeResponse buildRevenueResponse(LocalDate from, LocalDate to, String granularity) {
-        LocalDateTime startDate = from.atStartOfDay();
-        LocalDateTime endDate = to.atTime(LocalTime.MAX);
+        log.info("Fetching revenue data from {} to {} (granularity={})", from, to, granularity);
 
-        log.info("Fetching revenue data from {} to {} (granularity={})", startDate, endDate, granularity);
-
-        List<Object[]> timeRows = GRANULARITY_MONTH.equals(granularity)
-                ? transactionRepository.findMonthlyRevenue(startDate, endDate)
-                : transactionRepository.findDailyRevenue(startDate, endDate);
+        List<Fact> facts = adminFactCubeReader.facts(AdminFactMetric.REVENUE, from, to);
 
         List<RevenueDataPoint> dataPoints = new ArrayList<>();
         BigDecimal grandTotal = BigDecimal.ZERO;
         long totalTransactions = 0;
 
-        for (Object[] row : timeRows) {
-            String date = row[0].toString();
-            BigDecimal amount = new BigDecimal(row[1].toString());
-            Long count = ((Number) row[2]).longValue();
-
+        for (Map.Entry<String, Total> period : totalsByPeriod(facts, GRANULARITY_MONTH.equals(granularity)).entrySet()) {
+            Total total = period.getValue();
             dataPoints.add(RevenueDataPoint.builder()
-                    .date(date)
-                    .totalAmount(amount)
-                    .transactionCount(count)
+                    .date(period.getKey())
+                    .totalAmount(total.amount())
+                    .transactionCount(total.count())
                     .build());
 
-            grandTotal = grandTotal.add(amount);
-            totalTransactions += count;
+            grandTotal = grandTotal.add(total.amount());
+            totalTransactions += total.count();
         }
 
-        List<Object[]> typeRows = transactionRepository.findRevenueGroupedByType(startDate, endDate);
         List<RevenueByTypeItem> revenueByType = new ArrayList<>();
-
-        for (Object[] row : typeRows) {
-            String type = (String) row[0];
-            BigDecimal amount = new BigDecimal(row[1].toString());
-            Long count = ((Number) row[2]).longValue();
-
-            revenueByType.add(RevenueByTypeItem.builder()
-                    .transactionType(type)
-                    .totalAmount(amount)
-                    .transactionCount(count)
-                    .build());
-        }
+        totalsByDimension(facts).entrySet().stream()
+                .sorted(Map.Entry.<String, Total>comparingByValue(Comparator.comparing(Total::amount)).reversed())
+                .forEach(type -> revenueByType.add(RevenueByTypeItem.builder()
+                        .transactionType(type.getKey())
+                        .totalAmount(type.getValue().amount())
+                        .transactionCount(type.getValue().count())
+                        .build()));
 
         return RevenueOverTimeResponse.builder()
                 .dataPoints(dataPoints)
@@ -152,26 +145,25 @@ public class AdminAnalyticsServiceImpl implements AdminAnalyticsService {
     @Override
     public AdminUserAnalyticsResponse getUserAnalytics(int days) {
         log.info("Fetching user analytics for last {} days", days);
-        DateRange range = resolveDateRange(days);
-        return buildUserAnalyticsResponse(range.start, range.end, range.monthly);
+        return buildUserAnalyticsResponse(resolveDateRange(days));
     }
 
     @Override
     public AdminUserAnalyticsResponse getUserAnalytics(LocalDate from, LocalDate to) {
         log.info("Fetching user analytics from {} to {}", from, to);
-        DateRange range = resolveDateRange(from, to);
-        return buildUserAnalyticsResponse(range.start, range.end, range.monthly);
+        return buildUserAnalyticsResponse(resolveDateRange(from, to));
     }
 
-    private AdminUserAnalyticsResponse buildUserAnalyticsResponse(LocalDateTime start, LocalDateTime end, boolean monthly) {
-        List<Object[]> rows = monthly
-                ? userRepository.countNewUsersByMonth(start, end)
-                : userRepository.countNewUsersByDay(start, end);
-        SeriesResult series = toSeries(rows);
+    private AdminUserAnalyticsResponse buildUserAnalyticsResponse(DateRange range) {
+        LocalDateTime start = range.start();
+        LocalDateTime end = range.end();
+        boolean monthly = range.monthly();
+        SeriesResult series = toSeries(adminFactCubeReader.facts(AdminFactMetric.NEW_USERS, range.from(), range.to()), monthly);
 
         long baseline = userRepository.countByCreatedAtBefore(start);
         List<TimeSeriesDataPoint> cumulative = buildCumulativeSeries(series.dataPoints(), baseline);
 
+        // Broker status changes after signup, so these breakdowns are not cubed.
         List<Object[]> roleRows = userRepository.countNewUsersByRole(start, end);
         List<Object[]> brokerVerificationRows = userRepository.countNewBrokersByVerificationStatus(start, end);
 
@@ -195,27 +187,27 @@ public class AdminAnalyticsServiceImpl implements AdminAnalyticsService {
     @Override
     public AdminReportAnalyticsResponse getReportAnalytics(int days) {
         log.info("Fetching report analytics for last {} days", days);
-        DateRange range = resolveDateRange(days);
-        return buildReportAnalyticsResponse(range.start, range.end, range.monthly);
+        return buildReportAnalyticsResponse(resolveDateRange(days));
     }
 
     @Override
     public AdminReportAnalyticsResponse getReportAnalytics(LocalDate from, LocalDate to) {
         log.info("Fetching report analytics from {} to {}", from, to);
-        DateRange range = resolveDateRange(from, to);
-        return buildReportAnalyticsResponse(range.start, range.end, range.monthly);
+        return buildReportAnalyticsResponse(resolveDateRange(from, to));
     }
 
-    private AdminReportAnalyticsResponse buildReportAnalyticsResponse(LocalDateTime start, LocalDateTime end, boolean monthly) {
-        List<Object[]> rows = monthly
-                ? listingReportRepository.countReportsByMonth(start, end)
-                : listingReportRepository.countReportsByDay(start, end);
-        SeriesResult series = toSeries(rows);
+    private AdminReportAnalyticsResponse buildReportAnalyticsResponse(DateRange range) {
+        LocalDateTime start = range.start();
+        LocalDateTime end = range.end();
+        boolean monthly = range.monthly();
+        List<Fact> facts = adminFactCubeReader.facts(AdminFactMetric.REPORTS_BY_CATEGORY, range.from(), range.to());
+        SeriesResult series = toSeries(facts, monthly);
 
         long baseline = listingReportRepository.countByCreatedAtBefore(start);
         List<TimeSeriesDataPoint> cumulative = buildCumulativeSeries(series.dataPoints(), baseline);
 
-        List<Object[]> categoryRows = listingReportRepository.countReportsByCategory(start, end);
+        List<Object[]> categoryRows = toBreakdownRows(facts);
+        // Status and resolution change after a report is filed, so they are not cubed.
         List<Object[]> statusRows = listingReportRepository.countReportsByStatus(start, end);
         List<CategoryBreakdownItem> statusBreakdown = buildBreakdown(statusRows);
 
@@ -250,28 +242,29 @@ public class AdminAnalyticsServiceImpl implements AdminAnalyticsService {
     @Override
     public AdminListingAnalyticsResponse getListingAnalytics(int days) {
         log.info("Fetching listing analytics for last {} days", days);
-        DateRange range = resolveDateRange(days);
-        return buildListingAnalyticsResponse(range.start, range.end, range.monthly);
+        return buildListingAnalyticsResponse(resolveDateRange(days));
     }
 
     @Override
     public AdminListingAnalyticsResponse getListingAnalytics(LocalDate from, LocalDate to) {
         log.info("Fetching listing analytics from {} to {}", from, to);
-        DateRange range = resolveDateRange(from, to);
-        return buildListingAnalyticsResponse(range.start, range.end, range.monthly);
+        return buildListingAnalyticsResponse(resolveDateRange(from, to));
     }
 
-    private AdminListingAnalyticsResponse buildListingAnalyticsResponse(LocalDateTime start, LocalDateTime end, boolean monthly) {
-        List<Object[]> rows = monthly
-                ? listingRepository.countNewListingsByMonth(start, end)
-                : listingRepository.countNewListingsByDay(start, end);
-        SeriesResult series = toSeries(rows);
+    private AdminListingAnalyticsResponse buildListingAnalyticsResponse(DateRange range) {
+        LocalDateTime start = range.start();
+        LocalDateTime end = range.end();
+        boolean monthly = range.monthly();
+        List<Fact> typeFacts = adminFactCubeReader.facts(AdminFactMetric.LISTINGS_BY_TYPE, range.from(), range.to());
+        SeriesResult series = toSeries(typeFacts, monthly);
 
         long baseline = listingRepository.countByCreatedAtBeforeAndIsDraftFalseAndIsShadowFalse(start);
         List<TimeSeriesDataPoint> cumulative = buildCumulativeSeries(series.dataPoints(), baseline);
 
-        List<Object[]> typeRows = listingRepository.countNewListingsByType(start, end);
-        List<Object[]> productRows = listingRepository.countNewListingsByProductType(start, end);
+        List<Object[]> typeRows = toBreakdownRows(typeFacts);
+        List<Object[]> productRows = toBreakdownRows(
+                adminFactCubeReader.facts(AdminFactMetric.LISTINGS_BY_PRODUCT_TYPE, range.from(), range.to()));
+        // Verification changes after a listing is created, so it is not cubed.
         List<Object[]> verificationRows = listingRepository.countNewListingsByVerification(start, end);
 
         return AdminListingAnalyticsResponse.builder()
@@ -288,20 +281,46 @@ public class AdminAnalyticsServiceImpl implements AdminAnalyticsService {
 
     // ─── Helpers ───
 
-    private SeriesResult toSeries(List<Object[]> rows) {
+    private SeriesResult toSeries(List<Fact> facts, boolean monthly) {
         List<TimeSeriesDataPoint> dataPoints = new ArrayList<>();
         long total = 0;
 
-        for (Object[] row : rows) {
-            String label = row[0].toString();
-            Long count = ((Number) row[1]).longValue();
-            dataPoints.add(TimeSeriesDataPoint.builder().label(label).count(count).build());
+        for (Map.Entry<String, Total> period : totalsByPeriod(facts, monthly).entrySet()) {
+            long count = period.getValue().count();
+            dataPoints.add(TimeSeriesDataPoint.builder().label(period.getKey()).count(count).build());
             total += count;
         }
 
         return new SeriesResult(dataPoints, total);
     }
 
+    /** Sums facts per day ({@code yyyy-MM-dd}) or month ({@code yyyy-MM}), in date order. */
+    private Map<String, Total> totalsByPeriod(List<Fact> facts, boolean monthly) {
+        Map<String, Total> totals = new TreeMap<>();
+        for (Fact fact : facts) {
+            String label = monthly ? YearMonth.from(fact.date()).toString() : fact.date().toString();
+            totals.merge(label, new Total(fact.count(), fact.amount()), Total::plus);
+        }
+        return totals;
+    }
+
+    /** Sums facts per dimension value; a null key collects NULL values. */
+    private Map<String, Total> totalsByDimension(List<Fact> facts) {
+        Map<String, Total> totals = new HashMap<>();
+        for (Fact fact : facts) {
+            totals.merge(fact.dimension(), new Total(fact.count(), fact.amount()), Total::plus);
+        }
+        return totals;
+    }
+
+    /** {@code [dimension, count]} rows, largest count first, for {@link #buildBreakdown}. */
+    private List<Object[]> toBreakdownRows(List<Fact> facts) {
+        return totalsByDimension(facts).entrySet().stream()
+                .sorted(Map.Entry.<String, Total>comparingByValue(Comparator.comparingLong(Total::count)).reversed())
+                .map(e -> new Object[] {e.getKey(), e.getValue().count()})
+                .toList();
+    }
+
     private List<TimeSeriesDataPoint> buildCumulativeSeries(List<TimeSeriesDataPoint> dataPoints, long baseline) {
         List<TimeSeriesDataPoint> result = new ArrayList<>();
         long running = baseline;
@@ -344,22 +363,28 @@ public class AdminAnalyticsServiceImpl implements AdminAnalyticsService {
     private DateRange resolveDateRange(int days) {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(days);
-        return new DateRange(
-                startDate.atStartOfDay(),
-                endDate.atTime(LocalTime.MAX),
-                days > 30
-        );
+        return new DateRange(startDate, endDate, days > 30);
     }
 
     private DateRange resolveDateRange(LocalDate from, LocalDate to) {
-        return new DateRange(
-                from.atStartOfDay(),
-                to.atTime(LocalTime.MAX),
-                false
-        );
+        return new DateRange(from, to, false);
+    }
+
+    private record DateRange(LocalDate from, LocalDate to, boolean monthly) {
+        LocalDateTime start() {
+            return from.atStartOfDay();
+        }
+
+        LocalDateTime end() {
+            return to.atTime(LocalTime.MAX);
+        }
     }
 
-    private record DateRange(LocalDateTime start, LocalDateTime end, boolean monthly) {}
+    private record Total(long count, BigDecimal amount) {
+        Total plus(Total other) {
+            return new Total(count + other.count, amount.add(other.amount));
+        }
+    }
 
     private record SeriesResult(List<TimeSeriesDataPoint> dataPoints, long total) {}
 }
@@ -0,0 +1,201 @@
+package com.smartrent.service.admin.analytics.impl;
+
+import com.smartrent.infra.repository.RollupWatermarkRepository;
+import com.smartrent.infra.repository.entity.RollupWatermark;
+import com.smartrent.service.admin.analytics.AdminFactCubeService;
+import com.smartrent.service.admin.analytics.AdminFactCubeWriter;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Watermark-driven driver of {@link AdminFactCubeWriter}.
+ *
+ * <p>A day is closed once it is over. Each close also re-closes the
+ * preceding {@code restate-days} days, so rows that change shortly after
+ * their day ends (a payment completing after midnight) are picked up.
+ * Later changes are restated from the rows updated since the last pass
+ * (read up to {@code lateness-minutes} ago, so in-flight transactions have
+ * committed) and the days marked by deletions; only those days are closed
+ * again, in runs of consecutive days.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class AdminFactCubeServiceImpl implements AdminFactCubeService {
+
+    /** A range of days, {@code [from, to)}. */
+    record Chunk(LocalDate from, LocalDate to) {}
+
+    AdminFactCubeWriter adminFactCubeWriter;
+    RollupWatermarkRepository rollupWatermarkRepository;
+
+    @NonFinal
+    @Value("${application.admin-fact-cube.restate-days:2}")
+    int restateDays;
+
+    @NonFinal
+    @Value("${application.admin-fact-cube.lateness-minutes:5}")
+    long latenessMinutes;
+
+    @NonFinal
+    @Value("${application.admin-fact-cube.max-days-per-run:31}")
+    int maxDaysPerRun;
+
+    @NonFinal
+    @Value("${application.admin-fact-cube.backfill-chunk-days:30}")
+    int backfillChunkDays;
+
+    @NonFinal
+    @Value("${application.admin-fact-cube.backfill-parallelism:4}")
+    int backfillParallelism;
+
+    @Override
+    public int closeNewDays() {
+        LocalDate today = LocalDate.now();
+        RollupWatermark watermark = rollupWatermarkRepository.findById(ROLLUP_NAME).orElse(null);
+
+        if (watermark == null) {
+            LocalDate earliest = adminFactCubeWriter.earliestFactDate();
+            int rows = earliest != null ? backfill(earliest, today) : 0;
+            rollupWatermarkRepository.save(RollupWatermark.builder()
+                    .rollupName(ROLLUP_NAME)
+                    .rolledUpTo(today.atStartOfDay())
+                    .build());
+            log.info("admin-fact-cube: initial backfill up to {} wrote {} rows", today, rows);
+            return rows;
+        }
+
+        LocalDate closedUntil = watermark.getRolledUpTo().toLocalDate();
+        if (!closedUntil.isBefore(today)) {
+            return 0;
+        }
+        LocalDate to = closedUntil.plusDays(maxDaysPerRun).isBefore(today) ? closedUntil.plusDays(maxDaysPerRun) : today;
+        int rows = adminFactCubeWriter.closeDays(closedUntil.minusDays(restateDays), to);
+        watermark.setRolledUpTo(to.atStartOfDay());
+        rollupWatermarkRepository.save(watermark);
+        log.info("admin-fact-cube: closed [{}, {}) with {} restated days, {} rows", closedUntil, to, restateDays, rows);
+        return rows;
+    }
+
+    @Override
+    public int restateChangedDays() {
+        RollupWatermark cube = rollupWatermarkRepository.findById(ROLLUP_NAME).orElse(null);
+        if (cube == null) {
+            return 0;
+        }
+        LocalDate closedUntil = cube.getRolledUpTo().toLocalDate();
+        LocalDateTime to = LocalDateTime.now().minusMinutes(latenessMinutes);
+        // Until the first pass, rows changed since the cube's last full close are taken as changed.
+        RollupWatermark changes = rollupWatermarkRepository.findById(CHANGES_NAME)
+                .orElseGet(() -> RollupWatermark.builder()
+                        .rollupName(CHANGES_NAME)
+                        .rolledUpTo(cube.getRolledUpTo())
+                        .build());
+        LocalDateTime from = changes.getRolledUpTo();
+
+        SortedSet<LocalDate> days = from.isBefore(to) ? adminFactCubeWriter.changedDays(from, to) : new TreeSet<>();
+        Map<LocalDate, Integer> marked = adminFactCubeWriter.markedDays();
+        days.addAll(marked.keySet());
+        days = days.headSet(closedUntil);
+
+        int rows = 0;
+        for (Chunk run : runs(days, backfillChunkDays)) {
+            rows += adminFactCubeWriter.closeDays(run.from(), run.to());
+        }
+        marked.forEach(adminFactCubeWriter::unmarkDay);
+        if (from.isBefore(to)) {
+            changes.setRolledUpTo(to);
+            rollupWatermarkRepository.save(changes);
+        }
+        if (!days.isEmpty()) {
+            log.info("admin-fact-cube: restated {} changed days from {} to {}, {} rows",
+                    days.size(), days.first(), days.last(), rows);
+        }
+        return rows;
+    }
+
+    @Override
+    public void markChanged(LocalDate day) {
+        adminFactCubeWriter.markDay(day);
+    }
+
+    @Override
+    public int backfill(LocalDate from, LocalDate to) {
+        List<Chunk> chunks = chunks(from, to, backfillChunkDays);
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(backfillParallelism, chunks.size()));
+        try {
+            List<Future<Integer>> results = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                results.add(pool.submit(() -> adminFactCubeWriter.closeDays(chunk.from(), chunk.to())));
+            }
+            int rows = 0;
+            for (Future<Integer> result : results) {
+                rows += result.get();
+            }
+            log.info("admin-fact-cube: backfilled [{}, {}) in {} chunks, {} rows", from, to, chunks.size(), rows);
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Admin fact cube backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Admin fact cube backfill failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Groups {@code days} into ranges of consecutive days, each at most {@code maxDays} long. */
+    static List<Chunk> runs(SortedSet<LocalDate> days, int maxDays) {
+        List<Chunk> runs = new ArrayList<>();
+        LocalDate start = null;
+        LocalDate end = null;
+        for (LocalDate day : days) {
+            if (start != null && (!day.equals(end) || !start.plusDays(Math.max(1, maxDays)).isAfter(day))) {
+                runs.add(new Chunk(start, end));
+                start = null;
+            }
+            if (start == null) {
+                start = day;
+            }
+            end = day.plusDays(1);
+        }
+        if (start != null) {
+            runs.add(new Chunk(start, end));
+        }
+        return runs;
+    }
+
+    /** Splits {@code [from, to)} into consecutive chunks of at most {@code days} days. */
+    static List<Chunk> chunks(LocalDate from, LocalDate to, int days) {
+        List<Chunk> chunks = new ArrayList<>();
+        LocalDate start = from;
+        while (start.isBefore(to)) {
+            LocalDate next = start.plusDays(Math.max(1, days));
+            LocalDate chunkEnd = next.isBefore(to) ? next : to;
+            chunks.add(new Chunk(start, chunkEnd));
+            start = chunkEnd;
+        }
+        return chunks;
+    }
+}
@@ -14,10 +14,14 @@ import com.smartrent.mapper.AddressMapper;
 import com.smartrent.mapper.ListingMapper;
 import com.smartrent.mapper.UserMapper;
 import com.smartrent.service.discovery.AmenityResolver;
+import com.smartrent.service.discovery.LocationFuzzyIndex;
 import com.smartrent.util.SearchQueryParser;
 import com.smartrent.util.TextNormalizer;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -27,6 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -43,9 +48,34 @@ public class AiSearchService {
     private final StringRedisTemplate redisTemplate;
     private final ObjectMapper objectMapper;
     private final AmenityResolver amenityResolver;
+    private final LocationFuzzyIndex locationFuzzyIndex;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.search-parse.connect-timeout-ms:500}")
+    private long parseConnectTimeoutMs = 500;
+
+    @Value("${ai.search-parse.read-timeout-ms:1500}")
+    private long parseReadTimeoutMs = 1500;
 
     private static final Duration AI_PARSE_CACHE_TTL = Duration.ofMinutes(30);
 
+    /**
+     * Share of query tokens the local parse must account for before the AI
+     * call is skipped. 1.0 = every token was consumed as a filter, a
+     * stopword, a resolved amenity or a resolved place.
+     */
+    static final double LOCAL_CONFIDENCE_THRESHOLD = 1.0;
+
+    /**
+     * Jaro-Winkler floor for treating the parser's leftover location text as
+     * a known place: near-exact only, so an unknown word is never "accounted
+     * for" by its closest-sounding ward.
+     */
+    private static final double LOCAL_LOCATION_MIN_SCORE = 0.97;
+
+    /** Counter of NL parses by {@code source}: local, cache, ai, ai_fallback. */
+    private static final String PARSE_SOURCE_METRIC = "search.nl.parse";
+
     /**
      * Handles Natural Language Free Text Search
      */
@@ -115,6 +145,70 @@ public class AiSearchService {
         return c;
     }
 
+    /**
+     * Returns the local parse when it is confident enough to stand in for the
+     * AI, else {@code null}. Never throws — any failure just means "ask the AI".
+     */
+    private AiParsedCriteriaDto confidentLocalParse(String query, String normalized) {
+        if (normalized == null || normalized.isBlank()) {
+            return null;
+        }
+        try {
+            SearchQueryParser.ParsedQuery parsed = SearchQueryParser.parse(query);
+            String location = parsed.locationText();
+            boolean locationResolved = location == null || location.isBlank()
+                    || locationFuzzyIndex.resolveLocationPhrase(location).isPresent()
+                    || !locationFuzzyIndex.search(location, LOCAL_LOCATION_MIN_SCORE, 1).isEmpty();
+            List<String> unresolvedAmenities = parsed.amenities().isEmpty()
+                    ? List.of()
+                    : amenityResolver.resolve(parsed.amenities()).unresolved();
+            double confidence = localConfidence(parsed, normalized, locationResolved, unresolvedAmenities);
+            log.debug("Local parse confidence {} for '{}'", confidence, normalized);
+            return confidence >= LOCAL_CONFIDENCE_THRESHOLD ? localParse(query) : null;
+        } catch (Exception e) {
+            log.warn("Local parse confidence check failed (non-fatal): {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Share of the normalized query's tokens the local parse accounted for.
+     * Every token the parser did not consume ends up in {@code locationText},
+     * so those count against confidence unless the text resolved to a known
+     * place; amenity phrases count against it when the live amenity table
+     * does not know them. A parse without any structured filter scores 0.
+     */
+    static double localConfidence(SearchQueryParser.ParsedQuery parsed, String normalizedQuery,
+                                  boolean locationResolved, List<String> unresolvedAmenities) {
+        if (parsed == null || !parsed.hasStructuredFilter()) {
+            return 0.0;
+        }
+        int total = tokenCount(normalizedQuery);
+        if (total == 0) {
+            return 0.0;
+        }
+        int unaccounted = locationResolved ? 0 : tokenCount(parsed.locationText());
+        for (String amenity : unresolvedAmenities) {
+            unaccounted += tokenCount(TextNormalizer.normalize(amenity));
+        }
+        return Math.max(0.0, 1.0 - (double) unaccounted / total);
+    }
+
+    private static int tokenCount(String text) {
+        if (text == null || text.isBlank()) return 0;
+        return text.trim().split("\\s+").length;
+    }
+
+    /** Per-call timeouts of the parse request. */
+    Request.Options parseOptions() {
+        return new Request.Options(parseConnectTimeoutMs, TimeUnit.MILLISECONDS,
+                parseReadTimeoutMs, TimeUnit.MILLISECONDS, true);
+    }
+
+    private void countParse(String source) {
+        meterRegistry.counter(PARSE_SOURCE_METRIC, "source", source).increment();
+    }
+
     private boolean isEmptyCriteria(AiParsedCriteriaDto c) {
         return c.getPropertyType() == null && c.getListingType() == null
                 && c.getMinPrice() == null && c.getMaxPrice() == null
@@ -128,12 +222,23 @@ public class AiSearchService {
     private AiParsedCriteriaDto parseWithCache(SearchRequest request) {
         String query = request != null ? request.getQuery() : null;
         String normalized = TextNormalizer.normalize(query);
+
+        // Local fast path: when the parser (plus the amenity and location
+        // indexes) accounts for every token, the AI would only restate it.
+        AiParsedCriteriaDto local = confidentLocalParse(query, normalized);
+        if (local != null) {
+            countParse("local");
+            log.info("Local parse fully covered the query, skipping AI: {}", local);
+            return local;
+        }
+
         String cacheKey = normalized == null ? null : "search:ai:parse:" + Integer.toHexString(normalized.hashCode());
 
         if (cacheKey != null) {
             try {
                 String cached = redisTemplate.opsForValue().get(cacheKey);
                 if (cached != null && !cached.isBlank()) {
+                    countParse("cache");
                     return objectMapper.readValue(cached, AiParsedCriteriaDto.class);
                 }
             } catch (Exception e) {
@@ -141,16 +246,23 @@ public class AiSearchService {
             }
         }
 
+        // The AI call is bounded by its own strict timeouts (ai.search-parse),
+        // so a slow parse degrades to the local result instead of stalling
+        // the search.
         AiParsedCriteriaDto criteria;
         try {
-            criteria = aiServerClient.parseNaturalLanguage(request);
+            criteria = aiServerClient.parseNaturalLanguage(request, parseOptions());
             if (criteria == null || isEmptyCriteria(criteria)) {
                 criteria = localParse(query);
+                countParse("ai_fallback");
+            } else {
+                countParse("ai");
             }
             log.info("AI parsed criteria: {}", criteria);
         } catch (Exception e) {
             log.error("Failed to parse query via AI Server. Falling back to local parser.", e);
             criteria = localParse(query);
+            countParse("ai_fallback");
         }
 
         if (cacheKey != null && criteria != null) {
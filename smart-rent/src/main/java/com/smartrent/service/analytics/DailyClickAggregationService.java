@@ -1,6 +0,0 @@
-package com.smartrent.service.analytics;
-
-public interface DailyClickAggregationService {
-
-    void aggregateYesterdayClicks();
-}
@@ -0,0 +1,129 @@
+package com.smartrent.service.analytics;
+
+import com.smartrent.infra.repository.PhoneClickDetailRepository;
+import com.smartrent.infra.repository.RollupWatermarkRepository;
+import com.smartrent.infra.repository.SavedListingRepository;
+import com.smartrent.infra.repository.ViewRepository;
+import com.smartrent.infra.repository.entity.RollupWatermark;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-day engagement series of one listing, read from the rollup tables
+ * written by {@link EngagementRollupWriter} plus the raw events newer than
+ * the rollup watermark (at most {@code max-hours-per-run} plus lateness in
+ * steady state). The cost depends on the number of days asked for, not on
+ * the number of events behind them.
+ *
+ * <p>For a window starting at {@code since}, its first day is read from
+ * hourly buckets, starting at the hour containing {@code since}, and the
+ * remaining rolled-up days from daily buckets.
+ */
+@Component
+public class EngagementRollupReader {
+
+    private static final int VIEWS = 0;
+    private static final int CLICKS = 1;
+    private static final int SAVES = 2;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /** One day of one listing. */
+    public record Day(LocalDate date, long views, long clicks, long saves) {}
+
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+    private final ViewRepository viewRepository;
+    private final PhoneClickDetailRepository phoneClickDetailRepository;
+    private final SavedListingRepository savedListingRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EngagementRollupReader(RollupWatermarkRepository rollupWatermarkRepository,
+                                  ViewRepository viewRepository,
+                                  PhoneClickDetailRepository phoneClickDetailRepository,
+                                  SavedListingRepository savedListingRepository) {
+        this.rollupWatermarkRepository = rollupWatermarkRepository;
+        this.viewRepository = viewRepository;
+        this.phoneClickDetailRepository = phoneClickDetailRepository;
+        this.savedListingRepository = savedListingRepository;
+    }
+
+    /** Days of {@code listingId} with any engagement since {@code since} (null: all time), oldest first. */
+    @Transactional(readOnly = true)
+    public List<Day> daily(Long listingId, LocalDateTime since) {
+        LocalDateTime rolledUpTo = rollupWatermarkRepository.findById(EngagementRollupService.ROLLUP_NAME)
+                .map(RollupWatermark::getRolledUpTo)
+                .orElse(null);
+        Map<LocalDate, long[]> days = new TreeMap<>();
+
+        LocalDateTime tailFrom = since != null ? since : BEGINNING;
+        if (rolledUpTo != null && (since == null || since.isBefore(rolledUpTo))) {
+            if (since == null) {
+                addRows(days, entityManager.createNativeQuery(
+                                "SELECT bucket_date, views, clicks, saves FROM listing_engagement_daily "
+                                        + "WHERE listing_id = ?")
+                        .setParameter(1, listingId)
+                        .getResultList());
+            } else {
+                LocalDateTime firstDayEnd = since.toLocalDate().plusDays(1).atStartOfDay();
+                addRows(days, entityManager.createNativeQuery(
+                                "SELECT DATE(bucket_hour), SUM(views), SUM(clicks), SUM(saves) "
+                                        + "FROM listing_engagement_hourly "
+                                        + "WHERE listing_id = ? AND bucket_hour >= ? AND bucket_hour < ? "
+                                        + "GROUP BY DATE(bucket_hour)")
+                        .setParameter(1, listingId)
+                        .setParameter(2, since.truncatedTo(ChronoUnit.HOURS))
+                        .setParameter(3, firstDayEnd.isBefore(rolledUpTo) ? firstDayEnd : rolledUpTo)
+                        .getResultList());
+                addRows(days, entityManager.createNativeQuery(
+                                "SELECT bucket_date, views, clicks, saves FROM listing_engagement_daily "
+                                        + "WHERE listing_id = ? AND bucket_date > ?")
+                        .setParameter(1, listingId)
+                        .setParameter(2, since.toLocalDate())
+                        .getResultList());
+            }
+            tailFrom = rolledUpTo;
+        }
+
+        addCounts(days, VIEWS, viewRepository.countViewsGroupedByDateSince(listingId, tailFrom));
+        addCounts(days, CLICKS, phoneClickDetailRepository.countClicksGroupedByDateSince(listingId, tailFrom));
+        addCounts(days, SAVES, savedListingRepository.countSavesGroupedByDateSince(listingId, tailFrom));
+
+        List<Day> series = new ArrayList<>(days.size());
+        days.forEach((date, n) -> series.add(new Day(date, n[VIEWS], n[CLICKS], n[SAVES])));
+        return series;
+    }
+
+    /** Adds {@code (date, views, clicks, saves)} rows. */
+    private static void addRows(Map<LocalDate, long[]> days, List<?> rows) {
+        for (Object row : rows) {
+            Object[] cols = (Object[]) row;
+            long[] n = days.computeIfAbsent(toLocalDate(cols[0]), d -> new long[3]);
+            n[VIEWS] += ((Number) cols[1]).longValue();
+            n[CLICKS] += ((Number) cols[2]).longValue();
+            n[SAVES] += ((Number) cols[3]).longValue();
+        }
+    }
+
+    /** Adds {@code (date, count)} rows to one metric. */
+    private static void addCounts(Map<LocalDate, long[]> days, int metric, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            days.computeIfAbsent(toLocalDate(row[0]), d -> new long[3])[metric] += ((Number) row[1]).longValue();
+        }
+    }
+
+    /** JPQL date casts yield {@link LocalDate}, native {@code DATE()} columns {@link java.sql.Date}. */
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
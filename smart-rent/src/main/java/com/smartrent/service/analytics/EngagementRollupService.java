@@ -0,0 +1,28 @@
+package com.smartrent.service.analytics;
+
+import java.time.LocalDateTime;
+
+/**
+ * Incremental hourly rollup of views, phone clicks and saves into
+ * {@code listing_engagement_hourly} / {@code listing_engagement_daily}.
+ */
+public interface EngagementRollupService {
+
+    /** Name of this rollup's row in {@code rollup_watermarks}. */
+    String ROLLUP_NAME = "listing_engagement";
+
+    /**
+     * Rolls up the whole hours completed since the stored watermark and
+     * advances it. The first run backfills all history. Returns the number of
+     * hourly buckets written.
+     */
+    int rollUpNewHours();
+
+    /**
+     * Recomputes the hours in {@code [from, to)} in day-aligned chunks, in
+     * parallel, starting no earlier than the retention horizon of the raw
+     * tables. Does not move the watermark. Returns the number of hourly
+     * buckets written.
+     */
+    int backfill(LocalDateTime from, LocalDateTime to);
+}
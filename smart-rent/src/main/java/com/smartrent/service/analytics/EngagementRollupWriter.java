@@ -0,0 +1,147 @@
+package com.smartrent.service.analytics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rolls one range of hours of raw engagement events up into
+ * {@code listing_engagement_hourly}, then re-sums the days the range touches
+ * into {@code listing_engagement_daily}.
+ *
+ * <p>The range is cleared and every hour recomputed from the raw tables, so
+ * rolling a range up again (a retried run, an overlapping backfill) is
+ * harmless, and a bucket whose events were deleted since goes away with them
+ * instead of keeping its old counts. The same goes for the touched days.
+ */
+@Component
+public class EngagementRollupWriter {
+
+    private static final int VIEWS = 0;
+    private static final int CLICKS = 1;
+    private static final int SAVES = 2;
+
+    private static final int ROWS_PER_INSERT = 500;
+
+    /** Per-metric {@code (listing, date, hour, count)} over {@code [from, to)}. */
+    private static final String[] SLICE_QUERIES = {
+            "SELECT listing_id, DATE(viewed_at), HOUR(viewed_at), COUNT(*) FROM views "
+                    + "WHERE viewed_at >= ? AND viewed_at < ? GROUP BY listing_id, DATE(viewed_at), HOUR(viewed_at)",
+            "SELECT listing_id, DATE(clicked_at), HOUR(clicked_at), COUNT(*) FROM phone_clicks "
+                    + "WHERE clicked_at >= ? AND clicked_at < ? GROUP BY listing_id, DATE(clicked_at), HOUR(clicked_at)",
+            "SELECT listing_id, DATE(created_at), HOUR(created_at), COUNT(*) FROM saved_listings "
+                    + "WHERE created_at >= ? AND created_at < ? GROUP BY listing_id, DATE(created_at), HOUR(created_at)"
+    };
+
+    private static final String CLEAR_HOURS =
+            "DELETE FROM listing_engagement_hourly WHERE bucket_hour >= ? AND bucket_hour < ?";
+
+    private static final String CLEAR_DAYS =
+            "DELETE FROM listing_engagement_daily WHERE bucket_date >= ? AND bucket_date < ?";
+
+    private static final String RESUM_DAYS =
+            "INSERT INTO listing_engagement_daily (listing_id, bucket_date, views, clicks, saves) "
+                    + "SELECT * FROM (SELECT listing_id, DATE(bucket_hour) AS bucket_day, SUM(views) AS day_views, "
+                    + "SUM(clicks) AS day_clicks, SUM(saves) AS day_saves "
+                    + "FROM listing_engagement_hourly WHERE bucket_hour >= ? AND bucket_hour < ? "
+                    + "GROUP BY listing_id, DATE(bucket_hour)) d "
+                    + "ON DUPLICATE KEY UPDATE views = day_views, clicks = day_clicks, saves = day_saves";
+
+    /** One hour of one listing. */
+    record Bucket(Long listingId, LocalDateTime hour) implements Comparable<Bucket> {
+        @Override
+        public int compareTo(Bucket other) {
+            int byHour = hour.compareTo(other.hour);
+            return byHour != 0 ? byHour : listingId.compareTo(other.listingId);
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rolls up the hours in {@code [from, to)}; both must be whole hours.
+     * Returns the number of hourly buckets written.
+     */
+    @Transactional
+    public int rollUp(LocalDateTime from, LocalDateTime to) {
+        Map<Bucket, int[]> buckets = new TreeMap<>();
+        for (int metric = 0; metric < SLICE_QUERIES.length; metric++) {
+            List<?> rows = entityManager.createNativeQuery(SLICE_QUERIES[metric])
+                    .setParameter(1, from)
+                    .setParameter(2, to)
+                    .getResultList();
+            for (Object row : rows) {
+                Object[] cols = (Object[]) row;
+                LocalDateTime hour = ((java.sql.Date) cols[1]).toLocalDate().atTime(((Number) cols[2]).intValue(), 0);
+                buckets.computeIfAbsent(new Bucket(((Number) cols[0]).longValue(), hour), b -> new int[3])
+                        [metric] = ((Number) cols[3]).intValue();
+            }
+        }
+
+        entityManager.createNativeQuery(CLEAR_HOURS)
+                .setParameter(1, from)
+                .setParameter(2, to)
+                .executeUpdate();
+        List<Map.Entry<Bucket, int[]>> entries = new ArrayList<>(buckets.entrySet());
+        for (int start = 0; start < entries.size(); start += ROWS_PER_INSERT) {
+            upsertHourly(entries.subList(start, Math.min(start + ROWS_PER_INSERT, entries.size())));
+        }
+
+        LocalDate firstDay = from.toLocalDate();
+        LocalDate endDay = to.minusNanos(1).toLocalDate().plusDays(1);
+        entityManager.createNativeQuery(CLEAR_DAYS)
+                .setParameter(1, firstDay)
+                .setParameter(2, endDay)
+                .executeUpdate();
+        entityManager.createNativeQuery(RESUM_DAYS)
+                .setParameter(1, firstDay.atStartOfDay())
+                .setParameter(2, endDay.atStartOfDay())
+                .executeUpdate();
+        return entries.size();
+    }
+
+    /** The earliest event timestamp across the rolled-up tables, or null when they are empty. */
+    @Transactional(readOnly = true)
+    public LocalDateTime earliestEvent() {
+        LocalDateTime earliest = null;
+        for (String jpql : new String[] {
+                "SELECT MIN(v.viewedAt) FROM views v",
+                "SELECT MIN(pc.clickedAt) FROM phone_clicks pc",
+                "SELECT MIN(sl.createdAt) FROM saved_listings sl"}) {
+            LocalDateTime first = entityManager.createQuery(jpql, LocalDateTime.class).getSingleResult();
+            if (first != null && (earliest == null || first.isBefore(earliest))) {
+                earliest = first;
+            }
+        }
+        return earliest;
+    }
+
+    private void upsertHourly(List<Map.Entry<Bucket, int[]>> rows) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO listing_engagement_hourly (listing_id, bucket_hour, views, clicks, saves) VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+        }
+        sql.append(" AS new ON DUPLICATE KEY UPDATE views = new.views, clicks = new.clicks, saves = new.saves");
+        Query upsert = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        for (Map.Entry<Bucket, int[]> row : rows) {
+            upsert.setParameter(position++, row.getKey().listingId());
+            upsert.setParameter(position++, row.getKey().hour());
+            upsert.setParameter(position++, row.getValue()[VIEWS]);
+            upsert.setParameter(position++, row.getValue()[CLICKS]);
+            upsert.setParameter(position++, row.getValue()[SAVES]);
+        }
+        upsert.executeUpdate();
+    }
+}
@@ -8,12 +8,12 @@ import com.smartrent.dto.response.ListingSaveSummary;
 import com.smartrent.dto.response.OwnerListingsAnalyticsResponse;
 import com.smartrent.dto.response.OwnerSavedListingsAnalyticsResponse;
 import com.smartrent.dto.response.SavedListingsTrendResponse;
+import com.smartrent.infra.repository.ListingEngagementTotalsRepository;
 import com.smartrent.infra.repository.ListingRepository;
-import com.smartrent.infra.repository.PhoneClickDetailRepository;
-import com.smartrent.infra.repository.SavedListingRepository;
-import com.smartrent.infra.repository.ViewRepository;
 import com.smartrent.infra.repository.entity.Listing;
 import com.smartrent.service.analytics.AnalyticsService;
+import com.smartrent.service.analytics.EngagementRollupReader;
+import com.smartrent.service.engagement.EngagementCounters;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -24,7 +24,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -37,10 +36,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AnalyticsServiceImpl implements AnalyticsService {
 
-    PhoneClickDetailRepository phoneClickDetailRepository;
-    ViewRepository viewRepository;
     ListingRepository listingRepository;
-    SavedListingRepository savedListingRepository;
+    EngagementCounters engagementCounters;
+    EngagementRollupReader engagementRollupReader;
+    ListingEngagementTotalsRepository listingEngagementTotalsRepository;
 
     @Override
     @Transactional(readOnly = true)
@@ -52,23 +51,28 @@ public class AnalyticsServiceImpl implements AnalyticsService {
             throw new RuntimeException("You are not the owner of this listing");
         }
 
+        List<EngagementRollupReader.Day> days = engagementRollupReader.daily(listingId, since);
         long totalClicks;
         long totalViews;
-        List<DailyClickCount> clicksOverTime;
-        Map<String, Long> clicksByDayOfWeek;
-
         if (since != null) {
-            LocalDateTime now = LocalDateTime.now();
-            totalClicks = phoneClickDetailRepository.countByListing_ListingIdAndClickedAtBetween(
-                    listingId, since, now);
-            totalViews = viewRepository.countByListing_ListingIdAndViewedAtBetween(listingId, since, now);
-            clicksOverTime = buildClicksOverTimeSince(listingId, since);
-            clicksByDayOfWeek = buildClicksByDayOfWeekSince(listingId, since);
+            totalClicks = days.stream().mapToLong(EngagementRollupReader.Day::clicks).sum();
+            totalViews = days.stream().mapToLong(EngagementRollupReader.Day::views).sum();
         } else {
-            totalClicks = phoneClickDetailRepository.countByListing_ListingId(listingId);
-            totalViews = viewRepository.countByListing_ListingId(listingId);
-            clicksOverTime = buildClicksOverTime(listingId);
-            clicksByDayOfWeek = buildClicksByDayOfWeek(listingId);
+            EngagementCounters.ListingTotals totals = engagementCounters.totals(listingId);
+            totalClicks = totals.clicks();
+            totalViews = totals.views();
+        }
+
+        List<DailyClickCount> clicksOverTime = days.stream()
+                .filter(day -> day.clicks() > 0)
+                .map(day -> DailyClickCount.builder()
+                        .date(day.date())
+                        .count(day.clicks())
+                        .build())
+                .collect(Collectors.toList());
+        Map<String, Long> clicksByDayOfWeek = initDayOfWeekMap();
+        for (EngagementRollupReader.Day day : days) {
+            clicksByDayOfWeek.merge(dayOfWeekName(day.date().getDayOfWeek()), day.clicks(), Long::sum);
         }
 
         // Views can undercount relative to clicks (ad blockers, JS errors dropping the
@@ -91,9 +95,9 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     public OwnerListingsAnalyticsResponse getOwnerListingsAnalytics(String ownerId, String search, Pageable pageable) {
         Page<Object[]> page;
         if (search != null && !search.isBlank()) {
-            page = phoneClickDetailRepository.countClicksPerListingForOwnerPagedWithSearch(ownerId, search.trim(), pageable);
+            page = listingEngagementTotalsRepository.findClickLeaderboardWithSearch(ownerId, search.trim(), pageable);
         } else {
-            page = phoneClickDetailRepository.countClicksPerListingForOwnerPaged(ownerId, pageable);
+            page = listingEngagementTotalsRepository.findClickLeaderboard(ownerId, pageable);
         }
 
         List<Object[]> rows = page.getContent();
@@ -133,20 +137,16 @@ public class AnalyticsServiceImpl implements AnalyticsService {
             throw new RuntimeException("You are not the owner of this listing");
         }
 
-        long totalSaves;
-        List<Object[]> rawData;
-        if (since != null) {
-            totalSaves = savedListingRepository.countByIdListingIdAndCreatedAtGreaterThanEqual(listingId, since);
-            rawData = savedListingRepository.countSavesGroupedByDateSince(listingId, since);
-        } else {
-            totalSaves = savedListingRepository.countByIdListingId(listingId);
-            rawData = savedListingRepository.countSavesGroupedByDate(listingId);
-        }
+        List<EngagementRollupReader.Day> days = engagementRollupReader.daily(listingId, since);
+        long totalSaves = since != null
+                ? days.stream().mapToLong(EngagementRollupReader.Day::saves).sum()
+                : engagementCounters.totals(listingId).saves();
 
-        List<DailySaveCount> savesOverTime = rawData.stream()
-                .map(row -> DailySaveCount.builder()
-                        .date(((java.sql.Date) row[0]).toLocalDate())
-                        .count(((Number) row[1]).longValue())
+        List<DailySaveCount> savesOverTime = days.stream()
+                .filter(day -> day.saves() > 0)
+                .map(day -> DailySaveCount.builder()
+                        .date(day.date())
+                        .count(day.saves())
                         .build())
                 .collect(Collectors.toList());
 
@@ -163,14 +163,14 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     public OwnerSavedListingsAnalyticsResponse getOwnerSavedListingsAnalytics(String ownerId, String search, Pageable pageable) {
         Page<Object[]> page;
         if (search != null && !search.isBlank()) {
-            page = savedListingRepository.countSavesPerListingForOwnerPagedWithSearch(ownerId, search.trim(), pageable);
+            page = listingEngagementTotalsRepository.findSaveLeaderboardWithSearch(ownerId, search.trim(), pageable);
         } else {
-            page = savedListingRepository.countSavesPerListingForOwnerPaged(ownerId, pageable);
+            page = listingEngagementTotalsRepository.findSaveLeaderboard(ownerId, pageable);
         }
 
         // Computed independently of the page size so it reflects saves across
         // ALL of the owner's listings, not just the current page.
-        long totalSavesAcrossAll = savedListingRepository.countTotalSavesForOwner(ownerId);
+        long totalSavesAcrossAll = listingEngagementTotalsRepository.sumSavesByOwnerId(ownerId);
 
         List<Object[]> rows = page.getContent();
         Map<Long, String> titleById = resolveListingTitles(rows);
@@ -217,67 +217,15 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 .collect(Collectors.toMap(r -> ((Number) r[0]).longValue(), r -> (String) r[1]));
     }
 
-    private List<DailyClickCount> buildClicksOverTime(Long listingId) {
-        List<Object[]> rawData = phoneClickDetailRepository.countClicksGroupedByDate(listingId);
-        return rawData.stream()
-                .map(row -> DailyClickCount.builder()
-                        .date((LocalDate) row[0])
-                        .count((Long) row[1])
-                        .build())
-                .collect(Collectors.toList());
-    }
-
-    private List<DailyClickCount> buildClicksOverTimeSince(Long listingId, LocalDateTime since) {
-        List<Object[]> rawData = phoneClickDetailRepository.countClicksGroupedByDateSince(listingId, since);
-        return rawData.stream()
-                .map(row -> DailyClickCount.builder()
-                        .date((LocalDate) row[0])
-                        .count((Long) row[1])
-                        .build())
-                .collect(Collectors.toList());
-    }
-
-    private Map<String, Long> buildClicksByDayOfWeek(Long listingId) {
-        Map<String, Long> result = initDayOfWeekMap();
-        List<Object[]> rawData = phoneClickDetailRepository.countClicksGroupedByDayOfWeek(listingId);
-        fillDayOfWeekMap(result, rawData);
-        return result;
-    }
-
-    private Map<String, Long> buildClicksByDayOfWeekSince(Long listingId, LocalDateTime since) {
-        Map<String, Long> result = initDayOfWeekMap();
-        List<Object[]> rawData = phoneClickDetailRepository.countClicksGroupedByDayOfWeekSince(listingId, since);
-        fillDayOfWeekMap(result, rawData);
-        return result;
-    }
-
     private Map<String, Long> initDayOfWeekMap() {
         Map<String, Long> result = new LinkedHashMap<>();
         for (DayOfWeek day : DayOfWeek.values()) {
-            result.put(day.name().substring(0, 3), 0L);
+            result.put(dayOfWeekName(day), 0L);
         }
         return result;
     }
 
-    private void fillDayOfWeekMap(Map<String, Long> result, List<Object[]> rawData) {
-        for (Object[] row : rawData) {
-            int mysqlDow = ((Number) row[0]).intValue();
-            Long count = (Long) row[1];
-            String dayName = mysqlDayOfWeekToName(mysqlDow);
-            result.put(dayName, count);
-        }
-    }
-
-    private String mysqlDayOfWeekToName(int mysqlDow) {
-        return switch (mysqlDow) {
-            case 1 -> "SUN";
-            case 2 -> "MON";
-            case 3 -> "TUE";
-            case 4 -> "WED";
-            case 5 -> "THU";
-            case 6 -> "FRI";
-            case 7 -> "SAT";
-            default -> "UNK";
-        };
+    private String dayOfWeekName(DayOfWeek day) {
+        return day.name().substring(0, 3);
     }
 }
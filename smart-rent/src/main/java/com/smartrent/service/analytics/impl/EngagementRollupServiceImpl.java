@@ -0,0 +1,158 @@
+package com.smartrent.service.analytics.impl;
+
+import com.smartrent.infra.repository.RollupWatermarkRepository;
+import com.smartrent.infra.repository.entity.RollupWatermark;
+import com.smartrent.service.analytics.EngagementRollupService;
+import com.smartrent.service.analytics.EngagementRollupWriter;
+import com.smartrent.service.retention.RetentionTable;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Watermark-driven driver of {@link EngagementRollupWriter}.
+ *
+ * <p>An hour is rolled up once it has been closed for {@code lateness-minutes},
+ * so events that reach their table late (buffered views, phone clicks
+ * retried from the stream) still land in their bucket. Backfill chunks are
+ * aligned to days: each day's daily row is then re-summed by exactly one chunk.
+ * A backfill never reaches below the retention horizon of views and phone
+ * clicks, where the raw rows are incomplete and the buckets already hold the
+ * only full counts.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class EngagementRollupServiceImpl implements EngagementRollupService {
+
+    /** A range of whole hours, {@code [from, to)}. */
+    record Chunk(LocalDateTime from, LocalDateTime to) {}
+
+    EngagementRollupWriter engagementRollupWriter;
+    RollupWatermarkRepository rollupWatermarkRepository;
+
+    @NonFinal
+    @Value("${application.engagement-rollup.lateness-minutes:15}")
+    long latenessMinutes;
+
+    @NonFinal
+    @Value("${application.engagement-rollup.max-hours-per-run:24}")
+    int maxHoursPerRun;
+
+    @NonFinal
+    @Value("${application.engagement-rollup.backfill-chunk-days:7}")
+    int backfillChunkDays;
+
+    @NonFinal
+    @Value("${application.engagement-rollup.backfill-parallelism:4}")
+    int backfillParallelism;
+
+    @Override
+    public int rollUpNewHours() {
+        LocalDateTime end = LocalDateTime.now().minusMinutes(latenessMinutes).truncatedTo(ChronoUnit.HOURS);
+        RollupWatermark watermark = rollupWatermarkRepository.findById(ROLLUP_NAME).orElse(null);
+
+        if (watermark == null) {
+            LocalDateTime earliest = engagementRollupWriter.earliestEvent();
+            int buckets = earliest != null ? backfill(earliest, end) : 0;
+            rollupWatermarkRepository.save(RollupWatermark.builder()
+                    .rollupName(ROLLUP_NAME)
+                    .rolledUpTo(end)
+                    .build());
+            log.info("engagement-rollup: initial backfill up to {} wrote {} hourly buckets", end, buckets);
+            return buckets;
+        }
+
+        LocalDateTime from = watermark.getRolledUpTo();
+        if (!from.isBefore(end)) {
+            return 0;
+        }
+        LocalDateTime to = from.plusHours(maxHoursPerRun).isBefore(end) ? from.plusHours(maxHoursPerRun) : end;
+        int buckets = engagementRollupWriter.rollUp(from, to);
+        watermark.setRolledUpTo(to);
+        rollupWatermarkRepository.save(watermark);
+        log.debug("engagement-rollup: rolled up [{}, {}) into {} hourly buckets", from, to, buckets);
+        return buckets;
+    }
+
+    @Override
+    public int backfill(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime horizon = retentionHorizon();
+        if (horizon != null && from.isBefore(horizon)) {
+            log.warn("engagement-rollup: raw events before {} are subject to retention, backfilling from there instead of {}",
+                    horizon, from);
+            from = horizon;
+        }
+        List<Chunk> chunks = chunks(from, to, backfillChunkDays);
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(backfillParallelism, chunks.size()));
+        try {
+            List<Future<Integer>> results = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                results.add(pool.submit(() -> engagementRollupWriter.rollUp(chunk.from(), chunk.to())));
+            }
+            int buckets = 0;
+            for (Future<Integer> result : results) {
+                buckets += result.get();
+            }
+            log.info("engagement-rollup: backfilled [{}, {}) in {} chunks, {} hourly buckets",
+                    from, to, chunks.size(), buckets);
+            return buckets;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Engagement rollup backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Engagement rollup backfill failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** The later retention horizon of the views and phone clicks tables, or null before the first sweep. */
+    private LocalDateTime retentionHorizon() {
+        LocalDateTime horizon = null;
+        for (RetentionTable table : new RetentionTable[] {RetentionTable.VIEWS, RetentionTable.PHONE_CLICKS}) {
+            LocalDateTime tableHorizon = rollupWatermarkRepository.findById(table.horizonName())
+                    .map(RollupWatermark::getRolledUpTo)
+                    .orElse(null);
+            if (tableHorizon != null && (horizon == null || tableHorizon.isAfter(horizon))) {
+                horizon = tableHorizon;
+            }
+        }
+        return horizon;
+    }
+
+    /**
+     * Splits {@code [from, to)}, widened to whole hours, into chunks that end
+     * on midnight and span at most {@code days} days.
+     */
+    static List<Chunk> chunks(LocalDateTime from, LocalDateTime to, int days) {
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS).equals(to)
+                ? to : to.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        List<Chunk> chunks = new ArrayList<>();
+        while (start.isBefore(end)) {
+            LocalDateTime next = start.truncatedTo(ChronoUnit.DAYS).plusDays(Math.max(1, days));
+            LocalDateTime chunkEnd = next.isBefore(end) ? next : end;
+            chunks.add(new Chunk(start, chunkEnd));
+            start = chunkEnd;
+        }
+        return chunks;
+    }
+}
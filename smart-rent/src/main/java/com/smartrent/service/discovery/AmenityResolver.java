@@ -2,13 +2,16 @@ package com.smartrent.service.discovery;
 
 import com.smartrent.infra.repository.AmenityRepository;
 import com.smartrent.infra.repository.entity.Amenity;
+import com.smartrent.util.PhraseAutomaton;
 import com.smartrent.util.TextNormalizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -89,6 +92,16 @@ public class AmenityResolver {
         alias("Bình nước nóng", "binh nuoc nong", "binh nong lanh", "may nuoc nong");
     }
 
+    /**
+     * Read-only view of the curated {@code normalized-alias → canonical name}
+     * dictionary, so other in-memory indexes (e.g. the typo vocabulary in
+     * {@link TypoToleranceService}) stay in sync with the phrases this
+     * resolver understands.
+     */
+    public static Map<String, String> aliasDictionary() {
+        return Collections.unmodifiableMap(ALIASES);
+    }
+
     /** Outcome of a resolve call. */
     public record Resolved(Set<Long> amenityIds, List<String> unresolved) {
         public boolean isEmpty() {
@@ -96,8 +109,22 @@ public class AmenityResolver {
         }
     }
 
-    // Lazily built, periodically refreshed: normalized key → amenityId.
-    private volatile Map<String, Long> index = Map.of();
+    /**
+     * Lazily built, periodically refreshed lookup structure:
+     * {@code ids} maps each normalized key to its amenityId (insertion order
+     * is the tie-break order), {@code keys} holds the same keys by automaton
+     * pattern id, and {@code automaton} finds every key contained in a phrase
+     * in one walk.
+     */
+    private record Index(Map<String, Long> ids, String[] keys, PhraseAutomaton automaton) {
+        static final Index EMPTY = new Index(Map.of(), new String[0], PhraseAutomaton.builder().build());
+
+        boolean isEmpty() {
+            return ids.isEmpty();
+        }
+    }
+
+    private volatile Index index = Index.EMPTY;
     private volatile long indexLoadedAt = 0L;
 
     /**
@@ -112,7 +139,7 @@ public class AmenityResolver {
             return new Resolved(ids, unresolved);
         }
 
-        Map<String, Long> idx = currentIndex();
+        Index idx = currentIndex();
         for (String phrase : phrases) {
             if (phrase == null || phrase.isBlank()) {
                 continue;
@@ -127,38 +154,44 @@ public class AmenityResolver {
         return new Resolved(ids, unresolved);
     }
 
-    private Long lookup(Map<String, Long> idx, String phrase) {
+    private Long lookup(Index idx, String phrase) {
         String norm = TextNormalizer.normalize(phrase);
         if (norm == null || norm.isBlank()) {
             return null;
         }
         // 1. Exact normalized hit (covers canonical names and curated aliases).
-        Long exact = idx.get(norm);
+        Long exact = idx.ids().get(norm);
         if (exact != null) {
             return exact;
         }
         // 2. Bidirectional containment so "phong full noi that may lanh" still
-        //    picks up "may lanh", and "wc" still picks up "wc rieng".
-        Long best = null;
-        int bestLen = 0;
-        for (Map.Entry<String, Long> e : idx.entrySet()) {
-            String key = e.getKey();
-            if (key.length() < 2) {
-                continue;
-            }
-            boolean hit = (" " + norm + " ").contains(" " + key + " ")
-                    || norm.contains(key) || key.contains(norm);
-            if (hit && key.length() > bestLen) {
-                best = e.getValue();
-                bestLen = key.length();
+        //    picks up "may lanh", and "wc" still picks up "wc rieng". The
+        //    longest key wins, earliest key on a tie. Keys inside the phrase
+        //    come from one automaton walk; only keys longer than the phrase
+        //    can contain it, so that direction skips everything shorter.
+        String[] keys = idx.keys();
+        int best = -1;
+        BitSet contained = idx.automaton().findAll(norm);
+        for (int k = contained.nextSetBit(0); k >= 0; k = contained.nextSetBit(k + 1)) {
+            if (isBetter(keys, k, best)) best = k;
+        }
+        for (int k = 0; k < keys.length; k++) {
+            if (keys[k].length() > norm.length() && isBetter(keys, k, best) && keys[k].contains(norm)) {
+                best = k;
             }
         }
-        return best;
+        return best < 0 ? null : idx.ids().get(keys[best]);
+    }
+
+    private static boolean isBetter(String[] keys, int candidate, int best) {
+        if (best < 0) return true;
+        int diff = keys[candidate].length() - keys[best].length();
+        return diff > 0 || (diff == 0 && candidate < best);
     }
 
-    private Map<String, Long> currentIndex() {
+    private Index currentIndex() {
         long now = System.currentTimeMillis();
-        Map<String, Long> snapshot = index;
+        Index snapshot = index;
         if (!snapshot.isEmpty() && (now - indexLoadedAt) < INDEX_TTL_MILLIS) {
             return snapshot;
         }
@@ -166,7 +199,7 @@ public class AmenityResolver {
             if (!index.isEmpty() && (System.currentTimeMillis() - indexLoadedAt) < INDEX_TTL_MILLIS) {
                 return index;
             }
-            Map<String, Long> rebuilt = buildIndex();
+            Index rebuilt = buildIndex();
             if (!rebuilt.isEmpty()) {
                 index = rebuilt;
                 indexLoadedAt = System.currentTimeMillis();
@@ -180,7 +213,7 @@ public class AmenityResolver {
      * curated alias dictionary. Never throws: a failure here must degrade to an
      * empty index (caller then keeps the LIKE fallback) rather than break search.
      */
-    private Map<String, Long> buildIndex() {
+    private Index buildIndex() {
         Map<String, Long> idx = new LinkedHashMap<>();
         try {
             List<Amenity> amenities = amenityRepository.findAll();
@@ -207,10 +240,29 @@ public class AmenityResolver {
                 }
             }
             log.debug("AmenityResolver index built: {} keys from {} amenities", idx.size(), amenities.size());
+            return toIndex(idx);
         } catch (Exception e) {
             log.warn("AmenityResolver index build failed (non-fatal, falling back to LIKE): {}", e.getMessage(), e);
+            return Index.EMPTY;
+        }
+    }
+
+    /**
+     * Freezes the key map and compiles the containment automaton. Keys shorter
+     * than two chars never took part in containment matching and are left
+     * out of it (they still resolve on an exact hit).
+     */
+    private static Index toIndex(Map<String, Long> ids) {
+        PhraseAutomaton.Builder builder = PhraseAutomaton.builder();
+        List<String> keys = new ArrayList<>();
+        for (String key : ids.keySet()) {
+            if (key.length() < 2) {
+                continue;
+            }
+            builder.add(key);
+            keys.add(key);
         }
-        return idx;
+        return new Index(Collections.unmodifiableMap(ids), keys.toArray(new String[0]), builder.build());
     }
 
     private Long idForCanonical(Map<String, Long> nameIndex, String canonicalNorm) {
@@ -2,6 +2,9 @@ package com.smartrent.service.discovery;
 
 import com.smartrent.infra.repository.LegacyDistrictRepository;
 import com.smartrent.infra.repository.LegacyProvinceRepository;
+import com.smartrent.infra.repository.LegacyWardRepository;
+import com.smartrent.infra.repository.StreetRepository;
+import com.smartrent.infra.repository.WardRepository;
 import com.smartrent.infra.repository.entity.District;
 import com.smartrent.infra.repository.entity.LegacyProvince;
 import com.smartrent.util.TextNormalizer;
@@ -11,29 +14,47 @@ import org.apache.commons.text.similarity.JaroWinklerSimilarity;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
- * Typo-tolerant resolver for province / district names, used as a fallback
- * when the exact (LIKE / key) location tiers find nothing — e.g. the user
- * typed "tn binh" instead of "tân bình".
+ * Typo-tolerant resolver for province / district / ward / street names, used
+ * as a fallback when the exact location tiers find nothing — e.g. the user
+ * typed "tn binh" instead of "tân bình" — and as the in-memory replacement for
+ * the ward {@code LIKE '%…%'} tier.
  *
  * <h3>Why in-memory</h3>
- * There are only ~63 provinces + ~700 districts; their names are tiny
- * strings and change about once a decade. Loading them once into a cached
- * list and scoring with Jaro-Winkler is sub-millisecond and needs zero DB
- * round-trips on the request path — far cheaper and more controllable than
- * an ngram FULLTEXT scan, and it never blocks the dropdown.
+ * ~63 provinces + ~700 districts + ~10k legacy wards + the new-structure wards
+ * and the street list are small strings that change rarely. Holding them in
+ * memory keeps every lookup a zero-DB-round-trip operation on the suggestion
+ * hot path, far cheaper and more controllable than an ngram FULLTEXT scan.
+ *
+ * <h3>Trigram prefilter</h3>
+ * Scoring every entry with Jaro-Winkler was fine for ~760 names but not for
+ * 10–20k. Each {@link Segment} therefore keeps a trigram inverted index
+ * (padded {@code " name "} → entry ids); a query first counts shared trigrams
+ * per entry and only the best-overlapping shortlist is scored, so a fuzzy
+ * ward lookup stays sub-millisecond. Substring ("contains") lookups use a
+ * second set of postings over the spaceless names: an entry must carry every
+ * trigram of the spaceless query before the actual {@code contains} check
+ * runs.
  *
  * <h3>Freshness</h3>
- * The index self-heals: it is rebuilt lazily when older than
- * {@link #REFRESH_TTL_MS} (the legacy admin tables are effectively static,
- * so a long TTL is safe and keeps the hot path allocation-free).
+ * The index is split into independently rebuilt segments (provinces +
+ * districts, legacy wards, new-structure wards, streets).
+ * {@link #refresh()} — driven by
+ * {@link com.smartrent.cronjob.SearchIndexRefreshScheduler} — compares a cheap
+ * {@code [count, max(updated_at)]} fingerprint per source and reloads only
+ * the segments whose source changed. The first request builds everything
+ * lazily if the scheduler has not run yet.
  *
  * <p>The pure {@link #buildIndex} / {@link #searchIndex} helpers are
  * package-private and Spring-free so the scoring can be unit-tested without
@@ -47,57 +68,117 @@ public class LocationFuzzyIndex {
     /** Shared, thread-safe (stateless) similarity scorer. */
     private static final JaroWinklerSimilarity JARO_WINKLER = new JaroWinklerSimilarity();
 
-    /** Rebuild the cached index when it is older than this (6 hours). */
-    private static final long REFRESH_TTL_MS = 6L * 60 * 60 * 1000;
-
     /** Default similarity floor — below this a "match" is just noise. */
     public static final double DEFAULT_MIN_SCORE = 0.86;
 
     /** Fuzzy matching on 1-2 char fragments is meaningless; require ≥ this. */
     private static final int MIN_QUERY_LENGTH = 3;
 
+    /**
+     * Minimum share of the query's trigrams an entry must contain to be
+     * scored. Low enough that a dropped/swapped char ("tn binh") survives,
+     * high enough to discard the bulk of unrelated names.
+     */
+    private static final double MIN_TRIGRAM_OVERLAP = 0.3;
+
+    /** At most this many best-overlapping entries are Jaro-Winkler scored. */
+    private static final int MAX_SHORTLIST = 256;
+
+    /**
+     * Leading administrative-unit word. Thousands of wards share "phuong",
+     * whose common prefix alone lifts Jaro-Winkler past the floor, so when the
+     * query carries a marker only the remainder is compared.
+     */
+    private static final java.util.regex.Pattern UNIT_PREFIX = java.util.regex.Pattern.compile(
+            "^(thanh pho|thi tran|thi xa|tinh|quan|huyen|phuong|xa|duong)\\s+");
+
+    /** Kinds the generic typo fallback searches when the caller does not narrow them. */
+    public static final Set<Kind> PLACE_KINDS =
+            EnumSet.of(Kind.PROVINCE, Kind.DISTRICT, Kind.WARD, Kind.NEW_WARD);
+
     private final LegacyProvinceRepository provinceRepository;
     private final LegacyDistrictRepository districtRepository;
+    private final LegacyWardRepository legacyWardRepository;
+    private final WardRepository wardRepository;
+    private final StreetRepository streetRepository;
+
+    private volatile Snapshot snapshot;
+
+    /** Last seen source fingerprints, guarded by {@code this}. */
+    private final Map<Source, List<Object>> fingerprints = new HashMap<>();
 
-    private volatile Index cached;
-    private volatile long builtAtMs;
+    /**
+     * {@code WARD} is a legacy (pre-2025, 3-level) ward carrying legacy ids;
+     * {@code NEW_WARD} is a ward of the 2-level structure, addressed by
+     * province code + ward code only.
+     */
+    public enum Kind { PROVINCE, DISTRICT, WARD, NEW_WARD, STREET }
 
-    public enum Kind { PROVINCE, DISTRICT }
+    /** Independently rebuilt slices of the index. */
+    private enum Source { ADMIN, LEGACY_WARDS, NEW_WARDS, STREETS }
 
-    /** One searchable place plus the legacy ids the frontend needs. */
+    /** One searchable place plus the ids / codes the frontend needs. */
     public record Entry(
             Kind kind,
             String display,
             Integer legacyProvinceId,
             Integer legacyDistrictId,
+            Integer legacyWardId,
+            Integer streetId,
             String provinceCode,
             String districtCode,
+            String wardCode,
             String provinceName,
             String districtName,
+            String wardName,
             List<String> matchStrings) {}
 
     /**
-     * Pre-built lookup structures so the hot path never linearly scans the
-     * ~760-entry list:
+     * A flat entry list plus its trigram postings ({@code trigram → ascending
+     * entry positions}): {@code postings} over the padded names for fuzzy
+     * scoring, {@code compactPostings} over the names with spaces removed for
+     * substring lookups. Immutable once built.
+     */
+    public record Segment(List<Entry> entries, Map<String, int[]> postings, Map<String, int[]> compactPostings) {
+        static final Segment EMPTY = new Segment(List.of(), Map.of(), Map.of());
+    }
+
+    /**
+     * Pre-built lookup structures for the province / district core so the hot
+     * path never linearly scans it:
      * <ul>
-     *   <li>{@code entries} — flat list, used ONLY by {@link #searchIndex}
-     *       (the typo fallback that genuinely has to score everything, and
-     *       only runs when every exact tier missed);</li>
+     *   <li>{@code entries} — flat list, the source of {@code segment};</li>
      *   <li>{@code provinceByMatch} — province {@code matchString → Entry}
      *       (O(1) {@link #findProvinceExact});</li>
-     *   <li>{@code districtByKey} — {@code provinceCodematchString →
+     *   <li>{@code districtByKey} — {@code provinceCodematchString →
      *       Entry} (O(1) {@link #findDistrictInProvince} /
      *       {@link #resolveDistrictIn});</li>
      *   <li>{@code districtsByProvince} — {@code provinceCode → its districts}
      *       so the fuzzy district scan is bounded to one province (~20-35
-     *       rows) instead of all ~700.</li>
+     *       rows) instead of all ~700;</li>
+     *   <li>{@code provinceByCode} / {@code districtByCode} /
+     *       {@code provinceById} / {@code districtById} — parent lookups used
+     *       to attach legacy ids and names to ward and street entries;</li>
+     *   <li>{@code segment} — trigram postings over {@code entries}.</li>
      * </ul>
      */
     public record Index(
             List<Entry> entries,
             Map<String, Entry> provinceByMatch,
             Map<String, Entry> districtByKey,
-            Map<String, List<Entry>> districtsByProvince) {}
+            Map<String, List<Entry>> districtsByProvince,
+            Map<String, Entry> provinceByCode,
+            Map<String, Entry> districtByCode,
+            Map<Integer, Entry> provinceById,
+            Map<Integer, Entry> districtById,
+            Segment segment) {}
+
+    /** Everything currently published; swapped atomically on refresh. */
+    private record Snapshot(Index admin, Segment legacyWards, Segment newWards, Segment streets) {
+        List<Segment> segments() {
+            return List.of(admin.segment(), legacyWards, newWards, streets);
+        }
+    }
 
     /** Composite key for {@link Index#districtByKey}. {@code U+0001} can never
      *  appear in {@link TextNormalizer#normalize} output, so it is a safe,
@@ -106,33 +187,64 @@ public class LocationFuzzyIndex {
         return provinceCode + '\u0001' + match;
     }
 
-    /** A scored fuzzy hit (highest score first when returned). */
+    /** A scored hit (highest score first when returned). */
     public record Match(
             Kind kind,
             String display,
             Integer legacyProvinceId,
             Integer legacyDistrictId,
+            Integer legacyWardId,
+            Integer streetId,
             String provinceCode,
             String districtCode,
+            String wardCode,
             String provinceName,
             String districtName,
+            String wardName,
             double score) {}
 
     /**
-     * Best fuzzy province/district matches for an already-normalized query
-     * (accent-stripped, lowercase — i.e. {@link TextNormalizer#normalize}
+     * Best fuzzy province/district/ward matches for an already-normalized
+     * query (accent-stripped, lowercase — i.e. {@link TextNormalizer#normalize}
      * output). Returns an empty list (never throws) on any failure so the
      * suggestion response degrades gracefully.
      */
     public List<Match> search(String normalizedQuery, double minScore, int limit) {
+        return search(normalizedQuery, minScore, limit, PLACE_KINDS);
+    }
+
+    /** {@link #search(String, double, int)} restricted to the given kinds. */
+    public List<Match> search(String normalizedQuery, double minScore, int limit, Set<Kind> kinds) {
         try {
-            return searchIndex(index(), normalizedQuery, minScore, limit);
+            return searchSegments(snapshot().segments(), normalizedQuery, minScore, limit, kinds);
         } catch (Exception e) {
             log.warn("location-fuzzy: search failed (non-fatal): {}", e.getMessage(), e);
             return List.of();
         }
     }
 
+    /**
+     * Substring lookup — the in-memory equivalent of the old
+     * {@code LOWER(name) LIKE '%q%'} ward tier — for one kind, optionally
+     * scoped to a province code. Exact names rank first, then prefixes, then
+     * other containments. Never throws.
+     */
+    public List<Match> findContaining(String normalizedQuery, Kind kind, String provinceCode, int limit) {
+        try {
+            Snapshot s = snapshot();
+            Segment segment = switch (kind) {
+                case PROVINCE, DISTRICT -> s.admin().segment();
+                case WARD -> s.legacyWards();
+                case NEW_WARD -> s.newWards();
+                case STREET -> s.streets();
+            };
+            return containsIn(segment, normalizedQuery, kind, provinceCode, limit);
+        } catch (Exception e) {
+            log.warn("location-fuzzy: findContaining failed (non-fatal): {}", e.getMessage(), e);
+            return List.of();
+        }
+    }
+
     /**
      * Exact (normalized) district lookup scoped to a province — used to
      * resolve the legacy ids behind curated "default" suggestions without a
@@ -142,7 +254,7 @@ public class LocationFuzzyIndex {
      */
     public Optional<Match> resolveDistrict(String provinceCode, String normalizedName) {
         try {
-            return resolveDistrictIn(index(), provinceCode, normalizedName);
+            return resolveDistrictIn(snapshot().admin(), provinceCode, normalizedName);
         } catch (Exception ex) {
             log.warn("location-fuzzy: resolveDistrict failed (non-fatal): {}", ex.getMessage(), ex);
             return Optional.empty();
@@ -165,28 +277,123 @@ public class LocationFuzzyIndex {
      */
     public Optional<Match> resolveLocationPhrase(String normalizedPhrase) {
         try {
-            return resolveLocationPhraseIn(index(), normalizedPhrase);
+            return resolveLocationPhraseIn(snapshot().admin(), normalizedPhrase);
         } catch (Exception ex) {
             log.warn("location-fuzzy: resolveLocationPhrase failed (non-fatal): {}", ex.getMessage(), ex);
             return Optional.empty();
         }
     }
 
-    private Index index() {
-        Index local = cached;
-        if (local != null && System.currentTimeMillis() - builtAtMs <= REFRESH_TTL_MS) {
+    /**
+     * Reloads only the segments whose source table changed since the last
+     * load, then publishes the new snapshot. Ward and street segments depend
+     * on the province/district core for their legacy ids, so a core change
+     * rebuilds them too. Never throws: on failure the current snapshot keeps
+     * serving, and since the fingerprints read by a failed run are not
+     * recorded, the next run retries the same segments.
+     */
+    public synchronized void refresh() {
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                snapshot = loadAll();
+                return;
+            }
+            long started = System.currentTimeMillis();
+            Map<Source, List<Object>> seen = new HashMap<>();
+            Index admin = current.admin();
+            boolean adminChanged = changed(Source.ADMIN, seen);
+            if (adminChanged) {
+                admin = buildIndex(provinceRepository.findAll(), districtRepository.findAll());
+            }
+            Segment legacyWards = (adminChanged | changed(Source.LEGACY_WARDS, seen))
+                    ? buildLegacyWardSegment(admin, legacyWardRepository.findSearchIndexRows())
+                    : current.legacyWards();
+            Segment newWards = changed(Source.NEW_WARDS, seen)
+                    ? buildNewWardSegment(wardRepository.findSearchIndexRows())
+                    : current.newWards();
+            Segment streets = (adminChanged | changed(Source.STREETS, seen))
+                    ? buildStreetSegment(admin, streetRepository.findSearchIndexRows())
+                    : current.streets();
+            Snapshot next = new Snapshot(admin, legacyWards, newWards, streets);
+            fingerprints.putAll(seen);
+            if (!next.equals(current)) {
+                snapshot = next;
+                log.info("location-fuzzy: refreshed changed segments in {} ms ({} entries)",
+                        System.currentTimeMillis() - started, totalEntries(next));
+            }
+        } catch (Exception e) {
+            log.warn("location-fuzzy: refresh failed, keeping current index: {}", e.getMessage(), e);
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot local = snapshot;
+        if (local != null) {
             return local;
         }
         synchronized (this) {
-            if (cached == null || System.currentTimeMillis() - builtAtMs > REFRESH_TTL_MS) {
-                cached = buildIndex(provinceRepository.findAll(), districtRepository.findAll());
-                builtAtMs = System.currentTimeMillis();
-                log.debug("location-fuzzy: index built with {} entries", cached.entries().size());
+            if (snapshot == null) {
+                snapshot = loadAll();
             }
-            return cached;
+            return snapshot;
         }
     }
 
+    /**
+     * Full load of every segment. The fingerprints are read before the build
+     * (so a change made during it is seen by the next refresh) but only
+     * recorded once the build succeeded.
+     */
+    private Snapshot loadAll() {
+        long started = System.currentTimeMillis();
+        Map<Source, List<Object>> seen = new HashMap<>();
+        for (Source source : Source.values()) {
+            changed(source, seen);
+        }
+        Index admin = buildIndex(provinceRepository.findAll(), districtRepository.findAll());
+        Snapshot built = new Snapshot(
+                admin,
+                buildLegacyWardSegment(admin, legacyWardRepository.findSearchIndexRows()),
+                buildNewWardSegment(wardRepository.findSearchIndexRows()),
+                buildStreetSegment(admin, streetRepository.findSearchIndexRows()));
+        fingerprints.putAll(seen);
+        log.info("location-fuzzy: index built with {} entries in {} ms",
+                totalEntries(built), System.currentTimeMillis() - started);
+        return built;
+    }
+
+    /**
+     * Reads the source fingerprint into {@code seen} and reports whether it
+     * differs from the recorded one. The caller records {@code seen} once its
+     * rebuild succeeded.
+     */
+    private boolean changed(Source source, Map<Source, List<Object>> seen) {
+        List<Object> fp = switch (source) {
+            case ADMIN -> {
+                List<Object> both = new ArrayList<>(fingerprintOf(provinceRepository.findChangeFingerprint()));
+                both.addAll(fingerprintOf(districtRepository.findChangeFingerprint()));
+                yield both;
+            }
+            case LEGACY_WARDS -> fingerprintOf(legacyWardRepository.findChangeFingerprint());
+            case NEW_WARDS -> fingerprintOf(wardRepository.findChangeFingerprint());
+            case STREETS -> fingerprintOf(streetRepository.findChangeFingerprint());
+        };
+        seen.put(source, fp);
+        return !fp.equals(fingerprints.get(source));
+    }
+
+    private static List<Object> fingerprintOf(List<Object[]> rows) {
+        if (rows == null || rows.isEmpty() || rows.get(0) == null) {
+            return List.of();
+        }
+        return Arrays.asList(rows.get(0));
+    }
+
+    private static int totalEntries(Snapshot s) {
+        return s.segments().stream().mapToInt(seg -> seg.entries().size()).sum();
+    }
+
     // ── Pure, Spring-free core (unit-testable) ───────────────────────────────
 
     static Index buildIndex(List<LegacyProvince> provinces, List<District> districts) {
@@ -195,18 +402,24 @@ public class LocationFuzzyIndex {
         Map<String, Entry> provinceByMatch = new HashMap<>();
         Map<String, Entry> districtByKey = new HashMap<>();
         Map<String, List<Entry>> districtsByProvince = new HashMap<>();
+        Map<String, Entry> provinceByCode = new HashMap<>();
+        Map<String, Entry> districtByCode = new HashMap<>();
+        Map<Integer, Entry> provinceById = new HashMap<>();
+        Map<Integer, Entry> districtById = new HashMap<>();
 
         for (LegacyProvince p : provinces) {
             if (p.getCode() != null) byCode.put(p.getCode(), p);
             if (p.getId() == null) continue;
             List<String> match = norms(p.getName(), p.getShortName(), p.getAlias());
             if (match.isEmpty()) continue;
-            Entry e = new Entry(Kind.PROVINCE, p.getName(), p.getId(), null,
-                    p.getCode(), null, p.getName(), null, match);
+            Entry e = new Entry(Kind.PROVINCE, p.getName(), p.getId(), null, null, null,
+                    p.getCode(), null, null, p.getName(), null, null, match);
             entries.add(e);
             // putIfAbsent ⇒ first-wins, identical to the old in-order
             // linear scan that returned the first matching entry.
             for (String m : match) provinceByMatch.putIfAbsent(m, e);
+            if (p.getCode() != null) provinceByCode.putIfAbsent(p.getCode(), e);
+            provinceById.putIfAbsent(p.getId(), e);
         }
 
         for (District d : districts) {
@@ -216,8 +429,8 @@ public class LocationFuzzyIndex {
             if (provinceId == null) continue; // can't filter without a province id
             List<String> match = norms(d.getName(), d.getShortName(), d.getAlias());
             if (match.isEmpty()) continue;
-            Entry e = new Entry(Kind.DISTRICT, d.getName(), provinceId, d.getId(),
-                    d.getProvinceCode(), d.getCode(), d.getProvinceName(), d.getName(), match);
+            Entry e = new Entry(Kind.DISTRICT, d.getName(), provinceId, d.getId(), null, null,
+                    d.getProvinceCode(), d.getCode(), null, d.getProvinceName(), d.getName(), null, match);
             entries.add(e);
             districtsByProvince
                     .computeIfAbsent(d.getProvinceCode(), k -> new ArrayList<>())
@@ -225,8 +438,137 @@ public class LocationFuzzyIndex {
             for (String m : match) {
                 districtByKey.putIfAbsent(dkey(d.getProvinceCode(), m), e);
             }
+            if (d.getCode() != null) districtByCode.putIfAbsent(d.getCode(), e);
+            districtById.putIfAbsent(d.getId(), e);
+        }
+        return new Index(entries, provinceByMatch, districtByKey, districtsByProvince,
+                provinceByCode, districtByCode, provinceById, districtById, buildSegment(entries));
+    }
+
+    /**
+     * Legacy ward rows {@code [id, code, name, shortName, provinceCode,
+     * districtCode]} → WARD entries. Parent legacy ids and display names are
+     * taken from the core index; a ward whose province is unknown is skipped
+     * (it could not be filtered on).
+     */
+    static Segment buildLegacyWardSegment(Index admin, List<Object[]> rows) {
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (Object[] r : rows) {
+            Integer id = toInt(r[0]);
+            String name = str(r[2]);
+            Entry province = admin.provinceByCode().get(str(r[4]));
+            if (id == null || name == null || province == null) continue;
+            Entry district = admin.districtByCode().get(str(r[5]));
+            List<String> match = norms(name, str(r[3]));
+            if (match.isEmpty()) continue;
+            entries.add(new Entry(Kind.WARD, name,
+                    province.legacyProvinceId(),
+                    district != null ? district.legacyDistrictId() : null,
+                    id, null,
+                    province.provinceCode(),
+                    district != null ? district.districtCode() : str(r[5]),
+                    str(r[1]),
+                    province.provinceName(),
+                    district != null ? district.districtName() : null,
+                    name, match));
+        }
+        return buildSegment(entries);
+    }
+
+    /**
+     * New-structure ward rows {@code [id, code, name, shortName, provinceCode,
+     * provinceName]} → NEW_WARD entries (no legacy ids exist for these).
+     */
+    static Segment buildNewWardSegment(List<Object[]> rows) {
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (Object[] r : rows) {
+            String code = str(r[1]);
+            String name = str(r[2]);
+            if (code == null || name == null) continue;
+            List<String> match = norms(name, str(r[3]));
+            if (match.isEmpty()) continue;
+            entries.add(new Entry(Kind.NEW_WARD, name, null, null, null, null,
+                    str(r[4]), null, code, str(r[5]), null, name, match));
+        }
+        return buildSegment(entries);
+    }
+
+    /**
+     * Street rows {@code [id, name, prefix, provinceId, districtId]} → STREET
+     * entries, matchable both with and without the prefix ("nguyen trai" /
+     * "duong nguyen trai").
+     */
+    static Segment buildStreetSegment(Index admin, List<Object[]> rows) {
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (Object[] r : rows) {
+            Integer id = toInt(r[0]);
+            String name = str(r[1]);
+            Entry province = admin.provinceById().get(toInt(r[3]));
+            if (id == null || name == null || province == null) continue;
+            Entry district = admin.districtById().get(toInt(r[4]));
+            String prefix = str(r[2]);
+            String display = prefix != null && !prefix.isBlank() ? prefix.trim() + " " + name.trim() : name.trim();
+            List<String> match = norms(name, display);
+            if (match.isEmpty()) continue;
+            entries.add(new Entry(Kind.STREET, display,
+                    province.legacyProvinceId(),
+                    district != null ? district.legacyDistrictId() : null,
+                    null, id,
+                    province.provinceCode(),
+                    district != null ? district.districtCode() : null,
+                    null,
+                    province.provinceName(),
+                    district != null ? district.districtName() : null,
+                    null, match));
+        }
+        return buildSegment(entries);
+    }
+
+    static Segment buildSegment(List<Entry> entries) {
+        Map<String, List<Integer>> grouped = new HashMap<>();
+        Map<String, List<Integer>> compactGrouped = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Set<String> grams = new LinkedHashSet<>();
+            Set<String> compactGrams = new LinkedHashSet<>();
+            for (String m : entries.get(i).matchStrings()) {
+                addTrigrams(" " + m + " ", grams);
+                addTrigrams(compact(m), compactGrams);
+            }
+            for (String g : grams) {
+                grouped.computeIfAbsent(g, k -> new ArrayList<>()).add(i);
+            }
+            for (String g : compactGrams) {
+                compactGrouped.computeIfAbsent(g, k -> new ArrayList<>()).add(i);
+            }
+        }
+        return new Segment(List.copyOf(entries), toPostings(grouped), toPostings(compactGrouped));
+    }
+
+    private static Map<String, int[]> toPostings(Map<String, List<Integer>> grouped) {
+        Map<String, int[]> postings = new HashMap<>(grouped.size() * 2);
+        for (Map.Entry<String, List<Integer>> e : grouped.entrySet()) {
+            postings.put(e.getKey(), e.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return postings;
+    }
+
+    /**
+     * A normalized name with its spaces removed — the form of the legacy
+     * {@code *_key} columns the old {@code key LIKE '%compactKey%'} tier
+     * matched, so spaceless input ("bennghe") still finds its place.
+     */
+    private static String compact(String normalized) {
+        return normalized.replace(" ", "");
+    }
+
+    private static String stripUnit(String normalized) {
+        return UNIT_PREFIX.matcher(normalized).replaceFirst("");
+    }
+
+    private static void addTrigrams(String s, Set<String> out) {
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            out.add(s.substring(i, i + 3));
         }
-        return new Index(entries, provinceByMatch, districtByKey, districtsByProvince);
     }
 
     private static List<String> norms(String... raw) {
@@ -239,38 +581,153 @@ public class LocationFuzzyIndex {
     }
 
     static List<Match> searchIndex(Index idx, String normalizedQuery, double minScore, int limit) {
-        if (idx == null || normalizedQuery == null) return List.of();
+        if (idx == null) return List.of();
+        return searchSegments(List.of(idx.segment()), normalizedQuery, minScore, limit, EnumSet.allOf(Kind.class));
+    }
+
+    static List<Match> searchSegments(
+            List<Segment> segments, String normalizedQuery, double minScore, int limit, Set<Kind> kinds) {
+        if (segments == null || normalizedQuery == null) return List.of();
         String query = normalizedQuery.trim();
         if (query.length() < MIN_QUERY_LENGTH || limit <= 0) return List.of();
 
-        int qLen = query.length();
+        String core = stripUnit(query);
+        boolean compareCores = !core.equals(query) && !core.isEmpty();
+        String scored = compareCores ? core : query;
+        int qLen = scored.length();
         // Loose length gate so a typo can drop/add a few chars but a wildly
         // different-length name is skipped before the O(n*m) scorer runs.
         int maxLenDelta = Math.max(4, qLen);
 
+        Set<String> queryGrams = new LinkedHashSet<>();
+        addTrigrams(" " + query + " ", queryGrams);
+        int minOverlap = Math.max(1, (int) Math.ceil(queryGrams.size() * MIN_TRIGRAM_OVERLAP));
+
         List<Match> hits = new ArrayList<>();
-        for (Entry e : idx.entries()) {
-            double best = 0.0;
-            for (String candidate : e.matchStrings()) {
-                if (Math.abs(candidate.length() - qLen) > maxLenDelta) continue;
-                Double score = JARO_WINKLER.apply(query, candidate);
-                if (score != null && score > best) best = score;
-            }
-            if (best >= minScore) {
-                hits.add(toMatch(e, best));
+        for (Segment segment : segments) {
+            if (segment.entries().isEmpty()) continue;
+            for (int pos : shortlist(segment, queryGrams, minOverlap)) {
+                Entry e = segment.entries().get(pos);
+                if (!kinds.contains(e.kind())) continue;
+                double best = 0.0;
+                for (String match : e.matchStrings()) {
+                    String candidate = compareCores ? stripUnit(match) : match;
+                    if (Math.abs(candidate.length() - qLen) > maxLenDelta) continue;
+                    Double score = JARO_WINKLER.apply(scored, candidate);
+                    if (score != null && score > best) best = score;
+                }
+                if (best >= minScore) {
+                    hits.add(toMatch(e, best));
+                }
             }
         }
 
         hits.sort((a, b) -> Double.compare(b.score(), a.score()));
-        // Dedup by display text; the list is already best-score-first so the
-        // first occurrence wins.
+        // Dedup by place identity; the list is already best-score-first so
+        // the first occurrence wins.
         Map<String, Match> deduped = new LinkedHashMap<>();
-        for (Match m : hits) deduped.putIfAbsent(m.display().toLowerCase(), m);
+        for (Match m : hits) deduped.putIfAbsent(dedupKey(m), m);
 
         List<Match> out = new ArrayList<>(deduped.values());
         return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
     }
 
+    /**
+     * Entry positions sharing at least {@code minOverlap} trigrams with the
+     * query, best overlap first, capped at {@link #MAX_SHORTLIST}.
+     */
+    private static int[] shortlist(Segment segment, Set<String> queryGrams, int minOverlap) {
+        int[] counts = new int[segment.entries().size()];
+        List<Integer> touched = new ArrayList<>();
+        for (String g : queryGrams) {
+            int[] ids = segment.postings().get(g);
+            if (ids == null) continue;
+            for (int id : ids) {
+                if (counts[id]++ == 0) touched.add(id);
+            }
+        }
+        List<Integer> passing = new ArrayList<>();
+        for (int id : touched) {
+            if (counts[id] >= minOverlap) passing.add(id);
+        }
+        if (passing.size() > MAX_SHORTLIST) {
+            passing.sort((a, b) -> Integer.compare(counts[b], counts[a]));
+            passing = passing.subList(0, MAX_SHORTLIST);
+        }
+        return passing.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static List<Match> containsIn(
+            Segment segment, String normalizedQuery, Kind kind, String provinceCode, int limit) {
+        if (segment == null || normalizedQuery == null || limit <= 0) return List.of();
+        String query = normalizedQuery.trim();
+        if (query.length() < MIN_QUERY_LENGTH) return List.of();
+
+        // A name matches when it contains the query, or when its compact
+        // (spaceless) form contains the compact query — the old key LIKE
+        // branch. Both imply the compact containment, so every trigram of the
+        // compact query must occur in the compact name: intersecting those
+        // postings prunes before the contains() checks.
+        String compactQuery = compact(query);
+        if (compactQuery.length() < MIN_QUERY_LENGTH) return List.of();
+        Set<String> grams = new LinkedHashSet<>();
+        addTrigrams(compactQuery, grams);
+        int[] candidates = null;
+        for (String g : grams) {
+            int[] ids = segment.compactPostings().get(g);
+            if (ids == null) return List.of();
+            candidates = candidates == null ? ids : intersect(candidates, ids);
+            if (candidates.length == 0) return List.of();
+        }
+        if (candidates == null) return List.of();
+
+        List<Match> hits = new ArrayList<>();
+        for (int pos : candidates) {
+            Entry e = segment.entries().get(pos);
+            if (e.kind() != kind) continue;
+            if (provinceCode != null && !provinceCode.equals(e.provinceCode())) continue;
+            int rank = Integer.MAX_VALUE;
+            for (String m : e.matchStrings()) {
+                if (m.equals(query)) rank = Math.min(rank, 0);
+                else if (m.startsWith(query)) rank = Math.min(rank, 1);
+                else if (m.contains(query)) rank = Math.min(rank, 2);
+                else if (compact(m).contains(compactQuery)) rank = Math.min(rank, 2);
+            }
+            if (rank != Integer.MAX_VALUE) {
+                hits.add(toMatch(e, 1.0 - 0.01 * rank));
+            }
+        }
+        hits.sort((a, b) -> {
+            int byScore = Double.compare(b.score(), a.score());
+            if (byScore != 0) return byScore;
+            int byProvince = Objects.toString(a.provinceName(), "").compareTo(Objects.toString(b.provinceName(), ""));
+            if (byProvince != 0) return byProvince;
+            int byDistrict = Objects.toString(a.districtName(), "").compareTo(Objects.toString(b.districtName(), ""));
+            return byDistrict != 0 ? byDistrict : a.display().compareTo(b.display());
+        });
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static String dedupKey(Match m) {
+        return m.kind() + "|" + m.display().toLowerCase() + "|"
+                + m.provinceCode() + "|" + m.districtCode();
+    }
+
     static Optional<Match> resolveDistrictIn(
             Index idx, String provinceCode, String normalizedName) {
         if (idx == null || provinceCode == null || normalizedName == null) {
@@ -384,9 +841,20 @@ public class LocationFuzzyIndex {
         return sb.toString();
     }
 
+    private static Integer toInt(Object o) {
+        if (o == null) return null;
+        if (o instanceof Number n) return n.intValue();
+        try { return Integer.valueOf(o.toString().trim()); } catch (NumberFormatException e) { return null; }
+    }
+
+    private static String str(Object o) {
+        return o != null ? o.toString() : null;
+    }
+
     private static Match toMatch(Entry e, double score) {
         return new Match(e.kind(), e.display(), e.legacyProvinceId(),
-                e.legacyDistrictId(), e.provinceCode(), e.districtCode(),
-                e.provinceName(), e.districtName(), score);
+                e.legacyDistrictId(), e.legacyWardId(), e.streetId(),
+                e.provinceCode(), e.districtCode(), e.wardCode(),
+                e.provinceName(), e.districtName(), e.wardName(), score);
     }
 }
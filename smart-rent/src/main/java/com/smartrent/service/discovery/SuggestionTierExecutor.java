@@ -0,0 +1,215 @@
+package com.smartrent.service.discovery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated pool that runs the independent search-suggestion tiers (title,
+ * location, typo, phonetic, popular) concurrently under one latency budget,
+ * so a keystroke costs the slowest tier instead of the sum of all of them.
+ *
+ * <p>Each tier is timed into {@code search.suggestions.tier.latency}
+ * (tagged by {@code tier} and {@code outcome}, with a percentile histogram)
+ * so the slow source is visible on {@code /actuator/metrics}. A tier still
+ * running when the budget expires is dropped from that response and counted
+ * in {@code search.suggestions.tier.timeouts}; it finishes in the background
+ * and its result is discarded.
+ *
+ * <p>Like {@link TelemetryExecutor}, the pool is bounded with a
+ * {@link ThreadPoolExecutor.CallerRunsPolicy}: under saturation a tier runs
+ * on the request thread, i.e. degrades to the old sequential behaviour
+ * rather than failing the request.
+ */
+@Slf4j
+@Component
+public class SuggestionTierExecutor {
+
+    private static final String LATENCY_METRIC = "search.suggestions.tier.latency";
+    private static final String TIMEOUT_METRIC = "search.suggestions.tier.timeouts";
+
+    /**
+     * Absolute point in time (in {@link System#nanoTime} units) a request's
+     * tiers must finish by, and whether any of them was dropped or failed —
+     * a degraded response must not be cached.
+     */
+    public static final class Deadline {
+        private final long expiresAtNanos;
+        private volatile boolean degraded;
+
+        Deadline(long expiresAtNanos) {
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        public long remainingNanos() {
+            return Math.max(0L, expiresAtNanos - System.nanoTime());
+        }
+
+        /** Whether a tier of this request missed the budget, failed or was never started. */
+        public boolean degraded() {
+            return degraded;
+        }
+
+        void markDegraded() {
+            degraded = true;
+        }
+    }
+
+    private final AtomicInteger threadSeq = new AtomicInteger();
+    private final ThreadPoolExecutor pool;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTx;
+    private final long budgetNanos;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> timeouts = new ConcurrentHashMap<>();
+
+    public SuggestionTierExecutor(MeterRegistry meterRegistry,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${discovery.suggestions.tier-budget-ms:80}") long budgetMs,
+                                  @Value("${discovery.suggestions.tier-pool-size:8}") int poolSize) {
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        this.pool = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                30L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(poolSize * 16),
+                r -> {
+                    Thread t = new Thread(r, "suggestion-tier-" + threadSeq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    /** Starts the latency budget for one suggestion request. */
+    public Deadline deadline() {
+        return new Deadline(System.nanoTime() + budgetNanos);
+    }
+
+    /** Runs an in-memory or self-contained DB tier on the pool. */
+    public <T> CompletableFuture<T> submit(String tier, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> timed(tier, task), pool);
+    }
+
+    /**
+     * Runs a tier inside its own read-only transaction — needed when the tier
+     * touches lazy JPA associations, since the request thread's persistence
+     * context does not follow the task onto the pool.
+     */
+    public <T> CompletableFuture<T> submitReadOnly(String tier, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> timed(tier, () -> readOnlyTx.execute(status -> task.get())), pool);
+    }
+
+    /** Runs a tier that depends on another tier's result, as soon as that result is ready. */
+    public <T, R> CompletableFuture<R> then(String tier, CompletableFuture<T> upstream, Function<T, R> next) {
+        return upstream.thenApplyAsync(value -> timed(tier, () -> next.apply(value)), pool);
+    }
+
+    /**
+     * Whether a tier that has not been submitted yet can still start within
+     * the budget. When it cannot, it is counted as dropped and the request
+     * marked degraded.
+     */
+    public boolean canStart(String tier, Deadline deadline) {
+        if (deadline.remainingNanos() > 0) {
+            return true;
+        }
+        timeoutCounter(tier).increment();
+        deadline.markDegraded();
+        log.debug("search-suggestions: tier '{}' not started, the {}ms budget is spent",
+                tier, TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+        return false;
+    }
+
+    /**
+     * Waits for a tier until the request deadline. A tier that misses it, or
+     * fails, yields {@code fallback} so the caller merges whatever arrived,
+     * and marks the request degraded.
+     */
+    public <T> T await(String tier, CompletableFuture<T> future, Deadline deadline, T fallback) {
+        try {
+            T value = future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+            return value != null ? value : fallback;
+        } catch (TimeoutException e) {
+            deadline.markDegraded();
+            timeoutCounter(tier).increment();
+            log.warn("search-suggestions: tier '{}' missed the {}ms budget, dropped from this response",
+                    tier, TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deadline.markDegraded();
+            return fallback;
+        } catch (ExecutionException e) {
+            deadline.markDegraded();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("search-suggestions: tier '{}' failed (non-fatal): {}", tier, cause.getMessage(), cause);
+            return fallback;
+        }
+    }
+
+    private <T> T timed(String tier, Supplier<T> task) {
+        long start = System.nanoTime();
+        String outcome = "ok";
+        try {
+            return task.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            timer(tier, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String tier, String outcome) {
+        return timers.computeIfAbsent(tier + '|' + outcome, k -> Timer.builder(LATENCY_METRIC)
+                .description("Latency of one search-suggestion source")
+                .tag("tier", tier)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(2))
+                .register(meterRegistry));
+    }
+
+    private Counter timeoutCounter(String tier) {
+        return timeouts.computeIfAbsent(tier, k -> Counter.builder(TIMEOUT_METRIC)
+                .description("Search-suggestion tiers dropped for missing the latency budget")
+                .tag("tier", tier)
+                .register(meterRegistry));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
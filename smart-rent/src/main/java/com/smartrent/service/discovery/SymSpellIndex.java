@@ -0,0 +1,281 @@
+package com.smartrent.service.discovery;
+
+import org.apache.commons.text.similarity.LevenshteinDistance;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable symmetric-delete ("SymSpell") spelling index over an
+ * accent-stripped vocabulary ({@link com.smartrent.util.TextNormalizer#normalize}
+ * output).
+ *
+ * <h3>How it works</h3>
+ * At build time every term contributes all strings reachable from its first
+ * {@link #DEFAULT_PREFIX_LENGTH} chars by up to {@code maxEditDistance}
+ * deletions. At lookup time the same deletes are generated from the input
+ * prefix, and only terms sharing a delete are verified with a bounded
+ * Levenshtein — so a lookup touches a few dozen candidates instead of scoring
+ * the whole vocabulary, independent of how big it grows.
+ *
+ * <h3>Why a prefix</h3>
+ * Deleting from the full term would generate ~L² strings per entry; with
+ * ~15k location / title terms that is millions of keys. Capping delete
+ * generation to a 7-char prefix bounds it to ≤ 29 keys per term while still
+ * finding every candidate within the edit distance (the full-length distance
+ * is always re-verified).
+ *
+ * <p>Instances are thread-safe and cheap to swap: build a new one off the
+ * request path and publish it through a {@code volatile} field.
+ */
+public final class SymSpellIndex {
+
+    public static final int DEFAULT_MAX_EDIT_DISTANCE = 2;
+    public static final int DEFAULT_PREFIX_LENGTH = 7;
+
+    private static final SymSpellIndex EMPTY = new Builder().build();
+
+    /** One correction candidate, best first when returned from {@link #lookup}. */
+    public record Suggestion(String term, String display, int distance, long frequency) {}
+
+    private final int maxEditDistance;
+    private final int prefixLength;
+    private final String[] terms;
+    private final String[] displays;
+    private final long[] frequencies;
+    private final Map<String, Integer> termIds;
+    private final Map<String, int[]> deletes;
+    private final int maxTermLength;
+
+    private SymSpellIndex(Builder b, Map<String, int[]> deletes, int maxTermLength) {
+        this.maxEditDistance = b.maxEditDistance;
+        this.prefixLength = b.prefixLength;
+        int n = b.entries.size();
+        this.terms = new String[n];
+        this.displays = new String[n];
+        this.frequencies = new long[n];
+        this.termIds = new HashMap<>(n * 2);
+        int i = 0;
+        for (Map.Entry<String, Builder.Accumulator> e : b.entries.entrySet()) {
+            terms[i] = e.getKey();
+            displays[i] = e.getValue().display;
+            frequencies[i] = e.getValue().frequency;
+            termIds.put(e.getKey(), i);
+            i++;
+        }
+        this.deletes = deletes;
+        this.maxTermLength = maxTermLength;
+    }
+
+    public static SymSpellIndex empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    public boolean contains(String term) {
+        return term != null && termIds.containsKey(term);
+    }
+
+    /**
+     * Vocabulary terms within {@code maxDistance} edits of {@code input},
+     * ordered by distance ascending, then frequency descending. The input must
+     * already be normalized; an exact vocabulary hit is returned with distance 0.
+     */
+    public List<Suggestion> lookup(String input, int maxDistance, int limit) {
+        if (input == null || input.isEmpty() || limit <= 0 || terms.length == 0) {
+            return List.of();
+        }
+        int maxDist = Math.max(0, Math.min(maxDistance, maxEditDistance));
+        int inputLen = input.length();
+        if (inputLen - maxDist > maxTermLength) {
+            return List.of();
+        }
+
+        Map<Integer, Integer> found = new HashMap<>();
+        Integer exact = termIds.get(input);
+        if (exact != null) {
+            found.put(exact, 0);
+        }
+
+        if (maxDist > 0) {
+            String inputPrefix = inputLen > prefixLength ? input.substring(0, prefixLength) : input;
+            Set<String> candidates = new HashSet<>();
+            candidates.add(inputPrefix);
+            collectDeletes(inputPrefix, 0, maxDist, candidates);
+
+            LevenshteinDistance bounded = new LevenshteinDistance(maxDist);
+            for (String candidate : candidates) {
+                int[] ids = deletes.get(candidate);
+                if (ids == null) continue;
+                for (int id : ids) {
+                    if (found.containsKey(id)) continue;
+                    String term = terms[id];
+                    if (Math.abs(term.length() - inputLen) > maxDist) continue;
+                    int distance = bounded.apply(input, term);
+                    if (distance >= 0) {
+                        found.put(id, distance);
+                    }
+                }
+            }
+        }
+
+        if (found.isEmpty()) {
+            return List.of();
+        }
+        List<Suggestion> out = new ArrayList<>(found.size());
+        for (Map.Entry<Integer, Integer> e : found.entrySet()) {
+            int id = e.getKey();
+            out.add(new Suggestion(terms[id], displays[id], e.getValue(), frequencies[id]));
+        }
+        out.sort(Comparator.comparingInt(Suggestion::distance)
+                .thenComparing(Comparator.comparingLong(Suggestion::frequency).reversed())
+                .thenComparing(Suggestion::term));
+        return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+    }
+
+    /**
+     * Word-by-word correction for a multi-token phrase that has no whole-phrase
+     * match ("phong tro quan bnh thanh"). Known tokens are kept, unknown ones
+     * are replaced by their best single-term correction; tokens of ≤ 3 chars
+     * are never corrected (too many equally-close neighbours). Returns empty
+     * when nothing was changed.
+     */
+    public Optional<Suggestion> lookupCompound(String input) {
+        if (input == null || input.isBlank() || terms.length == 0) {
+            return Optional.empty();
+        }
+        String[] tokens = input.trim().split("\\s+");
+        if (tokens.length < 2) {
+            return Optional.empty();
+        }
+
+        StringBuilder term = new StringBuilder();
+        StringBuilder display = new StringBuilder();
+        int totalDistance = 0;
+        long minFrequency = Long.MAX_VALUE;
+        for (String token : tokens) {
+            String correctedTerm = token;
+            String correctedDisplay = token;
+            Integer known = termIds.get(token);
+            if (known != null) {
+                correctedDisplay = displays[known];
+            } else if (token.length() > 3) {
+                int maxDist = token.length() <= 5 ? 1 : maxEditDistance;
+                List<Suggestion> best = lookup(token, maxDist, 1);
+                if (!best.isEmpty()) {
+                    Suggestion s = best.get(0);
+                    correctedTerm = s.term();
+                    correctedDisplay = s.display();
+                    totalDistance += s.distance();
+                    minFrequency = Math.min(minFrequency, s.frequency());
+                }
+            }
+            if (!term.isEmpty()) {
+                term.append(' ');
+                display.append(' ');
+            }
+            term.append(correctedTerm);
+            display.append(correctedDisplay);
+        }
+        if (totalDistance == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new Suggestion(term.toString(), display.toString(), totalDistance, minFrequency));
+    }
+
+    private static void collectDeletes(String word, int distance, int maxDistance, Set<String> out) {
+        int next = distance + 1;
+        if (word.length() <= 1) return;
+        for (int i = 0; i < word.length(); i++) {
+            String deleted = word.substring(0, i) + word.substring(i + 1);
+            if (out.add(deleted) && next < maxDistance) {
+                collectDeletes(deleted, next, maxDistance, out);
+            }
+        }
+    }
+
+    /**
+     * Accumulates {@code term → (display, frequency)}. Adding the same term
+     * twice sums the frequencies and keeps the display of the heavier
+     * contribution, so "quận" (from location names) beats "quan" (from a
+     * title token seen a handful of times).
+     */
+    public static final class Builder {
+
+        private final Map<String, Accumulator> entries = new LinkedHashMap<>();
+        private int maxEditDistance = DEFAULT_MAX_EDIT_DISTANCE;
+        private int prefixLength = DEFAULT_PREFIX_LENGTH;
+
+        private static final class Accumulator {
+            String display;
+            long frequency;
+            long displayWeight;
+        }
+
+        private Builder() {}
+
+        public Builder maxEditDistance(int maxEditDistance) {
+            this.maxEditDistance = Math.max(0, maxEditDistance);
+            return this;
+        }
+
+        public Builder prefixLength(int prefixLength) {
+            this.prefixLength = Math.max(1, prefixLength);
+            return this;
+        }
+
+        public Builder add(String term, String display, long frequency) {
+            if (term == null || term.isBlank() || frequency <= 0) {
+                return this;
+            }
+            Accumulator acc = entries.computeIfAbsent(term.trim(), k -> new Accumulator());
+            acc.frequency += frequency;
+            if (acc.display == null || frequency > acc.displayWeight) {
+                acc.display = (display == null || display.isBlank()) ? term.trim() : display.trim();
+                acc.displayWeight = frequency;
+            }
+            return this;
+        }
+
+        public SymSpellIndex build() {
+            Map<String, List<Integer>> grouped = new HashMap<>();
+            int id = 0;
+            int maxLen = 0;
+            for (String term : entries.keySet()) {
+                maxLen = Math.max(maxLen, term.length());
+                String prefix = term.length() > prefixLength ? term.substring(0, prefixLength) : term;
+                Set<String> keys = new HashSet<>();
+                keys.add(prefix);
+                collectDeletes(prefix, 0, maxEditDistance, keys);
+                for (String key : keys) {
+                    grouped.computeIfAbsent(key, k -> new ArrayList<>(2)).add(id);
+                }
+                id++;
+            }
+            // Freeze into primitive arrays: the boxed lists are only needed
+            // while building and would otherwise dominate the index footprint.
+            Map<String, int[]> deletes = new HashMap<>(grouped.size() * 2);
+            for (Map.Entry<String, List<Integer>> e : grouped.entrySet()) {
+                List<Integer> ids = e.getValue();
+                int[] arr = new int[ids.size()];
+                for (int i = 0; i < arr.length; i++) arr[i] = ids.get(i);
+                deletes.put(e.getKey(), arr);
+            }
+            return new SymSpellIndex(this, deletes, maxLen);
+        }
+    }
+}
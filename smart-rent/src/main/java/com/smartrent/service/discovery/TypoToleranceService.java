@@ -1,101 +1,214 @@
 package com.smartrent.service.discovery;
 
 import com.smartrent.dto.response.SuggestionResponse;
+import com.smartrent.infra.repository.LegacyDistrictRepository;
+import com.smartrent.infra.repository.LegacyProvinceRepository;
+import com.smartrent.infra.repository.LegacyWardRepository;
+import com.smartrent.infra.repository.ListingRepository;
+import com.smartrent.infra.repository.WardRepository;
+import com.smartrent.infra.repository.entity.District;
+import com.smartrent.infra.repository.entity.LegacyProvince;
+import com.smartrent.util.SearchQueryParser;
+import com.smartrent.util.TextNormalizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.text.similarity.LevenshteinDistance;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import jakarta.annotation.PostConstruct;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
 
+/**
+ * "Did you mean" corrections for the advanced-search box, backed by a
+ * {@link SymSpellIndex} built from the platform's real vocabulary instead of a
+ * hard-coded word list:
+ * <ul>
+ *   <li>province / district names (legacy tables) and ward short names
+ *       (legacy + new structure);</li>
+ *   <li>product-type and amenity phrases known to {@link SearchQueryParser}
+ *       and {@link AmenityResolver};</li>
+ *   <li>frequent tokens from recent public listing titles.</li>
+ * </ul>
+ *
+ * <h3>Why no Redis cache</h3>
+ * The old implementation scored the input against every dictionary word and
+ * cached each distinct input in Redis for 24h — one key per typo ever typed.
+ * A symmetric-delete lookup is sub-millisecond for edit distance ≤ 2, so the
+ * round-trip to Redis would cost more than the computation it saves.
+ *
+ * <h3>Freshness</h3>
+ * The index is rebuilt off the request path by
+ * {@link com.smartrent.cronjob.SearchIndexRefreshScheduler} and swapped in
+ * atomically; a failed rebuild keeps serving the previous index. Until the
+ * first build completes, lookups simply return no corrections.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TypoToleranceService {
 
-    private final StringRedisTemplate redisTemplate;
-    private final LevenshteinDistance levenshtein = new LevenshteinDistance();
-    
-    private final List<String> dictionary = new ArrayList<>();
-
-    @PostConstruct
-    public void initDictionary() {
-        // In a real scenario, this would be loaded from Redis or Database
-        dictionary.addAll(List.of(
-                "phòng trọ", "căn hộ", "nhà nguyên căn", "mặt bằng", "văn phòng",
-                "quận 1", "quận 2", "quận 3", "quận 4", "quận 5", "quận 6", "quận 7", 
-                "quận 8", "quận 9", "quận 10", "quận 11", "quận 12",
-                "bình thạnh", "gò vấp", "phú nhuận", "tân bình", "tân phú", "thủ đức",
-                "hồ chí minh", "hà nội", "đà nẵng"
-        ));
-        log.info("Initialized Typo Tolerance dictionary with {} keywords", dictionary.size());
-    }
+    private static final String TYPE_TYPO_CORRECTION = "TYPO_CORRECTION";
+    private static final int MAX_CORRECTIONS = 5;
+
+    /**
+     * Frequency weights per vocabulary source. Frequencies only break ties
+     * between candidates at the same edit distance, so curated phrases and
+     * place names must outrank incidental title tokens.
+     */
+    private static final long WEIGHT_PRODUCT_PHRASE = 5_000;
+    private static final long WEIGHT_PROVINCE       = 5_000;
+    private static final long WEIGHT_AMENITY        = 3_000;
+    private static final long WEIGHT_DISTRICT       = 2_000;
+    private static final long WEIGHT_WARD           = 200;
+
+    /** How many recent public titles feed the title-token vocabulary. */
+    private static final int TITLE_SAMPLE_SIZE = 20_000;
+    /** A title token must occur at least this often to be a correction target. */
+    private static final int MIN_TITLE_TOKEN_FREQUENCY = 3;
+    /** Shorter tokens have too many equally-close neighbours to be useful. */
+    private static final int MIN_TITLE_TOKEN_LENGTH = 3;
+
+    private final LegacyProvinceRepository provinceRepository;
+    private final LegacyDistrictRepository districtRepository;
+    private final LegacyWardRepository legacyWardRepository;
+    private final WardRepository wardRepository;
+    private final ListingRepository listingRepository;
+
+    private volatile SymSpellIndex index = SymSpellIndex.empty();
 
     /**
-     * Checks if the query has a typo and suggests corrections using Levenshtein distance.
-     * Caches the results in Redis for 24 hours to prevent recalculating distances.
+     * Suggests corrections for a possibly misspelt query, best first (edit
+     * distance ascending, then vocabulary frequency). A query that is already
+     * a known term returns nothing — there is no typo to correct.
      */
     public List<SuggestionResponse> getTypoCorrections(String input) {
-        if (input == null || input.trim().length() < 2) {
+        String normalized = TextNormalizer.normalize(input);
+        if (normalized == null || normalized.length() < 2) {
+            return List.of();
+        }
+
+        SymSpellIndex current = index;
+        if (current.contains(normalized)) {
             return List.of();
         }
 
-        String normalizedInput = input.trim().toLowerCase();
-        String cacheKey = "smartrent:typo_cache:" + normalizedInput;
+        List<SuggestionResponse> corrections = new ArrayList<>();
+        for (SymSpellIndex.Suggestion s : current.lookup(
+                normalized, SymSpellIndex.DEFAULT_MAX_EDIT_DISTANCE, MAX_CORRECTIONS)) {
+            corrections.add(toResponse(s.display()));
+        }
+        if (corrections.isEmpty()) {
+            // No whole-phrase neighbour: fix the query word by word so
+            // "phong tro bnh thanh" still becomes "phòng trọ bình thạnh".
+            current.lookupCompound(normalized)
+                    .ifPresent(s -> corrections.add(toResponse(s.display())));
+        }
+        return corrections;
+    }
 
-        // 1. Check Redis Cache
+    /**
+     * Rebuilds the index from the live vocabulary and swaps it in. Never
+     * throws: on failure the previous index keeps serving.
+     */
+    public void rebuildIndex() {
+        long started = System.currentTimeMillis();
         try {
-            Boolean hasKey = redisTemplate.hasKey(cacheKey);
-            if (Boolean.TRUE.equals(hasKey)) {
-                log.debug("Cache hit for typo correction: {}", normalizedInput);
-                List<String> cachedWords = redisTemplate.opsForList().range(cacheKey, 0, -1);
-                if (cachedWords != null && !cachedWords.isEmpty()) {
-                    return cachedWords.stream()
-                        .map(word -> SuggestionResponse.builder()
-                                .text(word)
-                                .type("TYPO_CORRECTION")
-                                .build())
-                        .collect(Collectors.toList());
-                }
-            }
+            SymSpellIndex built = buildIndex(
+                    provinceRepository.findAll(),
+                    districtRepository.findAll(),
+                    legacyWardRepository.findDistinctShortNames(),
+                    wardRepository.findDistinctShortNames(),
+                    listingRepository.findRecentPublicTitles(TITLE_SAMPLE_SIZE));
+            index = built;
+            log.info("typo-index: rebuilt with {} terms in {} ms",
+                    built.size(), System.currentTimeMillis() - started);
         } catch (Exception e) {
-            log.warn("Redis cache error: {}", e.getMessage());
+            log.warn("typo-index: rebuild failed, keeping previous index ({} terms): {}",
+                    index.size(), e.getMessage(), e);
         }
+    }
 
-        // 2. Calculate using Levenshtein Distance
-        List<SuggestionResponse> corrections = dictionary.stream()
-                .map(keyword -> {
-                    int distance = levenshtein.apply(normalizedInput, keyword);
-                    return new Object() {
-                        String word = keyword;
-                        int dist = distance;
-                    };
-                })
-                .filter(obj -> obj.dist > 0 && obj.dist <= 2)
-                .sorted((a, b) -> Integer.compare(a.dist, b.dist))
-                .limit(5)
-                .map(obj -> SuggestionResponse.builder()
-                        .text(obj.word)
-                        .type("TYPO_CORRECTION")
-                        .build())
-                .collect(Collectors.toList());
-
-        // 3. Save to Redis Cache (async fire-and-forget logic simulated here)
-        try {
-            if (!corrections.isEmpty()) {
-                List<String> words = corrections.stream().map(SuggestionResponse::getText).collect(Collectors.toList());
-                redisTemplate.opsForList().rightPushAll(cacheKey, words);
-                redisTemplate.expire(cacheKey, java.time.Duration.ofHours(24));
+    // ── Pure, Spring-free core (unit-testable) ───────────────────────────────
+
+    static SymSpellIndex buildIndex(
+            List<LegacyProvince> provinces,
+            List<District> districts,
+            List<String> legacyWardNames,
+            List<String> wardNames,
+            List<String> titles) {
+        SymSpellIndex.Builder builder = SymSpellIndex.builder();
+
+        for (String phrase : SearchQueryParser.dictionaryPhrases()) {
+            addPhrase(builder, phrase, WEIGHT_PRODUCT_PHRASE);
+        }
+        for (Map.Entry<String, String> alias : AmenityResolver.aliasDictionary().entrySet()) {
+            addPhrase(builder, alias.getValue(), WEIGHT_AMENITY);
+            // The alias key is already normalized; only the canonical name
+            // carries accents, so the key doubles as its own display text.
+            builder.add(alias.getKey(), alias.getKey(), WEIGHT_AMENITY);
+        }
+        for (LegacyProvince p : provinces) {
+            addPhrase(builder, p.getShortName(), WEIGHT_PROVINCE);
+        }
+        for (District d : districts) {
+            addPhrase(builder, d.getName(), WEIGHT_DISTRICT);
+            addPhrase(builder, d.getShortName(), WEIGHT_DISTRICT);
+        }
+        for (String name : legacyWardNames) {
+            addPhrase(builder, name, WEIGHT_WARD);
+        }
+        for (String name : wardNames) {
+            addPhrase(builder, name, WEIGHT_WARD);
+        }
+        addTitleTokens(builder, titles);
+        return builder.build();
+    }
+
+    private static void addPhrase(SymSpellIndex.Builder builder, String display, long weight) {
+        String term = TextNormalizer.normalize(display);
+        // Purely numeric short names ("7" for "Quận 7") are not spellable words.
+        if (term == null || term.length() < 2 || term.chars().allMatch(Character::isDigit)) {
+            return;
+        }
+        builder.add(term, display.trim().toLowerCase(Locale.ROOT), weight);
+    }
+
+    /**
+     * Counts title tokens by their accent-stripped form and adds the frequent
+     * ones, displayed with their most common accented spelling.
+     */
+    private static void addTitleTokens(SymSpellIndex.Builder builder, List<String> titles) {
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, Map<String, Integer>> spellings = new HashMap<>();
+        for (String title : titles) {
+            if (title == null) continue;
+            for (String raw : title.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (raw.length() < MIN_TITLE_TOKEN_LENGTH) continue;
+                String term = TextNormalizer.normalize(raw);
+                if (term == null || term.contains(" ") || term.chars().anyMatch(Character::isDigit)) {
+                    continue;
+                }
+                counts.merge(term, 1, Integer::sum);
+                spellings.computeIfAbsent(term, k -> new LinkedHashMap<>()).merge(raw, 1, Integer::sum);
             }
-        } catch (Exception e) {
-            log.warn("Failed to write typo corrections to Redis: {}", e.getMessage());
         }
+        for (Map.Entry<String, Integer> e : counts.entrySet()) {
+            if (e.getValue() < MIN_TITLE_TOKEN_FREQUENCY) continue;
+            String display = spellings.get(e.getKey()).entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(e.getKey());
+            builder.add(e.getKey(), display, e.getValue());
+        }
+    }
 
-        return corrections;
+    private static SuggestionResponse toResponse(String text) {
+        return SuggestionResponse.builder()
+                .text(text)
+                .type(TYPE_TYPO_CORRECTION)
+                .build();
     }
 }
@@ -5,19 +5,18 @@ import com.smartrent.dto.response.SearchSuggestionsResponse;
 import com.smartrent.enums.SuggestionType;
 import com.smartrent.infra.repository.LegacyDistrictRepository;
 import com.smartrent.infra.repository.LegacyProvinceRepository;
-import com.smartrent.infra.repository.LegacyWardRepository;
 import com.smartrent.infra.repository.ListingRepository;
 import com.smartrent.service.discovery.SearchTelemetryWriter;
 import com.smartrent.service.discovery.TelemetryExecutor;
 import com.smartrent.infra.repository.SearchSuggestionClickRepository;
 import com.smartrent.infra.repository.entity.District;
 import com.smartrent.infra.repository.entity.LegacyProvince;
-import com.smartrent.infra.repository.entity.LegacyWard;
 import com.smartrent.infra.repository.entity.SearchQueryImpression;
 import com.smartrent.infra.repository.entity.SearchSuggestionClick;
 import com.smartrent.service.discovery.AmenityResolver;
 import com.smartrent.service.discovery.LocationFuzzyIndex;
 import com.smartrent.service.discovery.SearchSuggestionService;
+import com.smartrent.service.discovery.SuggestionTierExecutor;
 import com.smartrent.util.SearchQueryParser;
 import com.smartrent.util.SnowflakeId;
 import com.smartrent.util.TextNormalizer;
@@ -43,6 +42,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of {@link SearchSuggestionService}.
@@ -78,6 +78,13 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
     private static final double WEIGHT_POPULAR_QUERY = 0.8;
     private static final double SCORE_DECAY_PER_RANK = 0.05;
 
+    // ── Tier names (metric tags on search.suggestions.tier.*) ────────────────
+    private static final String TIER_TITLE    = "title";
+    private static final String TIER_LOCATION = "location";
+    private static final String TIER_TYPO     = "typo";
+    private static final String TIER_PHONETIC = "phonetic";
+    private static final String TIER_POPULAR  = "popular";
+
     /** Rolling window for popular-query aggregation (7 days). */
     private static final long POPULAR_QUERY_WINDOW_DAYS = 7;
 
@@ -123,7 +130,6 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
 
     // ── Dependencies ─────────────────────────────────────────────────────────
     ListingRepository             listingRepository;
-    LegacyWardRepository          legacyWardRepository;
     LegacyDistrictRepository      legacyDistrictRepository;
     LegacyProvinceRepository      legacyProvinceRepository;
     SearchSuggestionClickRepository clickRepository;
@@ -131,6 +137,7 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
     SearchTelemetryWriter telemetryWriter;
     AmenityResolver amenityResolver;
     LocationFuzzyIndex locationFuzzyIndex;
+    SuggestionTierExecutor tierExecutor;
 
     DoubleMetaphone metaphone = new DoubleMetaphone();
     LevenshteinDistance levenshtein = new LevenshteinDistance();
@@ -162,14 +169,22 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
      * Telemetry (impression persist) is intentionally written <em>outside</em> the
      * cached path to ensure every unique user call is counted even if the suggestion
      * list is served from cache.
+     *
+     * <p>Not {@code @Transactional}: the suggestion tiers run on
+     * {@link SuggestionTierExecutor} threads, each with its own repository
+     * (or read-only) transaction, so holding one open on the request thread
+     * would only pin an extra pooled connection while it waits.
+     *
+     * <p>A response missing a tier that was dropped at the deadline or failed
+     * is flagged {@code partial} and not cached, so one slow moment does not
+     * serve degraded suggestions for the whole TTL.
      */
     @Override
     @Cacheable(
         cacheNames = com.smartrent.config.Constants.CacheNames.LISTING_SUGGESTIONS,
         key         = "T(com.smartrent.util.CacheKeyBuilder).suggestionKey(#query, #provinceId, #categoryId, #limit)",
-        unless      = "#result == null || #result.suggestions.isEmpty()"
+        unless      = "#result == null || #result.suggestions.isEmpty() || #result.partial"
     )
-    @Transactional(readOnly = true)
     public SearchSuggestionsResponse getSuggestions(
             String query,
             int    limit,
@@ -219,40 +234,74 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
         // the popular-query GROUP BY. We gate BOTH so a resolved structured
         // query pays neither.
         //
-        // LOCATION runs first: it is the cheapest source (in-memory hash-index
-        // fast path, no DB for the common "<district> <province>" shape) and
-        // it tells us whether the query is a resolved place.
-        List<SearchSuggestionItem> locationItems = fetchLocationSuggestions(locationQuery, provinceId);
-        boolean locationResolved = firstLocation(locationItems) != null;
+        // Independent tiers run concurrently on SuggestionTierExecutor under
+        // one latency budget; a tier that misses it is dropped from this
+        // response and mergeAndRank works with whatever arrived. The gates
+        // below keep their old meaning, so a tier only waits on another tier
+        // when its gate actually depends on that tier's result.
+        SuggestionTierExecutor.Deadline deadline = tierExecutor.deadline();
+        // LOCATION is the cheapest source (in-memory hash-index fast path, no
+        // DB for the common "<district> <province>" shape) and it tells us
+        // whether the query is a resolved place. Read-only transaction: the
+        // district tier reads the lazy district → province association.
+        CompletableFuture<List<SearchSuggestionItem>> locationFuture = tierExecutor.submitReadOnly(
+                TIER_LOCATION, () -> fetchLocationSuggestions(locationQuery, provinceId));
+        CompletableFuture<List<SearchSuggestionItem>> typoFuture = tierExecutor.submit(
+                TIER_TYPO, () -> fetchTypoSuggestions(normalized, safeLimit));
+
         // A "structured query" = the parser extracted a real filter intent AND
         // a concrete province/district/ward resolved. For those the dropdown
         // is led by the synthesized AI_INTENT "ready to apply" row + the
         // LOCATION row; title matches off a parsed filter sentence and generic
         // popular terms are pure noise, so skip both DB reads entirely.
-        boolean structuredQuery = parsed.hasStructuredFilter() && locationResolved;
-
+        //
         // TITLE (FULLTEXT) — kept ONLY for keyword/project queries (no place
         // resolved), where title search is the actual intent ("masteri",
-        // "vinhomes sunrise"). Skipped for resolved structured queries.
-        List<SearchSuggestionItem> titleItems = structuredQuery
-                ? Collections.emptyList()
-                : fetchTitleSuggestions(normalized, provinceIdInt, categoryId, safeLimit);
-
-        List<SearchSuggestionItem> typoItems = fetchTypoSuggestions(normalized, safeLimit);
+        // "vinhomes sunrise"). Without a parsed filter the query can never be
+        // structured, so TITLE starts right away; otherwise it waits for
+        // LOCATION to say whether a place resolved.
+        boolean parsedFilter = parsed.hasStructuredFilter();
+        CompletableFuture<List<SearchSuggestionItem>> resolvedLocation =
+                locationFuture.exceptionally(e -> Collections.emptyList());
+        CompletableFuture<Boolean> skipTitle = parsedFilter
+                ? resolvedLocation.thenApply(locations -> firstLocation(locations) != null)
+                : CompletableFuture.completedFuture(false);
+        CompletableFuture<List<SearchSuggestionItem>> titleFuture = skipTitle.thenCompose(skip -> skip
+                ? CompletableFuture.completedFuture(Collections.<SearchSuggestionItem>emptyList())
+                : tierExecutor.submit(TIER_TITLE,
+                        () -> fetchTitleSuggestions(normalized, provinceIdInt, categoryId, safeLimit)));
         // Phonetic DB `LIKE '%...%'` scan only when we actually RAN title and
         // it found nothing — never reintroduce a scan we deliberately skipped.
-        boolean allowPhoneticDbScan = !structuredQuery && titleItems.isEmpty();
-        List<SearchSuggestionItem> phoneticItems = fetchPhoneticSuggestions(
-                normalized, provinceIdInt, categoryId, safeLimit, allowPhoneticDbScan);
+        // skipTitle is already complete once titleFuture is.
+        CompletableFuture<List<SearchSuggestionItem>> phoneticFuture = tierExecutor.then(
+                TIER_PHONETIC, titleFuture, titles -> fetchPhoneticSuggestions(
+                        normalized, provinceIdInt, categoryId, safeLimit,
+                        !skipTitle.join() && titles.isEmpty()));
+
+        List<SearchSuggestionItem> locationItems = tierExecutor.await(
+                TIER_LOCATION, locationFuture, deadline, Collections.emptyList());
+        boolean locationResolved = firstLocation(locationItems) != null;
+        boolean structuredQuery = parsed.hasStructuredFilter() && locationResolved;
+        List<SearchSuggestionItem> titleItems = tierExecutor.await(
+                TIER_TITLE, titleFuture, deadline, Collections.emptyList());
+        List<SearchSuggestionItem> typoItems = tierExecutor.await(
+                TIER_TYPO, typoFuture, deadline, Collections.emptyList());
+        List<SearchSuggestionItem> phoneticItems = tierExecutor.await(
+                TIER_PHONETIC, phoneticFuture, deadline, Collections.emptyList());
 
         // POPULAR_QUERY — the single heaviest query (GROUP BY over a growing
         // telemetry table, filesort). Pay it only when the query is NOT a
         // resolved structured one AND the cheap in-process / indexed sources
-        // did not already fill the dropdown.
+        // did not already fill the dropdown. It needs their counts, so it
+        // runs last, within whatever budget is left, and is not started at all
+        // once the budget is spent.
         int candidateCount = titleItems.size() + locationItems.size()
                 + typoItems.size() + phoneticItems.size();
-        List<SearchSuggestionItem> popularItems = (!structuredQuery && candidateCount < safeLimit)
-                ? fetchPopularQuerySuggestions(normalized, safeLimit)
+        List<SearchSuggestionItem> popularItems = (!structuredQuery && candidateCount < safeLimit
+                && tierExecutor.canStart(TIER_POPULAR, deadline))
+                ? tierExecutor.await(TIER_POPULAR,
+                        tierExecutor.submit(TIER_POPULAR, () -> fetchPopularQuerySuggestions(normalized, safeLimit)),
+                        deadline, Collections.emptyList())
                 : Collections.emptyList();
 
         // ── Merge, deduplicate, rank, and trim ───────────────────────────────
@@ -293,6 +342,7 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
                 .queryNorm(normalized)
                 .impressionId(impressionId)
                 .appliedFilters(hasStructuredFilters ? appliedFilters : null)
+                .partial(deadline.degraded())
                 .build();
     }
 
@@ -305,7 +355,7 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
             "productType", "productTypes", "listingType",
             "minPrice", "maxPrice", "minArea", "maxArea", "bedrooms",
             "legacyProvinceId", "legacyDistrictId", "legacyWardId",
-            "provinceCode", "districtCode", "wardCode",
+            "provinceCode", "districtCode", "wardCode", "newWardCode", "streetId",
             "amenityIds");
 
     private boolean hasStructuredAppliedFilters(Map<String, Object> appliedFilters) {
@@ -654,7 +704,7 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
         if (locationMeta == null) return;
         for (String key : new String[]{
                 "legacyProvinceId", "legacyDistrictId", "legacyWardId",
-                "provinceCode", "districtCode", "wardCode"}) {
+                "provinceCode", "districtCode", "wardCode", "newWardCode", "streetId"}) {
             Object v = locationMeta.get(key);
             if (v != null) appliedFilters.put(key, v);
         }
@@ -723,6 +773,10 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
     private static final double FUZZY_LOCATION_MIN_SCORE =
             LocationFuzzyIndex.DEFAULT_MIN_SCORE;
 
+    /** Every indexed level, streets included, is a valid typo-fallback target. */
+    private static final java.util.Set<LocationFuzzyIndex.Kind> FUZZY_LOCATION_KINDS =
+            java.util.EnumSet.allOf(LocationFuzzyIndex.Kind.class);
+
     /**
      * Multi-tier LOCATION suggestion fetch. Queries the province, district and
      * ward tables independently — each tier only filters on its own columns,
@@ -761,11 +815,12 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
         }
         items.addAll(fetchProvinceSuggestionsTier(normalized, compact));
         items.addAll(fetchDistrictSuggestionsTier(normalized, compact, rawProvinceId));
-        items.addAll(fetchWardSuggestionsTier(normalized, compact, rawProvinceId));
+        items.addAll(fetchWardSuggestionsTier(normalized, rawProvinceId));
         // Typo fallback: only when the exact tiers found nothing — keeps the
         // fuzzy scorer off the hot path for well-formed queries. Handles
-        // "tn binh" → Tân Bình (+ its parent province), so a misspelt place
-        // still resolves to province + district instead of degrading to a
+        // "tn binh" → Tân Bình (+ its parent province) down to ward and
+        // street level ("phuong ben nghe", "nguyen trai"), so a misspelt
+        // place still resolves to structured ids instead of degrading to a
         // keyword search.
         if (items.isEmpty()) {
             items.addAll(fetchFuzzyLocationSuggestions(normalized));
@@ -776,12 +831,12 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
     /**
      * Maps {@link LocationFuzzyIndex} hits into LOCATION suggestion items,
      * mirroring the exact-tier metadata contract so the synthesized
-     * "ready to apply" row and the frontend resolve province + district ids
-     * exactly as they would for an exact match.
+     * "ready to apply" row and the frontend resolve province / district /
+     * ward / street ids exactly as they would for an exact match.
      */
     private List<SearchSuggestionItem> fetchFuzzyLocationSuggestions(String normalized) {
         List<LocationFuzzyIndex.Match> matches = locationFuzzyIndex.search(
-                normalized, FUZZY_LOCATION_MIN_SCORE, MAX_DISTRICT_CANDIDATES);
+                normalized, FUZZY_LOCATION_MIN_SCORE, MAX_DISTRICT_CANDIDATES, FUZZY_LOCATION_KINDS);
         if (matches.isEmpty()) return Collections.emptyList();
 
         List<SearchSuggestionItem> items = new ArrayList<>(matches.size());
@@ -793,37 +848,59 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
 
     /**
      * Maps a {@link LocationFuzzyIndex.Match} to a LOCATION suggestion item.
-     * Shared by the structured fast path (exact, {@code fuzzy=false}) and the
-     * typo fallback ({@code fuzzy=true}) so both emit the identical metadata
-     * contract the synthesized "ready to apply" row and the frontend rely on
-     * ({@code legacyProvinceId}/{@code legacyDistrictId} + province/district
-     * codes — these feed {@code resolveAddressMappings}, which expands the
-     * legacy district id to the new ward codes so listings under BOTH the old
-     * and new address structures are matched).
+     * Shared by the structured fast path (exact, {@code fuzzy=false}), the
+     * in-memory ward tier and the typo fallback ({@code fuzzy=true}) so all
+     * emit the identical metadata contract the synthesized "ready to apply"
+     * row and the frontend rely on ({@code legacyProvinceId} /
+     * {@code legacyDistrictId} / {@code legacyWardId} + codes — these feed
+     * {@code resolveAddressMappings}, which expands legacy ids to the new
+     * ward codes so listings under BOTH the old and new address structures
+     * are matched). New-structure wards carry {@code newWardCode} and streets
+     * carry {@code streetId}, the filter keys the search endpoint accepts.
      */
     private SearchSuggestionItem toLocationItem(
             LocationFuzzyIndex.Match m, int rank, boolean fuzzy) {
-        boolean isDistrict = m.kind() == LocationFuzzyIndex.Kind.DISTRICT;
+        LocationFuzzyIndex.Kind kind = m.kind();
 
         Map<String, Object> meta = new HashMap<>();
-        meta.put("matchType", isDistrict ? "DISTRICT" : "PROVINCE");
+        meta.put("matchType", kind.name());
         meta.put("provinceName", m.provinceName());
-        meta.put("districtName", isDistrict ? m.districtName() : "");
+        meta.put("districtName", m.districtName() != null ? m.districtName() : "");
         if (m.provinceCode() != null) meta.put("provinceCode", m.provinceCode());
         if (m.legacyProvinceId() != null) meta.put("legacyProvinceId", m.legacyProvinceId());
-        if (isDistrict) {
+        if (kind != LocationFuzzyIndex.Kind.PROVINCE) {
             if (m.districtCode() != null) meta.put("districtCode", m.districtCode());
             if (m.legacyDistrictId() != null) meta.put("legacyDistrictId", m.legacyDistrictId());
         }
+        switch (kind) {
+            case WARD -> {
+                meta.put("wardName", m.wardName());
+                if (m.wardCode() != null) meta.put("wardCode", m.wardCode());
+                if (m.legacyWardId() != null) meta.put("legacyWardId", m.legacyWardId());
+            }
+            case NEW_WARD -> {
+                meta.put("wardName", m.wardName());
+                meta.put("newWardCode", m.wardCode());
+            }
+            case STREET -> meta.put("streetId", m.streetId());
+            default -> { }
+        }
         if (fuzzy) meta.put("fuzzy", true);
 
-        String text = isDistrict
-                ? m.districtName() + ", " + m.provinceName()
-                : m.provinceName();
+        StringBuilder text = new StringBuilder(kind == LocationFuzzyIndex.Kind.PROVINCE
+                ? m.provinceName()
+                : kind == LocationFuzzyIndex.Kind.DISTRICT ? m.districtName() : m.display());
+        if (kind != LocationFuzzyIndex.Kind.PROVINCE && kind != LocationFuzzyIndex.Kind.DISTRICT
+                && m.districtName() != null) {
+            text.append(", ").append(m.districtName());
+        }
+        if (kind != LocationFuzzyIndex.Kind.PROVINCE && m.provinceName() != null) {
+            text.append(", ").append(m.provinceName());
+        }
         double score = WEIGHT_LOCATION * (1.0 - SCORE_DECAY_PER_RANK * rank);
         return SearchSuggestionItem.builder()
                 .type(SuggestionType.LOCATION)
-                .text(text)
+                .text(text.toString())
                 .metadata(meta)
                 .score(score)
                 .build();
@@ -918,54 +995,25 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
     }
 
     /**
-     * Ward-level matches. Uses the v2 ward query (ward-only columns) so a
-     * city-name search no longer pulls 8 arbitrary wards inside the city as
-     * "WARD" suggestions — those came from the old ward-only fetch matching
-     * on the denormalized province/district key columns.
+     * Ward-level matches, served from the in-memory {@link LocationFuzzyIndex}
+     * instead of the old {@code LIKE '%…%'} scan over ~10k legacy wards (which
+     * no index could help). The index keeps the ward-only semantics of the v2
+     * query — only ward names are matched, so a city-name search does not pull
+     * arbitrary wards inside the city — and ranks exact, then prefix, then
+     * substring hits.
      */
-    private List<SearchSuggestionItem> fetchWardSuggestionsTier(String normalized, String compact, String rawProvinceId) {
-        try {
-            PageRequest page = PageRequest.of(0, MAX_WARD_CANDIDATES);
-            List<LegacyWard> wards = (rawProvinceId != null && !rawProvinceId.isBlank())
-                    ? legacyWardRepository.findWardSuggestionMatchesByProvince(
-                            toProvinceCode(rawProvinceId), normalized, compact, page)
-                    : legacyWardRepository.findWardSuggestionMatches(normalized, compact, page);
-
-            List<SearchSuggestionItem> items = new ArrayList<>(wards.size());
-            for (LegacyWard ward : wards) {
-                Integer legacyProvinceId = safeLegacyProvinceId(ward);
-                Integer legacyDistrictId = safeLegacyDistrictId(ward);
-                if (legacyProvinceId == null) {
-                    log.warn("search-suggestions: dropping WARD suggestion without legacyProvinceId (ward={})", ward.getCode());
-                    continue;
-                }
-
-                Map<String, Object> meta = new HashMap<>();
-                meta.put("matchType", "WARD");
-                meta.put("provinceName", ward.getProvinceName());
-                meta.put("districtName", ward.getDistrictName());
-                meta.put("wardName", ward.getName());
-                if (ward.getProvinceCode() != null) meta.put("provinceCode", ward.getProvinceCode());
-                if (ward.getDistrictCode() != null) meta.put("districtCode", ward.getDistrictCode());
-                if (ward.getCode() != null) meta.put("wardCode", ward.getCode());
-                meta.put("legacyProvinceId", legacyProvinceId);
-                if (legacyDistrictId != null) meta.put("legacyDistrictId", legacyDistrictId);
-                if (ward.getId() != null) meta.put("legacyWardId", ward.getId());
-
-                String displayText = ward.getName() + ", " + ward.getDistrictName() + ", " + ward.getProvinceName();
-                double score = WEIGHT_LOCATION * (1.0 - SCORE_DECAY_PER_RANK * items.size());
-                items.add(SearchSuggestionItem.builder()
-                        .type(SuggestionType.LOCATION)
-                        .text(displayText)
-                        .metadata(meta)
-                        .score(score)
-                        .build());
-            }
-            return items;
-        } catch (Exception e) {
-            log.warn("search-suggestions: ward tier fetch failed (non-fatal): {}", e.getMessage(), e);
-            return Collections.emptyList();
+    private List<SearchSuggestionItem> fetchWardSuggestionsTier(String normalized, String rawProvinceId) {
+        String provinceCode = (rawProvinceId != null && !rawProvinceId.isBlank())
+                ? toProvinceCode(rawProvinceId)
+                : null;
+        List<LocationFuzzyIndex.Match> wards = locationFuzzyIndex.findContaining(
+                normalized, LocationFuzzyIndex.Kind.WARD, provinceCode, MAX_WARD_CANDIDATES);
+
+        List<SearchSuggestionItem> items = new ArrayList<>(wards.size());
+        for (LocationFuzzyIndex.Match ward : wards) {
+            items.add(toLocationItem(ward, items.size(), false));
         }
+        return items;
     }
 
     /**
@@ -1263,7 +1311,7 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
 
     /**
      * Converts a raw province ID string to a province code string for use with
-     * {@link LegacyWardRepository#findByProvinceCode}.
+     * province-scoped district and ward lookups.
      * Pads single-digit values with a leading zero to match the stored {@code province_code}.
      */
     private String toProvinceCode(String rawProvinceId) {
@@ -1301,25 +1349,10 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
     }
 
     /**
-     * Reads {@code ward.province.id} via the lazy relationship. Wrapped because we
-     * never want telemetry-adjacent fetches to fail the suggestion response.
+     * Reads {@code district.province.id} via the lazy relationship. Wrapped
+     * because we never want telemetry-adjacent fetches to fail the suggestion
+     * response.
      */
-    private static Integer safeLegacyProvinceId(LegacyWard ward) {
-        try {
-            return ward.getProvince() != null ? ward.getProvince().getId() : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private static Integer safeLegacyDistrictId(LegacyWard ward) {
-        try {
-            return ward.getDistrict() != null ? ward.getDistrict().getId() : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     private static Integer safeLegacyProvinceIdOf(District district) {
         try {
             return district.getProvince() != null ? district.getProvince().getId() : null;
@@ -0,0 +1,406 @@
+package com.smartrent.service.engagement;
+
+import com.smartrent.infra.repository.ListingEngagementTotalsRepository;
+import com.smartrent.infra.repository.PhoneClickDetailRepository;
+import com.smartrent.infra.repository.SavedListingRepository;
+import com.smartrent.infra.repository.ViewRepository;
+import com.smartrent.infra.repository.entity.ListingEngagementTotals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis engagement counters, so listing analytics, click stats and the
+ * interest-level badge read a few keys instead of running
+ * {@code COUNT}/{@code COUNT(DISTINCT)} over the raw event tables:
+ * <ul>
+ *   <li>{@code engagement:listing:<listingId>} — hash of exact all-time totals
+ *       ({@value #CLICKS}, {@value #VIEWS}, {@value #SAVES});</li>
+ *   <li>{@code engagement:listing:<listingId>:day:<yyyyMMdd>} — the same for
+ *       clicks and views per calendar day, kept {@value #WINDOW_DAYS} days, which
+ *       make up the sliding windows;</li>
+ *   <li>{@code …:clickers} — HyperLogLog of the distinct users who clicked.</li>
+ * </ul>
+ *
+ * <p>Per-owner totals live in the database summaries maintained by
+ * {@link OwnerEngagementStore}.
+ *
+ * <p>The ingestion paths increment the counters after their rows are stored.
+ * A listing's counters are seeded from the tables on their first read (all-time
+ * clicks and views from {@code listing_engagement_totals}, since the raw rows
+ * are subject to retention; the
+ * {@value #SEEDED_AT} field marks a seeded hash) and expire when the listing
+ * sees no reads or events for {@link #KEY_TTL}. Every increment also adds the
+ * listing to {@code engagement:dirty}; {@link #reconcileDirty} re-seeds those
+ * listings from the tables, correcting drift from races between a seed and
+ * a concurrent batch, or from a failed increment. When Redis is unavailable
+ * reads are answered from the tables.
+ */
+@Slf4j
+@Component
+public class EngagementCounters {
+
+    static final String LISTING_PREFIX = "engagement:listing:";
+    static final String DAY_INFIX = ":day:";
+    static final String CLICKERS_SUFFIX = ":clickers";
+    static final String DIRTY_KEY = "engagement:dirty";
+    static final String CLICKS = "clicks";
+    static final String VIEWS = "views";
+    static final String SAVES = "saves";
+    static final String SEEDED_AT = "seededAt";
+
+    /** Longest supported window; day buckets older than this are not kept. */
+    public static final int WINDOW_DAYS = 30;
+
+    private static final Duration KEY_TTL = Duration.ofDays(35);
+    private static final Duration DAY_TTL = Duration.ofDays(WINDOW_DAYS + 2);
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /** One persisted phone click. */
+    public record PhoneClick(Long listingId, String userId, LocalDateTime clickedAt) {}
+
+    /** All-time engagement of one listing. */
+    public record ListingTotals(long clicks, long uniqueClickers, long views, long saves) {}
+
+    /** Table state of one listing, as written by a seed. */
+    private record Seed(ListingTotals totals, List<String> clickerIds,
+                        Map<LocalDate, Long> clicksByDay, Map<LocalDate, Long> viewsByDay) {}
+
+    private final StringRedisTemplate redisTemplate;
+    private final PhoneClickDetailRepository phoneClickDetailRepository;
+    private final ViewRepository viewRepository;
+    private final SavedListingRepository savedListingRepository;
+    private final ListingEngagementTotalsRepository listingEngagementTotalsRepository;
+
+    public EngagementCounters(StringRedisTemplate redisTemplate,
+                              PhoneClickDetailRepository phoneClickDetailRepository,
+                              ViewRepository viewRepository,
+                              SavedListingRepository savedListingRepository,
+                              ListingEngagementTotalsRepository listingEngagementTotalsRepository) {
+        this.redisTemplate = redisTemplate;
+        this.phoneClickDetailRepository = phoneClickDetailRepository;
+        this.viewRepository = viewRepository;
+        this.savedListingRepository = savedListingRepository;
+        this.listingEngagementTotalsRepository = listingEngagementTotalsRepository;
+    }
+
+    // ─── Writes ───
+
+    /** Adds persisted {@code clicks} to the listing counters. Never throws. */
+    public void recordPhoneClicks(Collection<PhoneClick> clicks) {
+        if (clicks.isEmpty()) {
+            return;
+        }
+        Map<String, Long> totals = new HashMap<>();
+        Map<String, Long> daily = new HashMap<>();
+        Map<String, Set<String>> clickers = new HashMap<>();
+        Set<String> listingIds = new HashSet<>();
+        for (PhoneClick click : clicks) {
+            String listingKey = listingKey(click.listingId());
+            listingIds.add(click.listingId().toString());
+            totals.merge(listingKey, 1L, Long::sum);
+            daily.merge(dayKey(click.listingId(), click.clickedAt().toLocalDate()), 1L, Long::sum);
+            clickers.computeIfAbsent(listingKey + CLICKERS_SUFFIX, k -> new HashSet<>()).add(click.userId());
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    totals.forEach((key, n) -> {
+                        ops.opsForHash().increment(key, CLICKS, n);
+                        ops.expire(key, KEY_TTL);
+                    });
+                    daily.forEach((key, n) -> {
+                        ops.opsForHash().increment(key, CLICKS, n);
+                        ops.expire(key, DAY_TTL);
+                    });
+                    clickers.forEach((key, users) -> {
+                        ops.opsForHyperLogLog().add(key, users.toArray(String[]::new));
+                        ops.expire(key, KEY_TTL);
+                    });
+                    ops.opsForSet().add(DIRTY_KEY, listingIds.toArray(String[]::new));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("engagement-counters: click update failed for {} clicks (non-fatal): {}",
+                    clicks.size(), e.getMessage(), e);
+        }
+    }
+
+    /** Adds views inserted today, per listing. Never throws. */
+    public void recordViews(Map<Long, Integer> insertedPerListing) {
+        if (insertedPerListing.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    insertedPerListing.forEach((listingId, n) -> {
+                        ops.opsForHash().increment(listingKey(listingId), VIEWS, n);
+                        ops.expire(listingKey(listingId), KEY_TTL);
+                        ops.opsForHash().increment(dayKey(listingId, today), VIEWS, n);
+                        ops.expire(dayKey(listingId, today), DAY_TTL);
+                    });
+                    ops.opsForSet().add(DIRTY_KEY, insertedPerListing.keySet().stream()
+                            .map(String::valueOf).toArray(String[]::new));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("engagement-counters: view update failed for {} listings (non-fatal): {}",
+                    insertedPerListing.size(), e.getMessage(), e);
+        }
+    }
+
+    /** Adds {@code delta} (+1 saved, -1 unsaved) to the listing's saves. Never throws. */
+    public void recordSave(Long listingId, int delta) {
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.opsForHash().increment(listingKey(listingId), SAVES, delta);
+                    ops.expire(listingKey(listingId), KEY_TTL);
+                    ops.opsForSet().add(DIRTY_KEY, listingId.toString());
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("engagement-counters: save update failed for listing {} (non-fatal): {}",
+                    listingId, e.getMessage(), e);
+        }
+    }
+
+    // ─── Reads ───
+
+    /** All-time totals of {@code listingId}. */
+    public ListingTotals totals(Long listingId) {
+        String key = listingKey(listingId);
+        try {
+            List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.opsForHash().entries(key);
+                    ops.opsForHyperLogLog().size(key + CLICKERS_SUFFIX);
+                    return null;
+                }
+            });
+            Map<?, ?> hash = (Map<?, ?>) replies.get(0);
+            if (hash != null && hash.containsKey(SEEDED_AT)) {
+                return new ListingTotals(longField(hash, CLICKS), ((Number) replies.get(1)).longValue(),
+                        longField(hash, VIEWS), longField(hash, SAVES));
+            }
+        } catch (Exception e) {
+            log.warn("engagement-counters: read failed for listing {}, counting the tables (non-fatal): {}",
+                    listingId, e.getMessage());
+            return countTotals(listingId);
+        }
+        return seed(listingId).totals();
+    }
+
+    /** Clicks on {@code listingId} today and the {@code days - 1} calendar days before. */
+    public long recentClicks(Long listingId, int days) {
+        return recent(listingId, CLICKS, days);
+    }
+
+    /** Views of {@code listingId} today and the {@code days - 1} calendar days before. */
+    public long recentViews(Long listingId, int days) {
+        return recent(listingId, VIEWS, days);
+    }
+
+    private long recent(Long listingId, String field, int days) {
+        if (days < 1 || days > WINDOW_DAYS) {
+            throw new IllegalArgumentException("Window must be 1.." + WINDOW_DAYS + " days: " + days);
+        }
+        LocalDate today = LocalDate.now();
+        try {
+            List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.opsForHash().hasKey(listingKey(listingId), SEEDED_AT);
+                    for (int i = 0; i < days; i++) {
+                        ops.opsForHash().get(dayKey(listingId, today.minusDays(i)), field);
+                    }
+                    return null;
+                }
+            });
+            if (Boolean.TRUE.equals(replies.get(0))) {
+                long sum = 0;
+                for (Object reply : replies.subList(1, replies.size())) {
+                    sum += reply != null ? Long.parseLong(reply.toString()) : 0L;
+                }
+                return sum;
+            }
+        } catch (Exception e) {
+            log.warn("engagement-counters: window read failed for listing {}, counting the tables (non-fatal): {}",
+                    listingId, e.getMessage());
+            LocalDateTime start = today.minusDays(days - 1L).atStartOfDay();
+            return CLICKS.equals(field)
+                    ? phoneClickDetailRepository.countByListing_ListingIdAndClickedAtAfter(listingId, start)
+                    : viewRepository.countByListing_ListingIdAndViewedAtBetween(listingId, start, LocalDateTime.now());
+        }
+        Seed seed = seed(listingId);
+        Map<LocalDate, Long> byDay = CLICKS.equals(field) ? seed.clicksByDay() : seed.viewsByDay();
+        long sum = 0;
+        for (int i = 0; i < days; i++) {
+            sum += byDay.getOrDefault(today.minusDays(i), 0L);
+        }
+        return sum;
+    }
+
+    // ─── Reconciliation ───
+
+    /**
+     * Re-seeds up to {@code max} listings that saw events since the last run
+     * and are still cached. Returns how many were re-seeded. Never throws.
+     */
+    public int reconcileDirty(int max) {
+        List<String> ids;
+        try {
+            ids = redisTemplate.opsForSet().pop(DIRTY_KEY, max);
+        } catch (Exception e) {
+            log.warn("engagement-counters: reconcile skipped (non-fatal): {}", e.getMessage());
+            return 0;
+        }
+        int reseeded = 0;
+        for (String id : ids != null ? ids : List.<String>of()) {
+            try {
+                Long listingId = Long.valueOf(id);
+                if (Boolean.TRUE.equals(redisTemplate.opsForHash().hasKey(listingKey(listingId), SEEDED_AT))) {
+                    seed(listingId);
+                    reseeded++;
+                }
+            } catch (Exception e) {
+                log.warn("engagement-counters: reconcile failed for listing {} (non-fatal): {}", id, e.getMessage());
+            }
+        }
+        return reseeded;
+    }
+
+    /**
+     * Counts {@code listingId} in the tables and overwrites its counters and
+     * the last {@value #WINDOW_DAYS} day buckets with the result. The seeded
+     * marker is written last, so a seed cut short is redone on the next read.
+     */
+    private Seed seed(Long listingId) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime windowStart = today.minusDays(WINDOW_DAYS - 1L).atStartOfDay();
+        List<String> clickerIds = phoneClickDetailRepository.findClickerIdsByListingId(listingId);
+        ListingEngagementTotals allTime = listingEngagementTotalsRepository.findById(listingId).orElse(null);
+        Seed seed = new Seed(
+                new ListingTotals(
+                        allTime != null ? allTime.getClicks() : 0L,
+                        clickerIds.size(),
+                        allTime != null ? allTime.getViews() : 0L,
+                        savedListingRepository.countByIdListingId(listingId)),
+                clickerIds,
+                byDay(phoneClickDetailRepository.countClicksGroupedByDateSince(listingId, windowStart)),
+                byDay(viewRepository.countViewsGroupedByDateSince(listingId, windowStart)));
+
+        String key = listingKey(listingId);
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    List<String> stale = new ArrayList<>(WINDOW_DAYS + 2);
+                    stale.add(key);
+                    stale.add(key + CLICKERS_SUFFIX);
+                    for (int i = 0; i < WINDOW_DAYS; i++) {
+                        stale.add(dayKey(listingId, today.minusDays(i)));
+                    }
+                    ops.delete(stale);
+
+                    for (int i = 0; i < WINDOW_DAYS; i++) {
+                        LocalDate day = today.minusDays(i);
+                        Map<String, String> fields = new HashMap<>();
+                        Long clicks = seed.clicksByDay().get(day);
+                        Long views = seed.viewsByDay().get(day);
+                        if (clicks != null) {
+                            fields.put(CLICKS, clicks.toString());
+                        }
+                        if (views != null) {
+                            fields.put(VIEWS, views.toString());
+                        }
+                        if (!fields.isEmpty()) {
+                            ops.opsForHash().putAll(dayKey(listingId, day), fields);
+                            ops.expire(dayKey(listingId, day), DAY_TTL);
+                        }
+                    }
+                    if (!seed.clickerIds().isEmpty()) {
+                        ops.opsForHyperLogLog().add(key + CLICKERS_SUFFIX, seed.clickerIds().toArray(String[]::new));
+                        ops.expire(key + CLICKERS_SUFFIX, KEY_TTL);
+                    }
+                    ops.opsForHash().putAll(key, Map.of(
+                            CLICKS, Long.toString(seed.totals().clicks()),
+                            VIEWS, Long.toString(seed.totals().views()),
+                            SAVES, Long.toString(seed.totals().saves()),
+                            SEEDED_AT, Long.toString(System.currentTimeMillis())));
+                    ops.expire(key, KEY_TTL);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("engagement-counters: seed failed for listing {} (non-fatal): {}", listingId, e.getMessage());
+        }
+        return seed;
+    }
+
+    private ListingTotals countTotals(Long listingId) {
+        ListingEngagementTotals allTime = listingEngagementTotalsRepository.findById(listingId).orElse(null);
+        return new ListingTotals(
+                allTime != null ? allTime.getClicks() : 0L,
+                phoneClickDetailRepository.countDistinctUsersByListingId(listingId),
+                allTime != null ? allTime.getViews() : 0L,
+                savedListingRepository.countByIdListingId(listingId));
+    }
+
+    private static Map<LocalDate, Long> byDay(List<Object[]> rows) {
+        Map<LocalDate, Long> byDay = new HashMap<>();
+        for (Object[] row : rows) {
+            byDay.put((LocalDate) row[0], ((Number) row[1]).longValue());
+        }
+        return byDay;
+    }
+
+    private static long longField(Map<?, ?> hash, String field) {
+        Object value = hash.get(field);
+        return value != null ? Long.parseLong(value.toString()) : 0L;
+    }
+
+    static String listingKey(Long listingId) {
+        return LISTING_PREFIX + listingId;
+    }
+
+    static String dayKey(Long listingId, LocalDate day) {
+        return LISTING_PREFIX + listingId + DAY_INFIX + day.format(DAY_FORMAT);
+    }
+}
@@ -0,0 +1,118 @@
+package com.smartrent.service.engagement;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the seller-dashboard summaries ({@code listing_engagement_totals}
+ * and {@code owner_leads}) with additive upserts. Callers invoke it inside
+ * the transaction that inserts the events, so the summaries commit or roll
+ * back together with the rows they count.
+ *
+ * <p>The upserts refer to the inserted row through the {@code AS new} row
+ * alias (MySQL 8.0.19+) rather than the deprecated {@code VALUES()} function.
+ */
+@Component
+public class OwnerEngagementStore {
+
+    /** Engagement added to one listing. */
+    public record ListingDelta(Long listingId, String ownerId, int views, int clicks, int saves) {}
+
+    /** One phone click by {@code userId} on a listing owned by {@code ownerId}. */
+    public record LeadClick(String ownerId, String userId, LocalDateTime clickedAt) {}
+
+    private record Lead(int clicks, LocalDateTime first, LocalDateTime last) {
+        Lead merge(Lead other) {
+            return new Lead(clicks + other.clicks,
+                    first.isBefore(other.first) ? first : other.first,
+                    last.isAfter(other.last) ? last : other.last);
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Adds {@code deltas} to the listing totals in one multi-row upsert. */
+    @Transactional
+    public void addListingDeltas(Collection<ListingDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO listing_engagement_totals (listing_id, owner_id, views, clicks, saves) VALUES ");
+        for (int i = 0; i < deltas.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+        }
+        sql.append(" AS new ON DUPLICATE KEY UPDATE views = views + new.views, "
+                + "clicks = clicks + new.clicks, saves = saves + new.saves");
+        Query upsert = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        for (ListingDelta delta : deltas) {
+            upsert.setParameter(position++, delta.listingId());
+            upsert.setParameter(position++, delta.ownerId());
+            upsert.setParameter(position++, delta.views());
+            upsert.setParameter(position++, delta.clicks());
+            upsert.setParameter(position++, delta.saves());
+        }
+        upsert.executeUpdate();
+    }
+
+    /**
+     * Adds {@code delta} saves to {@code listingId}, resolving its owner in
+     * the same statement. Totals never go below zero.
+     */
+    @Transactional
+    public void addSaves(Long listingId, int delta) {
+        entityManager.createNativeQuery(
+                        "INSERT INTO listing_engagement_totals (listing_id, owner_id, saves) "
+                                + "SELECT l.listing_id, l.user_id, GREATEST(?, 0) FROM listings l WHERE l.listing_id = ? "
+                                + "ON DUPLICATE KEY UPDATE saves = GREATEST(saves + ?, 0)")
+                .setParameter(1, delta)
+                .setParameter(2, listingId)
+                .setParameter(3, delta)
+                .executeUpdate();
+    }
+
+    /** Records {@code clicks} as leads of their listing owners, one upsert row per owner and user. */
+    @Transactional
+    public void addLeadClicks(Collection<LeadClick> clicks) {
+        Map<List<String>, Lead> leads = new HashMap<>();
+        for (LeadClick click : clicks) {
+            if (click.ownerId() == null) {
+                continue;
+            }
+            leads.merge(List.of(click.ownerId(), click.userId()),
+                    new Lead(1, click.clickedAt(), click.clickedAt()), Lead::merge);
+        }
+        if (leads.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO owner_leads (owner_id, user_id, click_count, first_clicked_at, last_clicked_at) VALUES ");
+        for (int i = 0; i < leads.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+        }
+        sql.append(" AS new ON DUPLICATE KEY UPDATE click_count = click_count + new.click_count, "
+                + "first_clicked_at = LEAST(first_clicked_at, new.first_clicked_at), "
+                + "last_clicked_at = GREATEST(last_clicked_at, new.last_clicked_at)");
+        Query upsert = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        for (Map.Entry<List<String>, Lead> lead : leads.entrySet()) {
+            upsert.setParameter(position++, lead.getKey().get(0));
+            upsert.setParameter(position++, lead.getKey().get(1));
+            upsert.setParameter(position++, lead.getValue().clicks());
+            upsert.setParameter(position++, lead.getValue().first());
+            upsert.setParameter(position++, lead.getValue().last());
+        }
+        upsert.executeUpdate();
+    }
+}
@@ -0,0 +1,57 @@
+package com.smartrent.service.export;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Builds the HTTP response of a streamed CSV export.
+ *
+ * <p>An export can stream for far longer than the container's async request timeout,
+ * so the response raises the timeout to {@code request-timeout-ms} for the current
+ * request only; every other async endpoint keeps the default. Must be called from
+ * the controller method, on the request thread.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CsvDownloads {
+
+    private static final String TIMEOUT_INTERCEPTOR_KEY = CsvDownloads.class.getName() + ".timeout";
+
+    @Value("${application.csv-export.request-timeout-ms:600000}")
+    long requestTimeoutMs;
+
+    /** An attachment named {@code filename} whose body is written by {@code body}. */
+    public ResponseEntity<StreamingResponseBody> response(String filename, StreamingResponseBody body) {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+                .getRequest();
+        // Runs after the default timeout is applied and before async processing starts
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(TIMEOUT_INTERCEPTOR_KEY,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        if (webRequest instanceof AsyncWebRequest asyncWebRequest) {
+                            asyncWebRequest.setTimeout(requestTimeoutMs);
+                        }
+                    }
+                });
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(new MediaType("text", "csv"))
+                .body(body);
+    }
+}
@@ -0,0 +1,77 @@
+package com.smartrent.service.export;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes a keyset-paged entity query to an output stream as CSV in constant memory.
+ *
+ * <p>Entities are fetched in pages of {@code chunk-size}, each page seeking past the
+ * last row of the previous one (see {@code TransactionRepositoryCustom#findPageAfter}),
+ * so no page costs more than an index range scan and no server-side cursor is needed.
+ * Each page is handed to a {@link ChunkWriter} (which batch-loads whatever its rows
+ * reference), flushed to the client, and then detached by clearing the persistence
+ * context, so neither the entities nor the CSV accumulate. This method must be called
+ * inside the caller's transaction.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class CsvStreamExporter {
+
+    /** Fetches one page of entities in export order. */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        /** At most {@code size} entities following {@code last}, or the first ones when {@code last} is null. */
+        List<T> page(T last, int size);
+    }
+
+    /** Writes the CSV rows of one chunk of entities. */
+    @FunctionalInterface
+    public interface ChunkWriter<T> {
+        void write(List<T> chunk, CsvWriter csv);
+    }
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${application.csv-export.chunk-size:500}")
+    int chunkSize;
+
+    /**
+     * Writes {@code header} and then every entity of {@code pages} to {@code out}.
+     * Returns the number of data rows written.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> long export(PageSource<T> pages, OutputStream out, String[] header, ChunkWriter<T> chunkWriter) {
+        CsvWriter csv = new CsvWriter(out).header(header);
+        long written = 0;
+        T last = null;
+        List<T> chunk;
+        do {
+            chunk = pages.page(last, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            chunkWriter.write(chunk, csv);
+            csv.flush();
+            last = chunk.get(chunk.size() - 1);
+            written += chunk.size();
+            // Only the key of the last row is read from here on, which a detached entity still has
+            entityManager.clear();
+        } while (chunk.size() >= chunkSize);
+        csv.flush();
+        log.info("csv-export: wrote {} rows", written);
+        return written;
+    }
+}
@@ -0,0 +1,76 @@
+package com.smartrent.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 CSV writer for the admin exports. Text cells (and enums, by name) are
+ * always quoted with embedded quotes doubled, numbers are written bare and
+ * {@code null} as an empty cell.
+ * I/O failures surface as {@link UncheckedIOException} so rows can be written
+ * from lambdas.
+ */
+public final class CsvWriter {
+
+    private final Writer out;
+
+    public CsvWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /** Writes the header line; column names are written as they are. */
+    public CsvWriter header(String... columns) {
+        try {
+            out.write(String.join(",", columns));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    public CsvWriter row(Object... cells) {
+        try {
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeCell(cells[i]);
+            }
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCell(Object cell) throws IOException {
+        if (cell == null) {
+            return;
+        }
+        if (cell instanceof BigDecimal decimal) {
+            out.write(decimal.toPlainString());
+        } else if (cell instanceof Number number) {
+            out.write(number.toString());
+        } else {
+            String text = cell instanceof Enum<?> constant ? constant.name() : cell.toString();
+            out.write('"');
+            out.write(text.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+}
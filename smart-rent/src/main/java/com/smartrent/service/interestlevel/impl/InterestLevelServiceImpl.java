@@ -2,7 +2,7 @@ package com.smartrent.service.interestlevel.impl;
 
 import com.smartrent.dto.response.InterestLevelResponse;
 import com.smartrent.infra.repository.ListingRepository;
-import com.smartrent.infra.repository.PhoneClickDetailRepository;
+import com.smartrent.service.engagement.EngagementCounters;
 import com.smartrent.service.interestlevel.InterestLevelService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -11,16 +11,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class InterestLevelServiceImpl implements InterestLevelService {
 
-    PhoneClickDetailRepository phoneClickDetailRepository;
     ListingRepository listingRepository;
+    EngagementCounters engagementCounters;
 
     private static final int LOW_THRESHOLD = 3;
     private static final int MEDIUM_THRESHOLD = 10;
@@ -32,8 +30,8 @@ public class InterestLevelServiceImpl implements InterestLevelService {
         listingRepository.findById(listingId)
                 .orElseThrow(() -> new RuntimeException("Listing not found with ID: " + listingId));
 
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-        long recentClicks = phoneClickDetailRepository.countByListing_ListingIdAndClickedAtAfter(listingId, sevenDaysAgo);
+        // Today plus the previous 6 calendar days, from the day-bucketed click counters.
+        long recentClicks = engagementCounters.recentClicks(listingId, 7);
 
         return mapToInterestLevel(recentClicks);
     }
@@ -19,6 +19,7 @@ import com.smartrent.dto.response.ListingResponseWithAdmin;
 import com.smartrent.dto.response.OwnerListingListResponse;
 import com.smartrent.dto.response.ProvinceListingStatsResponse;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Set;
 
@@ -191,6 +192,16 @@ public interface ListingService {
      */
     AdminListingListResponse getAllListingsForAdmin(ListingFilterRequest filter, String adminId);
 
+    /**
+     * Streams every listing matching the admin filter to {@code out} as CSV (page and
+     * sort fields are ignored; rows are newest first).
+     *
+     * @param filter Filter criteria, as for {@link #getAllListingsForAdmin}
+     * @param adminId Admin ID who is requesting the export, already checked to exist
+     * @param out Destination, normally the HTTP response body
+     */
+    void exportListingsForAdminCsv(ListingFilterRequest filter, String adminId, OutputStream out);
+
     /**
      * Get my listings with owner-specific information (Owner only)
      * Returns paginated list of owner's listings with detailed information including
@@ -0,0 +1,140 @@
+package com.smartrent.service.listing.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smartrent.dto.response.ListingResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-listing cache of displayable {@link ListingResponse} cards
+ * ({@code listing:card:<listingId>}), read with one {@code MGET} so a strip of
+ * listings (e.g. recently viewed) hydrates without SQL once warm.
+ *
+ * <p>Only listings that {@code getDisplayingListingsByIds} returned are cached
+ * as cards; requested ids it did not return are cached as an empty tombstone,
+ * so hidden or expired listings do not send every read back to the database.
+ * Updates, deletes, take-downs and moderation decisions evict the listing's
+ * entry; anything else (pushes, reposts) is bounded by {@code ttl-seconds}.
+ */
+@Slf4j
+@Service
+public class ListingCardCache {
+
+    static final String KEY_PREFIX = "listing:card:";
+    static final String TOMBSTONE = "";
+
+    /** Cards found, and ids with no entry that the caller has to load. Tombstoned ids are in neither. */
+    public record Lookup(Map<Long, ListingResponse> found, Set<Long> missing) {}
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public ListingCardCache(RedisTemplate<String, String> redisTemplate,
+                            @Value("${application.listing-card-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /** One {@code MGET} for all of {@code listingIds}. On a Redis failure every id is reported missing. */
+    public Lookup getAll(Collection<Long> listingIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(listingIds));
+        if (ids.isEmpty()) {
+            return new Lookup(Map.of(), Set.of());
+        }
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(ids.stream().map(ListingCardCache::key).toList());
+        } catch (DataAccessException e) {
+            log.warn("listing-card-cache: MGET failed (non-fatal): {}", e.getMessage());
+            return new Lookup(Map.of(), new HashSet<>(ids));
+        }
+        Map<Long, ListingResponse> found = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String value = values != null && i < values.size() ? values.get(i) : null;
+            if (value == null) {
+                missing.add(ids.get(i));
+            } else if (!TOMBSTONE.equals(value)) {
+                try {
+                    found.put(ids.get(i), objectMapper.readValue(value, ListingResponse.class));
+                } catch (Exception e) {
+                    log.warn("listing-card-cache: unreadable card for listing {}, reloading: {}", ids.get(i), e.getMessage());
+                    missing.add(ids.get(i));
+                }
+            }
+        }
+        return new Lookup(found, missing);
+    }
+
+    /**
+     * Caches {@code loaded} as cards and every other id in {@code requested} as
+     * a tombstone, in one pipelined round trip. Never throws.
+     */
+    public void putAll(Collection<Long> requested, Collection<ListingResponse> loaded) {
+        Map<String, String> entries = new HashMap<>();
+        for (Long id : requested) {
+            entries.put(key(id), TOMBSTONE);
+        }
+        for (ListingResponse listing : loaded) {
+            try {
+                entries.put(key(listing.getListingId()), objectMapper.writeValueAsString(listing));
+            } catch (Exception e) {
+                entries.remove(key(listing.getListingId()));
+                log.warn("listing-card-cache: could not serialize listing {}: {}", listing.getListingId(), e.getMessage());
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    entries.forEach((key, value) -> ops.opsForValue().set(key, value, ttl));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("listing-card-cache: write failed (non-fatal): {}", e.getMessage(), e);
+        }
+    }
+
+    /** Drops the cached card (or tombstone) of {@code listingId}. Never throws. */
+    public void evict(Long listingId) {
+        if (listingId == null) {
+            return;
+        }
+        try {
+            redisTemplate.delete(key(listingId));
+        } catch (Exception e) {
+            log.warn("listing-card-cache: evict failed for listing {} (non-fatal): {}", listingId, e.getMessage());
+        }
+    }
+
+    private static String key(Long listingId) {
+        return KEY_PREFIX + listingId;
+    }
+}
@@ -61,6 +61,7 @@ import com.smartrent.service.listing.ListingFilterBucketDefinitions;
 import com.smartrent.service.listing.ListingService;
 import com.smartrent.service.listing.ListingQueryService;
 import com.smartrent.service.listing.PostingAccessGuard;
+import com.smartrent.service.listing.cache.ListingCardCache;
 import com.smartrent.service.listing.cache.ListingRequestCacheService;
 import com.smartrent.event.ListingSubmittedEvent;
 import com.smartrent.service.notification.NotificationService;
@@ -89,6 +90,7 @@ import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -108,6 +110,10 @@ import java.util.stream.Collectors;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ListingServiceImpl implements ListingService {
 
+    private static final String[] ADMIN_LISTING_CSV_HEADER = {"Listing ID", "Title", "Owner ID", "Owner Name",
+            "Owner Phone", "Listing Type", "Product Type", "Price", "Price Unit", "Area", "Address", "VIP Type",
+            "Listing Status", "Moderation Status", "Verification Status", "Post Date", "Expiry Date", "Created At"};
+
     ListingRepository listingRepository;
     ListingDraftRepository listingDraftRepository;
     MediaRepository mediaRepository;
@@ -139,6 +145,7 @@ public class ListingServiceImpl implements ListingService {
     AddressCreationService addressCreationService;
     AddressService addressService;
     ListingRequestCacheService listingRequestCacheService;
+    ListingCardCache listingCardCache;
     ListingQueryService listingQueryService;
     com.smartrent.service.listing.AdminListingStatsService adminListingStatsService;
     com.smartrent.service.moderation.ListingModerationService listingModerationService;
@@ -149,6 +156,8 @@ public class ListingServiceImpl implements ListingService {
     com.smartrent.infra.repository.ListingAiModerationRepository listingAiModerationRepository;
     com.smartrent.service.pricing.PricingHistoryService pricingHistoryService;
     ObjectMapper objectMapper;
+    com.smartrent.service.export.CsvStreamExporter csvStreamExporter;
+    com.smartrent.service.admin.analytics.AdminFactCubeService adminFactCubeService;
 
     @Override
     @Transactional
@@ -824,6 +833,7 @@ public class ListingServiceImpl implements ListingService {
         }
 
         Listing saved = listingRepository.save(existing);
+        listingCardCache.evict(id);
         // REVISION_REQUIRED is deliberately not re-queued here — the worker only analyses
         // PENDING_REVIEW/RESUBMITTED, and the owner still has to resubmit explicitly. The
         // reset above is what makes that resubmit analyse the edited content.
@@ -905,10 +915,14 @@ public class ListingServiceImpl implements ListingService {
     @Override
     @Transactional
     public void deleteListing(Long id) {
-        if (!listingRepository.existsById(id)) {
-            throw new RuntimeException("Listing not found");
+        Listing listing = listingRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Listing not found"));
+        listingRepository.delete(listing);
+        listingCardCache.evict(id);
+        if (listing.getCreatedAt() != null) {
+            // The listing analytics count it on its creation day, which may already be closed.
+            adminFactCubeService.markChanged(listing.getCreatedAt().toLocalDate());
         }
-        listingRepository.deleteById(id);
     }
 
     @Override
@@ -2309,14 +2323,7 @@ public class ListingServiceImpl implements ListingService {
             // the distinction the admin table needs — no owner-action lookup required.
             listings = content.stream()
                     .map(listing -> {
-                        String verificationStatus;
-                        if (listing.getVerified()) {
-                            verificationStatus = "APPROVED";
-                        } else if (listing.getIsVerify()) {
-                            verificationStatus = "PENDING";
-                        } else {
-                            verificationStatus = "NOT_SUBMITTED";
-                        }
+                        String verificationStatus = adminVerificationStatus(listing);
                         com.smartrent.infra.repository.entity.User owner = userMap.get(listing.getUserId());
                         List<String> images = imagesByListingId.getOrDefault(listing.getListingId(), Collections.emptyList());
                         com.smartrent.dto.response.AdminListingSummary.AiModerationSummary aiModeration =
@@ -2344,6 +2351,64 @@ public class ListingServiceImpl implements ListingService {
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportListingsForAdminCsv(ListingFilterRequest filter, String adminId, OutputStream out) {
+        log.info("Admin {} exporting listings - Category: {}, Province: {}",
+                adminId, filter.getCategoryId(), filter.getProvinceId());
+
+        // Same expiry handling as the admin list above.
+        filter.setExcludeExpired(false);
+
+        Specification<Listing> spec = listingQueryService.buildSpecification(filter);
+        csvStreamExporter.export((Listing last, int size) -> listingRepository.findPageBefore(spec,
+                        last != null ? last.getListingId() : null, size), out,
+                ADMIN_LISTING_CSV_HEADER, (chunk, csv) -> {
+                    // ---- Batch-load owners for the chunk — 1 query ----
+                    Set<String> userIds = chunk.stream()
+                            .map(Listing::getUserId).filter(id -> id != null).collect(Collectors.toSet());
+                    Map<String, com.smartrent.infra.repository.entity.User> owners = userIds.isEmpty()
+                            ? Collections.emptyMap()
+                            : userRepository.findAllById(userIds).stream()
+                                    .collect(Collectors.toMap(
+                                            com.smartrent.infra.repository.entity.User::getUserId,
+                                            Function.identity()));
+
+                    for (Listing listing : chunk) {
+                        com.smartrent.infra.repository.entity.User owner = owners.get(listing.getUserId());
+                        csv.row(listing.getListingId(),
+                                listing.getTitle(),
+                                listing.getUserId(),
+                                owner != null ? ((owner.getFirstName() != null ? owner.getFirstName() : "") + " "
+                                        + (owner.getLastName() != null ? owner.getLastName() : "")).trim() : null,
+                                owner != null ? owner.getContactPhoneNumber() : null,
+                                listing.getListingType(),
+                                listing.getProductType(),
+                                listing.getPrice(),
+                                listing.getPriceUnit(),
+                                listing.getArea(),
+                                listing.getAddress() != null ? listing.getAddress().getDisplayAddress() : null,
+                                listing.getVipType(),
+                                listing.computeListingStatus(),
+                                listing.getModerationStatus(),
+                                adminVerificationStatus(listing),
+                                listing.getPostDate(),
+                                listing.getExpiryDate(),
+                                listing.getCreatedAt());
+                    }
+                });
+    }
+
+    /** APPROVED, PENDING or NOT_SUBMITTED, as shown in the admin listing table. */
+    private static String adminVerificationStatus(Listing listing) {
+        if (listing.getVerified()) {
+            return "APPROVED";
+        } else if (listing.getIsVerify()) {
+            return "PENDING";
+        }
+        return "NOT_SUBMITTED";
+    }
+
     /**
      * Builds the admin table's quick-approve summary for a single listing, or
      * null when quick-approve doesn't apply. Only listings the AI's background
@@ -1,6 +1,7 @@
 package com.smartrent.service.listing.impl;
 
 import com.smartrent.dto.request.SavedListingRequest;
+import com.smartrent.event.UserInteractionEvent;
 import com.smartrent.dto.response.PageResponse;
 import com.smartrent.dto.response.SavedListingResponse;
 import com.smartrent.infra.exception.DomainException;
@@ -10,7 +11,11 @@ import com.smartrent.infra.repository.entity.Listing;
 import com.smartrent.infra.repository.entity.SavedListing;
 import com.smartrent.infra.repository.entity.SavedListingId;
 import com.smartrent.mapper.SavedListingMapper;
+import com.smartrent.service.engagement.EngagementCounters;
+import com.smartrent.service.engagement.OwnerEngagementStore;
 import com.smartrent.service.listing.SavedListingService;
+import com.smartrent.service.recommendation.RecommendationCacheVersions;
+import com.smartrent.service.recommendation.UserInteractionProfileStore;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -24,7 +29,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
 @Slf4j
 @Service
@@ -37,25 +42,11 @@ public class SavedListingServiceImpl implements SavedListingService {
 
     SavedListingRepository savedListingRepository;
     SavedListingMapper savedListingMapper;
-    CacheManager cacheManager;
-
-    private void evictPersonalizedCache(String userId) {
-        try {
-            org.springframework.cache.Cache cache = cacheManager.getCache(com.smartrent.config.Constants.CacheNames.LISTING_RECOMMENDATION_PERSONALIZED);
-            if (cache != null) {
-                cache.evict("user:" + userId + ":topN:8");
-                cache.evict("user:" + userId + ":topN:9");
-                cache.evict("user:" + userId + ":topN:10");
-                cache.evict("user:" + userId + ":topN:11");
-                cache.evict("user:" + userId + ":topN:12");
-                cache.evict("user:" + userId + ":topN:15");
-                cache.evict("user:" + userId + ":topN:20");
-                log.info("Successfully evicted recommendation cache for user: {}", userId);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to evict recommendation cache for user " + userId, e);
-        }
-    }
+    RecommendationCacheVersions recommendationCacheVersions;
+    UserInteractionProfileStore interactionProfileStore;
+    ApplicationEventPublisher eventPublisher;
+    EngagementCounters engagementCounters;
+    OwnerEngagementStore ownerEngagementStore;
 
     @Override
     @Transactional
@@ -80,9 +71,14 @@ public class SavedListingServiceImpl implements SavedListingService {
 
         SavedListing savedListing = savedListingMapper.toEntity(request, userId);
         SavedListing saved = savedListingRepository.save(savedListing);
+        engagementCounters.recordSave(request.getListingId(), 1);
+        ownerEngagementStore.addSaves(request.getListingId(), 1);
         
         log.info("Successfully saved listing {} for user {}", request.getListingId(), userId);
-        evictPersonalizedCache(userId);
+        interactionProfileStore.record(userId, List.of(new UserInteractionProfileStore.Interaction(
+                UserInteractionProfileStore.Kind.SAVE, request.getListingId(), System.currentTimeMillis())));
+        recommendationCacheVersions.bump(userId);
+        eventPublisher.publishEvent(new UserInteractionEvent(userId));
         return savedListingMapper.toResponse(saved);
     }
 
@@ -98,8 +94,12 @@ public class SavedListingServiceImpl implements SavedListingService {
         }
         
         savedListingRepository.deleteByIdUserIdAndIdListingId(userId, listingId);
+        engagementCounters.recordSave(listingId, -1);
+        ownerEngagementStore.addSaves(listingId, -1);
         log.info("Successfully unsaved listing {} for user {}", listingId, userId);
-        evictPersonalizedCache(userId);
+        interactionProfileStore.forget(userId, listingId, UserInteractionProfileStore.Kind.SAVE);
+        recommendationCacheVersions.bump(userId);
+        eventPublisher.publishEvent(new UserInteractionEvent(userId));
     }
 
     @Override
@@ -168,12 +168,14 @@ public class SavedListingServiceImpl implements SavedListingService {
 
             Long listingId = savedListing.getId().getListingId();
             savedListingRepository.deleteByIdUserIdAndIdListingId(userId, listingId);
+            engagementCounters.recordSave(listingId, -1);
+            ownerEngagementStore.addSaves(listingId, -1);
             removedAny = true;
             log.info("Removed stale saved listing {} for user {} (no longer publicly visible)", listingId, userId);
         }
 
         if (removedAny) {
-            evictPersonalizedCache(userId);
+            recommendationCacheVersions.bump(userId);
         }
 
         return visible;
@@ -73,6 +73,7 @@ public class ListingModerationServiceImpl implements ListingModerationService {
     NotificationService notificationService;
     UserFollowService userFollowService;
     org.springframework.context.ApplicationEventPublisher eventPublisher;
+    com.smartrent.service.listing.cache.ListingCardCache listingCardCache;
     com.smartrent.service.pricing.PricingHistoryService pricingHistoryService;
 
     @NonFinal
@@ -111,6 +112,7 @@ public class ListingModerationServiceImpl implements ListingModerationService {
         }
 
         Listing saved = listingRepository.save(listing);
+        listingCardCache.evict(listingId);
 
         // Audit event
         createModerationEvent(saved.getListingId(), determineModerationSource(previousStatus),
@@ -278,6 +280,7 @@ public class ListingModerationServiceImpl implements ListingModerationService {
         listing.setLastModeratedAt(LocalDateTime.now());
         listing.setLastModerationReasonText(request.getAdminNotes());
         listingRepository.save(listing);
+        listingCardCache.evict(listingId);
 
         // Audit event
         createModerationEvent(listingId, ModerationSource.REPORT_RESOLUTION,
@@ -0,0 +1,38 @@
+package com.smartrent.service.phoneclickdetail;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/** An accepted phone click as carried on {@link PhoneClickStream}, before it is persisted. */
+public record PendingPhoneClick(Long listingId, String userId, String ipAddress, String userAgent,
+                                LocalDateTime clickedAt) {
+
+    Map<String, String> toFields() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("listingId", listingId.toString());
+        fields.put("userId", userId);
+        fields.put("clickedAt", Long.toString(clickedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        if (ipAddress != null) {
+            fields.put("ip", ipAddress);
+        }
+        if (userAgent != null) {
+            fields.put("ua", userAgent);
+        }
+        return fields;
+    }
+
+    static PendingPhoneClick fromFields(Map<?, ?> fields) {
+        Object ip = fields.get("ip");
+        Object ua = fields.get("ua");
+        return new PendingPhoneClick(
+                Long.valueOf(fields.get("listingId").toString()),
+                fields.get("userId").toString(),
+                ip != null ? ip.toString() : null,
+                ua != null ? ua.toString() : null,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(fields.get("clickedAt").toString())),
+                        ZoneId.systemDefault()));
+    }
+}
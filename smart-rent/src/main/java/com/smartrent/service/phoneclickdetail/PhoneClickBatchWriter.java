@@ -0,0 +1,90 @@
+package com.smartrent.service.phoneclickdetail;
+
+import com.smartrent.infra.repository.ListingRepository;
+import com.smartrent.service.engagement.OwnerEngagementStore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Persists phone clicks as one multi-row {@code INSERT} with id-only listing
+ * and user references, instead of loading both entities per click. The
+ * owner dashboard summaries are updated in the same transaction.
+ */
+@Component
+public class PhoneClickBatchWriter {
+
+    /** A click that was inserted, with the owner of its listing. */
+    public record Inserted(PendingPhoneClick click, String ownerId) {}
+
+    private final ListingRepository listingRepository;
+    private final OwnerEngagementStore ownerEngagementStore;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PhoneClickBatchWriter(ListingRepository listingRepository, OwnerEngagementStore ownerEngagementStore) {
+        this.listingRepository = listingRepository;
+        this.ownerEngagementStore = ownerEngagementStore;
+    }
+
+    /** Inserts {@code clicks}, skipping clicks on listings that no longer exist. */
+    @Transactional
+    public List<Inserted> insert(List<PendingPhoneClick> clicks) {
+        if (clicks.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> ownerByListing = new HashMap<>();
+        for (Object[] row : listingRepository.findOwnerIdsByListingIds(
+                clicks.stream().map(PendingPhoneClick::listingId).collect(Collectors.toSet()))) {
+            ownerByListing.put((Long) row[0], (String) row[1]);
+        }
+        List<Inserted> rows = new ArrayList<>(clicks.size());
+        for (PendingPhoneClick click : clicks) {
+            if (ownerByListing.containsKey(click.listingId())) {
+                rows.add(new Inserted(click, ownerByListing.get(click.listingId())));
+            }
+        }
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO phone_clicks (listing_id, user_id, clicked_at, ip_address, user_agent) VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+        }
+        Query insert = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        for (Inserted row : rows) {
+            PendingPhoneClick click = row.click();
+            insert.setParameter(position++, click.listingId());
+            insert.setParameter(position++, click.userId());
+            insert.setParameter(position++, click.clickedAt());
+            insert.setParameter(position++, click.ipAddress());
+            insert.setParameter(position++, click.userAgent());
+        }
+        insert.executeUpdate();
+
+        Map<Long, OwnerEngagementStore.ListingDelta> deltas = new HashMap<>();
+        List<OwnerEngagementStore.LeadClick> leads = new ArrayList<>(rows.size());
+        for (Inserted row : rows) {
+            PendingPhoneClick click = row.click();
+            deltas.merge(click.listingId(),
+                    new OwnerEngagementStore.ListingDelta(click.listingId(), row.ownerId(), 0, 1, 0),
+                    (a, b) -> new OwnerEngagementStore.ListingDelta(a.listingId(), a.ownerId(), 0, a.clicks() + b.clicks(), 0));
+            leads.add(new OwnerEngagementStore.LeadClick(row.ownerId(), click.userId(), click.clickedAt()));
+        }
+        ownerEngagementStore.addListingDeltas(deltas.values());
+        ownerEngagementStore.addLeadClicks(leads);
+        return rows;
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartrent.service.phoneclickdetail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The durable queue between phone-click tracking and the {@code phone_clicks}
+ * table: one Redis Stream read by the {@value #GROUP} consumer group
+ * ({@link PhoneClickStreamConsumer}). Clicks that cannot be stored are moved
+ * to {@value #DEAD_LETTER_KEY}, capped at about {@value #DEAD_LETTER_MAX_LENGTH}
+ * entries, where they can be inspected and re-queued.
+ */
+@Slf4j
+@Component
+public class PhoneClickStream {
+
+    public static final String STREAM_KEY = "phone-clicks:stream";
+    public static final String GROUP = "phone-click-writers";
+    public static final String DEAD_LETTER_KEY = "phone-clicks:dead";
+    static final long DEAD_LETTER_MAX_LENGTH = 10_000;
+
+    private final StringRedisTemplate redisTemplate;
+
+    public PhoneClickStream(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /** Appends {@code click}; throws when Redis is unavailable so the caller can persist it directly. */
+    public void enqueue(PendingPhoneClick click) {
+        redisTemplate.opsForStream().add(STREAM_KEY, click.toFields());
+    }
+
+    /** Copies {@code record} to the dead-letter stream with the reason it was given up on. */
+    void deadLetter(MapRecord<String, Object, Object> record, String reason) {
+        Map<String, String> fields = new HashMap<>();
+        record.getValue().forEach((k, v) -> fields.put(String.valueOf(k), String.valueOf(v)));
+        fields.put("sourceId", record.getId().getValue());
+        fields.put("reason", reason);
+        redisTemplate.opsForStream().add(DEAD_LETTER_KEY, fields);
+        redisTemplate.opsForStream().trim(DEAD_LETTER_KEY, DEAD_LETTER_MAX_LENGTH, true);
+    }
+
+    /** Idempotently create the consumer group (MKSTREAM), ignoring BUSYGROUP. */
+    void ensureConsumerGroup() {
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.streamCommands().xGroupCreate(
+                            STREAM_KEY.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true));
+            log.info("Created phone click consumer group {}", GROUP);
+        } catch (Exception e) {
+            log.debug("Phone click consumer group {} already present: {}", GROUP, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.smartrent.service.phoneclickdetail;
+
+import com.smartrent.service.engagement.EngagementCounters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch consumer of {@link PhoneClickStream}, driven by
+ * {@code PhoneClickIngestScheduler}. Each poll reads up to {@code batch-size}
+ * clicks, inserts them with one {@link PhoneClickBatchWriter} call, updates
+ * the {@link EngagementCounters}, then acknowledges and deletes the entries.
+ *
+ * <p>Delivery is at least once. When the multi-row insert fails, the batch is
+ * inserted row by row: the rows that still fail on their own are moved to the
+ * dead-letter stream and the rest are stored. Only when no row goes in (the
+ * database, not the data, is the problem) does the batch stay pending, to be
+ * claimed again (by this or any other instance) once it has been idle for
+ * {@code claim-idle-ms}; a crash between insert and acknowledgement can
+ * therefore store a click twice. Entries that cannot be parsed, or that keep
+ * failing after {@value #MAX_DELIVERIES} deliveries, are acknowledged and
+ * moved to the dead-letter stream.
+ */
+@Slf4j
+@Component
+public class PhoneClickStreamConsumer {
+
+    /** Batches per poll, so one tick cannot hold the scheduler thread indefinitely. */
+    private static final int MAX_BATCHES_PER_POLL = 20;
+    /** Deliveries after which a still-failing entry is dropped rather than retried forever. */
+    private static final long MAX_DELIVERIES = 5;
+
+    private final PhoneClickStream phoneClickStream;
+    private final PhoneClickBatchWriter phoneClickBatchWriter;
+    private final EngagementCounters engagementCounters;
+    private final StringRedisTemplate redisTemplate;
+    private final String consumerName;
+    private final int batchSize;
+    private final Duration claimIdle;
+
+    private volatile boolean groupReady;
+
+    public PhoneClickStreamConsumer(PhoneClickStream phoneClickStream,
+                                    PhoneClickBatchWriter phoneClickBatchWriter,
+                                    EngagementCounters engagementCounters,
+                                    StringRedisTemplate redisTemplate,
+                                    @Value("${application.phone-click-ingest.consumer-name:${HOSTNAME:worker-1}}") String consumerName,
+                                    @Value("${application.phone-click-ingest.batch-size:500}") int batchSize,
+                                    @Value("${application.phone-click-ingest.claim-idle-ms:60000}") long claimIdleMs) {
+        this.phoneClickStream = phoneClickStream;
+        this.phoneClickBatchWriter = phoneClickBatchWriter;
+        this.engagementCounters = engagementCounters;
+        this.redisTemplate = redisTemplate;
+        this.consumerName = consumerName;
+        this.batchSize = batchSize;
+        this.claimIdle = Duration.ofMillis(claimIdleMs);
+    }
+
+    /** Persists stale pending clicks, then new ones. Returns how many were stored. Never throws. */
+    public int poll() {
+        try {
+            if (!groupReady) {
+                phoneClickStream.ensureConsumerGroup();
+                groupReady = true;
+            }
+            int stored = process(claimStale());
+            for (int i = 0; i < MAX_BATCHES_PER_POLL; i++) {
+                List<MapRecord<String, Object, Object>> batch = redisTemplate.opsForStream().read(
+                        Consumer.from(PhoneClickStream.GROUP, consumerName),
+                        StreamReadOptions.empty().count(batchSize),
+                        StreamOffset.create(PhoneClickStream.STREAM_KEY, ReadOffset.lastConsumed()));
+                if (batch == null || batch.isEmpty()) {
+                    break;
+                }
+                stored += process(batch);
+            }
+            return stored;
+        } catch (Exception e) {
+            log.warn("phone-click-ingest: poll failed (non-fatal): {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /** Entries delivered to any consumer but not acknowledged within {@code claim-idle-ms}. */
+    private List<MapRecord<String, Object, Object>> claimStale() {
+        PendingMessages pending = redisTemplate.opsForStream().pending(
+                PhoneClickStream.STREAM_KEY, PhoneClickStream.GROUP, Range.unbounded(), batchSize);
+        List<RecordId> stale = new ArrayList<>();
+        List<RecordId> dead = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(claimIdle) < 0) {
+                continue;
+            }
+            (message.getTotalDeliveryCount() >= MAX_DELIVERIES ? dead : stale).add(message.getId());
+        }
+        if (!dead.isEmpty()) {
+            log.error("Dead-lettering {} phone clicks that failed {} deliveries: {}", dead.size(), MAX_DELIVERIES, dead);
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().claim(
+                    PhoneClickStream.STREAM_KEY, PhoneClickStream.GROUP, consumerName, claimIdle,
+                    dead.toArray(RecordId[]::new));
+            for (MapRecord<String, Object, Object> record : records) {
+                phoneClickStream.deadLetter(record, "max deliveries");
+            }
+            acknowledge(dead);
+        }
+        if (stale.isEmpty()) {
+            return List.of();
+        }
+        return redisTemplate.opsForStream().claim(PhoneClickStream.STREAM_KEY, PhoneClickStream.GROUP,
+                consumerName, claimIdle, stale.toArray(RecordId[]::new));
+    }
+
+    private int process(List<MapRecord<String, Object, Object>> records) {
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+        List<MapRecord<String, Object, Object>> parsed = new ArrayList<>(records.size());
+        List<PendingPhoneClick> clicks = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            try {
+                clicks.add(PendingPhoneClick.fromFields(record.getValue()));
+                parsed.add(record);
+            } catch (Exception e) {
+                log.error("Malformed phone click message {}: {}", record.getId(), record.getValue(), e);
+                phoneClickStream.deadLetter(record, "malformed");
+            }
+        }
+        List<PhoneClickBatchWriter.Inserted> inserted = insert(parsed, clicks);
+        engagementCounters.recordPhoneClicks(inserted.stream()
+                .map(row -> new EngagementCounters.PhoneClick(
+                        row.click().listingId(), row.click().userId(), row.click().clickedAt()))
+                .toList());
+
+        acknowledge(records.stream().map(MapRecord::getId).toList());
+        return inserted.size();
+    }
+
+    /**
+     * One multi-row insert; when it fails, one insert per row, dead-lettering
+     * the rows that fail alone. Throws when no row could be inserted, leaving
+     * the whole batch pending.
+     */
+    private List<PhoneClickBatchWriter.Inserted> insert(List<MapRecord<String, Object, Object>> records,
+                                                        List<PendingPhoneClick> clicks) {
+        try {
+            return phoneClickBatchWriter.insert(clicks);
+        } catch (RuntimeException batchFailure) {
+            if (clicks.size() <= 1) {
+                throw batchFailure;
+            }
+            log.warn("phone-click-ingest: batch of {} failed, inserting row by row: {}",
+                    clicks.size(), batchFailure.getMessage());
+            List<PhoneClickBatchWriter.Inserted> inserted = new ArrayList<>();
+            Map<Integer, RuntimeException> failed = new LinkedHashMap<>();
+            for (int i = 0; i < clicks.size(); i++) {
+                try {
+                    inserted.addAll(phoneClickBatchWriter.insert(List.of(clicks.get(i))));
+                } catch (RuntimeException e) {
+                    failed.put(i, e);
+                }
+            }
+            if (failed.size() == clicks.size()) {
+                throw batchFailure;
+            }
+            failed.forEach((i, e) -> {
+                log.error("Dead-lettering phone click {}: {}", records.get(i).getId(), e.getMessage());
+                phoneClickStream.deadLetter(records.get(i), "insert failed");
+            });
+            return inserted;
+        }
+    }
+
+    private void acknowledge(List<RecordId> recordIds) {
+        RecordId[] ids = recordIds.toArray(RecordId[]::new);
+        redisTemplate.opsForStream().acknowledge(PhoneClickStream.STREAM_KEY, PhoneClickStream.GROUP, ids);
+        redisTemplate.opsForStream().delete(PhoneClickStream.STREAM_KEY, ids);
+    }
+}
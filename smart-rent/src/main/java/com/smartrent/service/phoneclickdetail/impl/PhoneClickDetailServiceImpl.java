@@ -1,19 +1,28 @@
 package com.smartrent.service.phoneclickdetail.impl;
 
 import com.smartrent.dto.request.PhoneClickRequest;
+import com.smartrent.event.UserInteractionEvent;
 import com.smartrent.dto.response.ListingClickInfo;
 import com.smartrent.dto.response.OwnerPhoneClickStatsResponse;
 import com.smartrent.dto.response.PageResponse;
 import com.smartrent.dto.response.PhoneClickResponse;
 import com.smartrent.dto.response.PhoneClickStatsResponse;
 import com.smartrent.dto.response.UserPhoneClickDetailResponse;
+import com.smartrent.infra.repository.ListingEngagementTotalsRepository;
 import com.smartrent.infra.repository.ListingRepository;
+import com.smartrent.infra.repository.OwnerLeadRepository;
 import com.smartrent.infra.repository.PhoneClickDetailRepository;
 import com.smartrent.infra.repository.UserRepository;
 import com.smartrent.infra.repository.entity.Listing;
 import com.smartrent.infra.repository.entity.PhoneClickDetail;
 import com.smartrent.infra.repository.entity.User;
+import com.smartrent.service.engagement.EngagementCounters;
+import com.smartrent.service.phoneclickdetail.PendingPhoneClick;
+import com.smartrent.service.phoneclickdetail.PhoneClickBatchWriter;
 import com.smartrent.service.phoneclickdetail.PhoneClickDetailService;
+import com.smartrent.service.phoneclickdetail.PhoneClickStream;
+import com.smartrent.service.recommendation.RecommendationCacheVersions;
+import com.smartrent.service.recommendation.UserInteractionProfileStore;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -27,10 +36,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
 @Service
 @RequiredArgsConstructor
@@ -38,52 +50,66 @@ import org.springframework.cache.CacheManager;
 @Slf4j
 public class PhoneClickDetailServiceImpl implements PhoneClickDetailService {
 
+    // Column widths of phone_clicks.ip_address / phone_clicks.user_agent; the batch insert bypasses JPA.
+    private static final int MAX_IP_ADDRESS_LENGTH = 45;
+    private static final int MAX_USER_AGENT_LENGTH = 500;
+
     PhoneClickDetailRepository phoneClickDetailRepository;
     ListingRepository listingRepository;
     UserRepository userRepository;
-    CacheManager cacheManager;
-
-    private void evictPersonalizedCache(String userId) {
-        try {
-            org.springframework.cache.Cache cache = cacheManager.getCache(com.smartrent.config.Constants.CacheNames.LISTING_RECOMMENDATION_PERSONALIZED);
-            if (cache != null) {
-                cache.evict("user:" + userId + ":topN:8");
-                cache.evict("user:" + userId + ":topN:9");
-                cache.evict("user:" + userId + ":topN:10");
-                cache.evict("user:" + userId + ":topN:11");
-                cache.evict("user:" + userId + ":topN:12");
-                cache.evict("user:" + userId + ":topN:15");
-                cache.evict("user:" + userId + ":topN:20");
-                log.info("Successfully evicted recommendation cache for user: {}", userId);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to evict recommendation cache for user " + userId, e);
-        }
-    }
+    RecommendationCacheVersions recommendationCacheVersions;
+    UserInteractionProfileStore interactionProfileStore;
+    ApplicationEventPublisher eventPublisher;
+    PhoneClickStream phoneClickStream;
+    PhoneClickBatchWriter phoneClickBatchWriter;
+    EngagementCounters engagementCounters;
+    OwnerLeadRepository ownerLeadRepository;
+    ListingEngagementTotalsRepository listingEngagementTotalsRepository;
 
+    /**
+     * Queues the click on the {@link PhoneClickStream}; the row is inserted in
+     * a batch by {@code PhoneClickStreamConsumer}. When Redis is unavailable
+     * the click is written directly instead. The response carries the request
+     * data only: the row id and listing title are not known yet.
+     */
     @Override
-    @Transactional
     public PhoneClickResponse trackPhoneClick(PhoneClickRequest request, String userId, String ipAddress, String userAgent) {
-        log.info("Tracking phone click for listing {} by user {}", request.getListingId(), userId);
-
-        Listing listing = listingRepository.findById(request.getListingId())
-                .orElseThrow(() -> new RuntimeException("Listing not found with ID: " + request.getListingId()));
+        Long listingId = request.getListingId();
+        log.debug("Tracking phone click for listing {} by user {}", listingId, userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
+        // Checked up front: the queued click is only inserted later, and an unknown
+        // id must not reach the interaction profile or bump the feed cache version.
+        if (listingId == null || !listingRepository.existsById(listingId)) {
+            throw new RuntimeException("Listing not found with ID: " + listingId);
+        }
 
-        PhoneClickDetail phoneClickDetail = PhoneClickDetail.builder()
-                .listing(listing)
-                .user(user)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .build();
+        LocalDateTime now = LocalDateTime.now();
+        PendingPhoneClick click = new PendingPhoneClick(listingId, userId,
+                truncate(ipAddress, MAX_IP_ADDRESS_LENGTH), truncate(userAgent, MAX_USER_AGENT_LENGTH), now);
+        try {
+            phoneClickStream.enqueue(click);
+        } catch (Exception e) {
+            log.warn("Phone click stream unavailable, writing click on listing {} through (non-fatal): {}",
+                    listingId, e.getMessage());
+            List<PhoneClickBatchWriter.Inserted> inserted = phoneClickBatchWriter.insert(List.of(click));
+            if (inserted.isEmpty()) {
+                throw new RuntimeException("Listing not found with ID: " + listingId);
+            }
+            engagementCounters.recordPhoneClicks(List.of(new EngagementCounters.PhoneClick(
+                    listingId, userId, now)));
+        }
 
-        PhoneClickDetail saved = phoneClickDetailRepository.save(phoneClickDetail);
-        log.info("Phone click tracked successfully with ID: {}", saved.getId());
-        evictPersonalizedCache(userId);
+        interactionProfileStore.record(userId, List.of(new UserInteractionProfileStore.Interaction(
+                UserInteractionProfileStore.Kind.PHONE_CLICK, listingId, System.currentTimeMillis())));
+        recommendationCacheVersions.bump(userId);
+        eventPublisher.publishEvent(new UserInteractionEvent(userId));
 
-        return mapToResponse(saved);
+        return PhoneClickResponse.builder()
+                .listingId(listingId)
+                .userId(userId)
+                .clickedAt(now)
+                .ipAddress(click.ipAddress())
+                .build();
     }
 
     @Override
@@ -161,13 +187,13 @@ public class PhoneClickDetailServiceImpl implements PhoneClickDetailService {
         listingRepository.findById(listingId)
                 .orElseThrow(() -> new RuntimeException("Listing not found with ID: " + listingId));
 
-        long totalClicks = phoneClickDetailRepository.countByListing_ListingId(listingId);
-        long uniqueUsers = phoneClickDetailRepository.countDistinctUsersByListingId(listingId);
+        // Unique users come from a HyperLogLog: approximate (~1% error) once counters are seeded.
+        EngagementCounters.ListingTotals totals = engagementCounters.totals(listingId);
 
         return PhoneClickStatsResponse.builder()
                 .listingId(listingId)
-                .totalClicks(totalClicks)
-                .uniqueUsers(uniqueUsers)
+                .totalClicks(totals.clicks())
+                .uniqueUsers(totals.uniqueClickers())
                 .build();
     }
 
@@ -250,7 +276,7 @@ public class PhoneClickDetailServiceImpl implements PhoneClickDetailService {
         log.info("Getting users with clicked listings for listing {} - page: {}, size: {}", listingId, page, size);
 
         // Verify listing exists
-        listingRepository.findById(listingId)
+        Listing listing = listingRepository.findById(listingId)
                 .orElseThrow(() -> new RuntimeException("Listing not found with ID: " + listingId));
 
         // Validate pagination parameters
@@ -265,24 +291,30 @@ public class PhoneClickDetailServiceImpl implements PhoneClickDetailService {
 
         // Get distinct user IDs who clicked on this listing (paginated)
         Page<String> userIdsPage = phoneClickDetailRepository.findDistinctUserIdsByListingId(listingId, pageable);
+        List<String> userIds = userIdsPage.getContent();
+
+        // Users and their clicks for the whole page in two queries, not two per user
+        Map<String, User> usersById = loadUsers(userIds);
+        Map<String, List<LocalDateTime>> clickTimesByUser = new LinkedHashMap<>();
+        if (!userIds.isEmpty()) {
+            for (Object[] row : phoneClickDetailRepository.findClickTimesByListingIdAndUserIds(listingId, userIds)) {
+                clickTimesByUser.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add((LocalDateTime) row[1]);
+            }
+        }
 
-        // For each user, get their details and all listings they clicked on
         List<UserPhoneClickDetailResponse> responses = new ArrayList<>();
-        for (String userId : userIdsPage.getContent()) {
-            User user = userRepository.findById(userId).orElse(null);
+        for (String userId : userIds) {
+            User user = usersById.get(userId);
             if (user == null) {
                 continue;
             }
 
-            // Get all phone clicks for this user on this listing
-            List<PhoneClickDetail> userClicks = phoneClickDetailRepository.findByListingIdAndUserId(listingId, userId);
-
-            // Build listing click info list
-            List<ListingClickInfo> clickedListings = userClicks.stream()
-                    .map(click -> ListingClickInfo.builder()
-                            .listingId(click.getListing().getListingId())
-                            .listingTitle(click.getListing().getTitle())
-                            .clickedAt(click.getClickedAt())
+            // Build listing click info list, one entry per click
+            List<ListingClickInfo> clickedListings = clickTimesByUser.getOrDefault(userId, List.of()).stream()
+                    .map(clickedAt -> ListingClickInfo.builder()
+                            .listingId(listing.getListingId())
+                            .listingTitle(listing.getTitle())
+                            .clickedAt(clickedAt)
                             .clickCount(1) // Each record represents one click
                             .build())
                     .collect(Collectors.toList());
@@ -331,8 +363,8 @@ public class PhoneClickDetailServiceImpl implements PhoneClickDetailService {
 
         Pageable pageable = PageRequest.of(page - 1, size);
 
-        // Get distinct user IDs who clicked on any of the owner's listings (paginated)
-        Page<String> userIdsPage = phoneClickDetailRepository.findDistinctUserIdsByListingOwnerId(ownerId, pageable);
+        // Leads of the owner, most recent first, from the precomputed owner_leads summary
+        Page<String> userIdsPage = ownerLeadRepository.findRecentLeadUserIds(ownerId, pageable);
 
         return buildUsersWhoClickedResponse(ownerId, userIdsPage, page);
     }
@@ -371,40 +403,37 @@ public class PhoneClickDetailServiceImpl implements PhoneClickDetailService {
 
     /**
      * Build the paginated user detail response for a page of clicking user IDs.
-     * For each user, loads their details and the owner's listings they clicked on.
+     * The users and their per-listing click summaries on the owner's listings
+     * are loaded for the whole page in two queries.
      */
     private PageResponse<UserPhoneClickDetailResponse> buildUsersWhoClickedResponse(
             String ownerId, Page<String> userIdsPage, int page) {
-        // For each user, get their details and all owner's listings they clicked on
+        List<String> userIds = userIdsPage.getContent();
+        Map<String, User> usersById = loadUsers(userIds);
+
+        // [userId, listingId, title, lastClickedAt, clickCount] per clicked listing
+        Map<String, List<ListingClickInfo>> clickedListingsByUser = new LinkedHashMap<>();
+        if (!userIds.isEmpty()) {
+            for (Object[] row : phoneClickDetailRepository.summarizeClicksByListingOwnerIdAndUserIds(ownerId, userIds)) {
+                clickedListingsByUser.computeIfAbsent((String) row[0], id -> new ArrayList<>())
+                        .add(ListingClickInfo.builder()
+                                .listingId((Long) row[1])
+                                .listingTitle((String) row[2])
+                                .clickedAt((LocalDateTime) row[3])
+                                .clickCount(((Number) row[4]).intValue())
+                                .build());
+            }
+        }
+
         List<UserPhoneClickDetailResponse> responses = new ArrayList<>();
-        for (String clickingUserId : userIdsPage.getContent()) {
-            User user = userRepository.findById(clickingUserId).orElse(null);
+        for (String clickingUserId : userIds) {
+            User user = usersById.get(clickingUserId);
             if (user == null) {
                 continue;
             }
 
-            // Get all phone clicks by this user on the owner's listings
-            List<PhoneClickDetail> userClicks = phoneClickDetailRepository.findByListingOwnerIdAndClickingUserId(ownerId, clickingUserId);
-
-            // Group clicks by listing and build listing click info list
-            List<ListingClickInfo> clickedListings = userClicks.stream()
-                    .collect(Collectors.groupingBy(click -> click.getListing().getListingId()))
-                    .entrySet().stream()
-                    .map(entry -> {
-                        List<PhoneClickDetail> clicks = entry.getValue();
-                        PhoneClickDetail firstClick = clicks.get(0);
-                        return ListingClickInfo.builder()
-                                .listingId(firstClick.getListing().getListingId())
-                                .listingTitle(firstClick.getListing().getTitle())
-                                .clickedAt(clicks.stream()
-                                        .map(PhoneClickDetail::getClickedAt)
-                                        .max(java.time.LocalDateTime::compareTo)
-                                        .orElse(firstClick.getClickedAt()))
-                                .clickCount(clicks.size())
-                                .build();
-                    })
-                    .sorted(Comparator.comparing(ListingClickInfo::getClickedAt).reversed())
-                    .collect(Collectors.toList());
+            List<ListingClickInfo> clickedListings = clickedListingsByUser.getOrDefault(clickingUserId, new ArrayList<>());
+            clickedListings.sort(Comparator.comparing(ListingClickInfo::getClickedAt).reversed());
 
             // Build user response
             UserPhoneClickDetailResponse userResponse = UserPhoneClickDetailResponse.builder()
@@ -436,8 +465,8 @@ public class PhoneClickDetailServiceImpl implements PhoneClickDetailService {
     public OwnerPhoneClickStatsResponse getOwnerPhoneClickStats(String ownerId) {
         log.info("Getting owner-wide phone click stats for user {}", ownerId);
 
-        long totalClicks = phoneClickDetailRepository.countByListingOwnerId(ownerId);
-        long uniqueUsers = phoneClickDetailRepository.countDistinctUsersByListingOwnerId(ownerId);
+        long totalClicks = listingEngagementTotalsRepository.sumClicksByOwnerId(ownerId);
+        long uniqueUsers = ownerLeadRepository.countByIdOwnerId(ownerId);
 
         return OwnerPhoneClickStatsResponse.builder()
                 .totalClicks(totalClicks)
@@ -445,6 +474,17 @@ public class PhoneClickDetailServiceImpl implements PhoneClickDetailService {
                 .build();
     }
 
+    /**
+     * Load a page of users in one query, keyed by user ID
+     */
+    private Map<String, User> loadUsers(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+    }
+
     /**
      * Map PhoneClickDetail entity to PhoneClickResponse DTO
      */
@@ -467,5 +507,8 @@ public class PhoneClickDetailServiceImpl implements PhoneClickDetailService {
                 .ipAddress(phoneClickDetail.getIpAddress())
                 .build();
     }
-}
 
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -1,27 +1,37 @@
 package com.smartrent.service.recentlyviewed.impl;
 
 import com.smartrent.dto.request.RecentlyViewedItemDto;
+import com.smartrent.event.UserInteractionEvent;
 import com.smartrent.dto.request.RecentlyViewedSyncRequest;
 import com.smartrent.dto.response.ListingResponse;
 import com.smartrent.dto.response.RecentlyViewedItemResponse;
 import com.smartrent.service.listing.ListingService;
+import com.smartrent.service.listing.cache.ListingCardCache;
+import com.smartrent.service.recommendation.RecommendationCacheVersions;
+import com.smartrent.service.recommendation.UserInteractionProfileStore;
 import com.smartrent.service.recentlyviewed.RecentlyViewedService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
 @Slf4j
 @Service
@@ -34,25 +44,10 @@ public class RecentlyViewedServiceImpl implements RecentlyViewedService {
 
     private final RedisTemplate<String, String> redisTemplate;
     private final ListingService listingService;
-    private final CacheManager cacheManager;
-
-    private void evictPersonalizedCache(String userId) {
-        try {
-            org.springframework.cache.Cache cache = cacheManager.getCache(com.smartrent.config.Constants.CacheNames.LISTING_RECOMMENDATION_PERSONALIZED);
-            if (cache != null) {
-                cache.evict("user:" + userId + ":topN:8");
-                cache.evict("user:" + userId + ":topN:9");
-                cache.evict("user:" + userId + ":topN:10");
-                cache.evict("user:" + userId + ":topN:11");
-                cache.evict("user:" + userId + ":topN:12");
-                cache.evict("user:" + userId + ":topN:15");
-                cache.evict("user:" + userId + ":topN:20");
-                log.info("Successfully evicted recommendation cache for user: {}", userId);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to evict recommendation cache for user " + userId, e);
-        }
-    }
+    private final ListingCardCache listingCardCache;
+    private final RecommendationCacheVersions recommendationCacheVersions;
+    private final UserInteractionProfileStore interactionProfileStore;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<RecentlyViewedItemResponse> syncRecentlyViewed(RecentlyViewedSyncRequest request) {
@@ -62,46 +57,54 @@ public class RecentlyViewedServiceImpl implements RecentlyViewedService {
         log.info("Syncing recently viewed listings for user: {}, client listings count: {}",
                 userId, request.getListings() != null ? request.getListings().size() : 0);
 
-        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
-
-        // Handle empty client payload gracefully
-        if (request.getListings() != null && !request.getListings().isEmpty()) {
-            // Validate and add client listings to Redis
-            List<RecentlyViewedItemDto> validListings = request.getListings().stream()
-                    .filter(this::isValidTimestamp)
-                    .collect(Collectors.toList());
-
-            for (RecentlyViewedItemDto listing : validListings) {
-                try {
-                    // ZADD with score = timestamp, value = listingId
-                    // This automatically handles duplicates - keeps the newest timestamp
-                    zSetOps.add(redisKey, listing.getListingId().toString(), listing.getViewedAt().doubleValue());
-                    log.debug("Added listing {} with timestamp {} for user {}",
-                            listing.getListingId(), listing.getViewedAt(), userId);
-                } catch (Exception e) {
-                    log.warn("Failed to add listing {} for user {}: {}",
-                            listing.getListingId(), userId, e.getMessage());
+        // Handle empty client payload gracefully: ZADD score = timestamp, value = listingId
+        Set<ZSetOperations.TypedTuple<String>> tuples = new LinkedHashSet<>();
+        if (request.getListings() != null) {
+            for (RecentlyViewedItemDto listing : request.getListings()) {
+                if (listing.getListingId() != null && isValidTimestamp(listing)) {
+                    tuples.add(new DefaultTypedTuple<>(listing.getListingId().toString(),
+                            listing.getViewedAt().doubleValue()));
                 }
             }
         }
 
-        // Trim to keep only the most recent 20 listings
-        // ZREMRANGEBYRANK removes listings with rank 0 to (totalCount - MAX_LISTINGS - 1)
-        // This keeps the highest MAX_LISTINGS scores (most recent timestamps)
-        Long totalCount = zSetOps.size(redisKey);
-        if (totalCount != null && totalCount > MAX_LISTINGS) {
-            long removeCount = totalCount - MAX_LISTINGS;
-            zSetOps.removeRange(redisKey, 0, removeCount - 1);
-            log.info("Trimmed recently viewed list for user {}: removed {} old listings", userId, removeCount);
-        }
+        // One pipelined round trip: a multi-member ZADD, the trim to the most
+        // recent MAX_LISTINGS (ZREMRANGEBYRANK 0 -(MAX_LISTINGS + 1) drops every
+        // rank below the top MAX_LISTINGS scores), and the read of the result.
+        Set<ZSetOperations.TypedTuple<String>> latest = pipelinedSync(redisKey, tuples);
 
-        // Evict recommendation cache if there are new interactions
+        // Update the interaction profile, then evict the recommendation cache so
+        // the next feed is computed from the updated profile
         if (request.getListings() != null && !request.getListings().isEmpty()) {
-            evictPersonalizedCache(userId);
+            interactionProfileStore.record(userId, request.getListings().stream()
+                    .filter(this::isValidTimestamp)
+                    .map(item -> new UserInteractionProfileStore.Interaction(
+                            UserInteractionProfileStore.Kind.VIEW, item.getListingId(), item.getViewedAt()))
+                    .collect(Collectors.toList()));
+            recommendationCacheVersions.bump(userId);
+            eventPublisher.publishEvent(new UserInteractionEvent(userId));
         }
 
         // Return merged and sorted list
-        return getRecentlyViewed();
+        return hydrate(userId, latest);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<ZSetOperations.TypedTuple<String>> pipelinedSync(String redisKey,
+                                                               Set<ZSetOperations.TypedTuple<String>> tuples) {
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                ZSetOperations<String, String> zSetOps = ((RedisOperations<String, String>) operations).opsForZSet();
+                if (!tuples.isEmpty()) {
+                    zSetOps.add(redisKey, tuples);
+                }
+                zSetOps.removeRange(redisKey, 0, -(MAX_LISTINGS + 1));
+                zSetOps.reverseRangeWithScores(redisKey, 0, MAX_LISTINGS - 1);
+                return null;
+            }
+        });
+        return (Set<ZSetOperations.TypedTuple<String>>) replies.get(replies.size() - 1);
     }
 
     @Override
@@ -122,44 +125,55 @@ public class RecentlyViewedServiceImpl implements RecentlyViewedService {
         Set<ZSetOperations.TypedTuple<String>> listingsWithScores =
                 zSetOps.reverseRangeWithScores(redisKey, 0, MAX_LISTINGS - 1);
 
+        return hydrate(userId, listingsWithScores);
+    }
+
+    /**
+     * Attaches listing details to the ZSET entries (most recent first), from the
+     * listing card cache with one MGET. Only cache misses go to the database,
+     * restricted to listings that are currently publicly displayed so
+     * hidden/expired/unverified ones are not surfaced.
+     */
+    private List<RecentlyViewedItemResponse> hydrate(String userId,
+                                                     Set<ZSetOperations.TypedTuple<String>> listingsWithScores) {
         if (listingsWithScores == null || listingsWithScores.isEmpty()) {
             log.info("No recently viewed listings found for user: {}", userId);
             return new ArrayList<>();
         }
 
-        // Extract listing IDs and their timestamps
-        Map<Long, Long> listingIdToTimestamp = listingsWithScores.stream()
-                .collect(Collectors.toMap(
-                        tuple -> Long.parseLong(tuple.getValue()),
-                        tuple -> tuple.getScore().longValue()
-                ));
-
-        // Fetch full listing details, restricted to listings that are currently
-        // publicly displayed so hidden/expired/unverified ones are not surfaced.
-        Set<Long> listingIds = listingIdToTimestamp.keySet();
-        List<ListingResponse> listings = listingService.getDisplayingListingsByIds(listingIds);
+        // Listing IDs and their timestamps, in ZSET order
+        Map<Long, Long> listingIdToTimestamp = new LinkedHashMap<>();
+        for (ZSetOperations.TypedTuple<String> tuple : listingsWithScores) {
+            try {
+                listingIdToTimestamp.put(Long.parseLong(tuple.getValue()), tuple.getScore().longValue());
+            } catch (NumberFormatException e) {
+                log.warn("Skipping non-numeric recently-viewed entry '{}' for user {}", tuple.getValue(), userId);
+            }
+        }
 
-        // Create a map for quick lookup
-        Map<Long, ListingResponse> listingMap = listings.stream()
-                .collect(Collectors.toMap(ListingResponse::getListingId, Function.identity()));
+        ListingCardCache.Lookup cached = listingCardCache.getAll(listingIdToTimestamp.keySet());
+        Map<Long, ListingResponse> listingMap = new HashMap<>(cached.found());
+        if (!cached.missing().isEmpty()) {
+            List<ListingResponse> loaded = listingService.getDisplayingListingsByIds(cached.missing());
+            listingCardCache.putAll(cached.missing(), loaded);
+            for (ListingResponse listing : loaded) {
+                listingMap.put(listing.getListingId(), listing);
+            }
+        }
 
         // Build response preserving the order from Redis (most recent first)
-        List<RecentlyViewedItemResponse> result = listingsWithScores.stream()
-                .map(tuple -> {
-                    Long listingId = Long.parseLong(tuple.getValue());
-                    ListingResponse listing = listingMap.get(listingId);
-
-                    // Only include if listing exists and is accessible
-                    if (listing != null) {
-                        return RecentlyViewedItemResponse.builder()
-                                .listing(listing)
-                                .viewedAt(tuple.getScore().longValue())
-                                .build();
-                    }
-                    return null;
-                })
-                .filter(item -> item != null)
-                .collect(Collectors.toList());
+        List<RecentlyViewedItemResponse> result = new ArrayList<>();
+        listingIdToTimestamp.forEach((listingId, viewedAt) -> {
+            ListingResponse listing = listingMap.get(listingId);
+
+            // Only include if listing exists and is accessible
+            if (listing != null) {
+                result.add(RecentlyViewedItemResponse.builder()
+                        .listing(listing)
+                        .viewedAt(viewedAt)
+                        .build());
+            }
+        });
 
         log.info("Retrieved {} recently viewed listings for user: {}", result.size(), userId);
         return result;
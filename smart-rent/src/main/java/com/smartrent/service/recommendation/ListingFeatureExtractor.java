@@ -0,0 +1,104 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest;
+import com.smartrent.infra.repository.AddressMappingRepository;
+import com.smartrent.infra.repository.entity.AddressMapping;
+import com.smartrent.infra.repository.entity.Listing;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps a {@link Listing} to the feature vector the AI recommendation endpoints
+ * score ({@link AIRecommendationRequest.ListingFeatureDto}). Shared by the
+ * live request path and the offline similar-listings precompute so both rank
+ * on exactly the same representation.
+ *
+ * <p>The listing's address must be loaded (every recommendation query
+ * {@code JOIN FETCH}es it).
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ListingFeatureExtractor {
+
+    AddressMappingRepository addressMappingRepository;
+
+    // Memoizes legacy→new address-mapping lookups (static reference data) to
+    // collapse the per-candidate N+1 in toFeatureDto when new codes are missing.
+    // Final + initialized → excluded from the @RequiredArgsConstructor.
+    Map<String, Optional<AddressMapping>> legacyMappingCache = new ConcurrentHashMap<>();
+
+    public AIRecommendationRequest.ListingFeatureDto toFeatureDto(Listing listing) {
+        int daysAgo = 0;
+        LocalDateTime date = listing.getPushedAt() != null ? listing.getPushedAt() : listing.getPostDate();
+        if (date != null)
+            daysAgo = (int) ChronoUnit.DAYS.between(date, LocalDateTime.now());
+
+        String pCode = "UNKNOWN";
+        String wCode = null;
+        Integer dId = null;
+        Integer wId = null;
+
+        Double latitude = null;
+        Double longitude = null;
+
+        if (listing.getAddress() != null) {
+            var addr = listing.getAddress();
+            pCode = addr.getNewProvinceCode();
+            wCode = addr.getNewWardCode();
+            dId = addr.getLegacyDistrictId();
+            wId = addr.getLegacyWardId();
+            latitude = addr.getLatitude() != null ? addr.getLatitude().doubleValue() : null;
+            longitude = addr.getLongitude() != null ? addr.getLongitude().doubleValue() : null;
+
+            // Fallback: If new codes are missing, try to resolve from mapping
+            if (pCode == null || pCode.isEmpty()) {
+                if (addr.getLegacyProvinceId() != null && dId != null && wId != null) {
+                    String mapProv = String.format("%02d", addr.getLegacyProvinceId());
+                    String mapDist = String.format("%03d", dId);
+                    String mapWard = String.format("%05d", wId);
+                    var mappingOpt = legacyMappingCache.computeIfAbsent(
+                            mapProv + "|" + mapDist + "|" + mapWard,
+                            k -> addressMappingRepository.findBestByLegacyAddress(mapProv, mapDist, mapWard));
+                    if (mappingOpt.isPresent()) {
+                        pCode = mappingOpt.get().getNewProvinceCode();
+                        wCode = mappingOpt.get().getNewWardCode();
+                    }
+                }
+                // If still missing, fallback to legacy province ID
+                if (pCode == null || pCode.isEmpty()) {
+                    if (addr.getLegacyProvinceId() != null) {
+                        pCode = String.valueOf(addr.getLegacyProvinceId());
+                    } else {
+                        pCode = "UNKNOWN";
+                    }
+                }
+            }
+        }
+
+        return AIRecommendationRequest.ListingFeatureDto.builder()
+                .listingId(listing.getListingId())
+                .productType(listing.getProductType() != null ? listing.getProductType().name() : "ROOM")
+                .listingType(listing.getListingType() != null ? listing.getListingType().name() : "RENT")
+                .price(listing.getPrice() != null ? listing.getPrice().doubleValue() : 0.0)
+                .area(listing.getArea() != null ? listing.getArea() : 0.0)
+                .bedrooms(listing.getBedrooms() != null ? listing.getBedrooms() : 0)
+                .provinceCode(pCode)
+                .districtId(dId)
+                .wardId(wId)
+                .newWardCode(wCode)
+                .vipType(listing.getVipType() != null ? listing.getVipType().name() : "NORMAL")
+                .postDateDaysAgo(Math.max(0, daysAgo))
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest.ListingFeatureDto;
+
+import java.util.Objects;
+
+/**
+ * Content-based listing-to-listing similarity over the same
+ * {@link ListingFeatureDto} vector the AI {@code /recommendations/similar}
+ * endpoint receives. Used where a model round-trip is not affordable (the
+ * offline precompute); it reproduces the content half of the AI's ranking,
+ * not its collaborative-filtering half.
+ *
+ * <p>Score in {@code [0, 1]}, a weighted sum of:
+ * <ul>
+ *   <li>location (0.40) — same ward 1.0, same district 0.7, same province
+ *       0.35, or a distance decay when both have coordinates, whichever is higher;</li>
+ *   <li>price (0.30) and area (0.15) — 1.0 at equal values, 0 at a 2× ratio;</li>
+ *   <li>bedrooms (0.10) — 1.0 equal, 0 at two or more apart;</li>
+ *   <li>freshness (0.05) — 30-day decay on the candidate's post age.</li>
+ * </ul>
+ * A different product or listing type is never similar (0).
+ */
+public final class ListingSimilarity {
+
+    private static final double W_LOCATION  = 0.40;
+    private static final double W_PRICE     = 0.30;
+    private static final double W_AREA      = 0.15;
+    private static final double W_BEDROOMS  = 0.10;
+    private static final double W_FRESHNESS = 0.05;
+
+    private static final double SAME_WARD     = 1.0;
+    private static final double SAME_DISTRICT = 0.7;
+    private static final double SAME_PROVINCE = 0.35;
+
+    /** Distance at which the geo score has decayed to 1/e. */
+    private static final double GEO_DECAY_KM = 3.0;
+    private static final double FRESHNESS_DECAY_DAYS = 30.0;
+    private static final double LN_2 = Math.log(2.0);
+
+    private ListingSimilarity() {}
+
+    public static double score(ListingFeatureDto target, ListingFeatureDto candidate) {
+        if (target == null || candidate == null) return 0.0;
+        if (!Objects.equals(target.getProductType(), candidate.getProductType())
+                || !Objects.equals(target.getListingType(), candidate.getListingType())) {
+            return 0.0;
+        }
+        return W_LOCATION * location(target, candidate)
+                + W_PRICE * ratioCloseness(target.getPrice(), candidate.getPrice())
+                + W_AREA * ratioCloseness(target.getArea(), candidate.getArea())
+                + W_BEDROOMS * bedrooms(target.getBedrooms(), candidate.getBedrooms())
+                + W_FRESHNESS * freshness(candidate.getPostDateDaysAgo());
+    }
+
+    static double location(ListingFeatureDto a, ListingFeatureDto b) {
+        double admin = 0.0;
+        if ((a.getNewWardCode() != null && a.getNewWardCode().equals(b.getNewWardCode()))
+                || (a.getWardId() != null && a.getWardId().equals(b.getWardId()))) {
+            admin = SAME_WARD;
+        } else if (a.getDistrictId() != null && a.getDistrictId().equals(b.getDistrictId())) {
+            admin = SAME_DISTRICT;
+        } else if (a.getProvinceCode() != null && !"UNKNOWN".equals(a.getProvinceCode())
+                && a.getProvinceCode().equals(b.getProvinceCode())) {
+            admin = SAME_PROVINCE;
+        }
+        if (a.getLatitude() == null || a.getLongitude() == null
+                || b.getLatitude() == null || b.getLongitude() == null) {
+            return admin;
+        }
+        double km = haversineKm(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude());
+        return Math.max(admin, Math.exp(-km / GEO_DECAY_KM));
+    }
+
+    /** 1.0 for equal values, falling linearly in log-ratio to 0 at 2× apart. */
+    static double ratioCloseness(Double a, Double b) {
+        if (a == null || b == null || a <= 0 || b <= 0) return 0.0;
+        return Math.max(0.0, 1.0 - Math.abs(Math.log(a / b)) / LN_2);
+    }
+
+    static double bedrooms(Integer a, Integer b) {
+        if (a == null || b == null) return 0.0;
+        return Math.max(0.0, 1.0 - Math.abs(a - b) / 2.0);
+    }
+
+    static double freshness(Integer daysAgo) {
+        if (daysAgo == null) return 0.0;
+        return Math.exp(-Math.max(0, daysAgo) / FRESHNESS_DECAY_DAYS);
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6371.0 * Math.asin(Math.min(1.0, Math.sqrt(h)));
+    }
+}
@@ -0,0 +1,631 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.infra.repository.AmenityRepository;
+import com.smartrent.infra.repository.ListingRepository;
+import com.smartrent.infra.repository.entity.Address;
+import com.smartrent.infra.repository.entity.Amenity;
+import com.smartrent.infra.repository.entity.Listing;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory nearest-neighbour index over every publicly visible listing, used
+ * as the recommendation candidate retrieval step instead of the indexed SQL
+ * channels.
+ *
+ * <p>Each listing is one row of a flat {@code float[]}, laid out so that the
+ * squared Euclidean distance between two rows is the dissimilarity the
+ * recommendation channels approximate:
+ * <ul>
+ *   <li>listing type and product type one-hot — a RENT/SALE mismatch
+ *       outweighs everything else, a product type mismatch costs about as
+ *       much as 6 km;</li>
+ *   <li>location as a point on the sphere scaled so one unit is
+ *       {@value #GEO_UNIT_KM} km (a listing without coordinates takes its
+ *       ward, district or province centroid);</li>
+ *   <li>log2 price and area, so one unit is a 2× ratio, and bedrooms;</li>
+ *   <li>one small dimension per amenity.</li>
+ * </ul>
+ *
+ * <p>Search is a brute-force scan split across a {@link ForkJoinPool} sized
+ * to the cores, with per-row early exit once the partial distance exceeds the
+ * current k-th best. At catalogue sizes in the low hundreds of thousands a
+ * full scan is a few milliseconds, so there is no IVF partitioning yet.
+ *
+ * <p>The index is rebuilt in full periodically (which also drops deleted
+ * listings and picks up new amenities) and updated in between from
+ * {@code updated_at}: a changed listing is re-encoded, or removed when it is
+ * no longer publicly visible. Expiry by the clock alone does not touch
+ * {@code updated_at}, so each row carries its expiry and the scan skips
+ * expired rows.
+ */
+@Slf4j
+@Component
+public class ListingVectorIndex {
+
+    static final double GEO_UNIT_KM = 3.0;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final float W_LISTING_TYPE = 4.0f;
+    private static final float W_PRODUCT_TYPE = 1.5f;
+    private static final float W_PRICE = 1.0f;
+    private static final float W_AREA = 0.6f;
+    private static final float W_BEDROOMS = 0.35f;
+    private static final float W_AMENITY = 0.25f;
+    private static final int MAX_BEDROOMS = 6;
+
+    private static final int LISTING_TYPE_OFFSET = 0;
+    private static final int PRODUCT_TYPE_OFFSET = LISTING_TYPE_OFFSET + Listing.ListingType.values().length;
+    private static final int GEO_OFFSET = PRODUCT_TYPE_OFFSET + Listing.ProductType.values().length;
+    private static final int PRICE_OFFSET = GEO_OFFSET + 3;
+    private static final int AREA_OFFSET = PRICE_OFFSET + 1;
+    private static final int BEDROOMS_OFFSET = AREA_OFFSET + 1;
+    private static final int AMENITY_OFFSET = BEDROOMS_OFFSET + 1;
+
+    private static final int LOAD_PAGE = 500;
+    /** Rows per scan task; small enough to spread a mid-size catalogue over all cores. */
+    private static final int SCAN_CHUNK = 4096;
+    /** Re-read this much before the watermark so late-committing updates are not missed. */
+    private static final long WATERMARK_OVERLAP_MINUTES = 2;
+
+    private final ListingRepository listingRepository;
+    private final AmenityRepository amenityRepository;
+    private final boolean enabled;
+    private final ForkJoinPool scanPool;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Null until the first build completes. Replaced wholesale by a rebuild, mutated by incremental updates. */
+    private volatile Store store;
+    private volatile LocalDateTime watermark;
+
+    public ListingVectorIndex(ListingRepository listingRepository,
+                              AmenityRepository amenityRepository,
+                              @Value("${recommendation.vector-index.enabled:true}") boolean enabled) {
+        this.listingRepository = listingRepository;
+        this.amenityRepository = amenityRepository;
+        this.enabled = enabled;
+        this.scanPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public boolean isReady() {
+        return enabled && store != null;
+    }
+
+    public int size() {
+        Store current = store;
+        return current != null ? current.slotById.size() : 0;
+    }
+
+    /**
+     * Up to {@code k} listings nearest to {@code listingId} with the same
+     * listing and product type, best first. Empty when the index is not
+     * ready or the seed is not indexed.
+     */
+    public List<Long> similarTo(Long listingId, int k, Set<Long> exclude) {
+        if (!isReady() || listingId == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Store current = store;
+            Integer slot = current.slotById.get(listingId);
+            if (slot == null) {
+                return List.of();
+            }
+            float[] query = Arrays.copyOfRange(current.vectors, slot * current.dims, (slot + 1) * current.dims);
+            return search(current, query, k, current.listingTypes[slot], current.productTypes[slot],
+                    withSeed(exclude, listingId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code k} listings nearest to the weighted centroid of the
+     * {@code weights} listings (a user's interactions), best first, with no
+     * type filter. Empty when the index is not ready or none of them is indexed.
+     */
+    public List<Long> nearestToInteractions(Map<Long, Double> weights, int k, Set<Long> exclude) {
+        if (!isReady() || weights == null || weights.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Store current = store;
+            float[] query = new float[current.dims];
+            double total = 0.0;
+            for (Map.Entry<Long, Double> entry : weights.entrySet()) {
+                Integer slot = current.slotById.get(entry.getKey());
+                double w = entry.getValue() != null ? entry.getValue() : 0.0;
+                if (slot == null || w <= 0) {
+                    continue;
+                }
+                int base = slot * current.dims;
+                for (int j = 0; j < current.dims; j++) {
+                    query[j] += (float) (w * current.vectors[base + j]);
+                }
+                total += w;
+            }
+            if (total <= 0) {
+                return List.of();
+            }
+            for (int j = 0; j < query.length; j++) {
+                query[j] /= (float) total;
+            }
+            return search(current, query, k, (byte) -1, (byte) -1, exclude);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Build and incremental refresh
+    // ─────────────────────────────────────────────
+
+    /** Full rebuild from the database; the old index keeps serving until the swap. Never throws. */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<Long> amenityIds = amenityRepository.findAll().stream()
+                    .map(Amenity::getAmenityId).sorted().toList();
+            List<Source> sources = new ArrayList<>();
+            Long afterId = 0L;
+            while (true) {
+                List<Long> ids = listingRepository.findVectorIndexIdsAfter(afterId, PageRequest.of(0, LOAD_PAGE));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                for (Source source : loadSources(ids)) {
+                    if (source.visible()) {
+                        sources.add(source);
+                    }
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+            Store next = Store.build(sources, amenityIds);
+            lock.writeLock().lock();
+            try {
+                store = next;
+                watermark = startedAt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("vector-index: built {} listings x {} dims in {}ms",
+                    next.slotById.size(), next.dims, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("vector-index: rebuild failed (non-fatal): {}", e.getMessage(), e);
+        }
+    }
+
+    /** Re-encodes listings changed since the last pass. No-op before the first build. Never throws. */
+    public void refreshChanged() {
+        if (!isReady()) {
+            return;
+        }
+        try {
+            LocalDateTime since = watermark.minusMinutes(WATERMARK_OVERLAP_MINUTES);
+            LocalDateTime newWatermark = watermark;
+            Long afterId = 0L;
+            int upserted = 0;
+            int removed = 0;
+            while (true) {
+                List<Object[]> rows = listingRepository.findIdsUpdatedSince(since, afterId, PageRequest.of(0, LOAD_PAGE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    ids.add((Long) row[0]);
+                }
+                Map<Long, Source> loaded = new HashMap<>();
+                for (Source source : loadSources(ids)) {
+                    loaded.put(source.listingId(), source);
+                }
+                lock.writeLock().lock();
+                try {
+                    Store current = store;
+                    for (Long id : ids) {
+                        Source source = loaded.get(id);
+                        if (source != null && source.visible()) {
+                            current.upsert(source);
+                            upserted++;
+                        } else if (current.remove(id)) {
+                            removed++;
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                Object[] last = rows.get(rows.size() - 1);
+                since = (LocalDateTime) last[1];
+                afterId = (Long) last[0];
+                if (since.isAfter(newWatermark)) {
+                    newWatermark = since;
+                }
+            }
+            watermark = newWatermark;
+            if (upserted > 0 || removed > 0) {
+                log.debug("vector-index: refreshed {} listings, removed {}", upserted, removed);
+            }
+        } catch (Exception e) {
+            log.warn("vector-index: incremental refresh failed (non-fatal): {}", e.getMessage(), e);
+        }
+    }
+
+    private List<Source> loadSources(List<Long> ids) {
+        Map<Long, Set<Long>> amenities = new HashMap<>();
+        for (Object[] pair : listingRepository.findAmenityPairsByListingIds(ids)) {
+            amenities.computeIfAbsent(((Number) pair[0]).longValue(), k -> new HashSet<>())
+                    .add(((Number) pair[1]).longValue());
+        }
+        List<Source> sources = new ArrayList<>(ids.size());
+        for (Listing listing : listingRepository.findWithAddressByListingIds(ids)) {
+            sources.add(Source.of(listing, amenities.getOrDefault(listing.getListingId(), Set.of())));
+        }
+        return sources;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scanPool.shutdownNow();
+    }
+
+    // ─────────────────────────────────────────────
+    // Search
+    // ─────────────────────────────────────────────
+
+    private List<Long> search(Store current, float[] query, int k, byte listingType, byte productType,
+                              Set<Long> exclude) {
+        if (k <= 0 || current.highWater == 0) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        Set<Long> excluded = exclude != null ? exclude : Set.of();
+        List<Callable<TopK>> tasks = new ArrayList<>();
+        for (int from = 0; from < current.highWater; from += SCAN_CHUNK) {
+            int start = from;
+            int end = Math.min(current.highWater, from + SCAN_CHUNK);
+            tasks.add(() -> scan(current, query, start, end, k, listingType, productType, excluded, now));
+        }
+        TopK merged = new TopK(k);
+        try {
+            for (Future<TopK> partial : scanPool.invokeAll(tasks)) {
+                partial.get().drainInto(merged);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } catch (ExecutionException e) {
+            log.warn("vector-index: scan failed (non-fatal): {}", e.getCause().getMessage(), e.getCause());
+            return List.of();
+        }
+        return merged.sortedIds();
+    }
+
+    static TopK scan(Store s, float[] query, int from, int to, int k, byte listingType, byte productType,
+                     Set<Long> exclude, long nowMillis) {
+        TopK top = new TopK(k);
+        int dims = s.dims;
+        float[] vectors = s.vectors;
+        for (int row = from; row < to; row++) {
+            long id = s.ids[row];
+            if (id == 0L
+                    || (listingType >= 0 && s.listingTypes[row] != listingType)
+                    || (productType >= 0 && s.productTypes[row] != productType)
+                    || (s.expiresAt[row] != 0L && s.expiresAt[row] <= nowMillis)) {
+                continue;
+            }
+            float bound = top.bound();
+            int base = row * dims;
+            float d = 0f;
+            for (int j = 0; j < dims && d < bound; j++) {
+                float diff = vectors[base + j] - query[j];
+                d += diff * diff;
+            }
+            if (d < bound && !exclude.contains(id)) {
+                top.offer(id, d);
+            }
+        }
+        return top;
+    }
+
+    private static Set<Long> withSeed(Set<Long> exclude, Long seed) {
+        if (exclude == null || exclude.isEmpty()) {
+            return Set.of(seed);
+        }
+        if (exclude.contains(seed)) {
+            return exclude;
+        }
+        Set<Long> copy = new HashSet<>(exclude);
+        copy.add(seed);
+        return copy;
+    }
+
+    /** Bounded max-heap on distance over primitive arrays: keeps the k smallest. */
+    static final class TopK {
+        private final int capacity;
+        private final long[] ids;
+        private final float[] dist;
+        private int size;
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+            this.ids = new long[capacity];
+            this.dist = new float[capacity];
+        }
+
+        /** Distance a candidate must beat to enter. */
+        float bound() {
+            return size < capacity ? Float.MAX_VALUE : dist[0];
+        }
+
+        void offer(long id, float d) {
+            if (size < capacity) {
+                ids[size] = id;
+                dist[size] = d;
+                siftUp(size++);
+            } else if (d < dist[0]) {
+                ids[0] = id;
+                dist[0] = d;
+                siftDown(0);
+            }
+        }
+
+        void drainInto(TopK other) {
+            for (int i = 0; i < size; i++) {
+                other.offer(ids[i], dist[i]);
+            }
+        }
+
+        List<Long> sortedIds() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> dist[a] != dist[b] ? Float.compare(dist[a], dist[b]) : Long.compare(ids[a], ids[b]));
+            List<Long> result = new ArrayList<>(size);
+            for (Integer i : order) result.add(ids[i]);
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (dist[parent] >= dist[i]) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) break;
+                int largest = left + 1 < size && dist[left + 1] > dist[left] ? left + 1 : left;
+                if (dist[i] >= dist[largest]) break;
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a]; ids[a] = ids[b]; ids[b] = id;
+            float d = dist[a]; dist[a] = dist[b]; dist[b] = d;
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Storage and encoding
+    // ─────────────────────────────────────────────
+
+    /** The fields a listing is encoded from, detached from JPA. */
+    record Source(long listingId, boolean visible, long expiresAtMillis,
+                  Listing.ListingType listingType, Listing.ProductType productType,
+                  Double latitude, Double longitude, String wardKey, String districtKey, String provinceKey,
+                  Double price, Double area, Integer bedrooms, Set<Long> amenityIds) {
+
+        static Source of(Listing l, Set<Long> amenityIds) {
+            Address a = l.getAddress();
+            Double lat = a != null && a.getLatitude() != null ? a.getLatitude().doubleValue() : null;
+            Double lon = a != null && a.getLongitude() != null ? a.getLongitude().doubleValue() : null;
+            String ward = a == null ? null
+                    : a.getNewWardCode() != null ? "w:" + a.getNewWardCode()
+                    : a.getLegacyWardId() != null ? "lw:" + a.getLegacyWardId() : null;
+            String district = a != null && a.getLegacyDistrictId() != null ? "d:" + a.getLegacyDistrictId() : null;
+            String province = a == null ? null
+                    : a.getNewProvinceCode() != null ? "p:" + a.getNewProvinceCode()
+                    : a.getLegacyProvinceId() != null ? "lp:" + a.getLegacyProvinceId() : null;
+            LocalDateTime expiry = l.getExpiryDate();
+            return new Source(l.getListingId(), l.isPubliclyVisible(),
+                    expiry != null ? expiry.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L,
+                    l.getListingType(), l.getProductType(), lat, lon, ward, district, province,
+                    l.getPrice() != null ? l.getPrice().doubleValue() : null,
+                    l.getArea() != null ? l.getArea().doubleValue() : null,
+                    l.getBedrooms(), amenityIds);
+        }
+
+        boolean hasCoordinates() {
+            return latitude != null && longitude != null && !(latitude == 0.0 && longitude == 0.0);
+        }
+    }
+
+    /**
+     * Row storage plus what encoding needs from the full build: amenity
+     * dimensions, location centroids and fill-in medians.
+     */
+    static final class Store {
+        final int dims;
+        final Map<Long, Integer> amenityDims;
+        final Map<String, double[]> centroids;
+        final float defaultLogPrice;
+        final float defaultLogArea;
+        final Map<Long, Integer> slotById = new HashMap<>();
+        private final List<Integer> freeSlots = new ArrayList<>();
+
+        float[] vectors;
+        long[] ids;
+        long[] expiresAt;
+        byte[] listingTypes;
+        byte[] productTypes;
+        int highWater;
+
+        private Store(int capacity, Map<Long, Integer> amenityDims, Map<String, double[]> centroids,
+                      float defaultLogPrice, float defaultLogArea) {
+            this.dims = AMENITY_OFFSET + amenityDims.size();
+            this.amenityDims = amenityDims;
+            this.centroids = centroids;
+            this.defaultLogPrice = defaultLogPrice;
+            this.defaultLogArea = defaultLogArea;
+            allocate(Math.max(capacity, 16));
+        }
+
+        static Store build(List<Source> sources, Collection<Long> amenityIds) {
+            Map<Long, Integer> amenityDims = new HashMap<>();
+            for (Long id : amenityIds) {
+                amenityDims.put(id, AMENITY_OFFSET + amenityDims.size());
+            }
+            Map<String, double[]> sums = new HashMap<>();
+            List<Float> logPrices = new ArrayList<>();
+            List<Float> logAreas = new ArrayList<>();
+            for (Source s : sources) {
+                if (s.hasCoordinates()) {
+                    for (String key : new String[] {s.wardKey(), s.districtKey(), s.provinceKey()}) {
+                        if (key != null) {
+                            double[] acc = sums.computeIfAbsent(key, k -> new double[3]);
+                            acc[0] += s.latitude();
+                            acc[1] += s.longitude();
+                            acc[2]++;
+                        }
+                    }
+                }
+                if (s.price() != null && s.price() > 0) logPrices.add(log2(s.price()));
+                if (s.area() != null && s.area() > 0) logAreas.add(log2(s.area()));
+            }
+            Map<String, double[]> centroids = new HashMap<>();
+            sums.forEach((key, acc) -> centroids.put(key, new double[] {acc[0] / acc[2], acc[1] / acc[2]}));
+
+            Store store = new Store(sources.size() + sources.size() / 4, amenityDims, centroids,
+                    median(logPrices), median(logAreas));
+            for (Source s : sources) {
+                store.upsert(s);
+            }
+            return store;
+        }
+
+        void upsert(Source s) {
+            Integer slot = slotById.get(s.listingId());
+            if (slot == null) {
+                slot = freeSlots.isEmpty() ? highWater++ : freeSlots.remove(freeSlots.size() - 1);
+                if (slot >= ids.length) {
+                    grow();
+                }
+                slotById.put(s.listingId(), slot);
+            }
+            ids[slot] = s.listingId();
+            expiresAt[slot] = s.expiresAtMillis();
+            listingTypes[slot] = s.listingType() != null ? (byte) s.listingType().ordinal() : -1;
+            productTypes[slot] = s.productType() != null ? (byte) s.productType().ordinal() : -1;
+            encode(s, vectors, slot * dims);
+        }
+
+        boolean remove(Long listingId) {
+            Integer slot = slotById.remove(listingId);
+            if (slot == null) {
+                return false;
+            }
+            ids[slot] = 0L;
+            freeSlots.add(slot);
+            return true;
+        }
+
+        void encode(Source s, float[] out, int base) {
+            Arrays.fill(out, base, base + dims, 0f);
+            if (s.listingType() != null) {
+                out[base + LISTING_TYPE_OFFSET + s.listingType().ordinal()] = W_LISTING_TYPE;
+            }
+            if (s.productType() != null) {
+                out[base + PRODUCT_TYPE_OFFSET + s.productType().ordinal()] = W_PRODUCT_TYPE;
+            }
+            double[] latLon = s.hasCoordinates() ? new double[] {s.latitude(), s.longitude()} : centroidOf(s);
+            if (latLon != null) {
+                double lat = Math.toRadians(latLon[0]);
+                double lon = Math.toRadians(latLon[1]);
+                double scale = EARTH_RADIUS_KM / GEO_UNIT_KM;
+                out[base + GEO_OFFSET] = (float) (scale * Math.cos(lat) * Math.cos(lon));
+                out[base + GEO_OFFSET + 1] = (float) (scale * Math.cos(lat) * Math.sin(lon));
+                out[base + GEO_OFFSET + 2] = (float) (scale * Math.sin(lat));
+            }
+            out[base + PRICE_OFFSET] = W_PRICE * (s.price() != null && s.price() > 0 ? log2(s.price()) : defaultLogPrice);
+            out[base + AREA_OFFSET] = W_AREA * (s.area() != null && s.area() > 0 ? log2(s.area()) : defaultLogArea);
+            out[base + BEDROOMS_OFFSET] = W_BEDROOMS * (s.bedrooms() != null
+                    ? Math.min(Math.max(s.bedrooms(), 0), MAX_BEDROOMS) : 1);
+            for (Long amenityId : s.amenityIds()) {
+                Integer dim = amenityDims.get(amenityId);
+                if (dim != null) {
+                    out[base + dim] = W_AMENITY;
+                }
+            }
+        }
+
+        private double[] centroidOf(Source s) {
+            for (String key : new String[] {s.wardKey(), s.districtKey(), s.provinceKey()}) {
+                double[] c = key != null ? centroids.get(key) : null;
+                if (c != null) {
+                    return c;
+                }
+            }
+            return null;
+        }
+
+        private void allocate(int capacity) {
+            vectors = new float[capacity * dims];
+            ids = new long[capacity];
+            expiresAt = new long[capacity];
+            listingTypes = new byte[capacity];
+            productTypes = new byte[capacity];
+        }
+
+        private void grow() {
+            int capacity = ids.length + (ids.length >> 1) + 16;
+            vectors = Arrays.copyOf(vectors, capacity * dims);
+            ids = Arrays.copyOf(ids, capacity);
+            expiresAt = Arrays.copyOf(expiresAt, capacity);
+            listingTypes = Arrays.copyOf(listingTypes, capacity);
+            productTypes = Arrays.copyOf(productTypes, capacity);
+        }
+
+        private static float log2(double value) {
+            return (float) (Math.log(value) / Math.log(2.0));
+        }
+
+        private static float median(List<Float> values) {
+            if (values.isEmpty()) {
+                return 0f;
+            }
+            Collections.sort(values);
+            return values.get(values.size() / 2);
+        }
+    }
+}
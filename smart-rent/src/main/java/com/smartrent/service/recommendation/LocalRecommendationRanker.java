@@ -0,0 +1,122 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest.ListingFeatureDto;
+import com.smartrent.dto.response.RecommendationItemDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-process ranking used when the AI recommendation service is slow, failing
+ * or behind an open circuit ({@link RecommendationAiClient}). It ranks the same
+ * candidate pool the AI would have received, from signals the backend already
+ * owns, so a degraded feed is still ordered rather than truncated.
+ *
+ * <p>Personalized score in {@code [0, 1]}, a weighted sum of:
+ * <ul>
+ *   <li>preferred-zone match (0.40) — ward 3/3, district 2/3, province 1/3;</li>
+ *   <li>discovery-zone match (0.15) — same levels, only while the user meets
+ *       the discovery shift condition;</li>
+ *   <li>price proximity (0.25) to the profile's average price — 1.0 at equal
+ *       values, 0 at a 2× ratio;</li>
+ *   <li>VIP tier (0.10) and freshness (0.10), as in the cold-start ranking.</li>
+ * </ul>
+ * Similar-listing score is {@link ListingSimilarity} (0.80) plus the same VIP
+ * and freshness terms.
+ */
+public final class LocalRecommendationRanker {
+
+    private static final double W_PREFERRED = 0.40;
+    private static final double W_DISCOVERY = 0.15;
+    private static final double W_PRICE     = 0.25;
+    private static final double W_VIP       = 0.10;
+    private static final double W_FRESHNESS = 0.10;
+
+    private static final double W_SIMILARITY = 0.80;
+
+    private LocalRecommendationRanker() {}
+
+    /** A location to match candidates against; any field may be null. */
+    public record Zone(String provinceCode, Integer districtId, Integer wardId, String wardCode) {
+
+        /** 3 = ward, 2 = district, 1 = province, 0 = outside the zone (or no feature). */
+        public int matchLevel(ListingFeatureDto f) {
+            if (f == null) {
+                return 0;
+            }
+            if ((wardCode != null && wardCode.equals(f.getNewWardCode()))
+                    || (wardId != null && wardId.equals(f.getWardId()))) {
+                return 3;
+            }
+            if (districtId != null && districtId.equals(f.getDistrictId())) {
+                return 2;
+            }
+            if (provinceCode != null && provinceCode.equals(f.getProvinceCode())) {
+                return 1;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Top {@code limit} personalized candidates, best first. {@code discovery}
+     * is null when the shift condition is not met.
+     */
+    public static List<RecommendationItemDto> rankPersonalized(List<ListingFeatureDto> candidates,
+                                                               Zone preferred, Zone discovery,
+                                                               double averagePrice, int limit) {
+        List<RecommendationItemDto> scored = new ArrayList<>(candidates.size());
+        for (ListingFeatureDto c : candidates) {
+            if (c.getListingId() == null) continue;
+            double zone = W_PREFERRED * preferred.matchLevel(c) / 3.0
+                    + (discovery != null ? W_DISCOVERY * discovery.matchLevel(c) / 3.0 : 0.0);
+            double price = ListingSimilarity.ratioCloseness(averagePrice, c.getPrice());
+            double score = zone + W_PRICE * price + boosts(c);
+            scored.add(RecommendationItemDto.builder()
+                    .listingId(c.getListingId()).score(score).cbfScore(zone + W_PRICE * price).build());
+        }
+        return top(scored, limit);
+    }
+
+    /** Top {@code limit} candidates similar to {@code target}, best first. */
+    public static List<RecommendationItemDto> rankSimilar(ListingFeatureDto target, List<ListingFeatureDto> candidates,
+                                                          int limit) {
+        List<RecommendationItemDto> scored = new ArrayList<>(candidates.size());
+        for (ListingFeatureDto c : candidates) {
+            if (c.getListingId() == null || c.getListingId().equals(target.getListingId())) continue;
+            double similarity = ListingSimilarity.score(target, c);
+            scored.add(RecommendationItemDto.builder()
+                    .listingId(c.getListingId()).score(W_SIMILARITY * similarity + boosts(c))
+                    .cbfScore(similarity).build());
+        }
+        return top(scored, limit);
+    }
+
+    public static double vipScore(String type) {
+        if (type == null)
+            return 0.2;
+        return switch (type.toUpperCase()) {
+            case "DIAMOND" -> 1.0;
+            case "GOLD" -> 0.7;
+            case "SILVER" -> 0.4;
+            default -> 0.2;
+        };
+    }
+
+    public static double freshnessScore(long daysAgo) {
+        return 1.0 / (1.0 + Math.max(0, daysAgo));
+    }
+
+    private static double boosts(ListingFeatureDto c) {
+        double fresh = c.getPostDateDaysAgo() != null ? freshnessScore(c.getPostDateDaysAgo()) : 0.0;
+        return W_VIP * vipScore(c.getVipType()) + W_FRESHNESS * fresh;
+    }
+
+    /** Ties broken by listing id so a degraded feed is stable between requests. */
+    private static List<RecommendationItemDto> top(List<RecommendationItemDto> scored, int limit) {
+        scored.sort(Comparator.comparingDouble(RecommendationItemDto::getScore).reversed()
+                .thenComparing(RecommendationItemDto::getListingId));
+        return scored.size() > limit ? new ArrayList<>(scored.subList(0, limit)) : scored;
+    }
+}
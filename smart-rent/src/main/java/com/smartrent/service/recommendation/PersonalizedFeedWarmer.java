@@ -0,0 +1,137 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.config.Constants;
+import com.smartrent.event.UserInteractionEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputes a user's personalized feed in the background after they
+ * interact, so their next homepage load is a cache hit instead of the full
+ * profile + candidate retrieval + AI ranking path.
+ *
+ * <p>A {@link UserInteractionEvent} only marks the user dirty. {@link #warmQuietUsers}
+ * (ticked by {@code PersonalizedFeedWarmScheduler}) picks users whose last
+ * event is at least {@code quiet-ms} old, so a burst of views or saves costs
+ * one recompute, not one per event. A user whose recompute is still running
+ * stays dirty and is picked up again afterwards.
+ *
+ * <p>Recomputes run on two daemon threads behind a short queue. When the
+ * queue is full the user stays dirty for the next tick rather than running on
+ * the scheduler thread. Dirty users are capped so a traffic spike cannot
+ * grow the map without bound; users past the cap are simply computed lazily
+ * on their next visit, as before.
+ */
+@Slf4j
+@Component
+public class PersonalizedFeedWarmer {
+
+    private static final int MAX_DIRTY_USERS = 10_000;
+
+    private final RecommendationService recommendationService;
+    private final CacheManager cacheManager;
+    private final RecommendationCacheVersions cacheVersions;
+    private final boolean enabled;
+    private final long quietMs;
+    private final int topN;
+
+    private final Map<String, Long> lastInteractionAt = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor workers = new ThreadPoolExecutor(
+            2, 2,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(32),
+            r -> {
+                Thread t = new Thread(r, "reco-feed-warm");
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    public PersonalizedFeedWarmer(RecommendationService recommendationService,
+                                  CacheManager cacheManager,
+                                  RecommendationCacheVersions cacheVersions,
+                                  @Value("${recommendation.prewarm.enabled:true}") boolean enabled,
+                                  @Value("${recommendation.prewarm.quiet-ms:5000}") long quietMs,
+                                  @Value("${recommendation.prewarm.top-n:20}") int topN) {
+        this.recommendationService = recommendationService;
+        this.cacheManager = cacheManager;
+        this.cacheVersions = cacheVersions;
+        this.enabled = enabled;
+        this.quietMs = quietMs;
+        this.topN = topN;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserInteraction(UserInteractionEvent event) {
+        if (!enabled || event.userId() == null) {
+            return;
+        }
+        if (lastInteractionAt.size() >= MAX_DIRTY_USERS && !lastInteractionAt.containsKey(event.userId())) {
+            return;
+        }
+        lastInteractionAt.put(event.userId(), System.currentTimeMillis());
+    }
+
+    /** Submits a recompute for every user who has been quiet for {@code quiet-ms}. Returns how many. */
+    public int warmQuietUsers() {
+        long cutoff = System.currentTimeMillis() - quietMs;
+        int submitted = 0;
+        for (Map.Entry<String, Long> entry : lastInteractionAt.entrySet()) {
+            String userId = entry.getKey();
+            long markedAt = entry.getValue();
+            if (markedAt > cutoff || !inFlight.add(userId)) {
+                continue;
+            }
+            try {
+                workers.execute(() -> warm(userId));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(userId);
+                break;
+            }
+            // Only clear the mark we acted on; a newer event keeps the user dirty.
+            lastInteractionAt.remove(userId, markedAt);
+            submitted++;
+        }
+        return submitted;
+    }
+
+    private void warm(String userId) {
+        try {
+            // A read racing the interaction's commit may have cached a feed from
+            // before it under the new generation; drop it so the call below
+            // recomputes and re-caches.
+            Cache cache = cacheManager.getCache(Constants.CacheNames.LISTING_RECOMMENDATION_PERSONALIZED);
+            if (cache != null) {
+                cache.evict("user:" + userId + ":v" + cacheVersions.of(userId) + ":topN:" + topN);
+            }
+            long start = System.nanoTime();
+            recommendationService.getPersonalizedFeed(userId, topN);
+            log.debug("[Recommendation] pre-warmed personalized feed for user={} in {}ms",
+                    userId, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("[Recommendation] feed pre-warm failed for user={} (non-fatal): {}", userId, e.getMessage(), e);
+        } finally {
+            inFlight.remove(userId);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,297 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest;
+import com.smartrent.dto.response.RecommendationItemDto;
+import com.smartrent.infra.connector.SmartRentAiConnector;
+import feign.FeignException;
+import feign.Request;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces concurrent AI recommendation calls into the batch endpoints.
+ *
+ * <p>Each endpoint has a {@link Lane}: the first request opens a window of
+ * {@code max-wait-ms}; the window closes early once {@code max-size}
+ * requests are waiting. The lane then sends one batched payload and completes
+ * each caller's future with its own slice of the response. A caller stops
+ * waiting after the smaller of {@code recommendation.ai.timeout-ms} — the same
+ * budget as the circuit breaker — and the budget it passes in (what is left of
+ * its request deadline), and its slot is skipped if the batch has not gone out
+ * yet. Unbatched calls get the same bound as their Feign read timeout, and a
+ * batch gets the largest remaining budget among its callers, so no sender
+ * thread waits on the AI service after every caller has given up.
+ *
+ * <p>If a batch call fails, every caller in it fails too and falls back to
+ * the local ranker; the requests are not replayed one by one, which would
+ * multiply the load on an AI service that is already struggling. Likewise
+ * when the sender pool and its queue are full, the batch is failed rather
+ * than sent from the window timer's thread. A 404 means the AI service has
+ * no batch endpoint, so batching is suspended for
+ * {@value #BATCH_SUSPEND_MINUTES} minutes instead of failing every window.
+ * With batching disabled, calls go straight through.
+ */
+@Slf4j
+@Component
+public class RecommendationAiBatcher {
+
+    private static final long BATCH_SUSPEND_MINUTES = 10;
+    private static final long MAX_CONNECT_TIMEOUT_MS = 500;
+
+    private final SmartRentAiConnector aiConnector;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long maxWaitMs;
+    private final long callerTimeoutMs;
+    private final ScheduledExecutorService timer;
+    private final ThreadPoolExecutor senders;
+    private final Lane<AIRecommendationRequest.PersonalizedFeedAiRequest> personalized;
+    private final Lane<AIRecommendationRequest.SimilarListingAiRequest> similar;
+
+    private volatile long batchingSuspendedUntil;
+
+    public RecommendationAiBatcher(SmartRentAiConnector aiConnector,
+                                   @Value("${recommendation.ai.batch.enabled:false}") boolean enabled,
+                                   @Value("${recommendation.ai.batch.max-size:16}") int maxSize,
+                                   @Value("${recommendation.ai.batch.max-wait-ms:5}") long maxWaitMs,
+                                   @Value("${recommendation.ai.timeout-ms:2500}") long callerTimeoutMs) {
+        this.aiConnector = aiConnector;
+        this.enabled = enabled;
+        this.maxSize = Math.max(1, maxSize);
+        this.maxWaitMs = Math.max(1, maxWaitMs);
+        this.callerTimeoutMs = callerTimeoutMs;
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "reco-ai-batch-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.timer = scheduler;
+        this.senders = new ThreadPoolExecutor(
+                4, 16,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(64),
+                r -> {
+                    Thread t = new Thread(r, "reco-ai-batch");
+                    t.setDaemon(true);
+                    return t;
+                },
+                (task, executor) -> ((Send) task).onRejected().run());
+        this.personalized = new Lane<>("personalized",
+                (requests, timeoutMs) -> aiConnector.getPersonalizedFeedBatch(
+                        AIRecommendationRequest.PersonalizedFeedBatchAiRequest.builder().requests(requests).build(),
+                        options(timeoutMs)),
+                (request, timeoutMs) -> aiConnector.getPersonalizedFeed(request, options(timeoutMs)));
+        this.similar = new Lane<>("similar",
+                (requests, timeoutMs) -> aiConnector.getSimilarListingsBatch(
+                        AIRecommendationRequest.SimilarListingBatchAiRequest.builder().requests(requests).build(),
+                        options(timeoutMs)),
+                (request, timeoutMs) -> aiConnector.getSimilarListings(request, options(timeoutMs)));
+    }
+
+    /** Personalized ranking, waiting at most {@code budgetMs} (capped at {@code timeout-ms}). */
+    public List<RecommendationItemDto> getPersonalizedFeed(AIRecommendationRequest.PersonalizedFeedAiRequest request,
+                                                           long budgetMs) {
+        long timeoutMs = timeout(budgetMs);
+        return enabled ? await(personalized.submit(request, timeoutMs), timeoutMs)
+                : aiConnector.getPersonalizedFeed(request, options(timeoutMs));
+    }
+
+    /** Similar-listings ranking, waiting at most {@code budgetMs} (capped at {@code timeout-ms}). */
+    public List<RecommendationItemDto> getSimilarListings(AIRecommendationRequest.SimilarListingAiRequest request,
+                                                          long budgetMs) {
+        long timeoutMs = timeout(budgetMs);
+        return enabled ? await(similar.submit(request, timeoutMs), timeoutMs)
+                : aiConnector.getSimilarListings(request, options(timeoutMs));
+    }
+
+    private long timeout(long budgetMs) {
+        return Math.max(1L, Math.min(callerTimeoutMs, budgetMs));
+    }
+
+    static Request.Options options(long timeoutMs) {
+        long readMs = Math.max(1L, timeoutMs);
+        return new Request.Options(Math.min(readMs, MAX_CONNECT_TIMEOUT_MS), TimeUnit.MILLISECONDS,
+                readMs, TimeUnit.MILLISECONDS, true);
+    }
+
+    private List<RecommendationItemDto> await(CompletableFuture<List<RecommendationItemDto>> future, long timeoutMs) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new IllegalStateException("AI recommendation batch did not answer within " + timeoutMs + "ms", e);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an AI recommendation batch", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        senders.shutdown();
+    }
+
+    /** One caller's request, answered or abandoned by {@code deadlineNanos}. */
+    private record Pending<Q>(Q request, CompletableFuture<List<RecommendationItemDto>> result, long deadlineNanos) {
+
+        long remainingMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        }
+    }
+
+    /** An unbatched call given the caller's remaining time as its timeout. */
+    @FunctionalInterface
+    interface SingleCall<Q> {
+        List<RecommendationItemDto> apply(Q request, long timeoutMs);
+    }
+
+    /** A batched call given the latest remaining time among its callers as its timeout. */
+    @FunctionalInterface
+    interface BatchCall<Q> {
+        List<List<RecommendationItemDto>> apply(List<Q> requests, long timeoutMs);
+    }
+
+    /** A batch handed to {@link #senders}, with what to do if the pool rejects it. */
+    private record Send(Runnable task, Runnable onRejected) implements Runnable {
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    /** The pending window of one endpoint. */
+    final class Lane<Q> {
+        private final String name;
+        private final BatchCall<Q> batchCall;
+        private final SingleCall<Q> singleCall;
+        private List<Pending<Q>> pending = new ArrayList<>();
+        private ScheduledFuture<?> windowTimer;
+
+        Lane(String name, BatchCall<Q> batchCall, SingleCall<Q> singleCall) {
+            this.name = name;
+            this.batchCall = batchCall;
+            this.singleCall = singleCall;
+        }
+
+        CompletableFuture<List<RecommendationItemDto>> submit(Q request, long timeoutMs) {
+            Pending<Q> entry = new Pending<>(request, new CompletableFuture<>(),
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+            List<Pending<Q>> full = null;
+            synchronized (this) {
+                pending.add(entry);
+                if (pending.size() >= maxSize) {
+                    full = drain();
+                } else if (pending.size() == 1) {
+                    windowTimer = timer.schedule(this::flushWindow, maxWaitMs, TimeUnit.MILLISECONDS);
+                }
+            }
+            if (full != null) {
+                dispatch(full);
+            }
+            return entry.result();
+        }
+
+        private void flushWindow() {
+            List<Pending<Q>> batch;
+            synchronized (this) {
+                batch = drain();
+            }
+            if (!batch.isEmpty()) {
+                dispatch(batch);
+            }
+        }
+
+        private void dispatch(List<Pending<Q>> batch) {
+            senders.execute(new Send(() -> send(batch), () -> fail(batch, new RejectedExecutionException(
+                    "AI " + name + " batch senders saturated"))));
+        }
+
+        private void fail(List<Pending<Q>> batch, Exception cause) {
+            batch.forEach(p -> p.result().completeExceptionally(cause));
+        }
+
+        /** Caller holds the lock. */
+        private List<Pending<Q>> drain() {
+            List<Pending<Q>> batch = pending;
+            pending = new ArrayList<>();
+            if (windowTimer != null) {
+                windowTimer.cancel(false);
+                windowTimer = null;
+            }
+            return batch;
+        }
+
+        void send(List<Pending<Q>> batch) {
+            // Callers that already timed out are not sent at all.
+            List<Pending<Q>> live = batch.stream().filter(p -> !p.result().isDone()).toList();
+            if (live.isEmpty()) {
+                return;
+            }
+            if (live.size() == 1 || System.currentTimeMillis() < batchingSuspendedUntil) {
+                live.forEach(this::sendSingle);
+                return;
+            }
+            long timeoutMs = live.stream().mapToLong(Pending::remainingMillis).max().orElse(0L);
+            if (timeoutMs <= 0) {
+                return;
+            }
+            try {
+                List<List<RecommendationItemDto>> results =
+                        batchCall.apply(live.stream().map(Pending::request).toList(), timeoutMs);
+                if (results == null || results.size() != live.size()) {
+                    throw new IllegalStateException("expected " + live.size() + " results, got "
+                            + (results == null ? "none" : results.size()));
+                }
+                for (int i = 0; i < live.size(); i++) {
+                    live.get(i).result().complete(results.get(i));
+                }
+                log.debug("[Recommendation] AI {} batch of {} answered", name, live.size());
+            } catch (Exception e) {
+                if (e instanceof FeignException.NotFound) {
+                    batchingSuspendedUntil = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(BATCH_SUSPEND_MINUTES);
+                    log.warn("[Recommendation] AI service has no {} batch endpoint, batching suspended for {} minutes",
+                            name, BATCH_SUSPEND_MINUTES);
+                } else {
+                    log.warn("[Recommendation] AI {} batch of {} failed (non-fatal): {}",
+                            name, live.size(), e.getMessage(), e);
+                }
+                fail(live, e);
+            }
+        }
+
+        private void sendSingle(Pending<Q> p) {
+            long remainingMs = p.remainingMillis();
+            if (p.result().isDone() || remainingMs <= 0) {
+                return;
+            }
+            try {
+                p.result().complete(singleCall.apply(p.request(), remainingMs));
+            } catch (Exception e) {
+                p.result().completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest;
+import com.smartrent.dto.response.RecommendationItemDto;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * The AI recommendation endpoints behind the {@value #CIRCUIT_BREAKER_ID}
+ * circuit breaker and its latency budget (see {@code CircuitBreakerConfig}),
+ * sent through {@link RecommendationAiBatcher}.
+ *
+ * <p>A call that fails, exceeds the budget, or is rejected by an open circuit
+ * returns empty instead of throwing, and the caller ranks locally with
+ * {@link LocalRecommendationRanker}. The Feign read timeout stays generous for
+ * the other AI endpoints; the budget here is what bounds a recommendation
+ * request.
+ */
+@Slf4j
+@Component
+public class RecommendationAiClient {
+
+    public static final String CIRCUIT_BREAKER_ID = "recommendationAi";
+
+    private final RecommendationAiBatcher batcher;
+    private final CircuitBreaker circuitBreaker;
+
+    public RecommendationAiClient(RecommendationAiBatcher batcher, CircuitBreakerFactory<?, ?> circuitBreakerFactory) {
+        this.batcher = batcher;
+        this.circuitBreaker = circuitBreakerFactory.create(CIRCUIT_BREAKER_ID);
+    }
+
+    /** {@code budgetMs} is what is left of the request deadline; the call never waits longer. */
+    public Optional<List<RecommendationItemDto>> getPersonalizedFeed(
+            AIRecommendationRequest.PersonalizedFeedAiRequest request, long budgetMs) {
+        return call("personalized", () -> batcher.getPersonalizedFeed(request, budgetMs));
+    }
+
+    /** {@code budgetMs} is what is left of the request deadline; the call never waits longer. */
+    public Optional<List<RecommendationItemDto>> getSimilarListings(
+            AIRecommendationRequest.SimilarListingAiRequest request, long budgetMs) {
+        return call("similar", () -> batcher.getSimilarListings(request, budgetMs));
+    }
+
+    private Optional<List<RecommendationItemDto>> call(String endpoint, Supplier<List<RecommendationItemDto>> supplier) {
+        return circuitBreaker.run(() -> Optional.ofNullable(supplier.get()), throwable -> {
+            if (throwable instanceof CallNotPermittedException) {
+                log.debug("[Recommendation] AI {} skipped, circuit open", endpoint);
+            } else if (throwable instanceof TimeoutException) {
+                log.warn("[Recommendation] AI {} exceeded its latency budget, ranking locally", endpoint);
+            } else {
+                log.warn("[Recommendation] AI {} failed, ranking locally (non-fatal): {}",
+                        endpoint, throwable.getMessage(), throwable);
+            }
+            return Optional.empty();
+        });
+    }
+}
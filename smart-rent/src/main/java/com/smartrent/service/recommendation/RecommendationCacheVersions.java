@@ -0,0 +1,70 @@
+package com.smartrent.service.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-user generation counter embedded in the personalized and similar
+ * recommendation cache keys ({@code reco:cache-version:<userId>}).
+ *
+ * <p>An interaction {@link #bump bumps} the counter with one {@code INCR}, so
+ * every cached topN variant of the user's feeds misses on the next read, however
+ * many page sizes clients asked for. Entries under older generations are
+ * never deleted; they expire on the cache TTL.
+ *
+ * <p>The counter itself expires {@code ttl-hours} after the last bump. That
+ * must stay longer than the recommendation cache TTLs: once it lapses the
+ * user restarts at generation 0, and any entry from the old generation 0 has
+ * to be gone by then.
+ */
+@Slf4j
+@Component
+public class RecommendationCacheVersions {
+
+    static final String KEY_PREFIX = "reco:cache-version:";
+    static final String INITIAL = "0";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public RecommendationCacheVersions(StringRedisTemplate redisTemplate,
+                                       @Value("${recommendation.cache-version.ttl-hours:24}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    /** Current generation of {@code userId}'s cached feeds; {@value #INITIAL} for anonymous or unknown users. */
+    public String of(String userId) {
+        if (userId == null) {
+            return INITIAL;
+        }
+        try {
+            String version = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+            return version != null ? version : INITIAL;
+        } catch (DataAccessException e) {
+            // The recommendation caches live in the same Redis, so they are
+            // unreachable too and nothing stale can be served.
+            log.warn("[Recommendation] cache version read failed for user={} (non-fatal): {}", userId, e.getMessage());
+            return INITIAL;
+        }
+    }
+
+    /** Invalidates every cached personalized / similar feed of {@code userId}. */
+    public void bump(String userId) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            String key = KEY_PREFIX + userId;
+            redisTemplate.opsForValue().increment(key);
+            redisTemplate.expire(key, ttl);
+        } catch (DataAccessException e) {
+            log.warn("[Recommendation] cache version bump failed for user={} (non-fatal): {}", userId, e.getMessage(), e);
+        }
+    }
+}
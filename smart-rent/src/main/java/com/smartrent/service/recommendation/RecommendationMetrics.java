@@ -0,0 +1,116 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.response.RecommendationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the recommendation pipeline. Each request
+ * runs under a {@link RecommendationTrace}; {@link #finish} publishes it as:
+ * <ul>
+ *   <li>{@code recommendation.stage.latency} — per stage (profile, candidates,
+ *       cf, features, ai, hydrate, …), tagged {@code flow} and {@code stage};</li>
+ *   <li>{@code recommendation.request.latency} — whole request, tagged
+ *       {@code flow}, {@code ranker} and {@code partial};</li>
+ *   <li>{@code recommendation.candidates} — candidates per retrieval channel,
+ *       tagged {@code flow} and {@code channel};</li>
+ *   <li>{@code recommendation.deadline.cut} — stages skipped or dropped for
+ *       missing the {@code recommendation.deadline-ms} budget.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class RecommendationMetrics {
+
+    private static final String STAGE_METRIC = "recommendation.stage.latency";
+    private static final String REQUEST_METRIC = "recommendation.request.latency";
+    private static final String CANDIDATES_METRIC = "recommendation.candidates";
+    private static final String CUT_METRIC = "recommendation.deadline.cut";
+
+    private final MeterRegistry meterRegistry;
+    private final long deadlineMs;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Counter> cuts = new ConcurrentHashMap<>();
+
+    public RecommendationMetrics(MeterRegistry meterRegistry,
+                                 @Value("${recommendation.deadline-ms:3000}") long deadlineMs) {
+        this.meterRegistry = meterRegistry;
+        this.deadlineMs = deadlineMs;
+    }
+
+    /** Starts the trace and deadline of one {@code flow} ("similar" or "personalized") request. */
+    public RecommendationTrace start(String flow) {
+        return new RecommendationTrace(flow, deadlineMs);
+    }
+
+    /**
+     * Publishes the trace and stamps {@code response} with its partial flag and
+     * summary. Returns {@code response} for chaining.
+     */
+    public RecommendationResponse finish(RecommendationTrace trace, RecommendationResponse response) {
+        String flow = trace.flow();
+        boolean partial = trace.partial();
+        trace.stageNanos().forEach((stage, nanos) -> stageTimer(flow, stage).record(nanos, TimeUnit.NANOSECONDS));
+        trace.candidateCounts().forEach((channel, n) -> summary(flow, channel).record(n));
+        trace.cutStages().forEach(stage -> cutCounter(flow, stage).increment());
+
+        String ranker = response != null && response.getRanker() != null ? response.getRanker() : "none";
+        requestTimer(flow, ranker, partial).record(trace.elapsedNanos(), TimeUnit.NANOSECONDS);
+
+        String summary = trace.summary();
+        log.debug("[PerfTrace] {} {}", flow, summary);
+        if (response != null) {
+            response.setPartial(partial);
+            response.setTrace(summary);
+        }
+        return response;
+    }
+
+    private Timer stageTimer(String flow, String stage) {
+        return timers.computeIfAbsent(STAGE_METRIC + '|' + flow + '|' + stage, k -> Timer.builder(STAGE_METRIC)
+                .description("Latency of one recommendation pipeline stage")
+                .tag("flow", flow)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry));
+    }
+
+    private Timer requestTimer(String flow, String ranker, boolean partial) {
+        return timers.computeIfAbsent(REQUEST_METRIC + '|' + flow + '|' + ranker + '|' + partial, k -> Timer.builder(REQUEST_METRIC)
+                .description("Latency of one uncached recommendation request")
+                .tag("flow", flow)
+                .tag("ranker", ranker)
+                .tag("partial", String.valueOf(partial))
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry));
+    }
+
+    private DistributionSummary summary(String flow, String channel) {
+        return summaries.computeIfAbsent(flow + '|' + channel, k -> DistributionSummary.builder(CANDIDATES_METRIC)
+                .description("Candidates contributed by one retrieval channel")
+                .tag("flow", flow)
+                .tag("channel", channel)
+                .register(meterRegistry));
+    }
+
+    private Counter cutCounter(String flow, String stage) {
+        return cuts.computeIfAbsent(flow + '|' + stage, k -> Counter.builder(CUT_METRIC)
+                .description("Recommendation stages skipped or dropped for missing the request deadline")
+                .tag("flow", flow)
+                .tag("stage", stage)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,142 @@
+package com.smartrent.service.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Stage timings, candidate counts and the overall deadline of one
+ * recommendation request. Created by {@link RecommendationMetrics#start} and
+ * used from the request thread only.
+ *
+ * <p>Stages that are optional for a usable feed (the starvation top-up, the
+ * global CF signal, the AI ranking) ask {@link #overBudget} first and are
+ * skipped once the deadline has passed; parallel candidate channels are
+ * waited for with {@link #await} until the deadline and cancelled if still
+ * running. Either way the stage is recorded as cut, and the response is
+ * flagged partial. The AI call gets {@link #remainingMillis} as its timeout.
+ */
+@Slf4j
+public final class RecommendationTrace {
+
+    private final String flow;
+    private final long startNanos;
+    private final long deadlineNanos;
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    private final Map<String, Integer> candidateCounts = new LinkedHashMap<>();
+    private final List<String> cutStages = new ArrayList<>();
+
+    RecommendationTrace(String flow, long deadlineMs) {
+        this.flow = flow;
+        this.startNanos = System.nanoTime();
+        this.deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+    }
+
+    public String flow() {
+        return flow;
+    }
+
+    /** Runs {@code work} as the named stage; repeated stages add up. */
+    public <T> T stage(String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(stage, start);
+        }
+    }
+
+    /** Records a stage that began at {@code startedAtNanos} and ends now. */
+    public void record(String stage, long startedAtNanos) {
+        stageNanos.merge(stage, System.nanoTime() - startedAtNanos, Long::sum);
+    }
+
+    /** Records how many candidates one retrieval channel contributed. */
+    public void count(String channel, int candidates) {
+        candidateCounts.merge(channel, candidates, Integer::sum);
+    }
+
+    /** True once the deadline has passed, in which case {@code stage} is recorded as cut. */
+    public boolean overBudget(String stage) {
+        if (System.nanoTime() - deadlineNanos < 0) {
+            return false;
+        }
+        cutStages.add(stage);
+        return true;
+    }
+
+    /**
+     * Waits for a parallel channel until the deadline. A channel that misses
+     * it is recorded as cut and yields {@code fallback}; one that fails yields
+     * {@code fallback} as well. Successful results are counted under {@code channel}.
+     */
+    public <T extends List<?>> T await(String channel, CompletableFuture<T> future, T fallback) {
+        try {
+            T value = future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            T result = value != null ? value : fallback;
+            count(channel, result.size());
+            return result;
+        } catch (TimeoutException e) {
+            // A channel still queued on the pool then never starts; one already
+            // running finishes, but its result is discarded.
+            future.cancel(true);
+            cutStages.add(channel);
+            log.warn("[Recommendation] {} channel '{}' missed the deadline, dropped from this response", flow, channel);
+            return fallback;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("[Recommendation] {} channel '{}' failed (non-fatal): {}", flow, channel, cause.getMessage(), cause);
+            return fallback;
+        }
+    }
+
+    /** Milliseconds left until the deadline, zero once it has passed. */
+    public long remainingMillis() {
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean partial() {
+        return !cutStages.isEmpty();
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public Map<String, Long> stageNanos() {
+        return Collections.unmodifiableMap(stageNanos);
+    }
+
+    public Map<String, Integer> candidateCounts() {
+        return Collections.unmodifiableMap(candidateCounts);
+    }
+
+    public List<String> cutStages() {
+        return Collections.unmodifiableList(cutStages);
+    }
+
+    /** One-line summary, e.g. {@code total=412ms; profile=3ms; ai=150ms; candidates.fresh=100; cut=ai}. */
+    public String summary() {
+        StringBuilder sb = new StringBuilder("total=").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos())).append("ms");
+        stageNanos.forEach((stage, nanos) ->
+                sb.append("; ").append(stage).append('=').append(TimeUnit.NANOSECONDS.toMillis(nanos)).append("ms"));
+        candidateCounts.forEach((channel, n) -> sb.append("; candidates.").append(channel).append('=').append(n));
+        if (!cutStages.isEmpty()) {
+            sb.append("; cut=").append(String.join(",", cutStages));
+        }
+        return sb.toString();
+    }
+}
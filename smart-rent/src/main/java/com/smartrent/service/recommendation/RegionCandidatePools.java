@@ -0,0 +1,404 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.infra.repository.ListingRepository;
+import com.smartrent.infra.repository.entity.Listing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory candidate pools per region for the recommendation channels, so
+ * the proximity, price, fresh and top-up channels are answered without the
+ * {@code idx_listings_reco_*} queries.
+ *
+ * <p>Every publicly visible listing is filed under each region it belongs to
+ * (new ward, legacy ward, legacy district, new province, legacy province, and
+ * {@link #GLOBAL}), and within a region under a log-spaced price band. A band
+ * keeps its {@code fresh-per-band} freshest listings — the {@code pushed_at},
+ * {@code post_date} order of the SQL channels — plus every VIP listing.
+ * {@link #select} merges the bands a request's price window overlaps across
+ * its regions, freshest first, and applies the type, price, expiry and
+ * exclusion filters on the way.
+ *
+ * <p>Maintenance mirrors {@link ListingVectorIndex}: a periodic full rebuild
+ * and an incremental pass from {@code updated_at} in between. A listing that
+ * drops out of a band leaves the band one short until the next rebuild
+ * rather than refilling it, which is why the rebuild runs more often here.
+ */
+@Slf4j
+@Component
+public class RegionCandidatePools {
+
+    public static final String GLOBAL = "*";
+
+    /** Each price band is 25% wider than the last, so a ±20% window spans two or three bands. */
+    static final double BAND_RATIO = 1.25;
+    static final int NO_PRICE_BAND = Integer.MIN_VALUE;
+
+    private static final int LOAD_PAGE = 500;
+    /** Re-read this much before the watermark so late-committing updates are not missed. */
+    private static final long WATERMARK_OVERLAP_MINUTES = 2;
+
+    /** The SQL channels' order: {@code pushed_at DESC, post_date DESC} (nulls last), then newest id. */
+    static final Comparator<Entry> FRESHEST_FIRST = Comparator
+            .comparingLong(Entry::pushedAt).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::postDate).reversed())
+            .thenComparing(Comparator.comparingLong(Entry::listingId).reversed());
+
+    private final ListingRepository listingRepository;
+    private final boolean enabled;
+    private final int freshPerBand;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Null until the first build completes. Replaced wholesale by a rebuild, mutated by incremental updates. */
+    private volatile Pools pools;
+    private volatile LocalDateTime watermark;
+
+    public RegionCandidatePools(ListingRepository listingRepository,
+                                @Value("${recommendation.region-pools.enabled:true}") boolean enabled,
+                                @Value("${recommendation.region-pools.fresh-per-band:200}") int freshPerBand) {
+        this.listingRepository = listingRepository;
+        this.enabled = enabled;
+        this.freshPerBand = freshPerBand;
+    }
+
+    public boolean isReady() {
+        return enabled && pools != null;
+    }
+
+    public static String newWard(String wardCode) {
+        return wardCode != null && !wardCode.isEmpty() ? "w:" + wardCode : null;
+    }
+
+    public static String legacyWard(Integer wardId) {
+        return wardId != null ? "lw:" + wardId : null;
+    }
+
+    public static String district(Integer districtId) {
+        return districtId != null ? "d:" + districtId : null;
+    }
+
+    public static String newProvince(String provinceCode) {
+        return provinceCode != null && !provinceCode.isEmpty() ? "p:" + provinceCode : null;
+    }
+
+    public static String legacyProvince(Integer provinceId) {
+        return provinceId != null ? "lp:" + provinceId : null;
+    }
+
+    /**
+     * Up to {@code limit} listing ids from the union of {@code regions}
+     * (null keys are ignored), freshest first. {@code listingType},
+     * {@code productType} and either price bound may be null for "any".
+     * Empty when the pools are not ready.
+     */
+    public List<Long> select(Collection<String> regions, Listing.ListingType listingType,
+                             Listing.ProductType productType, Double minPrice, Double maxPrice,
+                             Set<Long> exclude, int limit) {
+        if (!isReady() || limit <= 0 || regions == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return pools.select(regions, listingType, productType, minPrice, maxPrice,
+                    exclude != null ? exclude : Set.of(), limit, System.currentTimeMillis());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Build and incremental refresh
+    // ─────────────────────────────────────────────
+
+    /** Full rebuild from the database; the old pools keep serving until the swap. Never throws. */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            LocalDateTime startedAt = LocalDateTime.now();
+            Pools next = new Pools(freshPerBand);
+            Long afterId = 0L;
+            while (true) {
+                List<Long> ids = listingRepository.findVectorIndexIdsAfter(afterId, PageRequest.of(0, LOAD_PAGE));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                for (Listing listing : listingRepository.findWithAddressByListingIds(ids)) {
+                    if (listing.isPubliclyVisible()) {
+                        next.upsert(Entry.of(listing));
+                    }
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+            lock.writeLock().lock();
+            try {
+                pools = next;
+                watermark = startedAt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("region-pools: built {} listings in {} regions in {}ms",
+                    next.byId.size(), next.regions.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("region-pools: rebuild failed (non-fatal): {}", e.getMessage(), e);
+        }
+    }
+
+    /** Re-files listings changed since the last pass. No-op before the first build. Never throws. */
+    public void refreshChanged() {
+        if (!isReady()) {
+            return;
+        }
+        try {
+            LocalDateTime since = watermark.minusMinutes(WATERMARK_OVERLAP_MINUTES);
+            LocalDateTime newWatermark = watermark;
+            Long afterId = 0L;
+            int upserted = 0;
+            int removed = 0;
+            while (true) {
+                List<Object[]> rows = listingRepository.findIdsUpdatedSince(since, afterId, PageRequest.of(0, LOAD_PAGE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    ids.add((Long) row[0]);
+                }
+                Map<Long, Listing> loaded = new HashMap<>();
+                for (Listing listing : listingRepository.findWithAddressByListingIds(ids)) {
+                    loaded.put(listing.getListingId(), listing);
+                }
+                lock.writeLock().lock();
+                try {
+                    Pools current = pools;
+                    for (Long id : ids) {
+                        Listing listing = loaded.get(id);
+                        if (listing != null && listing.isPubliclyVisible()) {
+                            current.upsert(Entry.of(listing));
+                            upserted++;
+                        } else if (current.remove(id)) {
+                            removed++;
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                Object[] last = rows.get(rows.size() - 1);
+                since = (LocalDateTime) last[1];
+                afterId = (Long) last[0];
+                if (since.isAfter(newWatermark)) {
+                    newWatermark = since;
+                }
+            }
+            watermark = newWatermark;
+            if (upserted > 0 || removed > 0) {
+                log.debug("region-pools: refreshed {} listings, removed {}", upserted, removed);
+            }
+        } catch (Exception e) {
+            log.warn("region-pools: incremental refresh failed (non-fatal): {}", e.getMessage(), e);
+        }
+    }
+
+    static int band(double price) {
+        if (Double.isNaN(price) || price <= 0) {
+            return NO_PRICE_BAND;
+        }
+        return (int) Math.floor(Math.log(price) / Math.log(BAND_RATIO));
+    }
+
+    // ─────────────────────────────────────────────
+    // Storage
+    // ─────────────────────────────────────────────
+
+    /** The fields the channels filter and order on, detached from JPA. Price is NaN when unset, times 0. */
+    record Entry(long listingId, Listing.ListingType listingType, Listing.ProductType productType,
+                 double price, boolean vip, long pushedAt, long postDate, long expiresAt, String[] regions) {
+
+        static Entry of(Listing l) {
+            List<String> regions = new ArrayList<>(6);
+            for (String key : new String[] {
+                    newWard(l.getNewWardCode()), legacyWard(l.getLegacyWardId()), district(l.getLegacyDistrictId()),
+                    newProvince(l.getNewProvinceCode()), legacyProvince(l.getLegacyProvinceId()), GLOBAL}) {
+                if (key != null) {
+                    regions.add(key);
+                }
+            }
+            return new Entry(l.getListingId(), l.getListingType(), l.getProductType(),
+                    l.getPrice() != null ? l.getPrice().doubleValue() : Double.NaN,
+                    l.getVipType() != null && l.getVipType() != Listing.VipType.NORMAL,
+                    millis(l.getPushedAt()), millis(l.getPostDate()), millis(l.getExpiryDate()),
+                    regions.toArray(String[]::new));
+        }
+
+        boolean matches(Listing.ListingType wantedListingType, Listing.ProductType wantedProductType,
+                        Double minPrice, Double maxPrice, long nowMillis) {
+            if ((wantedListingType != null && listingType != wantedListingType)
+                    || (wantedProductType != null && productType != wantedProductType)
+                    || (expiresAt != 0L && expiresAt <= nowMillis)) {
+                return false;
+            }
+            if (minPrice == null && maxPrice == null) {
+                return true;
+            }
+            return !Double.isNaN(price)
+                    && (minPrice == null || price >= minPrice)
+                    && (maxPrice == null || price <= maxPrice);
+        }
+
+        private static long millis(LocalDateTime value) {
+            return value != null ? value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+        }
+    }
+
+    static final class Pools {
+        final int freshPerBand;
+        final Map<String, Region> regions = new HashMap<>();
+        final Map<Long, Entry> byId = new HashMap<>();
+
+        Pools(int freshPerBand) {
+            this.freshPerBand = freshPerBand;
+        }
+
+        void upsert(Entry e) {
+            remove(e.listingId());
+            byId.put(e.listingId(), e);
+            for (String key : e.regions()) {
+                regions.computeIfAbsent(key, k -> new Region()).add(e, freshPerBand);
+            }
+        }
+
+        /** K-way merge of every matching band across {@code regionKeys}, freshest first. */
+        List<Long> select(Collection<String> regionKeys, Listing.ListingType listingType,
+                          Listing.ProductType productType, Double minPrice, Double maxPrice,
+                          Set<Long> excluded, int limit, long nowMillis) {
+            PriorityQueue<Cursor> cursors = new PriorityQueue<>((a, b) -> FRESHEST_FIRST.compare(a.head, b.head));
+            for (String key : new HashSet<>(regionKeys)) {
+                Region region = key != null ? regions.get(key) : null;
+                if (region == null) {
+                    continue;
+                }
+                for (Band band : region.bandsWithin(minPrice, maxPrice)) {
+                    Cursor.offer(cursors, band.fresh.iterator());
+                    Cursor.offer(cursors, band.vip.iterator());
+                }
+            }
+            List<Long> ids = new ArrayList<>(Math.min(limit, 256));
+            Set<Long> seen = new HashSet<>();
+            while (!cursors.isEmpty() && ids.size() < limit) {
+                Cursor cursor = cursors.poll();
+                Entry e = cursor.head;
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+                if (e.matches(listingType, productType, minPrice, maxPrice, nowMillis)
+                        && !excluded.contains(e.listingId()) && seen.add(e.listingId())) {
+                    ids.add(e.listingId());
+                }
+            }
+            return ids;
+        }
+
+        boolean remove(long listingId) {
+            Entry old = byId.remove(listingId);
+            if (old == null) {
+                return false;
+            }
+            for (String key : old.regions()) {
+                Region region = regions.get(key);
+                if (region != null) {
+                    region.remove(old);
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class Region {
+        private final TreeMap<Integer, Band> bands = new TreeMap<>();
+
+        void add(Entry e, int freshPerBand) {
+            Band band = bands.computeIfAbsent(band(e.price()), k -> new Band());
+            if (e.vip()) {
+                band.vip.add(e);
+            } else {
+                band.fresh.add(e);
+                if (band.fresh.size() > freshPerBand) {
+                    band.fresh.pollLast();
+                }
+            }
+        }
+
+        void remove(Entry e) {
+            Band band = bands.get(band(e.price()));
+            if (band != null) {
+                band.fresh.remove(e);
+                band.vip.remove(e);
+            }
+        }
+
+        /** Every band when neither bound is set, otherwise the priced bands the window overlaps. */
+        Collection<Band> bandsWithin(Double minPrice, Double maxPrice) {
+            if (minPrice == null && maxPrice == null) {
+                return bands.values();
+            }
+            int from = minPrice != null && minPrice > 0 ? band(minPrice) : NO_PRICE_BAND + 1;
+            int to = maxPrice != null && maxPrice > 0 ? band(maxPrice) : Integer.MAX_VALUE;
+            if (from > to) {
+                return List.of();
+            }
+            NavigableMap<Integer, Band> window = bands.subMap(from, true, to, true);
+            return window.values();
+        }
+    }
+
+    static final class Band {
+        final TreeSet<Entry> fresh = new TreeSet<>(FRESHEST_FIRST);
+        final TreeSet<Entry> vip = new TreeSet<>(FRESHEST_FIRST);
+    }
+
+    /** One band's iterator in the k-way merge, positioned on its next entry. */
+    private static final class Cursor {
+        private final Iterator<Entry> rest;
+        private Entry head;
+
+        private Cursor(Iterator<Entry> rest) {
+            this.rest = rest;
+        }
+
+        static void offer(PriorityQueue<Cursor> queue, Iterator<Entry> iterator) {
+            Cursor cursor = new Cursor(iterator);
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+
+        boolean advance() {
+            if (!rest.hasNext()) {
+                return false;
+            }
+            head = rest.next();
+            return true;
+        }
+    }
+}
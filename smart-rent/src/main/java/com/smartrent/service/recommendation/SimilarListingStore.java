@@ -0,0 +1,286 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest;
+import com.smartrent.dto.response.RecommendationItemDto;
+import com.smartrent.infra.repository.ListingRepository;
+import com.smartrent.infra.repository.ListingSimilarItemsRepository;
+import com.smartrent.infra.repository.entity.Address;
+import com.smartrent.infra.repository.entity.Listing;
+import com.smartrent.infra.repository.entity.ListingSimilarItems;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Offline item-to-item similarity for {@code getSimilarListings}.
+ *
+ * <p>For each public listing, {@link #refreshStale} retrieves the same
+ * candidate channels the live path uses (same district, ±20% price, freshest
+ * in province), maps everything through {@link ListingFeatureExtractor} and
+ * ranks it with {@link ListingSimilarity}, then stores the best
+ * {@value #STORED_TOP_N} ids in {@code listing_similar_items}. The request
+ * path then only needs {@link #lookup} plus card hydration.
+ *
+ * <p>Refresh is incremental: a row is recomputed when the listing's
+ * {@code updated_at} moved past the version it was computed from, when it is
+ * missing, or when it is older than the max age (so newly posted listings
+ * enter their neighbours' lists within that window). None of these scans the
+ * catalog per tick: changes are read from a watermark on
+ * {@code listings.updated_at}, aged rows from the {@code computed_at} index,
+ * and missing rows by a primary-key sweep that runs once per max age. Each
+ * listing is recomputed in its own transaction, so one bad row never aborts
+ * the batch.
+ */
+@Slf4j
+@Service
+public class SimilarListingStore {
+
+    /** Ids kept per listing; more than any page size so hidden neighbours can be skipped at read time. */
+    static final int STORED_TOP_N = 40;
+    private static final int CANDIDATE_POOL = 200;
+    private static final int PROXIMITY_CANDIDATES = 150;
+    private static final int PRICE_CANDIDATES = 120;
+    private static final BigDecimal PRICE_BAND_LOW = BigDecimal.valueOf(0.8);
+    private static final BigDecimal PRICE_BAND_HIGH = BigDecimal.valueOf(1.2);
+    /** The change watermark trails the tick start by this much, for transactions committing late. */
+    private static final Duration CHANGE_OVERLAP = Duration.ofMinutes(1);
+    /** Per-tick budget over what ageing alone needs, left for edits, new listings and the backfill. */
+    private static final int BATCH_HEADROOM = 2;
+
+    private final ListingRepository listingRepository;
+    private final ListingSimilarItemsRepository similarItemsRepository;
+    private final ListingFeatureExtractor featureExtractor;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Listings changed at or after this are checked for a stale row; null before the first tick. */
+    private volatile LocalDateTime changedSince;
+    /** Primary-key cursor of the missing-row sweep. */
+    private volatile long missingAfterId;
+    /** When the next missing-row sweep may start; null before the first one. */
+    private volatile LocalDateTime nextMissingSweep;
+
+    public SimilarListingStore(ListingRepository listingRepository,
+                               ListingSimilarItemsRepository similarItemsRepository,
+                               ListingFeatureExtractor featureExtractor,
+                               PlatformTransactionManager transactionManager) {
+        this.listingRepository = listingRepository;
+        this.similarItemsRepository = similarItemsRepository;
+        this.featureExtractor = featureExtractor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Precomputed neighbours of {@code listingId}, best first, or empty when
+     * the listing has not been computed yet. Never throws.
+     */
+    public Optional<List<RecommendationItemDto>> lookup(Long listingId) {
+        try {
+            return similarItemsRepository.findById(listingId)
+                    .map(row -> decode(row.getSimilarItems()))
+                    .filter(items -> !items.isEmpty());
+        } catch (Exception e) {
+            log.warn("similar-precompute: lookup failed for listing {} (non-fatal): {}", listingId, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Recomputes one tick's worth of stale rows, in priority order: listings
+     * changed since the last tick, then missing rows, then the oldest rows.
+     * The budget is sized so the whole table turns over within
+     * {@code maxAge} at one call per {@code interval} (see
+     * {@link #batchSize}). Returns the number recomputed.
+     */
+    public int refreshStale(int minBatch, int maxBatch, Duration interval, Duration maxAge) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = changedSince != null ? changedSince : now.minus(maxAge);
+        int budget = batchSize(similarItemsRepository.count(), interval, maxAge, minBatch, maxBatch);
+
+        Integer pruned = transactionTemplate.execute(status ->
+                similarItemsRepository.deleteForListingsHiddenSince(since));
+        List<Long> changed = similarItemsRepository.findChangedListingIdsNeedingRefresh(since, budget);
+        Set<Long> ids = new LinkedHashSet<>(changed);
+
+        boolean sweep = nextMissingSweep == null || !now.isBefore(nextMissingSweep);
+        List<Long> missing = List.of();
+        int missingLimit = budget - ids.size();
+        if (sweep && missingLimit > 0) {
+            missing = similarItemsRepository.findMissingListingIdsAfter(missingAfterId, missingLimit);
+            ids.addAll(missing);
+        }
+        if (ids.size() < budget) {
+            ids.addAll(similarItemsRepository.findListingIdsComputedBefore(now.minus(maxAge), budget - ids.size()));
+        }
+
+        int refreshed = 0;
+        boolean changeFailed = false;
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> refresh(id));
+                refreshed++;
+            } catch (Exception e) {
+                changeFailed |= changed.contains(id);
+                log.warn("similar-precompute: listing {} failed (non-fatal): {}", id, e.getMessage(), e);
+            }
+        }
+
+        // Only move past changes that were all picked up and recomputed.
+        if (changed.size() < budget && !changeFailed) {
+            changedSince = now.minus(CHANGE_OVERLAP);
+        } else if (changedSince == null) {
+            changedSince = since;
+        }
+        if (sweep && missingLimit > 0) {
+            if (missing.size() < missingLimit) {
+                // Pass complete: also drop rows of deleted listings, which no watermark sees.
+                Integer orphaned = transactionTemplate.execute(status ->
+                        similarItemsRepository.deleteForNonPublicListings());
+                pruned = (pruned != null ? pruned : 0) + (orphaned != null ? orphaned : 0);
+                missingAfterId = 0;
+                nextMissingSweep = now.plus(maxAge);
+            } else {
+                missingAfterId = missing.get(missing.size() - 1);
+            }
+        }
+
+        if (refreshed > 0 || (pruned != null && pruned > 0)) {
+            log.info("similar-precompute: refreshed {} of {} stale listings (budget {}), pruned {}",
+                    refreshed, ids.size(), budget, pruned);
+        }
+        return refreshed;
+    }
+
+    /**
+     * Rows to recompute per tick: {@link #BATCH_HEADROOM} times the share of
+     * {@code rows} that must be refreshed each {@code interval} for all of
+     * them to stay younger than {@code maxAge}, within {@code [minBatch, maxBatch]}.
+     */
+    static int batchSize(long rows, Duration interval, Duration maxAge, int minBatch, int maxBatch) {
+        double perTick = (double) rows * interval.toMillis() / Math.max(1L, maxAge.toMillis());
+        long sized = (long) Math.ceil(perTick * BATCH_HEADROOM);
+        return (int) Math.max(minBatch, Math.min(maxBatch, sized));
+    }
+
+    private void refresh(Long listingId) {
+        Listing target = listingRepository.findByIdWithAddress(listingId).orElse(null);
+        if (target == null) {
+            return;
+        }
+        AIRecommendationRequest.ListingFeatureDto targetFeature = featureExtractor.toFeatureDto(target);
+        List<AIRecommendationRequest.ListingFeatureDto> candidates = new ArrayList<>();
+        for (Listing c : collectCandidates(target)) {
+            candidates.add(featureExtractor.toFeatureDto(c));
+        }
+        List<RecommendationItemDto> ranked = rank(targetFeature, candidates, STORED_TOP_N);
+        similarItemsRepository.save(ListingSimilarItems.builder()
+                .listingId(listingId)
+                .similarItems(encode(ranked))
+                .sourceUpdatedAt(target.getUpdatedAt())
+                .computedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /** Same channels and caps as the live getSimilarListings retrieval, run sequentially. */
+    private List<Listing> collectCandidates(Listing target) {
+        Long listingId = target.getListingId();
+        Address addr = target.getAddress();
+        Integer provinceId = addr != null ? addr.getLegacyProvinceId() : null;
+        String provinceCode = addr != null ? addr.getNewProvinceCode() : null;
+        Integer districtId = addr != null ? addr.getLegacyDistrictId() : null;
+
+        Map<Long, Listing> pool = new LinkedHashMap<>();
+        if (districtId != null) {
+            addAll(pool, listingRepository.findSimilarProximityCandidates(
+                    provinceCode, provinceId, districtId, target.getProductType(), target.getListingType(),
+                    listingId, PageRequest.of(0, PROXIMITY_CANDIDATES)));
+        }
+        if (target.getPrice() != null) {
+            addAll(pool, listingRepository.findSimilarPriceCandidates(
+                    provinceCode, provinceId,
+                    target.getPrice().multiply(PRICE_BAND_LOW), target.getPrice().multiply(PRICE_BAND_HIGH),
+                    target.getProductType(), target.getListingType(),
+                    listingId, PageRequest.of(0, PRICE_CANDIDATES)));
+        }
+        if (pool.size() < CANDIDATE_POOL) {
+            PageRequest page = PageRequest.of(0, CANDIDATE_POOL - pool.size());
+            if (provinceCode != null && !provinceCode.isEmpty() && !provinceCode.equals("UNKNOWN")) {
+                addAll(pool, listingRepository.findCandidatesForSimilarByNewProvince(
+                        provinceCode, target.getProductType(), target.getListingType(), listingId, page));
+            } else if (provinceId != null) {
+                addAll(pool, listingRepository.findCandidatesForSimilarByLegacyProvince(
+                        provinceId, target.getProductType(), target.getListingType(), listingId, page));
+            } else {
+                addAll(pool, listingRepository.findCandidatesForSimilarGlobal(
+                        target.getProductType(), target.getListingType(), listingId, page));
+            }
+        }
+        return new ArrayList<>(pool.values());
+    }
+
+    private static void addAll(Map<Long, Listing> pool, List<Listing> listings) {
+        for (Listing l : listings) {
+            if (pool.size() >= CANDIDATE_POOL) return;
+            pool.putIfAbsent(l.getListingId(), l);
+        }
+    }
+
+    /** Top {@code limit} candidates by {@link ListingSimilarity}, ties broken by listing id. */
+    static List<RecommendationItemDto> rank(AIRecommendationRequest.ListingFeatureDto target,
+                                            List<AIRecommendationRequest.ListingFeatureDto> candidates,
+                                            int limit) {
+        List<RecommendationItemDto> scored = new ArrayList<>(candidates.size());
+        for (AIRecommendationRequest.ListingFeatureDto c : candidates) {
+            if (c.getListingId() == null || c.getListingId().equals(target.getListingId())) continue;
+            double score = ListingSimilarity.score(target, c);
+            if (score <= 0.0) continue;
+            scored.add(RecommendationItemDto.builder()
+                    .listingId(c.getListingId()).score(score).cbfScore(score).build());
+        }
+        scored.sort(Comparator.comparingDouble(RecommendationItemDto::getScore).reversed()
+                .thenComparing(RecommendationItemDto::getListingId));
+        return scored.size() > limit ? new ArrayList<>(scored.subList(0, limit)) : scored;
+    }
+
+    static String encode(List<RecommendationItemDto> items) {
+        StringBuilder sb = new StringBuilder();
+        for (RecommendationItemDto item : items) {
+            if (!sb.isEmpty()) sb.append(',');
+            sb.append(item.getListingId()).append(':')
+                    .append(String.format(Locale.ROOT, "%.4f", item.getScore()));
+        }
+        return sb.toString();
+    }
+
+    static List<RecommendationItemDto> decode(String encoded) {
+        List<RecommendationItemDto> items = new ArrayList<>();
+        if (encoded == null || encoded.isBlank()) return items;
+        for (String pair : encoded.split(",")) {
+            int colon = pair.indexOf(':');
+            if (colon <= 0) continue;
+            try {
+                double score = Double.parseDouble(pair.substring(colon + 1));
+                items.add(RecommendationItemDto.builder()
+                        .listingId(Long.parseLong(pair.substring(0, colon)))
+                        .score(score).cbfScore(score).build());
+            } catch (NumberFormatException e) {
+                // Skip a corrupt pair rather than losing the whole row.
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,811 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest.ListingFeatureDto;
+import com.smartrent.infra.repository.ListingRepository;
+import com.smartrent.infra.repository.entity.Listing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user interaction profile for the personalized feed, kept in one Redis
+ * hash ({@code reco:profile:<userId>}) and updated as saves, phone clicks and
+ * views happen, so a feed miss reads one small hash instead of replaying the
+ * user's saved, clicked and recently-viewed histories.
+ *
+ * <p>The hash holds:
+ * <ul>
+ *   <li>{@code i:<listingId>} — last save / click / view time of each
+ *       interacted listing plus a snapshot of its location and price;</li>
+ *   <li>{@code v:p:<province>}, {@code v:d:<province>:<districtId>},
+ *       {@code v:w:<province>:<wardId>}, {@code v:c:<province>:<wardCode>} —
+ *       time-decayed preferred-location votes, ward and district votes scoped
+ *       to their province;</li>
+ *   <li>{@code b:w} / {@code b:wp} — decayed weight and weight×price sums,
+ *       i.e. the price band's weighted mean.</li>
+ * </ul>
+ *
+ * <p>Each listing votes with the strongest of its interactions, weighted by
+ * kind and halved every {@value #HALF_LIFE_DAYS} days. Votes use forward
+ * decay: an interaction at time {@code t} adds {@code w · 2^((t − epoch) / h)}
+ * and nothing is ever rescaled, because every vote would shrink by the same
+ * factor at read time and the argmax does not change. That is what lets an
+ * event update the votes with a few {@code HINCRBYFLOAT}s.
+ *
+ * <p>Event writes only touch profiles that already exist; a missing profile
+ * (new user, expired after {@code ttl-days} idle, Redis flushed) is rebuilt
+ * from the full histories on the next feed read via {@link #rebuild}. An
+ * event landing while a rebuild is reading those histories could be missing
+ * from them, so the rebuild flags itself ({@code reco:profile:building:<userId>})
+ * before reading, events seen under the flag are queued
+ * ({@code reco:profile:pending:<userId>}), and the rebuild replays the queue in
+ * the same MULTI that writes the hash, retrying if the queue grew meanwhile.
+ *
+ * <p>Inside a transaction, {@link #record} and {@link #forget} run after it
+ * commits, so a rolled-back save never reaches the profile and a rebuild
+ * never reads histories that do not contain the event yet.
+ */
+@Slf4j
+@Component
+public class UserInteractionProfileStore {
+
+    public enum Kind {
+        SAVE(3.0), PHONE_CLICK(2.5), VIEW(1.0);
+
+        private final double weight;
+
+        Kind(double weight) {
+            this.weight = weight;
+        }
+
+        public double weight() {
+            return weight;
+        }
+    }
+
+    /** One save / phone click / view of {@code listingId} at {@code atEpochMillis}. */
+    public record Interaction(Kind kind, Long listingId, long atEpochMillis) {}
+
+    static final String KEY_PREFIX = "reco:profile:";
+    static final String BUILDING_PREFIX = "reco:profile:building:";
+    static final String PENDING_PREFIX = "reco:profile:pending:";
+    static final String ITEM = "i:";
+    static final String VOTE_PROVINCE = "v:p:";
+    static final String VOTE_DISTRICT = "v:d:";
+    static final String VOTE_WARD_ID = "v:w:";
+    static final String VOTE_WARD_CODE = "v:c:";
+    static final String PRICE_WEIGHT = "b:w";
+    static final String PRICE_WEIGHTED_SUM = "b:wp";
+    static final String ITEM_COUNT = "m:n";
+    static final String BUILT_AT = "m:built";
+
+    // Renting is a bounded search: a user finds a place in ~2-4 weeks and stops,
+    // and when they come back months later their target area has often changed.
+    // 30 days leaves a 6-month-old save at ~1.5% of its original vote.
+    static final double HALF_LIFE_DAYS = 30.0;
+    private static final double HALF_LIFE_MILLIS = HALF_LIFE_DAYS * 24 * 60 * 60 * 1000;
+    /** Forward-decay origin (2025-01-01T00:00Z); any fixed instant works. */
+    private static final long DECAY_EPOCH_MILLIS = 1_735_689_600_000L;
+    private static final int MAX_WATCH_ATTEMPTS = 3;
+    /** Upper bound of a rebuild's history read; the flag expires on its own if the rebuild dies. */
+    private static final Duration BUILDING_TTL = Duration.ofSeconds(30);
+    private static final Duration PENDING_TTL = BUILDING_TTL.multipliedBy(2);
+
+    private enum Outcome { APPLIED, BUFFERED, NOT_BUILT, CONFLICT }
+
+    /** An event queued during a rebuild: an interaction, or the withdrawal of one ({@code forget}). */
+    record Pending(boolean forget, Interaction interaction) {
+
+        String encode() {
+            return (forget ? "-" : "+") + "|" + interaction.kind() + "|" + interaction.listingId()
+                    + "|" + interaction.atEpochMillis();
+        }
+
+        static Pending decode(String value) {
+            String[] parts = value != null ? value.split("\\|", -1) : new String[0];
+            if (parts.length != 4) {
+                return null;
+            }
+            try {
+                return new Pending(parts[0].equals("-"), new Interaction(
+                        Kind.valueOf(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3])));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    /** Result of one rebuild attempt: the hash written, or null when EXEC was aborted. */
+    private record Attempt(Map<String, String> hash) {}
+
+    private final StringRedisTemplate redisTemplate;
+    private final ListingRepository listingRepository;
+    private final ListingFeatureExtractor featureExtractor;
+    private final Duration ttl;
+    private final int maxItems;
+
+    public UserInteractionProfileStore(StringRedisTemplate redisTemplate,
+                                       ListingRepository listingRepository,
+                                       ListingFeatureExtractor featureExtractor,
+                                       @Value("${recommendation.profile.ttl-days:30}") long ttlDays,
+                                       @Value("${recommendation.profile.max-items:300}") int maxItems) {
+        this.redisTemplate = redisTemplate;
+        this.listingRepository = listingRepository;
+        this.featureExtractor = featureExtractor;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.maxItems = maxItems;
+    }
+
+    /** The stored profile, or empty when it has not been built (or Redis is unreachable). */
+    public Optional<Profile> load(String userId) {
+        try {
+            Map<Object, Object> raw = redisTemplate.opsForHash().entries(key(userId));
+            if (raw == null || raw.isEmpty()) {
+                return Optional.empty();
+            }
+            Map<String, String> hash = new HashMap<>(raw.size());
+            raw.forEach((k, v) -> hash.put(String.valueOf(k), String.valueOf(v)));
+            return Optional.of(Profile.parse(hash));
+        } catch (Exception e) {
+            log.warn("interaction-profile: load failed for user {} (non-fatal): {}", userId, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the profile with one computed from the user's full history,
+     * read from {@code history} after the profile is flagged as building, plus
+     * the events queued meanwhile, and returns it. The result is usable even
+     * when the Redis write fails.
+     */
+    public Profile rebuild(String userId, Supplier<List<Interaction>> history) {
+        String key = key(userId);
+        String buildingKey = BUILDING_PREFIX + userId;
+        String pendingKey = PENDING_PREFIX + userId;
+        try {
+            redisTemplate.opsForValue().set(buildingKey, "1", BUILDING_TTL);
+        } catch (Exception e) {
+            log.warn("interaction-profile: could not flag rebuild for user {} (non-fatal): {}",
+                    userId, e.getMessage(), e);
+        }
+        List<Interaction> interactions = history.get();
+        Map<Long, ListingFeatureDto> features = new HashMap<>(loadFeatures(interactions.stream()
+                .map(Interaction::listingId).filter(Objects::nonNull).collect(Collectors.toSet())));
+        long nowMillis = System.currentTimeMillis();
+        Map<String, String> hash = buildHash(interactions, features, maxItems, nowMillis);
+        try {
+            for (int attempt = 0; attempt < MAX_WATCH_ATTEMPTS; attempt++) {
+                Attempt result = redisTemplate.execute(new SessionCallback<Attempt>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Attempt execute(RedisOperations<K, V> operations) throws DataAccessException {
+                        RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                        ops.watch(pendingKey);
+                        List<Pending> pending = new ArrayList<>();
+                        for (String value : Objects.requireNonNullElse(
+                                ops.opsForList().range(pendingKey, 0, -1), List.<String>of())) {
+                            Pending event = Pending.decode(value);
+                            if (event != null) {
+                                pending.add(event);
+                            }
+                        }
+                        Set<Long> unseen = pending.stream().map(p -> p.interaction().listingId())
+                                .filter(id -> !features.containsKey(id)).collect(Collectors.toSet());
+                        features.putAll(loadFeatures(unseen));
+                        Map<String, String> next = buildHash(interactions, pending, features, maxItems, nowMillis);
+
+                        ops.multi();
+                        ops.delete(key);
+                        ops.opsForHash().putAll(key, next);
+                        ops.expire(key, ttl);
+                        ops.delete(pendingKey);
+                        ops.delete(buildingKey);
+                        List<Object> exec = ops.exec();
+                        return new Attempt(exec == null || exec.isEmpty() ? null : next);
+                    }
+                });
+                if (result != null && result.hash() != null) {
+                    return Profile.parse(result.hash());
+                }
+            }
+            log.warn("interaction-profile: rebuild gave up after {} conflicting events for user {}",
+                    MAX_WATCH_ATTEMPTS, userId);
+        } catch (Exception e) {
+            log.warn("interaction-profile: rebuild write failed for user {} (non-fatal): {}",
+                    userId, e.getMessage(), e);
+        }
+        return Profile.parse(hash);
+    }
+
+    /**
+     * Applies new interactions to an existing profile, or queues them for a
+     * rebuild in progress; after commit when called in a transaction. Never throws.
+     */
+    public void record(String userId, List<Interaction> interactions) {
+        if (userId == null || interactions == null || interactions.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            try {
+                Set<Long> listingIds = interactions.stream()
+                        .map(Interaction::listingId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
+                Map<Long, ListingFeatureDto> features = loadFeatures(listingIds);
+                List<String> pending = interactions.stream()
+                        .filter(i -> i.listingId() != null && i.kind() != null)
+                        .map(i -> new Pending(false, i).encode())
+                        .toList();
+                update(userId, listingIds, pending, items -> applyInteractions(items, interactions, features));
+            } catch (Exception e) {
+                log.warn("interaction-profile: record failed for user {} (non-fatal): {}", userId, e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Drops one kind of interaction (e.g. an unsave) from an existing profile,
+     * or queues it for a rebuild in progress; after commit when called in a
+     * transaction. Never throws.
+     */
+    public void forget(String userId, Long listingId, Kind kind) {
+        if (userId == null || listingId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            try {
+                update(userId, Set.of(listingId), List.of(new Pending(true, new Interaction(kind, listingId, 0L)).encode()),
+                        items -> {
+                            Item item = items.get(listingId);
+                            if (item != null) {
+                                items.put(listingId, item.without(kind));
+                            }
+                        });
+            } catch (Exception e) {
+                log.warn("interaction-profile: forget failed for user {} (non-fatal): {}", userId, e.getMessage(), e);
+            }
+        });
+    }
+
+    /** Runs {@code write} once the current transaction commits, or now outside one. */
+    private static void afterCommit(Runnable write) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write.run();
+                }
+            });
+        } else {
+            write.run();
+        }
+    }
+
+    /**
+     * Optimistic read-modify-write of the touched items: WATCH the hash, read
+     * those items, queue the new items and vote deltas in MULTI. A concurrent
+     * write to the same profile aborts EXEC and the update is retried. With no
+     * hash but a rebuild flagged, {@code pending} is queued for it instead; the
+     * rebuild writing the hash first aborts that EXEC too.
+     */
+    private void update(String userId, Collection<Long> listingIds, List<String> pending,
+                        Consumer<Map<Long, Item>> mutation) {
+        String key = key(userId);
+        String buildingKey = BUILDING_PREFIX + userId;
+        String pendingKey = PENDING_PREFIX + userId;
+        List<Object> fields = new ArrayList<>(listingIds.size() + 1);
+        for (Long id : listingIds) {
+            fields.add(ITEM + id);
+        }
+        fields.add(ITEM_COUNT);
+
+        for (int attempt = 0; attempt < MAX_WATCH_ATTEMPTS; attempt++) {
+            Outcome outcome = redisTemplate.execute(new SessionCallback<Outcome>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Outcome execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.watch(key);
+                    if (!Boolean.TRUE.equals(ops.hasKey(key))) {
+                        if (pending.isEmpty() || !Boolean.TRUE.equals(ops.hasKey(buildingKey))) {
+                            ops.unwatch();
+                            return Outcome.NOT_BUILT;
+                        }
+                        ops.multi();
+                        ops.opsForList().rightPushAll(pendingKey, pending);
+                        ops.expire(pendingKey, PENDING_TTL);
+                        List<Object> result = ops.exec();
+                        return result == null || result.isEmpty() ? Outcome.CONFLICT : Outcome.BUFFERED;
+                    }
+                    List<Object> current = ops.opsForHash().multiGet(key, fields);
+                    Map<Long, Item> before = new LinkedHashMap<>();
+                    int i = 0;
+                    for (Long id : listingIds) {
+                        Item item = Item.decode((String) current.get(i++));
+                        if (item != null) {
+                            before.put(id, item);
+                        }
+                    }
+                    long itemCount = parseLong((String) current.get(i));
+
+                    Map<Long, Item> after = new LinkedHashMap<>(before);
+                    mutation.accept(after);
+                    Changes changes = diff(before, after);
+                    long newCount = itemCount + changes.itemCountDelta();
+                    Map<Long, Item> evicted = newCount > maxItems
+                            ? pickEvictions(ops.opsForHash().entries(key), after.keySet(), (int) (newCount - maxItems))
+                            : Map.of();
+                    if (!evicted.isEmpty()) {
+                        Map<Long, Item> none = new HashMap<>();
+                        evicted.keySet().forEach(id -> none.put(id, Item.EMPTY));
+                        changes = changes.plus(diff(evicted, none));
+                    }
+
+                    ops.multi();
+                    HashOpsQueue queue = new HashOpsQueue(ops, key);
+                    changes.itemPuts().forEach((id, item) -> queue.put(ITEM + id, item.encode()));
+                    if (!changes.itemDeletes().isEmpty()) {
+                        queue.delete(changes.itemDeletes().stream().map(id -> ITEM + id).toArray());
+                    }
+                    changes.voteDeltas().forEach(queue::increment);
+                    if (changes.itemCountDelta() != 0) {
+                        queue.increment(ITEM_COUNT, changes.itemCountDelta());
+                    }
+                    ops.expire(key, ttl);
+                    List<Object> result = ops.exec();
+                    return result == null || result.isEmpty() ? Outcome.CONFLICT : Outcome.APPLIED;
+                }
+            });
+            if (outcome != Outcome.CONFLICT) {
+                return;
+            }
+        }
+        log.warn("interaction-profile: gave up after {} conflicting writes for user {}", MAX_WATCH_ATTEMPTS, userId);
+    }
+
+    private Map<Long, ListingFeatureDto> loadFeatures(Set<Long> listingIds) {
+        if (listingIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, ListingFeatureDto> features = new HashMap<>();
+        for (Listing listing : listingRepository.findWithAddressByListingIds(listingIds)) {
+            features.put(listing.getListingId(), featureExtractor.toFeatureDto(listing));
+        }
+        return features;
+    }
+
+    private static String key(String userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    // ─────────────────────────────────────────────
+    // Pure profile math (shared by rebuild and incremental updates)
+    // ─────────────────────────────────────────────
+
+    /** Full hash for {@code history}, keeping the {@code maxItems} strongest listings. */
+    static Map<String, String> buildHash(List<Interaction> history, Map<Long, ListingFeatureDto> features,
+                                         int maxItems, long nowMillis) {
+        return buildHash(history, List.of(), features, maxItems, nowMillis);
+    }
+
+    /** Full hash for {@code history} followed by the queued {@code pending} events, in order. */
+    static Map<String, String> buildHash(List<Interaction> history, List<Pending> pending,
+                                         Map<Long, ListingFeatureDto> features, int maxItems, long nowMillis) {
+        Map<Long, Item> items = new LinkedHashMap<>();
+        applyInteractions(items, history, features);
+        for (Pending event : pending) {
+            Interaction interaction = event.interaction();
+            if (!event.forget()) {
+                applyInteractions(items, List.of(interaction), features);
+            } else if (items.containsKey(interaction.listingId())) {
+                items.put(interaction.listingId(), items.get(interaction.listingId()).without(interaction.kind()));
+            }
+        }
+        items.values().removeIf(Item::isEmpty);
+        if (items.size() > maxItems) {
+            List<Long> weakest = items.entrySet().stream()
+                    .sorted(Comparator.comparingDouble((Map.Entry<Long, Item> e) -> e.getValue().strength()))
+                    .limit(items.size() - maxItems)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            weakest.forEach(items::remove);
+        }
+
+        Map<String, String> hash = new LinkedHashMap<>();
+        Map<String, Double> votes = new TreeMap<>();
+        items.forEach((id, item) -> {
+            hash.put(ITEM + id, item.encode());
+            item.addVotes(votes, item.strength());
+        });
+        votes.forEach((field, value) -> hash.put(field, Double.toString(value)));
+        hash.put(ITEM_COUNT, Integer.toString(items.size()));
+        hash.put(BUILT_AT, Long.toString(nowMillis));
+        return hash;
+    }
+
+    static void applyInteractions(Map<Long, Item> items, List<Interaction> interactions,
+                                  Map<Long, ListingFeatureDto> features) {
+        for (Interaction interaction : interactions) {
+            if (interaction.listingId() == null || interaction.kind() == null) {
+                continue;
+            }
+            Item current = items.getOrDefault(interaction.listingId(), Item.EMPTY);
+            ListingFeatureDto feature = features.get(interaction.listingId());
+            Item located = feature != null ? current.locatedAt(feature) : current;
+            items.put(interaction.listingId(), located.with(interaction.kind(), interaction.atEpochMillis()));
+        }
+    }
+
+    /** Item writes and vote deltas that turn {@code before} into {@code after}. */
+    static Changes diff(Map<Long, Item> before, Map<Long, Item> after) {
+        Map<Long, Item> puts = new LinkedHashMap<>();
+        List<Long> deletes = new ArrayList<>();
+        Map<String, Double> deltas = new TreeMap<>();
+        int countDelta = 0;
+        for (Map.Entry<Long, Item> entry : after.entrySet()) {
+            Item old = before.getOrDefault(entry.getKey(), Item.EMPTY);
+            Item next = entry.getValue() != null ? entry.getValue() : Item.EMPTY;
+            if (old.equals(next)) {
+                continue;
+            }
+            old.addVotes(deltas, -old.strength());
+            next.addVotes(deltas, next.strength());
+            if (next.isEmpty()) {
+                if (!old.isEmpty()) {
+                    deletes.add(entry.getKey());
+                    countDelta--;
+                }
+            } else {
+                puts.put(entry.getKey(), next);
+                if (old.isEmpty()) {
+                    countDelta++;
+                }
+            }
+        }
+        deltas.values().removeIf(d -> d == 0.0);
+        return new Changes(puts, deletes, deltas, countDelta);
+    }
+
+    /** The {@code count} weakest stored items, never one of {@code protectedIds}. */
+    private static Map<Long, Item> pickEvictions(Map<Object, Object> hash, Set<Long> protectedIds, int count) {
+        Map<Long, Item> stored = new HashMap<>();
+        hash.forEach((k, v) -> {
+            String field = String.valueOf(k);
+            if (!field.startsWith(ITEM)) return;
+            Long id = parseLongOrNull(field.substring(ITEM.length()));
+            Item item = Item.decode(String.valueOf(v));
+            if (id != null && item != null && !protectedIds.contains(id)) {
+                stored.put(id, item);
+            }
+        });
+        return stored.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<Long, Item> e) -> e.getValue().strength()))
+                .limit(count)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /** {@code weight · 2^((t − epoch) / halfLife)}; see the class comment. */
+    static double forwardDecayed(double weight, long atEpochMillis) {
+        return weight * Math.pow(2.0, (atEpochMillis - DECAY_EPOCH_MILLIS) / HALF_LIFE_MILLIS);
+    }
+
+    private static long parseLong(String value) {
+        Long parsed = parseLongOrNull(value);
+        return parsed != null ? parsed : 0L;
+    }
+
+    private static Long parseLongOrNull(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseIntOrNull(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    record Changes(Map<Long, Item> itemPuts, List<Long> itemDeletes, Map<String, Double> voteDeltas,
+                   int itemCountDelta) {
+        Changes plus(Changes other) {
+            Map<Long, Item> puts = new LinkedHashMap<>(itemPuts);
+            other.itemPuts.forEach(puts::put);
+            List<Long> deletes = new ArrayList<>(itemDeletes);
+            deletes.addAll(other.itemDeletes);
+            Map<String, Double> deltas = new TreeMap<>(voteDeltas);
+            other.voteDeltas.forEach((f, d) -> deltas.merge(f, d, Double::sum));
+            return new Changes(puts, deletes, deltas, itemCountDelta + other.itemCountDelta);
+        }
+    }
+
+    /** Queues hash commands inside MULTI without the generic noise at each call site. */
+    private record HashOpsQueue(RedisOperations<String, String> ops, String key) {
+        void put(String field, String value) {
+            ops.opsForHash().put(key, field, value);
+        }
+
+        void delete(Object... fields) {
+            ops.opsForHash().delete(key, fields);
+        }
+
+        void increment(String field, double delta) {
+            ops.opsForHash().increment(key, field, delta);
+        }
+
+        void increment(String field, long delta) {
+            ops.opsForHash().increment(key, field, delta);
+        }
+    }
+
+    /**
+     * One interacted listing: last save / click / view time (0 = never) and a
+     * location and price snapshot taken when it was first recorded.
+     */
+    record Item(long savedAt, long clickedAt, long viewedAt,
+                String provinceScope, Integer districtId, Integer wardId, String wardCode, Double price) {
+
+        static final Item EMPTY = new Item(0L, 0L, 0L, "", null, null, null, null);
+
+        boolean isEmpty() {
+            return savedAt <= 0 && clickedAt <= 0 && viewedAt <= 0;
+        }
+
+        Item with(Kind kind, long at) {
+            return switch (kind) {
+                case SAVE -> new Item(Math.max(savedAt, at), clickedAt, viewedAt,
+                        provinceScope, districtId, wardId, wardCode, price);
+                case PHONE_CLICK -> new Item(savedAt, Math.max(clickedAt, at), viewedAt,
+                        provinceScope, districtId, wardId, wardCode, price);
+                case VIEW -> new Item(savedAt, clickedAt, Math.max(viewedAt, at),
+                        provinceScope, districtId, wardId, wardCode, price);
+            };
+        }
+
+        Item without(Kind kind) {
+            return switch (kind) {
+                case SAVE -> new Item(0L, clickedAt, viewedAt, provinceScope, districtId, wardId, wardCode, price);
+                case PHONE_CLICK -> new Item(savedAt, 0L, viewedAt, provinceScope, districtId, wardId, wardCode, price);
+                case VIEW -> new Item(savedAt, clickedAt, 0L, provinceScope, districtId, wardId, wardCode, price);
+            };
+        }
+
+        /** Keeps the first snapshot so later events never move votes between places. */
+        Item locatedAt(ListingFeatureDto feature) {
+            if (!isEmpty()) {
+                return this;
+            }
+            String province = feature.getProvinceCode();
+            String scope = province == null || "UNKNOWN".equals(province) ? "" : province;
+            return new Item(savedAt, clickedAt, viewedAt, scope,
+                    feature.getDistrictId(), feature.getWardId(), feature.getNewWardCode(), feature.getPrice());
+        }
+
+        /** Strongest of this listing's interactions, forward-decayed. */
+        double strength() {
+            double best = 0.0;
+            if (savedAt > 0) best = Math.max(best, forwardDecayed(Kind.SAVE.weight(), savedAt));
+            if (clickedAt > 0) best = Math.max(best, forwardDecayed(Kind.PHONE_CLICK.weight(), clickedAt));
+            if (viewedAt > 0) best = Math.max(best, forwardDecayed(Kind.VIEW.weight(), viewedAt));
+            return best;
+        }
+
+        void addVotes(Map<String, Double> votes, double amount) {
+            if (amount == 0.0 || isEmpty()) {
+                return;
+            }
+            if (!provinceScope.isEmpty()) {
+                votes.merge(VOTE_PROVINCE + provinceScope, amount, Double::sum);
+            }
+            if (districtId != null) {
+                votes.merge(VOTE_DISTRICT + provinceScope + ':' + districtId, amount, Double::sum);
+            }
+            if (wardId != null) {
+                votes.merge(VOTE_WARD_ID + provinceScope + ':' + wardId, amount, Double::sum);
+            }
+            if (wardCode != null && !wardCode.isEmpty()) {
+                votes.merge(VOTE_WARD_CODE + provinceScope + ':' + wardCode, amount, Double::sum);
+            }
+            if (price != null && price > 0) {
+                votes.merge(PRICE_WEIGHT, amount, Double::sum);
+                votes.merge(PRICE_WEIGHTED_SUM, amount * price, Double::sum);
+            }
+        }
+
+        String encode() {
+            return savedAt + "," + clickedAt + "," + viewedAt + "," + provinceScope + ","
+                    + (districtId != null ? districtId : "") + "," + (wardId != null ? wardId : "") + ","
+                    + (wardCode != null ? wardCode : "") + "," + (price != null ? price : "");
+        }
+
+        static Item decode(String encoded) {
+            if (encoded == null || encoded.isEmpty()) {
+                return null;
+            }
+            String[] parts = encoded.split(",", -1);
+            if (parts.length != 8) {
+                return null;
+            }
+            Double price = null;
+            if (!parts[7].isEmpty()) {
+                try {
+                    price = Double.parseDouble(parts[7]);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            return new Item(parseLong(parts[0]), parseLong(parts[1]), parseLong(parts[2]), parts[3],
+                    parseIntOrNull(parts[4]), parseIntOrNull(parts[5]),
+                    parts[6].isEmpty() ? null : parts[6], price);
+        }
+    }
+
+    /** Read view of a stored profile. */
+    public static final class Profile {
+
+        private static final Profile EMPTY = new Profile(Map.of(), Map.of());
+
+        private final Map<Long, Item> items;
+        private final Map<String, Double> votes;
+
+        private Profile(Map<Long, Item> items, Map<String, Double> votes) {
+            this.items = items;
+            this.votes = votes;
+        }
+
+        public static Profile empty() {
+            return EMPTY;
+        }
+
+        static Profile parse(Map<String, String> hash) {
+            Map<Long, Item> items = new HashMap<>();
+            Map<String, Double> votes = new TreeMap<>();
+            hash.forEach((field, value) -> {
+                if (field.startsWith(ITEM)) {
+                    Long id = parseLongOrNull(field.substring(ITEM.length()));
+                    Item item = Item.decode(value);
+                    if (id != null && item != null && !item.isEmpty()) {
+                        items.put(id, item);
+                    }
+                } else if (field.startsWith("v:") || field.startsWith("b:")) {
+                    try {
+                        votes.put(field, Double.parseDouble(value));
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
+            });
+            return new Profile(items, votes);
+        }
+
+        /** Saved listings, most recently saved first. */
+        public List<Long> savedListingIds() {
+            return idsBy(Item::savedAt, Integer.MAX_VALUE);
+        }
+
+        /** Phone-clicked listings, most recently clicked first. */
+        public List<Long> clickedListingIds() {
+            return idsBy(Item::clickedAt, Integer.MAX_VALUE);
+        }
+
+        /** The {@code limit} most recent views, newest first, with their epoch-millis timestamps. */
+        public LinkedHashMap<Long, Long> recentViews(int limit) {
+            LinkedHashMap<Long, Long> views = new LinkedHashMap<>();
+            for (Long id : idsBy(Item::viewedAt, limit)) {
+                views.put(id, items.get(id).viewedAt());
+            }
+            return views;
+        }
+
+        public String preferredProvinceCode() {
+            return argmax(VOTE_PROVINCE, null, Function.identity());
+        }
+
+        /**
+         * The ward / district votes are scoped to {@code provinceCode} so the
+         * winners cannot land in a different province than the preferred one;
+         * a null scope counts every province.
+         */
+        public String preferredWardCode(String provinceCode) {
+            return argmax(VOTE_WARD_CODE, provinceCode, Function.identity());
+        }
+
+        public Integer preferredDistrictId(String provinceCode) {
+            return argmax(VOTE_DISTRICT, provinceCode, UserInteractionProfileStore::parseIntOrNull);
+        }
+
+        public Integer preferredWardId(String provinceCode) {
+            return argmax(VOTE_WARD_ID, provinceCode, UserInteractionProfileStore::parseIntOrNull);
+        }
+
+        /** Decay-weighted mean price of the interacted listings. */
+        public OptionalDouble averagePrice() {
+            double weight = votes.getOrDefault(PRICE_WEIGHT, 0.0);
+            double sum = votes.getOrDefault(PRICE_WEIGHTED_SUM, 0.0);
+            return weight > 0 && sum > 0 ? OptionalDouble.of(sum / weight) : OptionalDouble.empty();
+        }
+
+        private List<Long> idsBy(ToLongFunction<Item> timestamp, int limit) {
+            return items.entrySet().stream()
+                    .filter(e -> timestamp.applyAsLong(e.getValue()) > 0)
+                    .sorted(Comparator.comparingLong((Map.Entry<Long, Item> e) -> timestamp.applyAsLong(e.getValue()))
+                            .reversed()
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Highest-voted value under {@code prefix}. Incremental updates leave
+         * float residue on emptied fields, so only clearly positive votes
+         * count. Ties (identical timestamps) go to the smallest key.
+         */
+        private <T> T argmax(String prefix, String scope, Function<String, T> parser) {
+            Map<String, Double> totals = new TreeMap<>();
+            double floor = votes.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(prefix))
+                    .mapToDouble(Map.Entry::getValue)
+                    .max().orElse(0.0) * 1e-9;
+            for (Map.Entry<String, Double> entry : votes.entrySet()) {
+                String field = entry.getKey();
+                if (!field.startsWith(prefix) || entry.getValue() <= floor) {
+                    continue;
+                }
+                String rest = field.substring(prefix.length());
+                String value = rest;
+                if (!VOTE_PROVINCE.equals(prefix)) {
+                    int colon = rest.indexOf(':');
+                    if (colon < 0) continue;
+                    String fieldScope = rest.substring(0, colon);
+                    if (scope != null && !scope.equals(fieldScope)) continue;
+                    value = rest.substring(colon + 1);
+                }
+                totals.merge(value, entry.getValue(), Double::sum);
+            }
+            String best = null;
+            double bestScore = 0.0;
+            for (Map.Entry<String, Double> entry : totals.entrySet()) {
+                if (entry.getValue() > bestScore) {
+                    best = entry.getKey();
+                    bestScore = entry.getValue();
+                }
+            }
+            return best != null ? parser.apply(best) : null;
+        }
+
+        Map<String, Double> votes() {
+            return votes;
+        }
+    }
+}
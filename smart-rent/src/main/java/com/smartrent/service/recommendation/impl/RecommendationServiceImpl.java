@@ -4,15 +4,22 @@ import com.smartrent.dto.request.AIRecommendationRequest;
 import com.smartrent.dto.response.ListingResponse;
 import com.smartrent.dto.response.RecommendationItemDto;
 import com.smartrent.dto.response.RecommendationResponse;
-import com.smartrent.infra.connector.SmartRentAiConnector;
 import com.smartrent.infra.repository.ListingRepository;
 import com.smartrent.infra.repository.PhoneClickDetailRepository;
 import com.smartrent.infra.repository.SavedListingRepository;
 import com.smartrent.infra.repository.entity.Listing;
 import com.smartrent.infra.repository.entity.PhoneClickDetail;
 import com.smartrent.infra.repository.entity.SavedListing;
-import com.smartrent.infra.repository.AddressMappingRepository;
 import com.smartrent.service.listing.ListingService;
+import com.smartrent.service.recommendation.ListingFeatureExtractor;
+import com.smartrent.service.recommendation.ListingVectorIndex;
+import com.smartrent.service.recommendation.LocalRecommendationRanker;
+import com.smartrent.service.recommendation.RecommendationAiClient;
+import com.smartrent.service.recommendation.RecommendationMetrics;
+import com.smartrent.service.recommendation.RecommendationTrace;
+import com.smartrent.service.recommendation.RegionCandidatePools;
+import com.smartrent.service.recommendation.SimilarListingStore;
+import com.smartrent.service.recommendation.UserInteractionProfileStore;
 import com.smartrent.service.recommendation.RecommendationService;
 import com.smartrent.service.recentlyviewed.RecentlyViewedService;
 import lombok.AccessLevel;
@@ -37,42 +44,150 @@ public class RecommendationServiceImpl implements RecommendationService {
     SavedListingRepository savedListingRepository;
     PhoneClickDetailRepository phoneClickDetailRepository;
     RecentlyViewedService recentlyViewedService;
-    SmartRentAiConnector aiConnector;
+    RecommendationAiClient recommendationAiClient;
     ListingService listingService;
-    AddressMappingRepository addressMappingRepository;
+    ListingFeatureExtractor listingFeatureExtractor;
     com.smartrent.service.recommendation.RecommendationExecutor recommendationExecutor;
-
-    // Memoizes legacy→new address-mapping lookups (static reference data) to
-    // collapse the per-candidate N+1 in toFeatureDto when new codes are missing.
-    // Final + initialized → excluded from the @RequiredArgsConstructor.
-    Map<String, Optional<com.smartrent.infra.repository.entity.AddressMapping>> legacyMappingCache =
-            new java.util.concurrent.ConcurrentHashMap<>();
+    SimilarListingStore similarListingStore;
+    UserInteractionProfileStore interactionProfileStore;
+    ListingVectorIndex listingVectorIndex;
+    RecommendationMetrics recommendationMetrics;
+    RegionCandidatePools regionCandidatePools;
 
     // Intent strength per interaction type, shared by the CF weights sent to the AI
-    // and the location vote below.
-    private static final double SAVE_WEIGHT = 3.0;
-    private static final double PHONE_CLICK_WEIGHT = 2.5;
-    private static final double VIEW_WEIGHT = 1.0;
+    // and the location vote kept in the interaction profile.
+    private static final double SAVE_WEIGHT = UserInteractionProfileStore.Kind.SAVE.weight();
+    private static final double PHONE_CLICK_WEIGHT = UserInteractionProfileStore.Kind.PHONE_CLICK.weight();
+    private static final double VIEW_WEIGHT = UserInteractionProfileStore.Kind.VIEW.weight();
+
+    // Views considered per feed, same window as the recently-viewed ZSET
+    // (RecentlyViewedServiceImpl.MAX_LISTINGS).
+    private static final int RECENT_VIEW_WINDOW = 20;
+
+    // Vector-index retrieval: neighbours fetched per channel, and the pool size
+    // below which the index is considered too sparse and the SQL channels run.
+    private static final int VECTOR_SIMILAR_CANDIDATES = 200;
+    private static final int VECTOR_PREFERRED_CANDIDATES = 150;
+    private static final int VECTOR_DISCOVERY_CANDIDATES = 100;
+    private static final int VECTOR_MIN_POOL = 50;
+
+    private static final String RANKER_AI = "ai";
+    private static final String RANKER_LOCAL = "local";
+    private static final String RANKER_PRECOMPUTED = "precomputed";
 
-    // Half-life of an interaction's influence on the PREFERRED LOCATION vote.
-    // Renting is a bounded search: a user finds a place in ~2-4 weeks and stops,
-    // and when they come back months later their target area has often changed.
-    // 30 days leaves a 6-month-old save at ~1.5% of its original vote.
-    private static final double LOCATION_VOTE_HALF_LIFE_DAYS = 30.0;
+    // Profile price when the user has no priced interactions yet.
+    private static final double DEFAULT_AVERAGE_PRICE = 5000000.0;
 
     // ─────────────────────────────────────────────
     // PUBLIC: Similar Listings
     // ─────────────────────────────────────────────
 
     @Override
-    @org.springframework.cache.annotation.Cacheable(cacheNames = com.smartrent.config.Constants.CacheNames.LISTING_RECOMMENDATION_SIMILAR, key = "'listing:' + #listingId + ':topN:' + #topN + ':user:' + (#userId != null ? #userId : 'anonymous')", unless = "#result == null || #result.listings == null || #result.listings.isEmpty()")
+    @org.springframework.cache.annotation.Cacheable(cacheNames = com.smartrent.config.Constants.CacheNames.LISTING_RECOMMENDATION_SIMILAR, key = "'listing:' + #listingId + ':topN:' + #topN + ':user:' + (#userId != null ? #userId + ':v' + @recommendationCacheVersions.of(#userId) : 'anonymous')", unless = "#result == null || #result.listings == null || #result.listings.isEmpty() || #result.partial == true")
     public RecommendationResponse getSimilarListings(Long listingId, int topN, String userId) {
-        Listing target = listingRepository.findByIdWithAddress(listingId).orElse(null);
+        RecommendationTrace trace = recommendationMetrics.start("similar");
+        return recommendationMetrics.finish(trace, similarListings(listingId, topN, userId, trace));
+    }
+
+    private RecommendationResponse similarListings(Long listingId, int topN, String userId, RecommendationTrace trace) {
+        // Precomputed neighbours (SimilarListingPrecomputeScheduler) serve every
+        // caller; the live AI ranking below only runs for listings not yet computed.
+        RecommendationResponse precomputed = trace.stage("precomputed", () -> precomputedSimilar(listingId, topN));
+        if (precomputed != null) {
+            return precomputed;
+        }
+
+        Listing target = trace.stage("target", () -> listingRepository.findByIdWithAddress(listingId).orElse(null));
         if (target == null) {
             return emptyResponse("similar");
         }
 
-        long tStart = System.nanoTime();
+        // Nearest neighbours from the in-process index, else the channels from
+        // the region pools; the indexed SQL channels only run while both are
+        // building or the index is too sparse for this listing.
+        List<Listing> candidates = trace.stage("candidates", () -> {
+            List<Listing> vectorPool = vectorSimilarCandidates(listingId);
+            if (vectorPool != null) {
+                trace.count("vector", vectorPool.size());
+                return vectorPool;
+            }
+            if (regionCandidatePools.isReady()) {
+                return pooledSimilarCandidates(target, trace);
+            }
+            return sqlSimilarCandidates(target, trace);
+        });
+
+        if (candidates.isEmpty()) {
+            return emptyResponse("similar");
+        }
+
+        // Build user interaction signals (optional – null for anonymous, and
+        // dropped when the deadline has already passed)
+        long tInteractions = System.nanoTime();
+        List<AIRecommendationRequest.InteractionEntryDto> userInteractions = null;
+        Set<Long> seenIds = new HashSet<>();
+        if (userId != null && !trace.overBudget("interactions")) {
+            userInteractions = new ArrayList<>();
+            for (SavedListing s : savedListingRepository.findByUserIdOrderByCreatedAtDesc(userId)) {
+                userInteractions
+                        .add(new AIRecommendationRequest.InteractionEntryDto(userId, s.getId().getListingId(), 3.0));
+                seenIds.add(s.getId().getListingId());
+            }
+            for (Long lId : phoneClickDetailRepository.findListingIdsByUserId(userId)) {
+                userInteractions.add(new AIRecommendationRequest.InteractionEntryDto(userId, lId, 2.5));
+                seenIds.add(lId);
+            }
+            for (Long lId : recentlyViewedService.getRecentlyViewedIds(userId)) {
+                if (!seenIds.contains(lId)) {
+                    userInteractions.add(new AIRecommendationRequest.InteractionEntryDto(userId, lId, 1.0));
+                    seenIds.add(lId);
+                }
+            }
+        }
+
+        List<AIRecommendationRequest.ListingFeatureDto> interactionFeatures = null;
+        if (userId != null && !seenIds.isEmpty()) {
+            interactionFeatures = listingRepository.findWithAddressByListingIds(seenIds).stream()
+                    .map(this::toFeatureDto).collect(Collectors.toList());
+        }
+        trace.record("interactions", tInteractions);
+
+        long tFeatures = System.nanoTime();
+        AIRecommendationRequest.ListingFeatureDto targetFeature = toFeatureDto(target);
+        List<AIRecommendationRequest.ListingFeatureDto> candidateFeatures = candidates.stream()
+                .map(this::toFeatureDto).collect(Collectors.toList());
+        AIRecommendationRequest.SimilarListingAiRequest aiRequest = AIRecommendationRequest.SimilarListingAiRequest
+                .builder()
+                .target(targetFeature)
+                .candidates(candidateFeatures)
+                .top_n(topN)
+                .userInteractions(userInteractions)
+                .interactionFeatures(interactionFeatures)
+                .build();
+        trace.record("features", tFeatures);
+
+        // Past the deadline the local ranker is used instead of waiting on the AI,
+        // and before it the AI gets only what is left of the budget.
+        Optional<List<RecommendationItemDto>> result = trace.overBudget("ai")
+                ? Optional.empty()
+                : trace.stage("ai", () -> recommendationAiClient.getSimilarListings(aiRequest, trace.remainingMillis()));
+        if (result.isPresent()) {
+            return withRanker(trace.stage("hydrate", () -> buildResponse(result.get(),
+                    userId != null ? "similar_personalized" : "similar", false, false)), RANKER_AI);
+        }
+        List<RecommendationItemDto> fallback = trace.stage("local_rank",
+                () -> LocalRecommendationRanker.rankSimilar(targetFeature, candidateFeatures, topN));
+        return withRanker(trace.stage("hydrate", () -> buildResponse(fallback, "similar_fallback", false, false)),
+                RANKER_LOCAL);
+    }
+
+    /**
+     * Proximity, ±20% price and freshest-in-province channels, run in parallel
+     * and merged up to 200. Channels still running at the deadline are dropped
+     * and the top-up is skipped.
+     */
+    private List<Listing> sqlSimilarCandidates(Listing target, RecommendationTrace trace) {
+        Long listingId = target.getListingId();
         com.smartrent.infra.repository.entity.Address targetAddr = target.getAddress();
         Integer provinceId = (targetAddr != null) ? targetAddr.getLegacyProvinceId() : null;
         String provinceCode = (targetAddr != null) ? targetAddr.getNewProvinceCode() : null;
@@ -119,21 +234,18 @@ public class RecommendationServiceImpl implements RecommendationService {
                     }
                 });
 
-        List<Listing> candidates;
-        try {
-            java.util.concurrent.CompletableFuture.allOf(proximityFuture, priceFuture, freshFuture).join();
-
-            Set<Listing> candidateSet = new LinkedHashSet<>();
-            candidateSet.addAll(proximityFuture.get());
-            candidateSet.addAll(priceFuture.get());
-            candidateSet.addAll(freshFuture.get());
+        Set<Listing> candidateSet = new LinkedHashSet<>();
+        candidateSet.addAll(trace.await("proximity", proximityFuture, List.of()));
+        candidateSet.addAll(trace.await("price", priceFuture, List.of()));
+        candidateSet.addAll(trace.await("fresh", freshFuture, List.of()));
 
+        try {
             // Stage-2 Fallback Top-up if candidate pool is less than 120 (prevent candidate
             // starvation). Pool trimmed 300→200 for cold-start latency: on the 32MB
             // buffer pool, hydrating fewer candidates cuts the cold disk reads; 200 is
             // ample to rank a top-N feed. (Similar has no discovery-shift pinning, so
             // unlike the personalized feed it does not need a large fixed pool.)
-            if (candidateSet.size() < 120) {
+            if (candidateSet.size() < 120 && !trace.overBudget("topup")) {
                 int needed = 200 - candidateSet.size();
                 List<Listing> topUp;
                 if (provinceCode != null && !provinceCode.isEmpty() && !provinceCode.equals("UNKNOWN")) {
@@ -149,78 +261,242 @@ public class RecommendationServiceImpl implements RecommendationService {
                             target.getProductType(), target.getListingType(),
                             listingId, PageRequest.of(0, needed));
                 }
+                trace.count("topup", topUp.size());
                 candidateSet.addAll(topUp);
             }
-
-            candidates = candidateSet.stream()
-                    .limit(200)
-                    .collect(Collectors.toList());
         } catch (Exception e) {
-            log.error("Error executing parallel multi-channel retrieval for similar listings", e);
-            candidates = freshFuture.join();
+            log.warn("[Recommendation] similar candidate top-up failed (non-fatal): {}", e.getMessage(), e);
         }
+        return candidateSet.stream()
+                .limit(200)
+                .collect(Collectors.toList());
+    }
 
-        long tAfterCandidates = System.nanoTime();
-
-        if (candidates.isEmpty()) {
-            return emptyResponse("similar");
+    /**
+     * The channels of {@link #sqlSimilarCandidates} answered from the region
+     * pools, with the same limits and top-up. Only the final hydration of the
+     * chosen ids reads the database.
+     */
+    private List<Listing> pooledSimilarCandidates(Listing target, RecommendationTrace trace) {
+        com.smartrent.infra.repository.entity.Address targetAddr = target.getAddress();
+        Integer provinceId = (targetAddr != null) ? targetAddr.getLegacyProvinceId() : null;
+        String provinceCode = (targetAddr != null) ? targetAddr.getNewProvinceCode() : null;
+        Integer districtId = (targetAddr != null) ? targetAddr.getLegacyDistrictId() : null;
+        Listing.ListingType listingType = target.getListingType();
+        Listing.ProductType productType = target.getProductType();
+        String freshRegion = provinceCode != null && !provinceCode.isEmpty() && !provinceCode.equals("UNKNOWN")
+                ? RegionCandidatePools.newProvince(provinceCode)
+                : provinceId != null ? RegionCandidatePools.legacyProvince(provinceId) : RegionCandidatePools.GLOBAL;
+
+        Set<Long> excluded = Set.of(target.getListingId());
+        Set<Long> ids = new LinkedHashSet<>();
+        List<Long> proximity = regionCandidatePools.select(regions(RegionCandidatePools.district(districtId)),
+                listingType, productType, null, null, excluded, 150);
+        trace.count("proximity", proximity.size());
+        ids.addAll(proximity);
+        if (target.getPrice() != null) {
+            double price = target.getPrice().doubleValue();
+            List<Long> priced = regionCandidatePools.select(
+                    regions(RegionCandidatePools.newProvince(provinceCode), RegionCandidatePools.legacyProvince(provinceId)),
+                    listingType, productType, price * 0.8, price * 1.2, excluded, 120);
+            trace.count("price", priced.size());
+            ids.addAll(priced);
         }
+        List<Long> fresh = regionCandidatePools.select(List.of(freshRegion),
+                listingType, productType, null, null, excluded, 100);
+        trace.count("fresh", fresh.size());
+        ids.addAll(fresh);
+
+        if (ids.size() < 120) {
+            Set<Long> topUpExcluded = new HashSet<>(ids);
+            topUpExcluded.add(target.getListingId());
+            List<Long> topUp = regionCandidatePools.select(List.of(freshRegion),
+                    listingType, productType, null, null, topUpExcluded, 200 - ids.size());
+            trace.count("topup", topUp.size());
+            ids.addAll(topUp);
+        }
+        return hydrateInOrder(ids.stream().limit(200).toList());
+    }
 
-        // Build user interaction signals (optional – null for anonymous)
-        List<AIRecommendationRequest.InteractionEntryDto> userInteractions = null;
-        Set<Long> seenIds = new HashSet<>();
-        if (userId != null) {
-            userInteractions = new ArrayList<>();
-            for (SavedListing s : savedListingRepository.findByUserIdOrderByCreatedAtDesc(userId)) {
-                userInteractions
-                        .add(new AIRecommendationRequest.InteractionEntryDto(userId, s.getId().getListingId(), 3.0));
-                seenIds.add(s.getId().getListingId());
-            }
-            for (Long lId : phoneClickDetailRepository.findListingIdsByUserId(userId)) {
-                userInteractions.add(new AIRecommendationRequest.InteractionEntryDto(userId, lId, 2.5));
-                seenIds.add(lId);
-            }
-            for (Long lId : recentlyViewedService.getRecentlyViewedIds(userId)) {
-                if (!seenIds.contains(lId)) {
-                    userInteractions.add(new AIRecommendationRequest.InteractionEntryDto(userId, lId, 1.0));
-                    seenIds.add(lId);
-                }
+    /**
+     * The personalized channels answered from the region pools, with the same
+     * limits and top-up as the SQL path: preferred (150) and discovery (100)
+     * locality, ±20% of the profile price in the preferred province (200),
+     * freshest in the preferred province (100), then the global pool up to 300
+     * when fewer than 150 were found. {@code vectorPool}, when present, stands
+     * in for the locality and price channels as it does on the SQL path.
+     */
+    private List<Listing> pooledPersonalizedCandidates(List<Listing> vectorPool, Set<Long> interactedListingIds,
+                                                       Integer preferredDistrictId, String preferredWardCode,
+                                                       Integer preferredWardId, String preferredProvinceCode,
+                                                       Integer discoveryDistrictId, String discoveryWardCode,
+                                                       Integer discoveryWardId, double avgPrice,
+                                                       RecommendationTrace trace) {
+        Integer legacyProvinceId = null;
+        if (preferredProvinceCode != null) {
+            try {
+                legacyProvinceId = Integer.parseInt(preferredProvinceCode);
+            } catch (Exception ignored) {
             }
         }
+        List<Listing> candidates = new ArrayList<>(vectorPool != null ? vectorPool : List.of());
+        Set<Long> ids = new LinkedHashSet<>();
+        if (vectorPool != null) {
+            trace.count("vector", vectorPool.size());
+            vectorPool.forEach(l -> ids.add(l.getListingId()));
+        } else {
+            List<Long> proximity = new ArrayList<>(regionCandidatePools.select(
+                    regions(localityRegion(preferredDistrictId, preferredWardCode, preferredWardId)),
+                    null, null, null, null, interactedListingIds, 150));
+            proximity.addAll(regionCandidatePools.select(
+                    regions(localityRegion(discoveryDistrictId, discoveryWardCode, discoveryWardId)),
+                    null, null, null, null, interactedListingIds, 100));
+            trace.count("proximity", proximity.size());
+            ids.addAll(proximity);
+
+            List<Long> priced = regionCandidatePools.select(
+                    regions(RegionCandidatePools.newProvince(preferredProvinceCode),
+                            RegionCandidatePools.legacyProvince(legacyProvinceId)),
+                    null, null, avgPrice * 0.8, avgPrice * 1.2, interactedListingIds, 200);
+            trace.count("price", priced.size());
+            ids.addAll(priced);
+        }
 
-        List<AIRecommendationRequest.ListingFeatureDto> interactionFeatures = null;
-        if (userId != null && !seenIds.isEmpty()) {
-            interactionFeatures = listingRepository.findWithAddressByListingIds(seenIds).stream()
-                    .map(this::toFeatureDto).collect(Collectors.toList());
+        String freshRegion = preferredProvinceCode != null && !preferredProvinceCode.isEmpty()
+                && !preferredProvinceCode.equals("UNKNOWN")
+                ? RegionCandidatePools.newProvince(preferredProvinceCode)
+                : RegionCandidatePools.legacyProvince(legacyProvinceId);
+        List<Long> fresh = regionCandidatePools.select(regions(freshRegion),
+                null, null, null, null, interactedListingIds, 100);
+        trace.count("fresh", fresh.size());
+        ids.addAll(fresh);
+
+        if (ids.size() < 150) {
+            Set<Long> topUpExcluded = new HashSet<>(interactedListingIds);
+            topUpExcluded.addAll(ids);
+            List<Long> topUp = regionCandidatePools.select(List.of(RegionCandidatePools.GLOBAL),
+                    null, null, null, null, topUpExcluded, 300 - ids.size());
+            trace.count("topup", topUp.size());
+            ids.addAll(topUp);
         }
 
-        AIRecommendationRequest.SimilarListingAiRequest aiRequest = AIRecommendationRequest.SimilarListingAiRequest
-                .builder()
-                .target(toFeatureDto(target))
-                .candidates(candidates.stream().map(this::toFeatureDto).collect(Collectors.toList()))
-                .top_n(topN)
-                .userInteractions(userInteractions)
-                .interactionFeatures(interactionFeatures)
-                .build();
+        Set<Long> fromVector = new HashSet<>();
+        candidates.forEach(l -> fromVector.add(l.getListingId()));
+        List<Long> toLoad = ids.stream().filter(id -> !fromVector.contains(id)).limit(Math.max(0, 300L - candidates.size())).toList();
+        candidates.addAll(hydrateInOrder(toLoad));
+        return candidates.stream().limit(300).collect(Collectors.toList());
+    }
 
-        long tBeforeAi = System.nanoTime();
-        try {
-            List<RecommendationItemDto> result = aiConnector.getSimilarListings(aiRequest);
-            long tAfterAi = System.nanoTime();
-            log.info("[PerfTrace] similar listingId={} candidatePool={} | candidateRetrieval={}ms interactions+features={}ms feignAi={}ms total(soFar)={}ms",
-                    listingId, candidates.size(),
-                    (tAfterCandidates - tStart) / 1_000_000,
-                    (tBeforeAi - tAfterCandidates) / 1_000_000,
-                    (tAfterAi - tBeforeAi) / 1_000_000,
-                    (tAfterAi - tStart) / 1_000_000);
-            return buildResponse(result, userId != null ? "similar_personalized" : "similar", false, false);
-        } catch (Exception e) {
-            log.error("AI service error for similar listings (listingId={})", listingId, e);
-            List<RecommendationItemDto> fallback = candidates.stream().limit(topN)
-                    .map(c -> RecommendationItemDto.builder().listingId(c.getListingId()).score(0.0).build())
-                    .collect(Collectors.toList());
-            return buildResponse(fallback, "similar_fallback", true, false);
+    /** The SQL locality channel's choice: district, else new ward, else legacy ward. */
+    private static String localityRegion(Integer districtId, String wardCode, Integer wardId) {
+        if (districtId != null) {
+            return RegionCandidatePools.district(districtId);
+        }
+        if (wardCode != null && !wardCode.isEmpty()) {
+            return RegionCandidatePools.newWard(wardCode);
+        }
+        return RegionCandidatePools.legacyWard(wardId);
+    }
+
+    /**
+     * Up to 200 nearest listings of the same listing and product type from the
+     * vector index, nearest first. Null when the index is not ready or finds
+     * fewer than {@value #VECTOR_MIN_POOL}.
+     */
+    private List<Listing> vectorSimilarCandidates(Long listingId) {
+        List<Long> ids = listingVectorIndex.similarTo(listingId, VECTOR_SIMILAR_CANDIDATES, Set.of());
+        return hydrateVectorCandidates(ids);
+    }
+
+    /**
+     * Personalized candidates from the vector index: the neighbours of the
+     * user's weighted interaction centroid (the preferred-location and
+     * price-band channels in one query) plus the neighbours of the discovery
+     * listing. Null when the index is not ready or the pool is too small.
+     */
+    private List<Listing> vectorPersonalizedCandidates(Map<Long, Double> interactionWeights, Long discoveryListingId) {
+        Set<Long> exclude = interactionWeights.keySet();
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(
+                listingVectorIndex.nearestToInteractions(interactionWeights, VECTOR_PREFERRED_CANDIDATES, exclude));
+        if (discoveryListingId != null) {
+            ids.addAll(listingVectorIndex.nearestToInteractions(
+                    Map.of(discoveryListingId, 1.0), VECTOR_DISCOVERY_CANDIDATES, exclude));
+        }
+        return hydrateVectorCandidates(new ArrayList<>(ids));
+    }
+
+    /**
+     * Loads the indexed ids in rank order, dropping any that stopped being
+     * public since the index last saw them.
+     */
+    private List<Listing> hydrateVectorCandidates(List<Long> ids) {
+        if (ids.size() < VECTOR_MIN_POOL) {
+            return null;
         }
+        List<Listing> candidates = hydrateInOrder(ids);
+        return candidates.size() >= VECTOR_MIN_POOL ? candidates : null;
+    }
+
+    /** Loads {@code ids} in the given order, dropping any that are no longer public. */
+    private List<Listing> hydrateInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Listing> byId = listingRepository.findWithAddressByListingIds(ids).stream()
+                .collect(Collectors.toMap(Listing::getListingId, l -> l, (a, b) -> a));
+        List<Listing> candidates = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Listing l = byId.get(id);
+            if (l != null && l.isPubliclyVisible()) {
+                candidates.add(l);
+            }
+        }
+        return candidates;
+    }
+
+    private static List<String> regions(String... keys) {
+        List<String> regions = new ArrayList<>(keys.length);
+        for (String key : keys) {
+            if (key != null) {
+                regions.add(key);
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Hydrates the stored neighbour list in rank order, skipping neighbours
+     * that stopped displaying since the last refresh. Null when the listing
+     * has no stored row or none of its neighbours is displayable.
+     */
+    private RecommendationResponse precomputedSimilar(Long listingId, int topN) {
+        List<RecommendationItemDto> items = similarListingStore.lookup(listingId).orElse(null);
+        if (items == null) {
+            return null;
+        }
+        Set<Long> ids = items.stream().map(RecommendationItemDto::getListingId).collect(Collectors.toSet());
+        Map<Long, ListingResponse> listingMap = listingService.getDisplayingListingsByIds(ids).stream()
+                .collect(Collectors.toMap(ListingResponse::getListingId, l -> l, (a, b) -> a));
+        List<ListingResponse> finalList = new ArrayList<>();
+        for (RecommendationItemDto item : items) {
+            if (finalList.size() >= topN) break;
+            ListingResponse res = listingMap.get(item.getListingId());
+            if (res != null) {
+                res.setRecommendationScore(item.getScore());
+                res.setSimilarityScore(item.getCbfScore());
+                finalList.add(res);
+            }
+        }
+        if (finalList.isEmpty()) {
+            return null;
+        }
+        return RecommendationResponse.builder()
+                .listings(finalList)
+                .mode("similar_precomputed")
+                .totalReturned(finalList.size())
+                .coldStart(false)
+                .ranker(RANKER_PRECOMPUTED)
+                .build();
     }
 
     // ─────────────────────────────────────────────
@@ -228,59 +504,39 @@ public class RecommendationServiceImpl implements RecommendationService {
     // ─────────────────────────────────────────────
 
     @Override
-    @org.springframework.cache.annotation.Cacheable(cacheNames = com.smartrent.config.Constants.CacheNames.LISTING_RECOMMENDATION_PERSONALIZED, key = "'user:' + #userId + ':topN:' + #topN", unless = "#result == null || #result.listings == null || #result.listings.isEmpty()")
+    @org.springframework.cache.annotation.Cacheable(cacheNames = com.smartrent.config.Constants.CacheNames.LISTING_RECOMMENDATION_PERSONALIZED, key = "'user:' + #userId + ':v' + @recommendationCacheVersions.of(#userId) + ':topN:' + #topN", unless = "#result == null || #result.listings == null || #result.listings.isEmpty() || #result.partial == true")
     public RecommendationResponse getPersonalizedFeed(String userId, int topN) {
-        long tStart = System.nanoTime();
+        RecommendationTrace trace = recommendationMetrics.start("personalized");
+        return recommendationMetrics.finish(trace, personalizedFeed(userId, topN, trace));
+    }
+
+    private RecommendationResponse personalizedFeed(String userId, int topN, RecommendationTrace trace) {
         Map<Long, Double> interactionWeightMap = new LinkedHashMap<>();
 
-        // Age-decayed copy of the same signals, used ONLY for the preferred-location
-        // vote in step 3.1. Deliberately separate from interactionWeightMap, which
-        // feeds the AI's CF matrix and stays on the raw intent scale.
-        Map<Long, Double> locationVoteWeights = new LinkedHashMap<>();
-        LocalDateTime now = LocalDateTime.now();
-
-        List<SavedListing> savedListings = savedListingRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        long tAfterSaved = System.nanoTime();
-
-        // [listingId, lastClickedAt] rather than bare DISTINCT ids: the location
-        // vote needs a timestamp per listing to age it.
-        List<Object[]> clickRows = phoneClickDetailRepository.findListingIdsWithLastClickByUserId(userId);
-        List<Long> clickedListingIds = clickRows.stream()
-                .map(row -> (Long) row[0]).collect(Collectors.toList());
-        long tAfterClicks = System.nanoTime();
-
-        // IDs-only recency read (no full-DTO hydration): this path only needs the
-        // viewed listing IDs, their order and their view timestamps, so this skips
-        // the getDisplayingListingsByIds hydration of up to 20 listings that
-        // getRecentlyViewed() would run.
-        LinkedHashMap<Long, Long> viewedWithTimestamps =
-                recentlyViewedService.getRecentlyViewedIdsWithTimestamps(userId);
-        List<Long> viewedListingIds = new ArrayList<>(viewedWithTimestamps.keySet());
-        long tAfterViewed = System.nanoTime();
-
-        for (SavedListing s : savedListings) {
-            Long lId = s.getId().getListingId();
+        // One small Redis hash instead of the saved / clicked / recently-viewed
+        // histories; it is only rebuilt from those histories when missing.
+        UserInteractionProfileStore.Profile profile = trace.stage("profile", () -> loadInteractionProfile(userId));
+        List<Long> savedListingIds = profile.savedListingIds();
+        List<Long> clickedListingIds = profile.clickedListingIds();
+        List<Long> viewedListingIds = new ArrayList<>(profile.recentViews(RECENT_VIEW_WINDOW).keySet());
+
+        for (Long lId : savedListingIds) {
             interactionWeightMap.merge(lId, SAVE_WEIGHT, Math::max);
-            locationVoteWeights.merge(lId, SAVE_WEIGHT * recencyFactor(s.getCreatedAt(), now), Math::max);
         }
-        for (Object[] row : clickRows) {
-            Long lId = (Long) row[0];
+        for (Long lId : clickedListingIds) {
             interactionWeightMap.merge(lId, PHONE_CLICK_WEIGHT, Math::max);
-            locationVoteWeights.merge(lId,
-                    PHONE_CLICK_WEIGHT * recencyFactor(toLocalDateTime(row[1]), now), Math::max);
         }
-        for (Map.Entry<Long, Long> viewed : viewedWithTimestamps.entrySet()) {
-            interactionWeightMap.merge(viewed.getKey(), VIEW_WEIGHT, Math::max);
-            locationVoteWeights.merge(viewed.getKey(),
-                    VIEW_WEIGHT * recencyFactor(viewed.getValue(), now), Math::max);
+        for (Long lId : viewedListingIds) {
+            interactionWeightMap.merge(lId, VIEW_WEIGHT, Math::max);
         }
 
-        boolean hasEnoughInteractions = !savedListings.isEmpty() || !clickedListingIds.isEmpty()
+        boolean hasEnoughInteractions = !savedListingIds.isEmpty() || !clickedListingIds.isEmpty()
                 || viewedListingIds.size() >= 3;
         if (!hasEnoughInteractions) {
-            return getColdStartFeed(topN);
+            return getColdStartFeed(topN, trace);
         }
 
+        long tInteractions = System.nanoTime();
         List<AIRecommendationRequest.InteractionEntryDto> userInteractions = new ArrayList<>();
         for (Map.Entry<Long, Double> entry : interactionWeightMap.entrySet()) {
             userInteractions
@@ -308,39 +564,23 @@ public class RecommendationServiceImpl implements RecommendationService {
 
         List<AIRecommendationRequest.ListingFeatureDto> interactionFeatures = interactedListings.stream()
                 .map(this::toFeatureDto).collect(Collectors.toList());
-        long tAfterInteractions = System.nanoTime();
-        log.info("[PerfTrace] personalized interactions breakdown userId={} | saved={}ms clicks={}ms recentlyViewed={}ms featureExtract={}ms",
-                userId,
-                (tAfterSaved - tStart) / 1_000_000,
-                (tAfterClicks - tAfterSaved) / 1_000_000,
-                (tAfterViewed - tAfterClicks) / 1_000_000,
-                (tAfterInteractions - tAfterViewed) / 1_000_000);
+        trace.record("interactions", tInteractions);
+
+        long tZones = System.nanoTime();
 
         // 3. Location profiling
-        // 3.1 Find most frequent (preferred) locations.
-        // The ward/district/wardId lookups are scoped to the winning province on
+        // 3.1 Preferred location: the highest time-decayed vote in the profile.
+        // The ward/district/wardId votes are scoped to the winning province on
         // purpose. Picking each of them with an independent max-by-count lets them
         // land in DIFFERENT places when the counts are close — e.g. 3 views in
         // phuong Binh Duong (HCM) and 3 in Tuyen Quang yields province=HCM but
         // ward=Tuyen Quang, a zone no listing can ever match. Everything downstream
         // (isDifferentFromPreferred, preferredMatchLevel, the preferred-side
         // fallback query) then treats the whole feed as out-of-zone.
-        String preferredProvinceCode = dominantValue(interactionFeatures, locationVoteWeights,
-                f -> "UNKNOWN".equals(f.getProvinceCode()) ? null : f.getProvinceCode());
-
-        final String provinceScope = preferredProvinceCode;
-        List<AIRecommendationRequest.ListingFeatureDto> inPreferredProvince = provinceScope == null
-                ? interactionFeatures
-                : interactionFeatures.stream()
-                        .filter(f -> provinceScope.equals(f.getProvinceCode()))
-                        .collect(Collectors.toList());
-
-        String preferredWardCode = dominantValue(inPreferredProvince, locationVoteWeights,
-                AIRecommendationRequest.ListingFeatureDto::getNewWardCode);
-        Integer preferredDistrictId = dominantValue(inPreferredProvince, locationVoteWeights,
-                AIRecommendationRequest.ListingFeatureDto::getDistrictId);
-        Integer preferredWardId = dominantValue(inPreferredProvince, locationVoteWeights,
-                AIRecommendationRequest.ListingFeatureDto::getWardId);
+        String preferredProvinceCode = profile.preferredProvinceCode();
+        String preferredWardCode = profile.preferredWardCode(preferredProvinceCode);
+        Integer preferredDistrictId = profile.preferredDistrictId(preferredProvinceCode);
+        Integer preferredWardId = profile.preferredWardId(preferredProvinceCode);
 
         // 3.1.2 Calculate condition counts for Discovery Shift triggering.
         // Spec: shift only when the user has explored a NEW place — 3 views OR
@@ -360,8 +600,7 @@ public class RecommendationServiceImpl implements RecommendationService {
                         preferredProvinceCode, preferredDistrictId, preferredWardId, preferredWardCode))
                 .count();
 
-        long diffLocSaved = savedListings.stream()
-                .map(s -> s.getId().getListingId())
+        long diffLocSaved = savedListingIds.stream()
                 .filter(id -> isDifferentFromPreferred(featureById.get(id),
                         preferredProvinceCode, preferredDistrictId, preferredWardId, preferredWardCode))
                 .count();
@@ -392,8 +631,7 @@ public class RecommendationServiceImpl implements RecommendationService {
             }
         }
         if (latestListingId == null) {
-            for (SavedListing s : savedListings) {
-                Long id = s.getId().getListingId();
+            for (Long id : savedListingIds) {
                 if (isDifferentFromPreferred(featureById.get(id),
                         preferredProvinceCode, preferredDistrictId, preferredWardId, preferredWardCode)) {
                     latestListingId = id;
@@ -413,8 +651,8 @@ public class RecommendationServiceImpl implements RecommendationService {
         if (latestListingId == null) {
             if (!viewedListingIds.isEmpty()) {
                 latestListingId = viewedListingIds.get(0);
-            } else if (!savedListings.isEmpty()) {
-                latestListingId = savedListings.get(0).getId().getListingId();
+            } else if (!savedListingIds.isEmpty()) {
+                latestListingId = savedListingIds.get(0);
             } else if (!clickedListingIds.isEmpty()) {
                 latestListingId = clickedListingIds.get(0);
             }
@@ -440,77 +678,68 @@ public class RecommendationServiceImpl implements RecommendationService {
 
         final Integer finalDiscoveryDistrictId = discoveryDistrictId;
         final String finalDiscoveryWardCode = discoveryWardCode;
+        final String finalDiscoveryProvinceCode = discoveryProvinceCode;
         final Integer finalDiscoveryWardId = discoveryWardId;
 
-        // 4. Parallel Multi-channel candidate pool retrieval with over-fetching
-        java.util.concurrent.CompletableFuture<List<Listing>> proximityFuture = java.util.concurrent.CompletableFuture
-                .supplyAsync(() -> {
-                    List<Listing> list = new ArrayList<>();
-                    List<Long> threadExclusions = new ArrayList<>(interactedListingIds);
-                    if (threadExclusions.isEmpty())
-                        threadExclusions.add(-1L);
-
-                    // Preferred location (up to 150)
-                    if (preferredDistrictId != null) {
-                        list.addAll(listingRepository.findCandidatesByDistrict(
-                                preferredDistrictId, threadExclusions, PageRequest.of(0, 150)));
-                    } else if (preferredWardCode != null && !preferredWardCode.isEmpty()) {
-                        list.addAll(listingRepository.findCandidatesByNewWard(
-                                preferredWardCode, threadExclusions, PageRequest.of(0, 150)));
-                    } else if (preferredWardId != null) {
-                        list.addAll(listingRepository.findCandidatesByLegacyWard(
-                                preferredWardId, threadExclusions, PageRequest.of(0, 150)));
-                    }
-
-                    // Discovery shift location (up to 100)
-                    if (finalDiscoveryDistrictId != null) {
-                        list.addAll(listingRepository.findCandidatesByDistrict(
-                                finalDiscoveryDistrictId, threadExclusions, PageRequest.of(0, 100)));
-                    } else if (finalDiscoveryWardCode != null && !finalDiscoveryWardCode.isEmpty()) {
-                        list.addAll(listingRepository.findCandidatesByNewWard(
-                                finalDiscoveryWardCode, threadExclusions, PageRequest.of(0, 100)));
-                    } else if (finalDiscoveryWardId != null) {
-                        list.addAll(listingRepository.findCandidatesByLegacyWard(
-                                finalDiscoveryWardId, threadExclusions, PageRequest.of(0, 100)));
-                    }
-                    return list;
-                }, recommendationExecutor.pool());
-
-        java.util.concurrent.CompletableFuture<List<Listing>> priceFuture = java.util.concurrent.CompletableFuture
-                .supplyAsync(() -> {
-                    List<Long> threadExclusions = new ArrayList<>(interactedListingIds);
-                    if (threadExclusions.isEmpty())
-                        threadExclusions.add(-1L);
+        double avgPrice = profile.averagePrice().orElse(DEFAULT_AVERAGE_PRICE);
+        trace.record("zones", tZones);
 
-                    double avgPrice = interactionFeatures.stream()
-                            .mapToDouble(AIRecommendationRequest.ListingFeatureDto::getPrice)
-                            .average().orElse(5000000.0);
-                    java.math.BigDecimal minPrice = java.math.BigDecimal.valueOf(avgPrice * 0.8);
-                    java.math.BigDecimal maxPrice = java.math.BigDecimal.valueOf(avgPrice * 1.2);
+        // 4. Parallel Multi-channel candidate pool retrieval with over-fetching.
+        // When the vector index is ready, one centroid query plus one discovery
+        // query replace the proximity and price channels; when the region pools
+        // are ready, they answer the remaining channels without SQL.
+        long tCandidates = System.nanoTime();
+        List<Listing> vectorPool = vectorPersonalizedCandidates(interactionWeightMap, latestListingId);
+        List<Listing> candidates;
+        if (regionCandidatePools.isReady()) {
+            candidates = pooledPersonalizedCandidates(vectorPool, interactedListingIds,
+                    preferredDistrictId, preferredWardCode, preferredWardId, preferredProvinceCode,
+                    finalDiscoveryDistrictId, finalDiscoveryWardCode, finalDiscoveryWardId, avgPrice, trace);
+        } else {
+            java.util.concurrent.CompletableFuture<List<Listing>> proximityFuture = vectorPool != null
+                    ? java.util.concurrent.CompletableFuture.completedFuture(vectorPool)
+                    : java.util.concurrent.CompletableFuture.supplyAsync(() -> {
+                        List<Listing> list = new ArrayList<>();
+                        List<Long> threadExclusions = new ArrayList<>(interactedListingIds);
+                        if (threadExclusions.isEmpty())
+                            threadExclusions.add(-1L);
+
+                        // Preferred location (up to 150)
+                        if (preferredDistrictId != null) {
+                            list.addAll(listingRepository.findCandidatesByDistrict(
+                                    preferredDistrictId, threadExclusions, PageRequest.of(0, 150)));
+                        } else if (preferredWardCode != null && !preferredWardCode.isEmpty()) {
+                            list.addAll(listingRepository.findCandidatesByNewWard(
+                                    preferredWardCode, threadExclusions, PageRequest.of(0, 150)));
+                        } else if (preferredWardId != null) {
+                            list.addAll(listingRepository.findCandidatesByLegacyWard(
+                                    preferredWardId, threadExclusions, PageRequest.of(0, 150)));
+                        }
 
-                    Integer pId = null;
-                    if (preferredProvinceCode != null) {
-                        try {
-                            pId = Integer.parseInt(preferredProvinceCode);
-                        } catch (Exception ignored) {
+                        // Discovery shift location (up to 100)
+                        if (finalDiscoveryDistrictId != null) {
+                            list.addAll(listingRepository.findCandidatesByDistrict(
+                                    finalDiscoveryDistrictId, threadExclusions, PageRequest.of(0, 100)));
+                        } else if (finalDiscoveryWardCode != null && !finalDiscoveryWardCode.isEmpty()) {
+                            list.addAll(listingRepository.findCandidatesByNewWard(
+                                    finalDiscoveryWardCode, threadExclusions, PageRequest.of(0, 100)));
+                        } else if (finalDiscoveryWardId != null) {
+                            list.addAll(listingRepository.findCandidatesByLegacyWard(
+                                    finalDiscoveryWardId, threadExclusions, PageRequest.of(0, 100)));
                         }
-                    }
-                    return listingRepository.findPersonalizedPriceCandidates(
-                            preferredProvinceCode, pId, minPrice, maxPrice, threadExclusions, PageRequest.of(0, 200));
-                }, recommendationExecutor.pool());
+                        return list;
+                    }, recommendationExecutor.pool());
 
-        java.util.concurrent.CompletableFuture<List<Listing>> freshFuture = java.util.concurrent.CompletableFuture
-                .supplyAsync(() -> {
-                    List<Listing> list = new ArrayList<>();
-                    List<Long> threadExclusions = new ArrayList<>(interactedListingIds);
-                    if (threadExclusions.isEmpty())
-                        threadExclusions.add(-1L);
+            java.util.concurrent.CompletableFuture<List<Listing>> priceFuture = vectorPool != null
+                    ? java.util.concurrent.CompletableFuture.completedFuture(List.<Listing>of())
+                    : java.util.concurrent.CompletableFuture.supplyAsync(() -> {
+                        List<Long> threadExclusions = new ArrayList<>(interactedListingIds);
+                        if (threadExclusions.isEmpty())
+                            threadExclusions.add(-1L);
+
+                        java.math.BigDecimal minPrice = java.math.BigDecimal.valueOf(avgPrice * 0.8);
+                        java.math.BigDecimal maxPrice = java.math.BigDecimal.valueOf(avgPrice * 1.2);
 
-                    if (preferredProvinceCode != null && !preferredProvinceCode.isEmpty()
-                            && !preferredProvinceCode.equals("UNKNOWN")) {
-                        list.addAll(listingRepository.findCandidatesForPersonalizedByNewProvince(
-                                preferredProvinceCode, threadExclusions, PageRequest.of(0, 100)));
-                    } else {
                         Integer pId = null;
                         if (preferredProvinceCode != null) {
                             try {
@@ -518,77 +747,104 @@ public class RecommendationServiceImpl implements RecommendationService {
                             } catch (Exception ignored) {
                             }
                         }
-                        if (pId != null) {
-                            list.addAll(listingRepository.findCandidatesForPersonalizedByLegacyProvince(
-                                    pId, threadExclusions, PageRequest.of(0, 100)));
+                        return listingRepository.findPersonalizedPriceCandidates(
+                                preferredProvinceCode, pId, minPrice, maxPrice, threadExclusions, PageRequest.of(0, 200));
+                    }, recommendationExecutor.pool());
+
+            java.util.concurrent.CompletableFuture<List<Listing>> freshFuture = java.util.concurrent.CompletableFuture
+                    .supplyAsync(() -> {
+                        List<Listing> list = new ArrayList<>();
+                        List<Long> threadExclusions = new ArrayList<>(interactedListingIds);
+                        if (threadExclusions.isEmpty())
+                            threadExclusions.add(-1L);
+
+                        if (preferredProvinceCode != null && !preferredProvinceCode.isEmpty()
+                                && !preferredProvinceCode.equals("UNKNOWN")) {
+                            list.addAll(listingRepository.findCandidatesForPersonalizedByNewProvince(
+                                    preferredProvinceCode, threadExclusions, PageRequest.of(0, 100)));
+                        } else {
+                            Integer pId = null;
+                            if (preferredProvinceCode != null) {
+                                try {
+                                    pId = Integer.parseInt(preferredProvinceCode);
+                                } catch (Exception ignored) {
+                                }
+                            }
+                            if (pId != null) {
+                                list.addAll(listingRepository.findCandidatesForPersonalizedByLegacyProvince(
+                                        pId, threadExclusions, PageRequest.of(0, 100)));
+                            }
                         }
-                    }
-                    // No inline global top-up: the global pool query is a
-                    // full-table scan + filesort (no index covers its
-                    // public-visibility booleans + pushed_at/post_date sort), and
-                    // it dominated the cold-path latency. The stage-2 starvation
-                    // top-up below already fetches the global pool, but ONLY when
-                    // the combined proximity+price+province pool is < 150 — so the
-                    // common path (users with enough local candidates) no longer
-                    // pays for it.
-                    return list;
-                }, recommendationExecutor.pool());
-
-        List<Listing> candidates;
-        try {
-            java.util.concurrent.CompletableFuture.allOf(proximityFuture, priceFuture, freshFuture).join();
-
+                        // No inline global top-up: the global pool query is a
+                        // full-table scan + filesort (no index covers its
+                        // public-visibility booleans + pushed_at/post_date sort), and
+                        // it dominated the cold-path latency. The stage-2 starvation
+                        // top-up below already fetches the global pool, but ONLY when
+                        // the combined proximity+price+province pool is < 150 — so the
+                        // common path (users with enough local candidates) no longer
+                        // pays for it.
+                        return list;
+                    }, recommendationExecutor.pool());
+
+            // Channels still running at the deadline are dropped from this response.
             Set<Listing> candidateSet = new LinkedHashSet<>();
-            candidateSet.addAll(proximityFuture.get());
-            candidateSet.addAll(priceFuture.get());
-            candidateSet.addAll(freshFuture.get());
-
-            // Stage-2 Fallback Top-up if candidate pool is less than 150 (prevent candidate
-            // starvation)
-            if (candidateSet.size() < 150) {
-                int needed = 300 - candidateSet.size();
-                List<Long> threadExclusions = new ArrayList<>(interactedListingIds);
-                if (threadExclusions.isEmpty())
-                    threadExclusions.add(-1L);
-
-                List<Listing> topUp = listingRepository.findCandidatesForPersonalizedGlobal(
-                        threadExclusions, PageRequest.of(0, needed));
-                candidateSet.addAll(topUp);
+            candidateSet.addAll(trace.await(vectorPool != null ? "vector" : "proximity", proximityFuture, List.of()));
+            candidateSet.addAll(trace.await("price", priceFuture, List.of()));
+            candidateSet.addAll(trace.await("fresh", freshFuture, List.of()));
+
+            try {
+                // Stage-2 Fallback Top-up if candidate pool is less than 150 (prevent candidate
+                // starvation)
+                if (candidateSet.size() < 150 && !trace.overBudget("topup")) {
+                    int needed = 300 - candidateSet.size();
+                    List<Long> threadExclusions = new ArrayList<>(interactedListingIds);
+                    if (threadExclusions.isEmpty())
+                        threadExclusions.add(-1L);
+
+                    List<Listing> topUp = listingRepository.findCandidatesForPersonalizedGlobal(
+                            threadExclusions, PageRequest.of(0, needed));
+                    trace.count("topup", topUp.size());
+                    candidateSet.addAll(topUp);
+                }
+            } catch (Exception e) {
+                log.warn("[Recommendation] personalized candidate top-up failed (non-fatal): {}", e.getMessage(), e);
             }
 
             candidates = candidateSet.stream()
                     .limit(300)
                     .collect(Collectors.toList());
-        } catch (Exception e) {
-            log.error("Error executing parallel multi-channel retrieval for personalized feed", e);
-            candidates = freshFuture.join();
         }
-
-        long tAfterCandidates = System.nanoTime();
+        trace.record("candidates", tCandidates);
 
         if (candidates.isEmpty()) {
-            return getColdStartFeed(topN);
+            return getColdStartFeed(topN, trace);
         }
 
-        // 5. Build all_interactions for CF signal (recent global data)
+        // 5. Build all_interactions for CF signal (recent global data). The CF
+        // signal only refines the AI ranking, so it is skipped past the deadline.
+        long tCf = System.nanoTime();
         List<AIRecommendationRequest.InteractionEntryDto> allInteractions = new ArrayList<>(userInteractions);
-        try {
-            for (SavedListing sl : savedListingRepository.findRecentGlobalSavedListings(PageRequest.of(0, 500))) {
-                if (!sl.getId().getUserId().equals(userId)) {
-                    allInteractions.add(new AIRecommendationRequest.InteractionEntryDto(
-                            sl.getId().getUserId(), sl.getId().getListingId(), 3.0));
+        if (!trace.overBudget("cf")) {
+            try {
+                for (SavedListing sl : savedListingRepository.findRecentGlobalSavedListings(PageRequest.of(0, 500))) {
+                    if (!sl.getId().getUserId().equals(userId)) {
+                        allInteractions.add(new AIRecommendationRequest.InteractionEntryDto(
+                                sl.getId().getUserId(), sl.getId().getListingId(), 3.0));
+                    }
                 }
-            }
-            for (PhoneClickDetail pc : phoneClickDetailRepository.findRecentGlobalPhoneClicks(PageRequest.of(0, 500))) {
-                if (pc.getUser() != null && !pc.getUser().getUserId().equals(userId)) {
-                    allInteractions.add(new AIRecommendationRequest.InteractionEntryDto(
-                            pc.getUser().getUserId(), pc.getListing().getListingId(), 2.5));
+                for (PhoneClickDetail pc : phoneClickDetailRepository.findRecentGlobalPhoneClicks(PageRequest.of(0, 500))) {
+                    if (pc.getUser() != null && !pc.getUser().getUserId().equals(userId)) {
+                        allInteractions.add(new AIRecommendationRequest.InteractionEntryDto(
+                                pc.getUser().getUserId(), pc.getListing().getListingId(), 2.5));
+                    }
                 }
+            } catch (Exception e) {
+                log.warn("[Recommendation] Could not fetch global interactions for CF signal", e);
             }
-        } catch (Exception e) {
-            log.warn("[Recommendation] Could not fetch global interactions for CF signal", e);
         }
+        trace.record("cf", tCf);
 
+        long tFeatures = System.nanoTime();
         List<AIRecommendationRequest.ListingFeatureDto> distinctCandidates = new ArrayList<>();
         Set<Long> seenCandidateIds = new HashSet<>();
         for (Listing c : candidates) {
@@ -619,25 +875,45 @@ public class RecommendationServiceImpl implements RecommendationService {
                 .interactionFeatures(interactionFeatures)
                 .meetsShiftCondition(meetsShiftCondition)
                 .build();
+        trace.record("features", tFeatures);
 
         try {
-            long tBeforeAi = System.nanoTime();
-            List<RecommendationItemDto> result = aiConnector.getPersonalizedFeed(aiRequest);
-            long tAfterAi = System.nanoTime();
-            log.info("[PerfTrace] personalized userId={} candidatePool={} | interactions={}ms candidateRetrieval={}ms cfGlobal+features={}ms feignAi={}ms total(soFar)={}ms",
-                    userId, candidates.size(),
-                    (tAfterInteractions - tStart) / 1_000_000,
-                    (tAfterCandidates - tAfterInteractions) / 1_000_000,
-                    (tBeforeAi - tAfterCandidates) / 1_000_000,
-                    (tAfterAi - tBeforeAi) / 1_000_000,
-                    (tAfterAi - tStart) / 1_000_000);
+            // Past the request deadline the AI is not called at all; before it, the
+            // AI gets only what is left of the budget.
+            Optional<List<RecommendationItemDto>> aiResult = trace.overBudget("ai")
+                    ? Optional.empty()
+                    : trace.stage("ai", () -> recommendationAiClient.getPersonalizedFeed(aiRequest, trace.remainingMillis()));
+            String ranker = aiResult.isPresent() ? RANKER_AI : RANKER_LOCAL;
+            // AI unavailable, over budget or circuit open: rank the same pool
+            // locally. The discovery-shift pinning below applies either way.
+            long tRank = System.nanoTime();
+            List<RecommendationItemDto> ranked = aiResult.orElseGet(() -> LocalRecommendationRanker.rankPersonalized(
+                    distinctCandidates,
+                    new LocalRecommendationRanker.Zone(preferredProvinceCode, preferredDistrictId, preferredWardId,
+                            preferredWardCode),
+                    meetsShiftCondition
+                            ? new LocalRecommendationRanker.Zone(finalDiscoveryProvinceCode, finalDiscoveryDistrictId,
+                                    finalDiscoveryWardId, finalDiscoveryWardCode)
+                            : null,
+                    avgPrice, aiTopN));
+            if (aiResult.isEmpty()) {
+                trace.record("local_rank", tRank);
+            }
+            // Past the deadline only the page itself is hydrated: the over-fetch
+            // only feeds the discovery pinning, which backfills from the database.
+            List<RecommendationItemDto> result = ranked.size() > topN && trace.overBudget("overfetch")
+                    ? ranked.subList(0, topN)
+                    : ranked;
             // applyRanking=false: trust the AI service's hybrid score (which already
             // includes the tuned VIP + freshness boosts) instead of re-applying them
-            // here — re-applying double-counted VIP/freshness. Backend still owns the
-            // final feed assembly via discovery-shift pinning below.
-            RecommendationResponse response = buildResponse(result, "personalized", false, false);
+            // here — re-applying double-counted VIP/freshness. The local ranker
+            // includes the same boosts. Backend still owns the final feed assembly
+            // via discovery-shift pinning below.
+            RecommendationResponse response = withRanker(trace.stage("hydrate", () -> buildResponse(result,
+                    aiResult.isPresent() ? "personalized" : "personalized_fallback", false, false)), ranker);
 
             // Apply Discovery Shift slot pinning (Slots 8, 9, 10 for Discovery Zone)
+            long tPinning = System.nanoTime();
             boolean isShift = false;
             if (meetsShiftCondition) {
                 if (discoveryProvinceCode != null && preferredProvinceCode != null
@@ -964,11 +1240,12 @@ public class RecommendationServiceImpl implements RecommendationService {
                 response.setListings(new ArrayList<>(response.getListings().subList(0, topN)));
                 response.setTotalReturned(response.getListings().size());
             }
+            trace.record("pinning", tPinning);
 
             return response;
         } catch (Exception e) {
             log.error("[Recommendation] AI service error for personalized feed (userId={})", userId, e);
-            return getColdStartFeed(topN);
+            return getColdStartFeed(topN, trace);
         }
 
     }
@@ -977,13 +1254,18 @@ public class RecommendationServiceImpl implements RecommendationService {
     // Private Helpers
     // ─────────────────────────────────────────────
 
-    private RecommendationResponse getColdStartFeed(int topN) {
-        List<Listing> candidates = listingRepository.findCandidatesForPersonalizedGlobal(
-                List.of(-1L), PageRequest.of(0, Math.max(topN, 100)));
+    private RecommendationResponse getColdStartFeed(int topN, RecommendationTrace trace) {
+        List<Listing> candidates = trace.stage("cold_start", () -> listingRepository.findCandidatesForPersonalizedGlobal(
+                List.of(-1L), PageRequest.of(0, Math.max(topN, 100))));
         List<RecommendationItemDto> items = candidates.stream()
                 .map(c -> RecommendationItemDto.builder().listingId(c.getListingId()).score(0.0).build())
                 .collect(Collectors.toList());
-        return buildResponse(items, "cold_start", true, true);
+        return withRanker(trace.stage("hydrate", () -> buildResponse(items, "cold_start", true, true)), RANKER_LOCAL);
+    }
+
+    private RecommendationResponse withRanker(RecommendationResponse response, String ranker) {
+        response.setRanker(ranker);
+        return response;
     }
 
     private RecommendationResponse emptyResponse(String mode) {
@@ -1021,7 +1303,7 @@ public class RecommendationServiceImpl implements RecommendationService {
             for (RecommendationItemDto item : items) {
                 ListingResponse res = listingMap.get(item.getListingId());
                 if (res != null) {
-                    double adScore = vipScore(res.getVipType());
+                    double adScore = LocalRecommendationRanker.vipScore(res.getVipType());
                     double freshScore = freshnessScore(res);
                     double finalScore = (ALPHA * item.getScore()) + (BETA * adScore) + (GAMMA * freshScore);
                     res.setRecommendationScore(finalScore);
@@ -1053,99 +1335,54 @@ public class RecommendationServiceImpl implements RecommendationService {
                 .build();
     }
 
-    private double vipScore(String type) {
-        if (type == null)
-            return 0.2;
-        return switch (type.toUpperCase()) {
-            case "DIAMOND" -> 1.0;
-            case "GOLD" -> 0.7;
-            case "SILVER" -> 0.4;
-            default -> 0.2;
-        };
-    }
-
     private double freshnessScore(ListingResponse res) {
         LocalDateTime date = res.getPushedAt() != null ? res.getPushedAt() : res.getPostDate();
         if (date == null)
             return 0.0;
-        long days = ChronoUnit.DAYS.between(date, LocalDateTime.now());
-        return 1.0 / (1.0 + Math.max(0, days));
+        return LocalRecommendationRanker.freshnessScore(ChronoUnit.DAYS.between(date, LocalDateTime.now()));
     }
 
     /**
-     * Discovery-zone match precision for a candidate, computed on the Listing
-     * ENTITY via the same toFeatureDto representation used to derive the discovery
-     * values (new province/ward code + legacy district/ward id). Comparing like
-     * for like avoids the structure-dependent code mismatch in ListingResponse.
-     *
-     * @return 3 = ward, 2 = district, 1 = province, 0 = outside the discovery zone.
-     */
-    /**
-     * Highest-scoring non-null value across the interaction features, with ties
-     * broken in favour of the value the user has been browsing LONGER.
-     *
-     * <p>
-     * Each listing contributes its {@code weights} entry rather than a flat 1, so
-     * a save or a phone click outvotes a passing view, and a stale interaction
-     * outvotes nothing — see {@link #recencyFactor}. A listing missing from
-     * {@code weights} falls back to {@link #VIEW_WEIGHT} so it still counts.
-     *
-     * <p>
-     * {@code features} arrives newest-first, so a larger first-occurrence index
-     * means the value only shows up deeper in the history — that is the
-     * established preference, not the place currently being explored. Breaking
-     * ties towards it keeps an even split resolving to the old zone (which stays
-     * the preferred one, slots 1-7) and leaves the new zone as the discovery zone
-     * (slots 8-10), instead of depending on hash order.
+     * The user's interaction profile, rebuilt from the full saved / phone-click /
+     * recently-viewed histories when Redis has none (first feed, expired, flushed).
+     * Later saves, clicks and views update it in place. The histories are read
+     * by the store once the rebuild is flagged, so events landing meanwhile are
+     * replayed rather than lost.
      */
-    private <T> T dominantValue(List<AIRecommendationRequest.ListingFeatureDto> features,
-            Map<Long, Double> weights,
-            java.util.function.Function<AIRecommendationRequest.ListingFeatureDto, T> extractor) {
-        Map<T, Double> scores = new LinkedHashMap<>();
-        Map<T, Integer> firstIndex = new HashMap<>();
-        for (int i = 0; i < features.size(); i++) {
-            AIRecommendationRequest.ListingFeatureDto feature = features.get(i);
-            T value = extractor.apply(feature);
-            if (value == null) {
-                continue;
-            }
-            Double weight = weights.get(feature.getListingId());
-            scores.merge(value, weight != null ? weight : VIEW_WEIGHT, Double::sum);
-            firstIndex.putIfAbsent(value, i);
+    private UserInteractionProfileStore.Profile loadInteractionProfile(String userId) {
+        Optional<UserInteractionProfileStore.Profile> stored = interactionProfileStore.load(userId);
+        if (stored.isPresent()) {
+            return stored.get();
         }
-
-        T best = null;
-        double bestScore = Double.NEGATIVE_INFINITY;
-        int bestIndex = -1;
-        for (Map.Entry<T, Double> entry : scores.entrySet()) {
-            int index = firstIndex.get(entry.getKey());
-            double score = entry.getValue();
-            boolean tie = Math.abs(score - bestScore) < 1e-9;
-            if ((!tie && score > bestScore) || (tie && index > bestIndex)) {
-                best = entry.getKey();
-                bestScore = score;
-                bestIndex = index;
+        return interactionProfileStore.rebuild(userId, () -> {
+            long nowMillis = System.currentTimeMillis();
+            List<UserInteractionProfileStore.Interaction> history = new ArrayList<>();
+            for (SavedListing s : savedListingRepository.findByUserIdOrderByCreatedAtDesc(userId)) {
+                history.add(new UserInteractionProfileStore.Interaction(UserInteractionProfileStore.Kind.SAVE,
+                        s.getId().getListingId(), toEpochMillis(s.getCreatedAt(), nowMillis)));
             }
-        }
-        return best;
+            // [listingId, lastClickedAt] rather than bare DISTINCT ids: the location
+            // vote needs a timestamp per listing to age it.
+            for (Object[] row : phoneClickDetailRepository.findListingIdsWithLastClickByUserId(userId)) {
+                history.add(new UserInteractionProfileStore.Interaction(UserInteractionProfileStore.Kind.PHONE_CLICK,
+                        (Long) row[0], toEpochMillis(toLocalDateTime(row[1]), nowMillis)));
+            }
+            for (Map.Entry<Long, Long> viewed : recentlyViewedService.getRecentlyViewedIdsWithTimestamps(userId).entrySet()) {
+                long viewedAt = viewed.getValue() != null && viewed.getValue() > 0L ? viewed.getValue() : nowMillis;
+                history.add(new UserInteractionProfileStore.Interaction(UserInteractionProfileStore.Kind.VIEW,
+                        viewed.getKey(), viewedAt));
+            }
+            log.info("[Recommendation] rebuilt interaction profile for user={} from {} interactions",
+                    userId, history.size());
+            return history;
+        });
     }
 
-    /**
-     * Exponential time decay for an interaction's influence on the preferred-location
-     * vote: {@code 0.5 ^ (ageDays / LOCATION_VOTE_HALF_LIFE_DAYS)}.
-     *
-     * <p>
-     * Saves and phone clicks are read from the user's FULL history while recently
-     * viewed listings are bounded by a 20-entry Redis window. Without decay that
-     * asymmetry lets a finished rental search outvote the current one indefinitely,
-     * freezing the preferred ward on an area the user has already moved on from.
-     */
-    private double recencyFactor(LocalDateTime interactedAt, LocalDateTime now) {
-        if (interactedAt == null) {
-            return 1.0;
-        }
-        double ageDays = Math.max(0.0, ChronoUnit.MINUTES.between(interactedAt, now) / (60.0 * 24.0));
-        return Math.pow(0.5, ageDays / LOCATION_VOTE_HALF_LIFE_DAYS);
+    /** A missing timestamp counts as "now", i.e. no decay — same as before the profile existed. */
+    private long toEpochMillis(LocalDateTime value, long nowMillis) {
+        return value != null
+                ? value.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : nowMillis;
     }
 
     /**
@@ -1169,33 +1406,21 @@ public class RecommendationServiceImpl implements RecommendationService {
         return null;
     }
 
-    /** {@link #recencyFactor(LocalDateTime, LocalDateTime)} for the epoch-millis view timestamps from Redis. */
-    private double recencyFactor(Long viewedAtEpochMillis, LocalDateTime now) {
-        if (viewedAtEpochMillis == null || viewedAtEpochMillis <= 0L) {
-            return 1.0;
-        }
-        LocalDateTime viewedAt = LocalDateTime.ofInstant(
-                java.time.Instant.ofEpochMilli(viewedAtEpochMillis), java.time.ZoneId.systemDefault());
-        return recencyFactor(viewedAt, now);
-    }
-
+    /**
+     * Discovery-zone match precision for a candidate, computed on the Listing
+     * ENTITY via the same toFeatureDto representation used to derive the discovery
+     * values (new province/ward code + legacy district/ward id). Comparing like
+     * for like avoids the structure-dependent code mismatch in ListingResponse.
+     *
+     * @return 3 = ward, 2 = district, 1 = province, 0 = outside the discovery zone.
+     */
     private int discoveryMatchLevel(Listing listing, String discoveryProvinceCode,
             Integer discoveryDistrictId, Integer discoveryWardId, String discoveryWardCode) {
         if (listing == null) {
             return 0;
         }
-        AIRecommendationRequest.ListingFeatureDto f = toFeatureDto(listing);
-        if ((discoveryWardCode != null && discoveryWardCode.equals(f.getNewWardCode()))
-                || (discoveryWardId != null && discoveryWardId.equals(f.getWardId()))) {
-            return 3;
-        }
-        if (discoveryDistrictId != null && discoveryDistrictId.equals(f.getDistrictId())) {
-            return 2;
-        }
-        if (discoveryProvinceCode != null && discoveryProvinceCode.equals(f.getProvinceCode())) {
-            return 1;
-        }
-        return 0;
+        return new LocalRecommendationRanker.Zone(discoveryProvinceCode, discoveryDistrictId, discoveryWardId,
+                discoveryWardCode).matchLevel(toFeatureDto(listing));
     }
 
     private int preferredMatchLevel(Listing listing, String preferredProvinceCode,
@@ -1203,18 +1428,8 @@ public class RecommendationServiceImpl implements RecommendationService {
         if (listing == null) {
             return 0;
         }
-        AIRecommendationRequest.ListingFeatureDto f = toFeatureDto(listing);
-        if ((preferredWardCode != null && preferredWardCode.equals(f.getNewWardCode()))
-                || (preferredWardId != null && preferredWardId.equals(f.getWardId()))) {
-            return 3;
-        }
-        if (preferredDistrictId != null && preferredDistrictId.equals(f.getDistrictId())) {
-            return 2;
-        }
-        if (preferredProvinceCode != null && preferredProvinceCode.equals(f.getProvinceCode())) {
-            return 1;
-        }
-        return 0;
+        return new LocalRecommendationRanker.Zone(preferredProvinceCode, preferredDistrictId, preferredWardId,
+                preferredWardCode).matchLevel(toFeatureDto(listing));
     }
 
     /**
@@ -1247,69 +1462,7 @@ public class RecommendationServiceImpl implements RecommendationService {
     }
 
     private AIRecommendationRequest.ListingFeatureDto toFeatureDto(Listing listing) {
-        int daysAgo = 0;
-        LocalDateTime date = listing.getPushedAt() != null ? listing.getPushedAt() : listing.getPostDate();
-        if (date != null)
-            daysAgo = (int) ChronoUnit.DAYS.between(date, LocalDateTime.now());
-
-        String pCode = "UNKNOWN";
-        String wCode = null;
-        Integer dId = null;
-        Integer wId = null;
-
-        Double latitude = null;
-        Double longitude = null;
-
-        if (listing.getAddress() != null) {
-            var addr = listing.getAddress();
-            pCode = addr.getNewProvinceCode();
-            wCode = addr.getNewWardCode();
-            dId = addr.getLegacyDistrictId();
-            wId = addr.getLegacyWardId();
-            latitude = addr.getLatitude() != null ? addr.getLatitude().doubleValue() : null;
-            longitude = addr.getLongitude() != null ? addr.getLongitude().doubleValue() : null;
-
-            // Fallback: If new codes are missing, try to resolve from mapping
-            if (pCode == null || pCode.isEmpty()) {
-                if (addr.getLegacyProvinceId() != null && dId != null && wId != null) {
-                    String mapProv = String.format("%02d", addr.getLegacyProvinceId());
-                    String mapDist = String.format("%03d", dId);
-                    String mapWard = String.format("%05d", wId);
-                    var mappingOpt = legacyMappingCache.computeIfAbsent(
-                            mapProv + "|" + mapDist + "|" + mapWard,
-                            k -> addressMappingRepository.findBestByLegacyAddress(mapProv, mapDist, mapWard));
-                    if (mappingOpt.isPresent()) {
-                        pCode = mappingOpt.get().getNewProvinceCode();
-                        wCode = mappingOpt.get().getNewWardCode();
-                    }
-                }
-                // If still missing, fallback to legacy province ID
-                if (pCode == null || pCode.isEmpty()) {
-                    if (addr.getLegacyProvinceId() != null) {
-                        pCode = String.valueOf(addr.getLegacyProvinceId());
-                    } else {
-                        pCode = "UNKNOWN";
-                    }
-                }
-            }
-        }
-
-        return AIRecommendationRequest.ListingFeatureDto.builder()
-                .listingId(listing.getListingId())
-                .productType(listing.getProductType() != null ? listing.getProductType().name() : "ROOM")
-                .listingType(listing.getListingType() != null ? listing.getListingType().name() : "RENT")
-                .price(listing.getPrice() != null ? listing.getPrice().doubleValue() : 0.0)
-                .area(listing.getArea() != null ? listing.getArea() : 0.0)
-                .bedrooms(listing.getBedrooms() != null ? listing.getBedrooms() : 0)
-                .provinceCode(pCode)
-                .districtId(dId)
-                .wardId(wId)
-                .newWardCode(wCode)
-                .vipType(listing.getVipType() != null ? listing.getVipType().name() : "NORMAL")
-                .postDateDaysAgo(Math.max(0, daysAgo))
-                .latitude(latitude)
-                .longitude(longitude)
-                .build();
+        return listingFeatureExtractor.toFeatureDto(listing);
     }
 
     @lombok.AllArgsConstructor
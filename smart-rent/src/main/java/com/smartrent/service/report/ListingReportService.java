@@ -5,7 +5,9 @@ import com.smartrent.dto.request.ResolveReportRequest;
 import com.smartrent.dto.response.ListingReportResponse;
 import com.smartrent.dto.response.PageResponse;
 import com.smartrent.dto.response.ReportReasonResponse;
+import com.smartrent.enums.ReportStatus;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ListingReportService {
@@ -37,6 +39,11 @@ public interface ListingReportService {
      */
     PageResponse<ListingReportResponse> getAllReports(String status, int page, int size);
 
+    /**
+     * Stream all reports, optionally filtered by status (null means all), to {@code out} as CSV (Admin only)
+     */
+    void exportReportsCsv(ReportStatus status, OutputStream out);
+
     /**
      * Get a specific report by ID (Admin only)
      */
@@ -27,6 +27,7 @@ import com.smartrent.mapper.ListingReportMapper;
 import com.smartrent.infra.connector.model.EmailInfo;
 import com.smartrent.infra.connector.model.EmailRequest;
 import com.smartrent.service.email.EmailService;
+import com.smartrent.service.export.CsvStreamExporter;
 import com.smartrent.service.moderation.ListingModerationService;
 import com.smartrent.service.notification.NotificationService;
 import com.smartrent.utility.ModerationEmailBuilder;
@@ -41,9 +42,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -51,6 +57,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ListingReportServiceImpl implements ListingReportService {
 
+    private static final String[] REPORT_CSV_HEADER = {"Report ID", "Listing ID", "Reporter Name", "Reporter Phone",
+            "Reporter Email", "Category", "Reasons", "Other Feedback", "Status", "Resolution Action", "Resolved By",
+            "Resolved At", "Admin Notes", "Created At"};
+
     private final ReportReasonRepository reportReasonRepository;
     private final ListingReportRepository listingReportRepository;
     private final ListingRepository listingRepository;
@@ -60,6 +70,7 @@ public class ListingReportServiceImpl implements ListingReportService {
     private final EmailService emailService;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final CsvStreamExporter csvStreamExporter;
 
     @NonFinal
     @Value("${application.email.sender.email}")
@@ -222,6 +233,46 @@ public class ListingReportServiceImpl implements ListingReportService {
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportReportsCsv(ReportStatus status, OutputStream out) {
+        log.info("Admin exporting reports - status: {}", status);
+
+        csvStreamExporter.export((ListingReport last, int size) -> listingReportRepository.findPageByStatus(status,
+                last != null ? last.getReportId() : null, PageRequest.of(0, size)), out, REPORT_CSV_HEADER, (chunk, csv) -> {
+            // Resolving admins for the whole chunk in one query
+            Set<String> adminIds = chunk.stream()
+                    .map(ListingReport::getResolvedBy)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Map<String, Admin> admins = adminIds.isEmpty()
+                    ? Collections.emptyMap()
+                    : adminRepository.findAllById(adminIds).stream()
+                            .collect(Collectors.toMap(Admin::getAdminId, Function.identity()));
+
+            for (ListingReport report : chunk) {
+                Admin admin = report.getResolvedBy() != null ? admins.get(report.getResolvedBy()) : null;
+                String reasons = report.getReportReasons() == null ? null : report.getReportReasons().stream()
+                        .map(ReportReason::getReasonText)
+                        .collect(Collectors.joining("; "));
+                csv.row(report.getReportId(),
+                        report.getListingId(),
+                        report.getReporterName(),
+                        report.getReporterPhone(),
+                        report.getReporterEmail(),
+                        report.getCategory(),
+                        reasons,
+                        report.getOtherFeedback(),
+                        report.getStatus(),
+                        report.getResolutionAction(),
+                        admin != null ? admin.getFirstName() + " " + admin.getLastName() : report.getResolvedBy(),
+                        report.getResolvedAt(),
+                        report.getAdminNotes(),
+                        report.getCreatedAt());
+            }
+        });
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ListingReportResponse getReportById(Long reportId) {
@@ -0,0 +1,18 @@
+package com.smartrent.service.retention;
+
+/**
+ * Retention of the high-volume telemetry tables: raw rows are rolled up and
+ * then deleted (or compacted) once older than their table's retention.
+ */
+public interface RetentionService {
+
+    /**
+     * Sweeps every enabled {@link RetentionTable}, each within the per-run
+     * batch limit. Returns the number of rows deleted (or, in dry-run mode,
+     * that would have been).
+     */
+    long sweepAll();
+
+    /** Sweeps one table; see {@link #sweepAll()}. */
+    long sweep(RetentionTable table);
+}
@@ -0,0 +1,102 @@
+package com.smartrent.service.retention;
+
+import com.smartrent.service.analytics.EngagementRollupService;
+import com.smartrent.service.engagement.EngagementCounters;
+
+/**
+ * The telemetry tables under retention (see V128).
+ *
+ * <p>Rows are only deleted once the rollup named by {@link #rollupName()} has
+ * passed them, so every count they contributed survives in an aggregate. The
+ * two search tables are rolled up by the retention sweep itself, one day at a
+ * time through {@link #dailyRollup()} over {@code [?1, ?2)}; views and phone
+ * clicks are covered by the hourly engagement rollup. Phone clicks are
+ * compacted rather than purged: an expired click is only deleted when a later
+ * click by the same user on the same listing exists, so "who clicked" and
+ * "my clicked listings" keep working on the survivors.
+ */
+public enum RetentionTable {
+
+    SEARCH_QUERY_IMPRESSIONS("search_query_impressions", "created_at", "search_query_daily", 1,
+            "INSERT INTO search_query_daily (stat_date, query_norm, impressions, zero_result_impressions) "
+                    + "SELECT DATE(s.created_at), s.query_norm, COUNT(*), "
+                    + "SUM(CASE WHEN s.suggestion_count = 0 THEN 1 ELSE 0 END) "
+                    + "FROM search_query_impressions s WHERE s.created_at >= ?1 AND s.created_at < ?2 "
+                    + "GROUP BY DATE(s.created_at), s.query_norm",
+            null),
+
+    /** Kept past the 7-day window of the POPULAR_QUERY suggestions. */
+    SEARCH_SUGGESTION_CLICKS("search_suggestion_clicks", "created_at", "search_suggestion_click_daily", 8,
+            "INSERT INTO search_suggestion_click_daily (stat_date, suggestion_type, suggestion_text, clicks) "
+                    + "SELECT DATE(s.created_at), s.suggestion_type, s.suggestion_text, COUNT(*) "
+                    + "FROM search_suggestion_clicks s WHERE s.created_at >= ?1 AND s.created_at < ?2 "
+                    + "GROUP BY DATE(s.created_at), s.suggestion_type, s.suggestion_text",
+            null),
+
+    /** Kept past the sliding windows seeded by {@link EngagementCounters}. */
+    VIEWS("views", "viewed_at", EngagementRollupService.ROLLUP_NAME, EngagementCounters.WINDOW_DAYS + 1,
+            null,
+            null),
+
+    PHONE_CLICKS("phone_clicks", "clicked_at", EngagementRollupService.ROLLUP_NAME, EngagementCounters.WINDOW_DAYS + 1,
+            null,
+            "EXISTS (SELECT 1 FROM phone_clicks n WHERE n.listing_id = t.listing_id AND n.user_id = t.user_id "
+                    + "AND (n.clicked_at > t.clicked_at OR (n.clicked_at = t.clicked_at AND n.id > t.id)))");
+
+    private final String tableName;
+    private final String timeColumn;
+    private final String rollupName;
+    private final int minRetentionDays;
+    private final String dailyRollup;
+    private final String compactionCondition;
+
+    RetentionTable(String tableName, String timeColumn, String rollupName, int minRetentionDays,
+                   String dailyRollup, String compactionCondition) {
+        this.tableName = tableName;
+        this.timeColumn = timeColumn;
+        this.rollupName = rollupName;
+        this.minRetentionDays = minRetentionDays;
+        this.dailyRollup = dailyRollup;
+        this.compactionCondition = compactionCondition;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public String timeColumn() {
+        return timeColumn;
+    }
+
+    /** Row in {@code rollup_watermarks} whose watermark bounds what may be deleted. */
+    public String rollupName() {
+        return rollupName;
+    }
+
+    /** Lower bound of the configured retention, protecting the live readers of the raw rows. */
+    public int minRetentionDays() {
+        return minRetentionDays;
+    }
+
+    /**
+     * {@code INSERT … SELECT} of the daily aggregate over {@code [?1, ?2)}, or
+     * null when the table is rolled up elsewhere. The aggregate table is the
+     * {@link #rollupName()}, keyed by {@code stat_date}.
+     */
+    public String dailyRollup() {
+        return dailyRollup;
+    }
+
+    /**
+     * Extra condition on an expired row (aliased {@code t}) for it to be
+     * deleted, or null when every expired row is.
+     */
+    public String compactionCondition() {
+        return compactionCondition;
+    }
+
+    /** Row in {@code rollup_watermarks} recording before when raw rows may be missing. */
+    public String horizonName() {
+        return "retention:" + tableName;
+    }
+}
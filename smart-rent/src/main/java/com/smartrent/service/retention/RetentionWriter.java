@@ -0,0 +1,164 @@
+package com.smartrent.service.retention;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The statements of a retention sweep over one {@link RetentionTable}, each
+ * in its own short transaction.
+ *
+ * <p>Deletion walks the primary key: a batch is the next {@code size} ids
+ * after the cursor, of which the expired ones are selected and then deleted
+ * by id. Selecting first keeps the DELETE a plain primary-key lookup (MySQL
+ * does not allow a DELETE to read its own table in a subquery) and bounds the
+ * rows and locks of every transaction.
+ */
+@Component
+public class RetentionWriter {
+
+    /** The ids {@code (afterId, lastId]} of a batch, and the oldest row time among them. */
+    public record Window(long lastId, LocalDateTime oldest) {}
+
+    /** One range partition; {@code upperBound} is null for {@code MAXVALUE}. */
+    public record Partition(String name, LocalDate upperBound) {}
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Recomputes the daily aggregate of {@code table} for the days in
+     * {@code [from, to)}; returns the number of aggregate rows written.
+     */
+    @Transactional
+    public int rollUpDays(RetentionTable table, LocalDate from, LocalDate to) {
+        entityManager.createNativeQuery(
+                        "DELETE FROM " + table.rollupName() + " WHERE stat_date >= ?1 AND stat_date < ?2")
+                .setParameter(1, from)
+                .setParameter(2, to)
+                .executeUpdate();
+        return entityManager.createNativeQuery(table.dailyRollup())
+                .setParameter(1, from.atStartOfDay())
+                .setParameter(2, to.atStartOfDay())
+                .executeUpdate();
+    }
+
+    /** The day of the oldest row of {@code table}, or null when it is empty. */
+    @Transactional(readOnly = true)
+    public LocalDate earliestDate(RetentionTable table) {
+        Object first = entityManager.createNativeQuery(
+                        "SELECT MIN(" + table.timeColumn() + ") FROM " + table.tableName())
+                .getSingleResult();
+        return first != null ? toDateTime(first).toLocalDate() : null;
+    }
+
+    /** The next batch of at most {@code size} ids after {@code afterId}, or null past the last row. */
+    @Transactional(readOnly = true)
+    public Window window(RetentionTable table, long afterId, int size) {
+        Object[] row = (Object[]) entityManager.createNativeQuery(
+                        "SELECT MAX(w.id), MIN(w.row_time) FROM ("
+                                + "SELECT t.id, t." + table.timeColumn() + " AS row_time FROM " + table.tableName() + " t "
+                                + "WHERE t.id > ?1 ORDER BY t.id LIMIT ?2) w")
+                .setParameter(1, afterId)
+                .setParameter(2, size)
+                .getSingleResult();
+        if (row[0] == null) {
+            return null;
+        }
+        return new Window(((Number) row[0]).longValue(), row[1] != null ? toDateTime(row[1]) : null);
+    }
+
+    /**
+     * Deletes the rows of {@code (afterId, lastId]} older than {@code cutoff}
+     * (and matching the table's compaction condition); with {@code dryRun}
+     * they are only counted. Returns the number of rows affected.
+     */
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public int purge(RetentionTable table, long afterId, long lastId, LocalDateTime cutoff, boolean dryRun) {
+        String sql = "SELECT t.id FROM " + table.tableName() + " t "
+                + "WHERE t.id > ?1 AND t.id <= ?2 AND t." + table.timeColumn() + " < ?3"
+                + (table.compactionCondition() != null ? " AND " + table.compactionCondition() : "");
+        List<Number> ids = entityManager.createNativeQuery(sql)
+                .setParameter(1, afterId)
+                .setParameter(2, lastId)
+                .setParameter(3, cutoff)
+                .getResultList();
+        if (ids.isEmpty() || dryRun) {
+            return ids.size();
+        }
+        // Ids come from the table itself, so they are inlined rather than bound one by one.
+        return entityManager.createNativeQuery("DELETE FROM " + table.tableName() + " WHERE id IN ("
+                        + ids.stream().map(id -> Long.toString(id.longValue())).collect(Collectors.joining(",")) + ")")
+                .executeUpdate();
+    }
+
+    /** The range partitions of {@code table} in order, or an empty list when it is not partitioned. */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Partition> partitions(RetentionTable table) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT p.PARTITION_NAME, p.PARTITION_DESCRIPTION FROM information_schema.PARTITIONS p "
+                                + "WHERE p.TABLE_SCHEMA = DATABASE() AND p.TABLE_NAME = ?1 "
+                                + "AND p.PARTITION_NAME IS NOT NULL ORDER BY p.PARTITION_ORDINAL_POSITION")
+                .setParameter(1, table.tableName())
+                .getResultList();
+        List<Partition> partitions = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            partitions.add(new Partition((String) row[0], parseBound((String) row[1])));
+        }
+        return partitions;
+    }
+
+    /** Drops whole partitions, with their rows. */
+    @Transactional
+    public void dropPartitions(RetentionTable table, List<String> names) {
+        entityManager.createNativeQuery("ALTER TABLE " + table.tableName()
+                        + " DROP PARTITION " + String.join(", ", names))
+                .executeUpdate();
+    }
+
+    /**
+     * Splits {@code p_future} into one monthly partition per bound (each
+     * holding the month before its bound) followed by a new {@code p_future}.
+     */
+    @Transactional
+    public void addMonthlyPartitions(RetentionTable table, List<LocalDate> bounds) {
+        String monthly = bounds.stream()
+                .map(bound -> "PARTITION " + partitionName(bound)
+                        + " VALUES LESS THAN ('" + bound + "')")
+                .collect(Collectors.joining(", "));
+        entityManager.createNativeQuery("ALTER TABLE " + table.tableName()
+                        + " REORGANIZE PARTITION p_future INTO ("
+                        + monthly + ", PARTITION p_future VALUES LESS THAN (MAXVALUE))")
+                .executeUpdate();
+    }
+
+    /** {@code p<yyyyMM>} of the month ending at {@code bound}. */
+    static String partitionName(LocalDate bound) {
+        return "p" + bound.minusMonths(1).format(PARTITION_SUFFIX);
+    }
+
+    /** Parses a RANGE COLUMNS description such as {@code '2026-11-01'} or {@code MAXVALUE}. */
+    static LocalDate parseBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").trim().substring(0, 10));
+    }
+
+    private static LocalDateTime toDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
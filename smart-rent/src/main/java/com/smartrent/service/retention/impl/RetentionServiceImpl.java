@@ -0,0 +1,262 @@
+package com.smartrent.service.retention.impl;
+
+import com.smartrent.config.RetentionProperties;
+import com.smartrent.infra.repository.RetentionCursorRepository;
+import com.smartrent.infra.repository.RollupWatermarkRepository;
+import com.smartrent.infra.repository.entity.RetentionCursor;
+import com.smartrent.infra.repository.entity.RollupWatermark;
+import com.smartrent.service.retention.RetentionService;
+import com.smartrent.service.retention.RetentionTable;
+import com.smartrent.service.retention.RetentionWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Watermark-bounded driver of {@link RetentionWriter}. Per table, a sweep:
+ * <ol>
+ *   <li>closes finished days into the table's daily rollup, if it has one;</li>
+ *   <li>takes as cutoff the earlier of {@code now - retention-days} and the
+ *       rollup watermark, so no row is deleted before it is counted;</li>
+ *   <li>on a partitioned table, drops the partitions wholly before the cutoff
+ *       and splits {@code p_future} so the coming months have their own;</li>
+ *   <li>deletes the remaining expired rows in keyset batches from the table's
+ *       cursor, pausing between batches, up to {@code max-batches-per-run}.</li>
+ * </ol>
+ * Ids follow insertion time, so a batch whose oldest row is not expired ends
+ * the pass and the cursor starts over. The cutoff is also recorded as the
+ * table's horizon in {@code rollup_watermarks}, below which the raw rows are
+ * incomplete and must not be rolled up again.
+ *
+ * <p>Progress is published as {@code retention.rows.deleted} and
+ * {@code retention.batches} (tagged {@code table} and {@code dry_run}),
+ * {@code retention.partitions.dropped} and the {@code retention.sweep} timer.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class RetentionServiceImpl implements RetentionService {
+
+    private static final String ROWS_METRIC = "retention.rows.deleted";
+    private static final String BATCHES_METRIC = "retention.batches";
+    private static final String PARTITIONS_METRIC = "retention.partitions.dropped";
+    private static final String SWEEP_METRIC = "retention.sweep";
+
+    RetentionWriter retentionWriter;
+    RetentionCursorRepository retentionCursorRepository;
+    RollupWatermarkRepository rollupWatermarkRepository;
+    RetentionProperties properties;
+    MeterRegistry meterRegistry;
+
+    @Override
+    public long sweepAll() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        long deleted = 0;
+        for (RetentionTable table : RetentionTable.values()) {
+            try {
+                deleted += sweep(table);
+            } catch (Exception e) {
+                log.warn("retention: sweep of {} failed, retrying next run (non-fatal): {}",
+                        table.tableName(), e.getMessage(), e);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public long sweep(RetentionTable table) {
+        RetentionProperties.Policy policy = policy(table);
+        if (!policy.isEnabled()) {
+            return 0;
+        }
+        boolean dryRun = properties.isDryRun();
+        LocalDate today = LocalDate.now();
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        if (table.dailyRollup() != null) {
+            closeDays(table, today);
+        }
+        RollupWatermark rollup = rollupWatermarkRepository.findById(table.rollupName()).orElse(null);
+        if (rollup == null) {
+            log.info("retention: {} is not rolled up yet, nothing deleted", table.tableName());
+            return 0;
+        }
+        int retentionDays = Math.max(policy.getRetentionDays(), table.minRetentionDays());
+        LocalDateTime cutoff = cutoff(today.minusDays(retentionDays).atStartOfDay(), rollup.getRolledUpTo());
+        if (!dryRun) {
+            recordHorizon(table, cutoff);
+        }
+
+        int dropped = maintainPartitions(table, cutoff, today, dryRun);
+        long deleted = deleteBatches(table, cutoff, dryRun);
+
+        sample.stop(meterRegistry.timer(SWEEP_METRIC, "table", table.tableName()));
+        log.info("retention: {}{} before {}: {} rows deleted, {} partitions dropped",
+                dryRun ? "[dry run] " : "", table.tableName(), cutoff, deleted, dropped);
+        return deleted;
+    }
+
+    /** Closes the days since the table's rollup watermark, at most {@code max-rollup-days-per-run}. */
+    private void closeDays(RetentionTable table, LocalDate today) {
+        RollupWatermark watermark = rollupWatermarkRepository.findById(table.rollupName()).orElse(null);
+        LocalDate from = watermark != null ? watermark.getRolledUpTo().toLocalDate() : retentionWriter.earliestDate(table);
+        if (from == null) {
+            from = today;
+        }
+        LocalDate to = from.plusDays(properties.getMaxRollupDaysPerRun()).isBefore(today)
+                ? from.plusDays(properties.getMaxRollupDaysPerRun()) : today;
+        int rows = from.isBefore(to) ? retentionWriter.rollUpDays(table, from, to) : 0;
+        if (watermark == null) {
+            watermark = RollupWatermark.builder().rollupName(table.rollupName()).build();
+        } else if (!from.isBefore(to)) {
+            return;
+        }
+        watermark.setRolledUpTo(to.atStartOfDay());
+        rollupWatermarkRepository.save(watermark);
+        log.debug("retention: closed [{}, {}) of {} into {} rows", from, to, table.rollupName(), rows);
+    }
+
+    /** Moves the table's horizon forward to {@code cutoff}; it never moves back. */
+    private void recordHorizon(RetentionTable table, LocalDateTime cutoff) {
+        RollupWatermark horizon = rollupWatermarkRepository.findById(table.horizonName())
+                .orElseGet(() -> RollupWatermark.builder().rollupName(table.horizonName()).build());
+        if (horizon.getRolledUpTo() == null || horizon.getRolledUpTo().isBefore(cutoff)) {
+            horizon.setRolledUpTo(cutoff);
+            rollupWatermarkRepository.save(horizon);
+        }
+    }
+
+    /** Drops the expired partitions and adds the missing future ones; returns how many were dropped. */
+    private int maintainPartitions(RetentionTable table, LocalDateTime cutoff, LocalDate today, boolean dryRun) {
+        List<RetentionWriter.Partition> partitions = retentionWriter.partitions(table);
+        if (partitions.isEmpty()) {
+            return 0;
+        }
+        List<String> expired = expiredPartitions(partitions, cutoff);
+        List<LocalDate> bounds = missingBounds(partitions, today, properties.getPartitionMonthsAhead());
+        if (dryRun) {
+            log.info("retention: [dry run] {} would drop partitions {} and add bounds {}",
+                    table.tableName(), expired, bounds);
+            return 0;
+        }
+        if (!expired.isEmpty()) {
+            retentionWriter.dropPartitions(table, expired);
+            meterRegistry.counter(PARTITIONS_METRIC, "table", table.tableName()).increment(expired.size());
+            log.info("retention: dropped partitions {} of {}", expired, table.tableName());
+        }
+        if (!bounds.isEmpty()) {
+            retentionWriter.addMonthlyPartitions(table, bounds);
+            log.info("retention: added partitions up to {} to {}", bounds.get(bounds.size() - 1), table.tableName());
+        }
+        return expired.size();
+    }
+
+    /** Deletes expired rows batch by batch from the table's cursor; returns the number deleted. */
+    private long deleteBatches(RetentionTable table, LocalDateTime cutoff, boolean dryRun) {
+        RetentionCursor cursor = retentionCursorRepository.findById(table.tableName())
+                .orElseGet(() -> RetentionCursor.builder().tableName(table.tableName()).lastId(0L).build());
+        String dryRunTag = Boolean.toString(dryRun);
+        Counter rows = meterRegistry.counter(ROWS_METRIC, "table", table.tableName(), "dry_run", dryRunTag);
+        Counter batches = meterRegistry.counter(BATCHES_METRIC, "table", table.tableName(), "dry_run", dryRunTag);
+
+        long afterId = cursor.getLastId();
+        long deleted = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            RetentionWriter.Window window = retentionWriter.window(table, afterId, properties.getBatchSize());
+            if (window == null || window.oldest() == null || !window.oldest().isBefore(cutoff)) {
+                afterId = 0;
+                break;
+            }
+            int n = retentionWriter.purge(table, afterId, window.lastId(), cutoff, dryRun);
+            deleted += n;
+            rows.increment(n);
+            batches.increment();
+            afterId = window.lastId();
+            if (!pause()) {
+                break;
+            }
+        }
+        if (!dryRun) {
+            cursor.setLastId(afterId);
+            retentionCursorRepository.save(cursor);
+        }
+        return deleted;
+    }
+
+    /** Sleeps {@code pause-ms} between batches; false when interrupted. */
+    private boolean pause() {
+        if (properties.getPauseMs() <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(properties.getPauseMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private RetentionProperties.Policy policy(RetentionTable table) {
+        return switch (table) {
+            case SEARCH_QUERY_IMPRESSIONS -> properties.getSearchQueryImpressions();
+            case SEARCH_SUGGESTION_CLICKS -> properties.getSearchSuggestionClicks();
+            case VIEWS -> properties.getViews();
+            case PHONE_CLICKS -> properties.getPhoneClicks();
+        };
+    }
+
+    /** The earlier of the retention cutoff and the rollup watermark. */
+    static LocalDateTime cutoff(LocalDateTime retentionCutoff, LocalDateTime rolledUpTo) {
+        return rolledUpTo.isBefore(retentionCutoff) ? rolledUpTo : retentionCutoff;
+    }
+
+    /** Names of the partitions holding only rows before {@code cutoff}. */
+    static List<String> expiredPartitions(List<RetentionWriter.Partition> partitions, LocalDateTime cutoff) {
+        List<String> expired = new ArrayList<>();
+        for (RetentionWriter.Partition partition : partitions) {
+            if (partition.upperBound() != null && !partition.upperBound().atStartOfDay().isAfter(cutoff)) {
+                expired.add(partition.name());
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Month-start bounds to split off {@code p_future} so that monthly
+     * partitions exist through {@code monthsAhead} months after the current
+     * one. Empty when the table has no {@code MAXVALUE} partition last.
+     */
+    static List<LocalDate> missingBounds(List<RetentionWriter.Partition> partitions, LocalDate today, int monthsAhead) {
+        if (partitions.isEmpty() || partitions.get(partitions.size() - 1).upperBound() != null) {
+            return List.of();
+        }
+        LocalDate last = null;
+        for (RetentionWriter.Partition partition : partitions) {
+            if (partition.upperBound() != null && (last == null || partition.upperBound().isAfter(last))) {
+                last = partition.upperBound();
+            }
+        }
+        LocalDate target = today.withDayOfMonth(1).plusMonths(monthsAhead + 1L);
+        LocalDate next = last != null ? last.withDayOfMonth(1).plusMonths(1) : today.withDayOfMonth(1).plusMonths(1);
+        List<LocalDate> bounds = new ArrayList<>();
+        while (!next.isAfter(target)) {
+            bounds.add(next);
+            next = next.plusMonths(1);
+        }
+        return bounds;
+    }
+}
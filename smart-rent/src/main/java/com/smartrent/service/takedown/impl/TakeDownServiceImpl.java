@@ -6,6 +6,7 @@ import com.smartrent.dto.response.TakeDownResponse;
 import com.smartrent.enums.ListingStatus;
 import com.smartrent.infra.repository.ListingRepository;
 import com.smartrent.infra.repository.entity.Listing;
+import com.smartrent.service.listing.cache.ListingCardCache;
 import com.smartrent.service.takedown.TakeDownService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +32,7 @@ import java.time.LocalDateTime;
 public class TakeDownServiceImpl implements TakeDownService {
 
     ListingRepository listingRepository;
+    ListingCardCache listingCardCache;
 
     @Override
     @Transactional
@@ -56,6 +58,7 @@ public class TakeDownServiceImpl implements TakeDownService {
         listing.setExpired(true);
         listing.setExpiryDate(now);
         listingRepository.save(listing);
+        listingCardCache.evict(listing.getListingId());
 
         log.info("Successfully took down listing {}", request.getListingId());
         return TakeDownResponse.builder()
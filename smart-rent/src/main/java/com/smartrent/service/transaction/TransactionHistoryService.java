@@ -4,6 +4,7 @@ import com.smartrent.dto.request.TransactionFilterRequest;
 import com.smartrent.dto.response.*;
 import org.springframework.data.domain.Pageable;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface TransactionHistoryService {
@@ -19,5 +20,5 @@ public interface TransactionHistoryService {
 
     List<RevenueSeriesResponse> getRevenueSeries(TransactionFilterRequest filter, String groupBy);
 
-    byte[] exportCsv(TransactionFilterRequest filter);
+    void exportCsv(TransactionFilterRequest filter, OutputStream out);
 }
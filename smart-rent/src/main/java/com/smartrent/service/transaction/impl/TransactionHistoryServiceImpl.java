@@ -12,6 +12,9 @@ import com.smartrent.infra.repository.entity.Listing;
 import com.smartrent.infra.repository.entity.Transaction;
 import com.smartrent.infra.repository.entity.TransactionAudit;
 import com.smartrent.infra.repository.entity.User;
+import com.smartrent.service.admin.analytics.AdminFactCubeReader;
+import com.smartrent.service.admin.analytics.AdminFactMetric;
+import com.smartrent.service.export.CsvStreamExporter;
 import com.smartrent.service.transaction.TransactionHistoryService;
 import jakarta.persistence.criteria.Predicate;
 import lombok.AccessLevel;
@@ -24,9 +27,9 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -34,6 +37,7 @@ import java.time.LocalTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -42,10 +46,16 @@ import java.util.stream.Collectors;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class TransactionHistoryServiceImpl implements TransactionHistoryService {
 
+    private static final String[] CSV_HEADER = {"Transaction Code", "Invoice Code", "Customer Name", "Customer Phone",
+            "Landlord Name", "Room", "Type", "Gateway", "Gateway Transaction Code", "Status", "Amount", "Created At",
+            "Completed At", "Failure Reason"};
+
     TransactionRepository transactionRepository;
     TransactionAuditRepository transactionAuditRepository;
     UserRepository userRepository;
     ListingRepository listingRepository;
+    AdminFactCubeReader adminFactCubeReader;
+    CsvStreamExporter csvStreamExporter;
 
     @Override
     @Transactional(readOnly = true)
@@ -83,19 +93,33 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
     @Override
     @Transactional(readOnly = true)
     public TransactionStatisticsResponse getStatistics(TransactionFilterRequest filter) {
-        List<Transaction> transactions = transactionRepository.findAll(buildSpecification(filter));
-        long total = transactions.size();
-        long success = countStatus(transactions, TransactionStatus.COMPLETED);
-        long failed = countStatus(transactions, TransactionStatus.FAILED);
-        long pending = countStatus(transactions, TransactionStatus.PENDING);
-        long cancelled = countStatus(transactions, TransactionStatus.CANCELLED);
-        long refunded = countStatus(transactions, TransactionStatus.REFUNDED);
-
-        BigDecimal revenue = transactions.stream()
-                .filter(transaction -> transaction.getStatus() == TransactionStatus.COMPLETED)
-                .map(Transaction::getAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<TransactionStatus, Long> counts = new HashMap<>();
+        BigDecimal revenue = BigDecimal.ZERO;
+        if (isDateOnly(filter)) {
+            FactDays days = factDays(filter);
+            for (AdminFactCubeReader.Fact fact : adminFactCubeReader.facts(AdminFactMetric.TRANSACTIONS_BY_STATUS, days.first(), days.last())) {
+                TransactionStatus status = fact.dimension() != null ? TransactionStatus.valueOf(fact.dimension()) : null;
+                counts.merge(status, fact.count(), Long::sum);
+                if (status == TransactionStatus.COMPLETED) {
+                    revenue = revenue.add(fact.amount());
+                }
+            }
+        } else {
+            for (Object[] row : transactionRepository.countAndSumByStatus(buildSpecification(filter))) {
+                TransactionStatus status = (TransactionStatus) row[0];
+                counts.merge(status, ((Number) row[1]).longValue(), Long::sum);
+                if (status == TransactionStatus.COMPLETED && row[2] != null) {
+                    revenue = revenue.add((BigDecimal) row[2]);
+                }
+            }
+        }
+
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        long success = counts.getOrDefault(TransactionStatus.COMPLETED, 0L);
+        long failed = counts.getOrDefault(TransactionStatus.FAILED, 0L);
+        long pending = counts.getOrDefault(TransactionStatus.PENDING, 0L);
+        long cancelled = counts.getOrDefault(TransactionStatus.CANCELLED, 0L);
+        long refunded = counts.getOrDefault(TransactionStatus.REFUNDED, 0L);
 
         BigDecimal average = success == 0
                 ? BigDecimal.ZERO
@@ -119,55 +143,95 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
     @Override
     @Transactional(readOnly = true)
     public List<RevenueSeriesResponse> getRevenueSeries(TransactionFilterRequest filter, String groupBy) {
-        List<Transaction> transactions = transactionRepository.findAll(buildSpecification(filter)).stream()
-                .filter(transaction -> transaction.getStatus() == TransactionStatus.COMPLETED)
-                .filter(transaction -> transaction.getCreatedAt() != null)
-                .toList();
+        boolean monthly = "MONTH".equalsIgnoreCase(groupBy);
+        if (isDateOnly(filter)) {
+            DateTimeFormatter formatter = monthly ? DateTimeFormatter.ofPattern("yyyy-MM") : DateTimeFormatter.ISO_LOCAL_DATE;
+            FactDays days = factDays(filter);
+            Map<String, BigDecimal> revenueByPeriod = new TreeMap<>();
+            Map<String, Long> countByPeriod = new HashMap<>();
+            for (AdminFactCubeReader.Fact fact : adminFactCubeReader.facts(AdminFactMetric.REVENUE, days.first(), days.last())) {
+                String period = fact.date().format(formatter);
+                revenueByPeriod.merge(period, fact.amount(), BigDecimal::add);
+                countByPeriod.merge(period, fact.count(), Long::sum);
+            }
+            return revenueByPeriod.entrySet().stream()
+                    .map(entry -> RevenueSeriesResponse.builder()
+                            .period(entry.getKey())
+                            .revenue(entry.getValue())
+                            .successfulCount(countByPeriod.get(entry.getKey()))
+                            .build())
+                    .toList();
+        }
 
-        DateTimeFormatter formatter = "MONTH".equalsIgnoreCase(groupBy)
-                ? DateTimeFormatter.ofPattern("yyyy-MM")
-                : DateTimeFormatter.ISO_LOCAL_DATE;
-
-        Map<String, List<Transaction>> grouped = transactions.stream()
-                .collect(Collectors.groupingBy(transaction -> transaction.getCreatedAt().format(formatter), TreeMap::new, Collectors.toList()));
-
-        return grouped.entrySet().stream()
-                .map(entry -> RevenueSeriesResponse.builder()
-                        .period(entry.getKey())
-                        .revenue(entry.getValue().stream()
-                                .map(Transaction::getAmount)
-                                .filter(Objects::nonNull)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add))
-                        .successfulCount(entry.getValue().size())
-                        .build())
+        // Rows come back as (year, month[, day], count, sum) in period order.
+        return transactionRepository.sumCompletedByPeriod(buildSpecification(filter), monthly).stream()
+                .map(row -> {
+                    int parts = monthly ? 2 : 3;
+                    String period = String.format("%04d-%02d", ((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+                    if (!monthly) {
+                        period += String.format("-%02d", ((Number) row[2]).intValue());
+                    }
+                    return RevenueSeriesResponse.builder()
+                            .period(period)
+                            .revenue(row[parts + 1] != null ? (BigDecimal) row[parts + 1] : BigDecimal.ZERO)
+                            .successfulCount(((Number) row[parts]).longValue())
+                            .build();
+                })
                 .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public byte[] exportCsv(TransactionFilterRequest filter) {
-        List<Transaction> transactions = transactionRepository.findAll(buildSpecification(filter));
-        StringBuilder csv = new StringBuilder();
-        csv.append("Transaction Code,Invoice Code,Customer Name,Customer Phone,Landlord Name,Room,Type,Gateway,Gateway Transaction Code,Status,Amount,Created At,Completed At,Failure Reason\n");
-        for (Transaction transaction : transactions) {
-            TransactionHistoryItemResponse row = toListItem(transaction, true);
-            csv.append(csv(row.getTransactionCode())).append(',')
-                    .append(csv(row.getInvoice() != null ? row.getInvoice().getInvoiceCode() : null)).append(',')
-                    .append(csv(row.getCustomer() != null ? row.getCustomer().getName() : null)).append(',')
-                    .append(csv(row.getCustomer() != null ? row.getCustomer().getPhone() : null)).append(',')
-                    .append(csv(row.getLandlord() != null ? row.getLandlord().getName() : null)).append(',')
-                    .append(csv(row.getRoom() != null ? row.getRoom().getRoomName() : null)).append(',')
-                    .append(csv(row.getPaymentType())).append(',')
-                    .append(csv(row.getPaymentGateway())).append(',')
-                    .append(csv(row.getGatewayTransactionCode())).append(',')
-                    .append(csv(row.getStatus())).append(',')
-                    .append(row.getAmount() != null ? row.getAmount() : BigDecimal.ZERO).append(',')
-                    .append(csv(row.getCreatedAt() != null ? row.getCreatedAt().toString() : null)).append(',')
-                    .append(csv(row.getCompletedAt() != null ? row.getCompletedAt().toString() : null)).append(',')
-                    .append(csv(row.getFailureReason()))
-                    .append('\n');
-        }
-        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    public void exportCsv(TransactionFilterRequest filter, OutputStream out) {
+        Specification<Transaction> spec = buildSpecification(filter);
+        csvStreamExporter.export((Transaction last, int size) -> transactionRepository.findPageAfter(spec,
+                last != null ? last.getTransactionId() : null, size), out, CSV_HEADER, (chunk, csv) -> {
+            // One listing and one user query per chunk instead of three lookups per row.
+            Set<Long> listingIds = chunk.stream()
+                    .map(this::resolveListingId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Map<Long, Listing> listings = listingIds.isEmpty()
+                    ? Collections.emptyMap()
+                    : listingRepository.findAllById(listingIds).stream()
+                            .collect(Collectors.toMap(Listing::getListingId, Function.identity()));
+
+            Set<String> userIds = new HashSet<>();
+            for (Transaction transaction : chunk) {
+                if (transaction.getUserId() != null) {
+                    userIds.add(transaction.getUserId());
+                }
+                String landlordId = resolveLandlordId(transaction, listings.get(resolveListingId(transaction)));
+                if (landlordId != null) {
+                    userIds.add(landlordId);
+                }
+            }
+            Map<String, User> users = userIds.isEmpty()
+                    ? Collections.emptyMap()
+                    : userRepository.findAllById(userIds).stream()
+                            .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+            for (Transaction transaction : chunk) {
+                Listing listing = listings.get(resolveListingId(transaction));
+                String landlordId = resolveLandlordId(transaction, listing);
+                TransactionHistoryItemResponse row = toListItem(transaction, true, listing,
+                        users.get(transaction.getUserId()), landlordId != null ? users.get(landlordId) : null);
+                csv.row(row.getTransactionCode(),
+                        row.getInvoice() != null ? row.getInvoice().getInvoiceCode() : null,
+                        row.getCustomer() != null ? row.getCustomer().getName() : null,
+                        row.getCustomer() != null ? row.getCustomer().getPhone() : null,
+                        row.getLandlord() != null ? row.getLandlord().getName() : null,
+                        row.getRoom() != null ? row.getRoom().getRoomName() : null,
+                        row.getPaymentType(),
+                        row.getPaymentGateway(),
+                        row.getGatewayTransactionCode(),
+                        row.getStatus(),
+                        row.getAmount() != null ? row.getAmount() : BigDecimal.ZERO,
+                        row.getCreatedAt() != null ? row.getCreatedAt().toString() : null,
+                        row.getCompletedAt() != null ? row.getCompletedAt().toString() : null,
+                        row.getFailureReason());
+            }
+        });
     }
 
     private Specification<Transaction> buildSpecification(TransactionFilterRequest filter) {
@@ -255,6 +319,32 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
 
     private record DateRange(LocalDateTime from, LocalDateTime to) {}
 
+    /**
+     * Whether {@code filter} restricts nothing but the creation date. Such requests are answered
+     * from the admin daily fact cube instead of scanning {@code transactions}.
+     */
+    private boolean isDateOnly(TransactionFilterRequest filter) {
+        return filter == null
+                || (isBlank(filter.getCustomerId())
+                && isBlank(filter.getLandlordId())
+                && isBlank(filter.getTransactionId())
+                && isBlank(filter.getCustomer())
+                && isBlank(filter.getQ())
+                && filter.getStatus() == null
+                && filter.getPaymentType() == null
+                && filter.getPaymentGateway() == null);
+    }
+
+    /** First and last day (inclusive) of the filter's creation date range; open bounds run from the epoch to today. */
+    private FactDays factDays(TransactionFilterRequest filter) {
+        DateRange range = filter != null ? parseDateOrRange(filter.getCreatedAt()) : null;
+        LocalDate from = range != null && range.from() != null ? range.from().toLocalDate() : LocalDate.EPOCH;
+        LocalDate to = range != null && range.to() != null ? range.to().toLocalDate() : LocalDate.now();
+        return new FactDays(from, to);
+    }
+
+    private record FactDays(LocalDate first, LocalDate last) {}
+
     private PageResponse<TransactionHistoryItemResponse> toPageResponse(Page<TransactionHistoryItemResponse> page) {
         return PageResponse.<TransactionHistoryItemResponse>builder()
                 .page(page.getNumber() + 1)
@@ -269,7 +359,11 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
         Listing listing = resolveListing(transaction).orElse(null);
         User customer = userRepository.findById(transaction.getUserId()).orElse(null);
         User landlord = resolveLandlord(transaction, listing).orElse(null);
+        return toListItem(transaction, includeCustomer, listing, customer, landlord);
+    }
 
+    private TransactionHistoryItemResponse toListItem(
+            Transaction transaction, boolean includeCustomer, Listing listing, User customer, User landlord) {
         return TransactionHistoryItemResponse.builder()
                 .transactionId(transaction.getTransactionId())
                 .transactionCode(transaction.getTransactionId())
@@ -353,15 +447,20 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
     }
 
     private Optional<Listing> resolveListing(Transaction transaction) {
+        Long listingId = resolveListingId(transaction);
+        return listingId == null ? Optional.empty() : listingRepository.findById(listingId);
+    }
+
+    private Long resolveListingId(Transaction transaction) {
         Long listingId = transaction.getRoomId();
         if (listingId == null && transaction.getReferenceId() != null && isListingReference(transaction)) {
             try {
                 listingId = Long.valueOf(transaction.getReferenceId());
             } catch (NumberFormatException ignored) {
-                return Optional.empty();
+                return null;
             }
         }
-        return listingId == null ? Optional.empty() : listingRepository.findById(listingId);
+        return listingId;
     }
 
     private boolean isListingReference(Transaction transaction) {
@@ -371,11 +470,16 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
     }
 
     private Optional<User> resolveLandlord(Transaction transaction, Listing listing) {
+        String landlordId = resolveLandlordId(transaction, listing);
+        return landlordId == null ? Optional.empty() : userRepository.findById(landlordId);
+    }
+
+    private String resolveLandlordId(Transaction transaction, Listing listing) {
         String landlordId = transaction.getLandlordId();
         if ((landlordId == null || landlordId.isBlank()) && listing != null) {
             landlordId = listing.getUserId();
         }
-        return landlordId == null || landlordId.isBlank() ? Optional.empty() : userRepository.findById(landlordId);
+        return landlordId == null || landlordId.isBlank() ? null : landlordId;
     }
 
     private TransactionInvoiceResponse toInvoice(Transaction transaction) {
@@ -457,10 +561,6 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
         return null;
     }
 
-    private long countStatus(List<Transaction> transactions, TransactionStatus status) {
-        return transactions.stream().filter(transaction -> transaction.getStatus() == status).count();
-    }
-
     private String toApiStatus(TransactionStatus status) {
         if (status == null) {
             return null;
@@ -485,13 +585,6 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
         return firstNonBlank(user.getContactPhoneNumber(), (safe(user.getPhoneCode()) + safe(user.getPhoneNumber())).trim());
     }
 
-    private String csv(String value) {
-        if (value == null) {
-            return "";
-        }
-        return "\"" + value.replace("\"", "\"\"") + "\"";
-    }
-
     private boolean isBlank(String value) {
         return value == null || value.isBlank();
     }
@@ -20,6 +20,7 @@ import com.smartrent.infra.exception.UserNotFoundException;
 import com.smartrent.infra.repository.UserRepository;
 import com.smartrent.infra.repository.entity.User;
 import com.smartrent.mapper.UserMapper;
+import com.smartrent.service.admin.analytics.AdminFactCubeService;
 import com.smartrent.service.authentication.OtpCacheService;
 import com.smartrent.service.authentication.domain.OtpData;
 import com.smartrent.infra.exception.AppException;
@@ -72,6 +73,8 @@ public class UserServiceImpl implements UserService {
 
   MediaRepository mediaRepository;
 
+  AdminFactCubeService adminFactCubeService;
+
   @Override
   @Transactional
   public UserCreationResponse createUser(UserCreationRequest request) {
@@ -522,6 +525,10 @@ public class UserServiceImpl implements UserService {
         });
 
     userRepository.delete(user);
+    if (user.getCreatedAt() != null) {
+      // The user analytics count them on their creation day, which may already be closed.
+      adminFactCubeService.markChanged(user.getCreatedAt().toLocalDate());
+    }
     log.info("Successfully deleted user: {}", userId);
   }
 }
@@ -0,0 +1,7 @@
+package com.smartrent.service.view;
+
+import java.time.LocalDateTime;
+
+/** An accepted, deduped page view waiting in {@link ViewWriteBehindBuffer} to be inserted. */
+public record PendingView(Long listingId, String userId, String ipAddress, String userAgent, LocalDateTime viewedAt) {
+}
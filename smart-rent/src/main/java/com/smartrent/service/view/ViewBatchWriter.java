@@ -0,0 +1,81 @@
+package com.smartrent.service.view;
+
+import com.smartrent.infra.repository.ListingRepository;
+import com.smartrent.service.engagement.OwnerEngagementStore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Inserts buffered views as one multi-row {@code INSERT} referencing listings
+ * by id only, instead of loading each {@code Listing} and saving one
+ * {@code View} entity at a time.
+ *
+ * <p>Views are accepted without a listing lookup, so views of listings that
+ * do not exist (or were deleted in the meantime) are filtered out here with
+ * a single id query before the insert. That query also yields the owners,
+ * so the owner dashboard totals are updated in the same transaction.
+ */
+@Component
+public class ViewBatchWriter {
+
+    private final ListingRepository listingRepository;
+    private final OwnerEngagementStore ownerEngagementStore;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ViewBatchWriter(ListingRepository listingRepository, OwnerEngagementStore ownerEngagementStore) {
+        this.listingRepository = listingRepository;
+        this.ownerEngagementStore = ownerEngagementStore;
+    }
+
+    /** Inserts {@code views} and returns how many were inserted per listing. */
+    @Transactional
+    public Map<Long, Integer> insert(List<PendingView> views) {
+        if (views.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> ownerByListing = new HashMap<>();
+        for (Object[] row : listingRepository.findOwnerIdsByListingIds(
+                views.stream().map(PendingView::listingId).collect(Collectors.toSet()))) {
+            ownerByListing.put((Long) row[0], (String) row[1]);
+        }
+        List<PendingView> rows = views.stream().filter(v -> ownerByListing.containsKey(v.listingId())).toList();
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO views (listing_id, user_id, ip_address, user_agent, viewed_at) VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+        }
+        Query insert = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        Map<Long, Integer> perListing = new HashMap<>();
+        for (PendingView view : rows) {
+            insert.setParameter(position++, view.listingId());
+            insert.setParameter(position++, view.userId());
+            insert.setParameter(position++, view.ipAddress());
+            insert.setParameter(position++, view.userAgent());
+            insert.setParameter(position++, view.viewedAt());
+            perListing.merge(view.listingId(), 1, Integer::sum);
+        }
+        insert.executeUpdate();
+
+        List<OwnerEngagementStore.ListingDelta> deltas = new ArrayList<>(perListing.size());
+        perListing.forEach((listingId, count) -> deltas.add(
+                new OwnerEngagementStore.ListingDelta(listingId, ownerByListing.get(listingId), count, 0, 0)));
+        ownerEngagementStore.addListingDeltas(deltas);
+        return perListing;
+    }
+}
@@ -0,0 +1,116 @@
+package com.smartrent.service.view;
+
+import com.smartrent.service.engagement.EngagementCounters;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory buffer between view tracking and the {@code views} table.
+ * Tracking only enqueues; {@code ViewFlushScheduler} drains the buffer every
+ * {@code flush-interval-ms} through {@link ViewBatchWriter} in batches of
+ * {@code batch-size} and advances the view {@link EngagementCounters}.
+ *
+ * <p>The buffer is bounded by {@code buffer-capacity}. When it is full the
+ * caller writes its view through with {@link #writeThrough} instead. A batch
+ * whose insert fails is put back and retried on the next tick, as far as
+ * capacity allows. Views still buffered at shutdown are flushed; views
+ * buffered when the process dies are lost, which is acceptable for view
+ * statistics.
+ */
+@Slf4j
+@Component
+public class ViewWriteBehindBuffer {
+
+    private final ViewBatchWriter viewBatchWriter;
+    private final EngagementCounters engagementCounters;
+    private final int capacity;
+    private final int batchSize;
+
+    private final ConcurrentLinkedQueue<PendingView> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ViewWriteBehindBuffer(ViewBatchWriter viewBatchWriter,
+                                 EngagementCounters engagementCounters,
+                                 @Value("${application.view-tracking.buffer-capacity:50000}") int capacity,
+                                 @Value("${application.view-tracking.batch-size:500}") int batchSize) {
+        this.viewBatchWriter = viewBatchWriter;
+        this.engagementCounters = engagementCounters;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+    }
+
+    /** Enqueues {@code view}; false when the buffer is full. */
+    public boolean offer(PendingView view) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        queue.add(view);
+        return true;
+    }
+
+    /** Inserts one view synchronously, for when the buffer is full. */
+    public void writeThrough(PendingView view) {
+        engagementCounters.recordViews(viewBatchWriter.insert(List.of(view)));
+    }
+
+    /** Inserts everything buffered so far. Returns the rows inserted. Never throws. */
+    public int flush() {
+        if (!flushLock.tryLock()) {
+            return 0;
+        }
+        try {
+            int inserted = 0;
+            while (true) {
+                List<PendingView> batch = new ArrayList<>(batchSize);
+                PendingView view;
+                while (batch.size() < batchSize && (view = queue.poll()) != null) {
+                    batch.add(view);
+                }
+                if (batch.isEmpty()) {
+                    return inserted;
+                }
+                size.addAndGet(-batch.size());
+                try {
+                    Map<Long, Integer> perListing = viewBatchWriter.insert(batch);
+                    engagementCounters.recordViews(perListing);
+                    inserted += perListing.values().stream().mapToInt(Integer::intValue).sum();
+                } catch (Exception e) {
+                    int requeued = 0;
+                    for (PendingView pending : batch) {
+                        if (offer(pending)) {
+                            requeued++;
+                        }
+                    }
+                    log.warn("view-buffer: insert of {} views failed, {} requeued (non-fatal): {}",
+                            batch.size(), requeued, e.getMessage(), e);
+                    return inserted;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        int inserted = flush();
+        if (inserted > 0) {
+            log.info("view-buffer: flushed {} views on shutdown", inserted);
+        }
+    }
+}
@@ -2,20 +2,26 @@ package com.smartrent.service.view.impl;
 
 import com.smartrent.dto.request.ViewTrackRequest;
 import com.smartrent.dto.response.ViewTrackResponse;
-import com.smartrent.infra.repository.ListingRepository;
 import com.smartrent.infra.repository.ViewRepository;
-import com.smartrent.infra.repository.entity.Listing;
-import com.smartrent.infra.repository.entity.View;
+import com.smartrent.service.view.PendingView;
 import com.smartrent.service.view.ViewService;
+import com.smartrent.service.view.ViewWriteBehindBuffer;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
+/**
+ * Accepts page views without touching the database on the request path: the
+ * 30-minute per-IP dedupe is a Redis {@code SET NX} with the window as TTL,
+ * and accepted views go to the {@link ViewWriteBehindBuffer} for batched
+ * insertion.
+ */
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
@@ -23,47 +29,62 @@ import java.time.LocalDateTime;
 public class ViewServiceImpl implements ViewService {
 
     private static final int DEDUPE_WINDOW_MINUTES = 30;
+    private static final String DEDUPE_KEY_PREFIX = "view:dedupe:";
+    // Column widths of views.ip_address / views.user_agent; the batch insert bypasses JPA.
+    private static final int MAX_IP_ADDRESS_LENGTH = 45;
+    private static final int MAX_USER_AGENT_LENGTH = 500;
 
-    ListingRepository listingRepository;
     ViewRepository viewRepository;
+    StringRedisTemplate redisTemplate;
+    ViewWriteBehindBuffer viewWriteBehindBuffer;
 
     @Override
-    @Transactional
     public ViewTrackResponse trackView(ViewTrackRequest request, String userId, String ipAddress, String userAgent) {
         Long listingId = request.getListingId();
+        LocalDateTime now = LocalDateTime.now();
 
-        Listing listing = listingRepository.findById(listingId)
-                .orElseThrow(() -> new RuntimeException("Listing not found with ID: " + listingId));
-
-        if (ipAddress != null) {
-            LocalDateTime windowStart = LocalDateTime.now().minusMinutes(DEDUPE_WINDOW_MINUTES);
-            boolean alreadyViewed = viewRepository
-                    .existsByIpAddressAndListing_ListingIdAndViewedAtAfter(ipAddress, listingId, windowStart);
-            if (alreadyViewed) {
-                log.debug("Duplicate view from IP {} on listing {} within {} minutes, ignoring",
-                        ipAddress, listingId, DEDUPE_WINDOW_MINUTES);
-                return ViewTrackResponse.builder()
-                        .listingId(listingId)
-                        .recorded(false)
-                        .viewedAt(LocalDateTime.now())
-                        .build();
-            }
+        if (ipAddress != null && isDuplicate(listingId, ipAddress, now)) {
+            log.debug("Duplicate view from IP {} on listing {} within {} minutes, ignoring",
+                    ipAddress, listingId, DEDUPE_WINDOW_MINUTES);
+            return ViewTrackResponse.builder()
+                    .listingId(listingId)
+                    .recorded(false)
+                    .viewedAt(now)
+                    .build();
         }
 
-        View view = View.builder()
-                .listing(listing)
-                .userId(userId)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .build();
-
-        View saved = viewRepository.save(view);
-        log.debug("View tracked for listing {} with ID: {}", listingId, saved.getId());
+        PendingView view = new PendingView(listingId, userId,
+                truncate(ipAddress, MAX_IP_ADDRESS_LENGTH), truncate(userAgent, MAX_USER_AGENT_LENGTH), now);
+        if (!viewWriteBehindBuffer.offer(view)) {
+            log.debug("View buffer full, writing view on listing {} through", listingId);
+            viewWriteBehindBuffer.writeThrough(view);
+        }
 
         return ViewTrackResponse.builder()
                 .listingId(listingId)
                 .recorded(true)
-                .viewedAt(saved.getViewedAt())
+                .viewedAt(now)
                 .build();
     }
+
+    /**
+     * Only the first view per IP and listing in the window sets the key. When
+     * Redis is unavailable the views table is checked instead, as before
+     * (missing views still in the buffer).
+     */
+    private boolean isDuplicate(Long listingId, String ipAddress, LocalDateTime now) {
+        try {
+            Boolean first = redisTemplate.opsForValue().setIfAbsent(
+                    DEDUPE_KEY_PREFIX + listingId + ":" + ipAddress, "1", Duration.ofMinutes(DEDUPE_WINDOW_MINUTES));
+            return !Boolean.TRUE.equals(first);
+        } catch (Exception e) {
+            log.warn("View dedupe unavailable in Redis, checking the views table (non-fatal): {}", e.getMessage());
+            return viewRepository.existsByIpAddressAndListing_ListingIdAndViewedAtAfter(
+                    ipAddress, listingId, now.minusMinutes(DEDUPE_WINDOW_MINUTES));
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
 }
@@ -0,0 +1,181 @@
+package com.smartrent.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable Aho-Corasick automaton over {@link TextNormalizer#normalize}
+ * output (lowercase ASCII letters, digits and spaces). One left-to-right walk
+ * over the text reports every dictionary phrase it contains, however many
+ * phrases the dictionary holds — instead of one {@code contains()} scan per
+ * phrase.
+ *
+ * <p>Patterns are matched as raw substrings; callers that need word
+ * boundaries pad both the patterns and the text with spaces
+ * ({@code " may lanh "} in {@code " phong may lanh "}). Any character outside
+ * the normalized alphabet simply resets the walk to the root.
+ *
+ * <p>The goto/fail structure is compiled into a full transition table at
+ * build time, so a walk is one array lookup per character with no
+ * allocation besides the result {@link BitSet}. Instances are thread-safe.
+ */
+public final class PhraseAutomaton {
+
+    /** a–z, 0–9, space, and one "anything else" symbol. */
+    private static final int ALPHABET = 38;
+    private static final int OTHER = ALPHABET - 1;
+
+    private final int[][] transitions;
+    private final int[][] outputs;
+    private final String[] patterns;
+
+    private PhraseAutomaton(int[][] transitions, int[][] outputs, String[] patterns) {
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.patterns = patterns;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Number of distinct patterns; ids run from 0 to {@code size() - 1}. */
+    public int size() {
+        return patterns.length;
+    }
+
+    public String pattern(int id) {
+        return patterns[id];
+    }
+
+    /** Ids of every pattern occurring in {@code text} (empty for {@code null}). */
+    public BitSet findAll(CharSequence text) {
+        BitSet found = new BitSet(patterns.length);
+        if (text == null) {
+            return found;
+        }
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = transitions[state][symbol(text.charAt(i))];
+            for (int id : outputs[state]) {
+                found.set(id);
+            }
+        }
+        return found;
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a';
+        if (c >= '0' && c <= '9') return 26 + (c - '0');
+        if (c == ' ') return 36;
+        return OTHER;
+    }
+
+    /**
+     * Collects patterns; adding the same string twice returns the id it was
+     * first given. Patterns containing characters outside the normalized
+     * alphabet can never match and are rejected.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> patterns = new ArrayList<>();
+
+        private Builder() {}
+
+        public int add(String pattern) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("pattern must not be empty");
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                if (symbol(pattern.charAt(i)) == OTHER) {
+                    throw new IllegalArgumentException("pattern is not normalized: '" + pattern + "'");
+                }
+            }
+            Integer existing = ids.get(pattern);
+            if (existing != null) {
+                return existing;
+            }
+            int id = patterns.size();
+            ids.put(pattern, id);
+            patterns.add(pattern);
+            return id;
+        }
+
+        public PhraseAutomaton build() {
+            // 1. Trie.
+            List<int[]> trie = new ArrayList<>();
+            List<List<Integer>> terminal = new ArrayList<>();
+            trie.add(newNode());
+            terminal.add(new ArrayList<>());
+            for (int id = 0; id < patterns.size(); id++) {
+                String p = patterns.get(id);
+                int state = 0;
+                for (int i = 0; i < p.length(); i++) {
+                    int sym = symbol(p.charAt(i));
+                    if (trie.get(state)[sym] < 0) {
+                        trie.get(state)[sym] = trie.size();
+                        trie.add(newNode());
+                        terminal.add(new ArrayList<>());
+                    }
+                    state = trie.get(state)[sym];
+                }
+                terminal.get(state).add(id);
+            }
+
+            // 2. Fail links in BFS order, completing missing transitions so
+            //    the walk never has to follow a fail chain at match time.
+            int n = trie.size();
+            int[][] transitions = trie.toArray(new int[0][]);
+            int[] fail = new int[n];
+            int[][] outputs = new int[n][];
+            outputs[0] = toArray(terminal.get(0));
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int sym = 0; sym < ALPHABET; sym++) {
+                int child = transitions[0][sym];
+                if (child < 0) {
+                    transitions[0][sym] = 0;
+                } else {
+                    fail[child] = 0;
+                    queue.add(child);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                outputs[state] = merge(terminal.get(state), outputs[fail[state]]);
+                for (int sym = 0; sym < ALPHABET; sym++) {
+                    int child = transitions[state][sym];
+                    if (child < 0) {
+                        transitions[state][sym] = transitions[fail[state]][sym];
+                    } else {
+                        fail[child] = transitions[fail[state]][sym];
+                        queue.add(child);
+                    }
+                }
+            }
+            return new PhraseAutomaton(transitions, outputs, patterns.toArray(new String[0]));
+        }
+
+        private static int[] newNode() {
+            int[] node = new int[ALPHABET];
+            Arrays.fill(node, -1);
+            return node;
+        }
+
+        private static int[] toArray(List<Integer> ids) {
+            return ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static int[] merge(List<Integer> own, int[] inherited) {
+            int[] out = Arrays.copyOf(toArray(own), own.size() + inherited.length);
+            System.arraycopy(inherited, 0, out, own.size(), inherited.length);
+            return out;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.smartrent.util;
+
+/**
+ * Hand-rolled scanner for the number + unit phrases {@link SearchQueryParser}
+ * extracts (price, area, bedrooms), replacing the chain of regexes it used to
+ * run on every query.
+ *
+ * <p>Every phrase is anchored on a digit run, so each method walks the digit
+ * runs left to right and checks the optional cue word before and the unit
+ * after, returning the first (leftmost) hit — exactly what
+ * {@code Matcher.find()} returned for the old patterns, including their lack
+ * of word boundaries (a cue or unit may be the tail/head of a longer word,
+ * e.g. {@code "quan 7 khu"} reads as {@code 7 k}). The pattern each method
+ * stands for is quoted in its comment; {@code SearchQueryParserGoldenTest}
+ * pins the equivalence.
+ *
+ * <p>Input is {@link TextNormalizer#normalize} output padded with spaces, so
+ * only {@code [a-z0-9 ]} is expected; cue words therefore end in a letter and
+ * units start with one, which is what makes the greedy {@code \s*} between
+ * them deterministic.
+ */
+final class QueryNumberScanner {
+
+    private QueryNumberScanner() {}
+
+    /**
+     * One match: {@code [start, end)} in the scanned text plus the captured
+     * numbers and units ({@code null} when the optional part was absent).
+     */
+    record Hit(int start, int end, String number, String unit, String number2, String unit2) {
+        String text(String s) {
+            return s.substring(start, end);
+        }
+    }
+
+    /** Alternation order matters: "trieu" is tried before its prefix "tr". */
+    private static final String[] MONEY_UNITS = {"trieu", "tr", "ty", "nghin", "ngan", "k", "cu"};
+    private static final String[] RANGE_SEPARATORS = {"-", "den", "toi"};
+    private static final String AREA_UNIT = "m2";
+
+    private static final String[] RANGE_CUE = {"tu", "tam", "khoang", "gia"};
+    private static final String[] PRICE_MAX_CUE = {"duoi", "khong qua", "toi da", "<=", "<"};
+    private static final String[] PRICE_MIN_CUE = {"tren", "tu", "it nhat", ">=", ">"};
+    private static final String[] AREA_MAX_CUE = {"duoi", "nho hon", "toi da", "<=", "<"};
+    private static final String[] AREA_MIN_CUE = {"tren", "tu", "lon hon", "rong tren", "rong hon", ">=", ">"};
+
+    // ── Price ────────────────────────────────────────────────────────────────
+
+    /** {@code (?:tu\s+)?(N)\s*(UNIT)?\s*(?:-|den|toi)\s*(N)\s*(UNIT)} */
+    static Hit priceRange(String s) {
+        for (int i = nextRun(s, 0); i >= 0; i = nextRun(s, i + 1)) {
+            for (int n1 : numberEnds(s, i)) {
+                int p = skipSpaces(s, n1);
+                for (int u1 : optionalUnitEnds(s, p)) {
+                    int sep = separatorEnd(s, skipSpaces(s, u1));
+                    if (sep < 0) continue;
+                    int r = skipSpaces(s, sep);
+                    for (int n2 : numberEnds(s, r)) {
+                        int t = skipSpaces(s, n2);
+                        int u2 = unitEnd(s, t, MONEY_UNITS);
+                        if (u2 < 0) continue;
+                        int start = optionalPrefix(s, i, "tu");
+                        return new Hit(start, u2, s.substring(i, n1), unitOrNull(s, p, u1),
+                                s.substring(r, n2), s.substring(t, u2));
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@code (?:tu|tam|khoang|gia)\s+(N)\s*(UNIT)?\s+(N)\s*(UNIT)} — the range
+     * whose dash was stripped by normalization ("tu 10 20 trieu").
+     */
+    static Hit priceCueRange(String s) {
+        for (int i = nextRun(s, 0); i >= 0; i = nextRun(s, i + 1)) {
+            int start = cueStart(s, i, RANGE_CUE, 1);
+            if (start < 0) continue;
+            for (int n1 : numberEnds(s, i)) {
+                int p = skipSpaces(s, n1);
+                for (int u1 : optionalUnitEnds(s, p)) {
+                    // With no unit the \s* gives its spaces back to \s+.
+                    int from = u1 == p ? n1 : u1;
+                    int q = skipSpaces(s, from);
+                    if (q == from) continue;
+                    for (int n2 : numberEnds(s, q)) {
+                        int t = skipSpaces(s, n2);
+                        int u2 = unitEnd(s, t, MONEY_UNITS);
+                        if (u2 < 0) continue;
+                        return new Hit(start, u2, s.substring(i, n1), unitOrNull(s, p, u1),
+                                s.substring(q, n2), s.substring(t, u2));
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /** {@code (N)\s*(UNIT)\s+(N)\s*(UNIT)} — "10 trieu 20 trieu". */
+    static Hit priceDualUnitRange(String s) {
+        for (int i = nextRun(s, 0); i >= 0; i = nextRun(s, i + 1)) {
+            for (int n1 : numberEnds(s, i)) {
+                int p = skipSpaces(s, n1);
+                for (String unit : MONEY_UNITS) {
+                    if (!s.startsWith(unit, p)) continue;
+                    int u1 = p + unit.length();
+                    int q = skipSpaces(s, u1);
+                    if (q == u1) continue;
+                    for (int n2 : numberEnds(s, q)) {
+                        int t = skipSpaces(s, n2);
+                        int u2 = unitEnd(s, t, MONEY_UNITS);
+                        if (u2 < 0) continue;
+                        return new Hit(i, u2, s.substring(i, n1), unit,
+                                s.substring(q, n2), s.substring(t, u2));
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /** {@code (?:duoi|khong qua|toi da|<=|<)\s*(N)\s*(UNIT)?} */
+    static Hit priceMax(String s) {
+        return cuedPrice(s, PRICE_MAX_CUE);
+    }
+
+    /** {@code (?:tren|tu|it nhat|>=|>)\s*(N)\s*(UNIT)?} */
+    static Hit priceMin(String s) {
+        return cuedPrice(s, PRICE_MIN_CUE);
+    }
+
+    /** {@code (N)\s*(UNIT)} */
+    static Hit priceLone(String s) {
+        for (int i = nextRun(s, 0); i >= 0; i = nextRun(s, i + 1)) {
+            for (int n : numberEnds(s, i)) {
+                int p = skipSpaces(s, n);
+                int u = unitEnd(s, p, MONEY_UNITS);
+                if (u >= 0) {
+                    return new Hit(i, u, s.substring(i, n), s.substring(p, u), null, null);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Hit cuedPrice(String s, String[] cues) {
+        for (int i = nextRun(s, 0); i >= 0; i = nextRun(s, i + 1)) {
+            int start = cueStart(s, i, cues, 0);
+            if (start < 0) continue;
+            int n = numberEnds(s, i)[0];
+            int p = skipSpaces(s, n);
+            int u = unitEnd(s, p, MONEY_UNITS);
+            // The greedy \s* keeps trailing spaces in the match even when
+            // the optional unit is absent ("duoi 5 " in "duoi 5 phong").
+            return u >= 0
+                    ? new Hit(start, u, s.substring(i, n), s.substring(p, u), null, null)
+                    : new Hit(start, p, s.substring(i, n), null, null, null);
+        }
+        return null;
+    }
+
+    // ── Area (m2) ────────────────────────────────────────────────────────────
+
+    /** {@code (?:dien tich\s+)?(?:tu\s+)?(N)\s*(?:m2)?\s*(?:-|den|toi)\s*(N)\s*m2} */
+    static Hit areaRange(String s) {
+        for (int i = nextRun(s, 0); i >= 0; i = nextRun(s, i + 1)) {
+            for (int n1 : numberEnds(s, i)) {
+                int p = skipSpaces(s, n1);
+                int[] unitOptions = s.startsWith(AREA_UNIT, p) ? new int[]{p + AREA_UNIT.length(), p} : new int[]{p};
+                for (int u1 : unitOptions) {
+                    int sep = separatorEnd(s, skipSpaces(s, u1));
+                    if (sep < 0) continue;
+                    int r = skipSpaces(s, sep);
+                    for (int n2 : numberEnds(s, r)) {
+                        int t = skipSpaces(s, n2);
+                        if (!s.startsWith(AREA_UNIT, t)) continue;
+                        int start = optionalPrefix(s, optionalPrefix(s, i, "tu"), "dien tich");
+                        return new Hit(start, t + AREA_UNIT.length(), s.substring(i, n1), null,
+                                s.substring(r, n2), null);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /** {@code (?:duoi|nho hon|toi da|<=|<)\s*(N)\s*m2} */
+    static Hit areaMax(String s) {
+        return cuedArea(s, AREA_MAX_CUE);
+    }
+
+    /** {@code (?:tren|tu|lon hon|rong tren|rong hon|>=|>)\s*(N)\s*m2} */
+    static Hit areaMin(String s) {
+        return cuedArea(s, AREA_MIN_CUE);
+    }
+
+    /** {@code (N)\s*m2} */
+    static Hit areaLone(String s) {
+        return cuedArea(s, null);
+    }
+
+    private static Hit cuedArea(String s, String[] cues) {
+        for (int i = nextRun(s, 0); i >= 0; i = nextRun(s, i + 1)) {
+            int start = cues == null ? i : cueStart(s, i, cues, 0);
+            if (start < 0) continue;
+            for (int n : numberEnds(s, i)) {
+                int p = skipSpaces(s, n);
+                if (s.startsWith(AREA_UNIT, p)) {
+                    return new Hit(start, p + AREA_UNIT.length(), s.substring(i, n), null, null, null);
+                }
+            }
+        }
+        return null;
+    }
+
+    // ── Bedrooms ─────────────────────────────────────────────────────────────
+
+    /** {@code (\d+)\s*phong ngu} */
+    static Hit bedrooms(String s) {
+        for (int i = nextRun(s, 0); i >= 0; i = nextRun(s, i + 1)) {
+            int n = digitsEnd(s, i);
+            int p = skipSpaces(s, n);
+            if (s.startsWith("phong ngu", p)) {
+                return new Hit(i, p + "phong ngu".length(), s.substring(i, n), null, null, null);
+            }
+        }
+        return null;
+    }
+
+    // ── Primitives ───────────────────────────────────────────────────────────
+
+    /** Start of the next maximal digit run at or after {@code from}, or -1. */
+    private static int nextRun(String s, int from) {
+        for (int i = from; i < s.length(); i++) {
+            if (isDigit(s.charAt(i)) && (i == 0 || !isDigit(s.charAt(i - 1)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Possible ends of {@code \d+(?:[.,]\d+)?} at {@code i}, in the order the
+     * regex tried them (with the fraction first). Empty when no digit at {@code i}.
+     */
+    private static int[] numberEnds(String s, int i) {
+        if (i >= s.length() || !isDigit(s.charAt(i))) return new int[0];
+        int end = digitsEnd(s, i);
+        if (end + 1 < s.length() && (s.charAt(end) == '.' || s.charAt(end) == ',')
+                && isDigit(s.charAt(end + 1))) {
+            return new int[]{digitsEnd(s, end + 1), end};
+        }
+        return new int[]{end};
+    }
+
+    private static int digitsEnd(String s, int i) {
+        while (i < s.length() && isDigit(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static int skipSpaces(String s, int i) {
+        while (i < s.length() && s.charAt(i) == ' ') i++;
+        return i;
+    }
+
+    /** End of the first unit alternative at {@code p}, or -1. */
+    private static int unitEnd(String s, int p, String[] units) {
+        for (String unit : units) {
+            if (s.startsWith(unit, p)) return p + unit.length();
+        }
+        return -1;
+    }
+
+    /** Ends for {@code (UNIT)?}: each matching alternative in order, then "absent". */
+    private static int[] optionalUnitEnds(String s, int p) {
+        int[] ends = new int[MONEY_UNITS.length + 1];
+        int n = 0;
+        for (String unit : MONEY_UNITS) {
+            if (s.startsWith(unit, p)) ends[n++] = p + unit.length();
+        }
+        ends[n++] = p;
+        return java.util.Arrays.copyOf(ends, n);
+    }
+
+    private static String unitOrNull(String s, int p, int end) {
+        return end == p ? null : s.substring(p, end);
+    }
+
+    private static int separatorEnd(String s, int p) {
+        return unitEnd(s, p, RANGE_SEPARATORS);
+    }
+
+    /**
+     * Start of the leftmost cue that ends right before the spaces preceding
+     * the number at {@code numberStart}, given at least {@code minSpaces}
+     * spaces in between; -1 when no cue fits.
+     */
+    private static int cueStart(String s, int numberStart, String[] cues, int minSpaces) {
+        int k = numberStart;
+        while (k > 0 && s.charAt(k - 1) == ' ') k--;
+        if (numberStart - k < minSpaces) return -1;
+        int best = -1;
+        for (String cue : cues) {
+            int at = k - cue.length();
+            if (at >= 0 && s.startsWith(cue, at) && (best < 0 || at < best)) best = at;
+        }
+        return best;
+    }
+
+    /** {@code (?:word\s+)?} before {@code start}: the earlier start if present. */
+    private static int optionalPrefix(String s, int start, String word) {
+        int found = cueStart(s, start, new String[]{word}, 1);
+        return found >= 0 ? found : start;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -2,19 +2,20 @@ package com.smartrent.util;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Lightweight, AI-free parser that turns a Vietnamese free-text rental query
- * into structured filters. It runs entirely in-process (regex + small
- * dictionaries) so it is cheap enough to call on every suggestion request and
- * works even when the AI server is unreachable.
+ * into structured filters. It runs entirely in-process (one Aho-Corasick walk
+ * over small dictionaries plus a hand-rolled number/unit scanner) so it is
+ * cheap enough to call on every suggestion request and works even when the AI
+ * server is unreachable.
  *
  * <p>It is intentionally <em>not</em> a general NLP pipeline. It recognises the
  * handful of patterns that actually matter for this platform:
@@ -156,39 +157,37 @@ public final class SearchQueryParser {
             "nho hon", "lon hon"
     );
 
-    private static final Pattern RANGE_PATTERN =
-            Pattern.compile("(?:tu\\s+)?(\\d+(?:[.,]\\d+)?)\\s*(trieu|tr|ty|nghin|ngan|k|cu)?\\s*(?:-|den|toi)\\s*(\\d+(?:[.,]\\d+)?)\\s*(trieu|tr|ty|nghin|ngan|k|cu)");
-    // TextNormalizer turns every non-alphanumeric char (incl. "-", "~", "→")
-    // into a space, so "từ 10-20tr" arrives here as "tu 10 20 trieu" with no
-    // separator left. A range cue ("tu/tam/khoang/gia") followed by two
-    // numbers is therefore still a range even though the dash is gone.
-    private static final Pattern RANGE_CUE_PATTERN =
-            Pattern.compile("(?:tu|tam|khoang|gia)\\s+(\\d+(?:[.,]\\d+)?)\\s*(trieu|tr|ty|nghin|ngan|k|cu)?\\s+(\\d+(?:[.,]\\d+)?)\\s*(trieu|tr|ty|nghin|ngan|k|cu)");
-    // "10tr-20tr" / "10 triệu 20 triệu": both bounds carry an explicit unit
-    // and sit next to each other → a range even without a cue word.
-    private static final Pattern RANGE_DUAL_UNIT_PATTERN =
-            Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*(trieu|tr|ty|nghin|ngan|k|cu)\\s+(\\d+(?:[.,]\\d+)?)\\s*(trieu|tr|ty|nghin|ngan|k|cu)");
-    private static final Pattern MAX_PATTERN =
-            Pattern.compile("(?:duoi|khong qua|toi da|<=|<)\\s*(\\d+(?:[.,]\\d+)?)\\s*(trieu|tr|ty|nghin|ngan|k|cu)?");
-    private static final Pattern MIN_PATTERN =
-            Pattern.compile("(?:tren|tu|it nhat|>=|>)\\s*(\\d+(?:[.,]\\d+)?)\\s*(trieu|tr|ty|nghin|ngan|k|cu)?");
-    private static final Pattern LONE_PRICE_PATTERN =
-            Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*(trieu|tr|ty|nghin|ngan|k|cu)");
-
-    // ── Area (m²) — always carries the explicit "m2" unit so it is extracted
-    //    BEFORE price; otherwise "duoi 30m2" would be read as maxPrice 30 triệu.
-    private static final Pattern AREA_RANGE_PATTERN =
-            Pattern.compile("(?:dien tich\\s+)?(?:tu\\s+)?(\\d+(?:[.,]\\d+)?)\\s*(?:m2)?\\s*(?:-|den|toi)\\s*(\\d+(?:[.,]\\d+)?)\\s*m2");
-    private static final Pattern AREA_MAX_PATTERN =
-            Pattern.compile("(?:duoi|nho hon|toi da|<=|<)\\s*(\\d+(?:[.,]\\d+)?)\\s*m2");
-    private static final Pattern AREA_MIN_PATTERN =
-            Pattern.compile("(?:tren|tu|lon hon|rong tren|rong hon|>=|>)\\s*(\\d+(?:[.,]\\d+)?)\\s*m2");
-    private static final Pattern AREA_LONE_PATTERN =
-            Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*m2");
-
-    // ── Bedrooms — "pn" / "p ngu" are expanded to "phong ngu" first.
-    private static final Pattern BEDROOM_PATTERN =
-            Pattern.compile("(\\d+)\\s*phong ngu");
+    // Price, area and bedroom phrases ("duoi 5 trieu", "tu 20 den 30 m2",
+    // "2 phong ngu") are recognised by the hand-rolled QueryNumberScanner;
+    // each of its methods documents the phrase shape it accepts.
+
+    /**
+     * Every product-type, listing-type and amenity phrase, space-padded, in
+     * one {@link PhraseAutomaton}: a single walk over the working text tells
+     * which phrases are present instead of one {@code contains()} per
+     * dictionary entry. The id arrays map each dictionary (in declaration
+     * order, which is its priority order) onto automaton pattern ids.
+     */
+    private static final PhraseAutomaton DICTIONARY;
+    private static final int[] PRODUCT_IDS;
+    private static final int[] LISTING_IDS;
+    private static final int[] AMENITY_IDS;
+    static {
+        PhraseAutomaton.Builder builder = PhraseAutomaton.builder();
+        PRODUCT_IDS = register(builder, PRODUCT_TYPES.keySet());
+        LISTING_IDS = register(builder, LISTING_TYPES.keySet());
+        AMENITY_IDS = register(builder, AMENITIES.keySet());
+        DICTIONARY = builder.build();
+    }
+
+    private static int[] register(PhraseAutomaton.Builder builder, Set<String> phrases) {
+        int[] ids = new int[phrases.size()];
+        int i = 0;
+        for (String phrase : phrases) {
+            ids[i++] = builder.add(" " + phrase + " ");
+        }
+        return ids;
+    }
 
     /**
      * District-level administrative markers ("quận", "huyện", "thị xã").
@@ -197,12 +196,24 @@ public final class SearchQueryParser {
      * district_short_key "tanbinh"), so leaving the marker in the location
      * text makes "quận tân bình" fail to resolve to the Tân Bình district.
      *
-     * <p>The {@code (?=[a-z])} lookahead strips the marker only when a NAMED
-     * unit follows ("quan tan binh" → "tan binh"); a numbered district
+     * <p>The marker is stripped only when a NAMED unit (a letter) follows ("quan tan binh" → "tan binh"); a numbered district
      * ("quan 1") keeps its marker so it still matches the {@code quan1} key.
+     * Applied by {@link #stripNamedDistrictMarkers}.
      */
-    private static final Pattern DISTRICT_UNIT_PREFIX =
-            Pattern.compile("\\b(thi xa|quan|huyen)\\s+(?=[a-z])");
+    private static final String[] DISTRICT_UNIT_MARKERS = {"thi xa", "quan", "huyen"};
+
+    /**
+     * The display phrases of the product-type and amenity dictionaries
+     * (e.g. "phòng trọ", "máy lạnh"), deduplicated in declaration order. Used
+     * to seed in-memory vocabularies so they know exactly the phrases this
+     * parser can extract.
+     */
+    public static List<String> dictionaryPhrases() {
+        Set<String> phrases = new LinkedHashSet<>();
+        for (String[] v : PRODUCT_TYPES.values()) phrases.add(v[1]);
+        phrases.addAll(AMENITIES.values());
+        return new ArrayList<>(phrases);
+    }
 
     public static ParsedQuery parse(String rawQuery) {
         String norm = expandAbbreviations(TextNormalizer.normalize(rawQuery));
@@ -227,37 +238,43 @@ public final class SearchQueryParser {
         BigDecimal[] price = new BigDecimal[2]; // [min, max]
         working = extractPrice(working, price);
 
-        // 2. Property type.
+        // 2. Property type — the first entry (declaration order) present wins.
+        BitSet present = DICTIONARY.findAll(working);
         String productType = null;
         String productDisplay = null;
+        int i = 0;
         for (Map.Entry<String, String[]> e : PRODUCT_TYPES.entrySet()) {
-            String phrase = " " + e.getKey() + " ";
-            if (working.contains(phrase)) {
+            if (present.get(PRODUCT_IDS[i++])) {
                 productType = e.getValue()[0];
                 productDisplay = e.getValue()[1];
-                working = working.replace(phrase, " ");
+                working = working.replace(DICTIONARY.pattern(PRODUCT_IDS[i - 1]), " ");
+                // Removing a phrase joins its neighbours, which can form a
+                // phrase that was not there before — walk again.
+                present = DICTIONARY.findAll(working);
                 break;
             }
         }
 
         // 3. Listing type (default RENT, applied by the caller, not forced here).
         String listingType = null;
+        i = 0;
         for (Map.Entry<String, String> e : LISTING_TYPES.entrySet()) {
-            String phrase = " " + e.getKey() + " ";
-            if (working.contains(phrase)) {
+            if (present.get(LISTING_IDS[i++])) {
                 listingType = e.getValue();
-                working = working.replace(phrase, " ");
+                working = working.replace(DICTIONARY.pattern(LISTING_IDS[i - 1]), " ");
+                present = DICTIONARY.findAll(working);
                 break;
             }
         }
 
         // 4. Amenities (multiple allowed).
         List<String> amenities = new ArrayList<>();
+        i = 0;
         for (Map.Entry<String, String> e : AMENITIES.entrySet()) {
-            String phrase = " " + e.getKey() + " ";
-            if (working.contains(phrase)) {
+            if (present.get(AMENITY_IDS[i++])) {
                 amenities.add(e.getValue());
-                working = working.replace(phrase, " ");
+                working = working.replace(DICTIONARY.pattern(AMENITY_IDS[i - 1]), " ");
+                present = DICTIONARY.findAll(working);
             }
         }
 
@@ -267,7 +284,7 @@ public final class SearchQueryParser {
         // district marker ("quận"/"huyện") so a named district resolves
         // ("quan tan binh" → "tan binh"); done BEFORE stopword removal so a
         // numbered district ("quan 1") still keeps its marker.
-        working = DISTRICT_UNIT_PREFIX.matcher(working).replaceAll(" ");
+        working = stripNamedDistrictMarkers(working);
         String locationText = stripStopwords(working);
         String fallback = buildFallbackSuggestion(
                 productDisplay, locationText, price[0], price[1], amenities,
@@ -281,46 +298,46 @@ public final class SearchQueryParser {
     }
 
     private static String extractBedrooms(String working, Integer[] out) {
-        Matcher m = BEDROOM_PATTERN.matcher(working);
-        if (m.find()) {
+        QueryNumberScanner.Hit m = QueryNumberScanner.bedrooms(working);
+        if (m != null) {
             try {
-                out[0] = Integer.valueOf(m.group(1));
+                out[0] = Integer.valueOf(m.number());
             } catch (NumberFormatException ignored) {
                 // leave bedrooms unset on overflow / garbage
             }
-            working = working.replace(m.group(), " ");
+            working = working.replace(m.text(working), " ");
         }
         // Strip any remaining bare "phong ngu" so it does not leak into location.
         return working.replace(" phong ngu ", " ");
     }
 
     private static String extractArea(String working, Float[] out) {
-        Matcher range = AREA_RANGE_PATTERN.matcher(working);
-        if (range.find()) {
-            out[0] = area(range.group(1));
-            out[1] = area(range.group(2));
-            return working.replace(range.group(), " ");
+        QueryNumberScanner.Hit range = QueryNumberScanner.areaRange(working);
+        if (range != null) {
+            out[0] = area(range.number());
+            out[1] = area(range.number2());
+            return working.replace(range.text(working), " ");
         }
 
-        Matcher max = AREA_MAX_PATTERN.matcher(working);
-        if (max.find()) {
-            out[1] = area(max.group(1));
-            working = working.replace(max.group(), " ");
+        QueryNumberScanner.Hit max = QueryNumberScanner.areaMax(working);
+        if (max != null) {
+            out[1] = area(max.number());
+            working = working.replace(max.text(working), " ");
         }
 
-        Matcher min = AREA_MIN_PATTERN.matcher(working);
-        if (min.find()) {
-            out[0] = area(min.group(1));
-            working = working.replace(min.group(), " ");
+        QueryNumberScanner.Hit min = QueryNumberScanner.areaMin(working);
+        if (min != null) {
+            out[0] = area(min.number());
+            working = working.replace(min.text(working), " ");
         }
 
         if (out[0] == null && out[1] == null) {
-            Matcher lone = AREA_LONE_PATTERN.matcher(working);
-            if (lone.find()) {
+            QueryNumberScanner.Hit lone = QueryNumberScanner.areaLone(working);
+            if (lone != null) {
                 // bare "25m2" → treat as a lower bound ("at least ~"), which is
                 // how users mean it (they want it no smaller than that).
-                out[0] = area(lone.group(1));
-                working = working.replace(lone.group(), " ");
+                out[0] = area(lone.number());
+                working = working.replace(lone.text(working), " ");
             }
         }
         // Drop any leftover lone "m2" unit token.
@@ -336,6 +353,18 @@ public final class SearchQueryParser {
         }
     }
 
+    // Numeric abbreviation rewrites, compiled once (String.replaceAll
+    // recompiled each of them on every call).
+    private static final Pattern BEDROOM_PN        = Pattern.compile("(\\d+)\\s*pn\\b");
+    private static final Pattern BEDROOM_P_NGU     = Pattern.compile("(\\d+)\\s*p\\s*ngu\\b");
+    private static final Pattern BEDROOM_PHONG_NGU = Pattern.compile("(\\d+)\\s*phong\\s*ngu\\b");
+    private static final Pattern AREA_M_2          = Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*m\\s*2\\b");
+    private static final Pattern AREA_MET_VUONG    = Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*(?:met vuong|met vng|mv)\\b");
+    private static final Pattern AREA_M2           = Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*m2\\b");
+    private static final Pattern PRICE_TR          = Pattern.compile("(\\d+)\\s*tr\\b");
+    private static final Pattern PRICE_TY          = Pattern.compile("(\\d+)\\s*ty\\b");
+    private static final Pattern PRICE_K           = Pattern.compile("(\\d+)\\s*k\\b");
+
     /**
      * Expands the abbreviations Vietnamese users type in a search box so the
      * rest of the parser only deals with one canonical spelling.
@@ -366,71 +395,76 @@ public final class SearchQueryParser {
         for (int i = 1; i <= 12; i++) {
             r = r.replace(" q" + i + " ", " quan " + i + " ");
         }
-        // Bedrooms: "2pn", "2 pn", "2 p ngu", "2 phong ngu" → "2 phong ngu".
-        r = r.replaceAll("(\\d+)\\s*pn\\b", "$1 phong ngu");
-        r = r.replaceAll("(\\d+)\\s*p\\s*ngu\\b", "$1 phong ngu");
-        r = r.replaceAll("(\\d+)\\s*phong\\s*ngu\\b", "$1 phong ngu");
-        // Area unit: "m2", "m²" (→ "m 2" after normalize), "met vuong", "mv".
-        r = r.replaceAll("(\\d+(?:[.,]\\d+)?)\\s*m\\s*2\\b", "$1 m2");
-        r = r.replaceAll("(\\d+(?:[.,]\\d+)?)\\s*(?:met vuong|met vng|mv)\\b", "$1 m2");
-        r = r.replaceAll("(\\d+(?:[.,]\\d+)?)\\s*m2\\b", "$1 m2");
+        // Every numeric rewrite below needs a digit; most queries have none,
+        // so skip the regex work entirely for them.
+        boolean hasDigit = hasDigit(r);
+        if (hasDigit) {
+            // Bedrooms: "2pn", "2 pn", "2 p ngu", "2 phong ngu" → "2 phong ngu".
+            r = BEDROOM_PN.matcher(r).replaceAll("$1 phong ngu");
+            r = BEDROOM_P_NGU.matcher(r).replaceAll("$1 phong ngu");
+            r = BEDROOM_PHONG_NGU.matcher(r).replaceAll("$1 phong ngu");
+            // Area unit: "m2", "m²" (→ "m 2" after normalize), "met vuong", "mv".
+            r = AREA_M_2.matcher(r).replaceAll("$1 m2");
+            r = AREA_MET_VUONG.matcher(r).replaceAll("$1 m2");
+            r = AREA_M2.matcher(r).replaceAll("$1 m2");
+        }
         r = r.replace(" tphcm ", " ho chi minh ");
         r = r.replace(" hcm ", " ho chi minh ");
         r = r.replace(" sg ", " ho chi minh ");
         r = r.replace(" hn ", " ha noi ");
-        // "5tr" / "5 tr" → "5 trieu" (keep the unit so price parsing can read it)
-        r = r.replaceAll("(\\d+)\\s*tr\\b", "$1 trieu");
-        r = r.replaceAll("(\\d+)\\s*ty\\b", "$1 ty");
-        r = r.replaceAll("(\\d+)\\s*k\\b", "$1 nghin");
+        if (hasDigit) {
+            // "5tr" / "5 tr" → "5 trieu" (keep the unit so price parsing can read it)
+            r = PRICE_TR.matcher(r).replaceAll("$1 trieu");
+            r = PRICE_TY.matcher(r).replaceAll("$1 ty");
+            r = PRICE_K.matcher(r).replaceAll("$1 nghin");
+        }
         return r.replaceAll("\\s+", " ").trim();
     }
 
     private static String extractPrice(String working, BigDecimal[] out) {
-        Matcher range = RANGE_PATTERN.matcher(working);
-        if (range.find()) {
-            String unit = range.group(4) != null ? range.group(4) : range.group(2);
-            out[0] = money(range.group(1), unit);
-            out[1] = money(range.group(3), unit);
-            return working.replace(range.group(), " ");
+        QueryNumberScanner.Hit range = QueryNumberScanner.priceRange(working);
+        if (range != null) {
+            out[0] = money(range.number(), range.unit2());
+            out[1] = money(range.number2(), range.unit2());
+            return working.replace(range.text(working), " ");
         }
 
         // Separator-less range: "(tu) 10 20 trieu" — the dash/word that used
         // to join the bounds was stripped by normalization.
-        Matcher cue = RANGE_CUE_PATTERN.matcher(working);
-        if (cue.find()) {
-            String unit = cue.group(4) != null ? cue.group(4) : cue.group(2);
-            out[0] = money(cue.group(1), unit);
-            out[1] = money(cue.group(3), unit);
-            return working.replace(cue.group(), " ");
+        QueryNumberScanner.Hit cue = QueryNumberScanner.priceCueRange(working);
+        if (cue != null) {
+            out[0] = money(cue.number(), cue.unit2());
+            out[1] = money(cue.number2(), cue.unit2());
+            return working.replace(cue.text(working), " ");
         }
 
         // Both bounds explicitly unit-qualified and adjacent: "10 trieu 20 trieu".
-        Matcher dual = RANGE_DUAL_UNIT_PATTERN.matcher(working);
-        if (dual.find()) {
-            out[0] = money(dual.group(1), dual.group(2));
-            out[1] = money(dual.group(3), dual.group(4));
-            return working.replace(dual.group(), " ");
+        QueryNumberScanner.Hit dual = QueryNumberScanner.priceDualUnitRange(working);
+        if (dual != null) {
+            out[0] = money(dual.number(), dual.unit());
+            out[1] = money(dual.number2(), dual.unit2());
+            return working.replace(dual.text(working), " ");
         }
 
-        Matcher max = MAX_PATTERN.matcher(working);
-        if (max.find()) {
-            out[1] = money(max.group(1), max.group(2));
-            working = working.replace(max.group(), " ");
+        QueryNumberScanner.Hit max = QueryNumberScanner.priceMax(working);
+        if (max != null) {
+            out[1] = money(max.number(), max.unit());
+            working = working.replace(max.text(working), " ");
         }
 
-        Matcher min = MIN_PATTERN.matcher(working);
-        if (min.find()) {
-            out[0] = money(min.group(1), min.group(2));
-            working = working.replace(min.group(), " ");
+        QueryNumberScanner.Hit min = QueryNumberScanner.priceMin(working);
+        if (min != null) {
+            out[0] = money(min.number(), min.unit());
+            working = working.replace(min.text(working), " ");
         }
 
         if (out[0] == null && out[1] == null) {
-            Matcher lone = LONE_PRICE_PATTERN.matcher(working);
-            if (lone.find()) {
+            QueryNumberScanner.Hit lone = QueryNumberScanner.priceLone(working);
+            if (lone != null) {
                 // A bare "5 triệu" with no comparator → treat as an upper bound,
                 // which matches how users mean "around / up to" in practice.
-                out[1] = money(lone.group(1), lone.group(2));
-                working = working.replace(lone.group(), " ");
+                out[1] = money(lone.number(), lone.unit());
+                working = working.replace(lone.text(working), " ");
             }
         }
         return working;
@@ -450,10 +484,16 @@ public final class SearchQueryParser {
 
     private static String stripStopwords(String working) {
         StringBuilder sb = new StringBuilder();
-        for (String token : working.trim().split("\\s+")) {
-            if (token.isBlank()) continue;
+        int n = working.length();
+        for (int from = 0; from < n; ) {
+            while (from < n && working.charAt(from) == ' ') from++;
+            int to = from;
+            while (to < n && working.charAt(to) != ' ') to++;
+            if (to == from) break;
+            String token = working.substring(from, to);
+            from = to;
             if (STOPWORDS.contains(token)) continue;
-            if (token.matches("\\d+")) {
+            if (hasOnlyDigits(token)) {
                 // Price / area / bedrooms have already consumed their digits
                 // by this point, so a leftover short number is a DISTRICT
                 // number ("quận 1" … "quận 12"). Keep 1–2 digit numbers (drop
@@ -474,6 +514,56 @@ public final class SearchQueryParser {
         return sb.toString().trim();
     }
 
+    /**
+     * Replaces each named-district marker ({@link #DISTRICT_UNIT_MARKERS} at a
+     * word start, its spaces, and a following letter) by a single space,
+     * leaving "quan 1" alone.
+     */
+    private static String stripNamedDistrictMarkers(String working) {
+        StringBuilder sb = null;
+        int copied = 0;
+        int n = working.length();
+        for (int p = 0; p < n; p++) {
+            if (p > 0 && isWordChar(working.charAt(p - 1))) continue;
+            for (String marker : DISTRICT_UNIT_MARKERS) {
+                if (!working.startsWith(marker, p)) continue;
+                int end = p + marker.length();
+                while (end < n && working.charAt(end) == ' ') end++;
+                if (end == p + marker.length() || end == n) break;
+                char next = working.charAt(end);
+                if (next < 'a' || next > 'z') break;
+                if (sb == null) sb = new StringBuilder(n);
+                sb.append(working, copied, p).append(' ');
+                copied = end;
+                p = end - 1;
+                break;
+            }
+        }
+        if (sb == null) return working;
+        return sb.append(working, copied, n).toString();
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean hasDigit(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') return true;
+        }
+        return false;
+    }
+
+    private static boolean hasOnlyDigits(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
     /**
      * Human-readable suggestion used when no DB location matches, so the
      * dropdown still shows the user's intent back to them.
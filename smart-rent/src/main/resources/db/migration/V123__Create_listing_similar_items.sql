@@ -0,0 +1,18 @@
+-- Migration V123: precomputed "similar listings" per public listing.
+--
+-- getSimilarListings used to retrieve ~200 candidates and call the AI
+-- /recommendations/similar endpoint on every cache miss (~5s cold). The
+-- SimilarListingPrecomputeScheduler now ranks the same candidates offline
+-- and stores the best ids here, so the request path is one primary-key read
+-- plus card hydration.
+--
+-- similar_items holds "listingId:score" pairs, best first, comma-separated.
+-- source_updated_at is the listing's updated_at the row was computed from:
+-- a newer listings.updated_at (edit, push, re-verify) marks the row stale.
+CREATE TABLE IF NOT EXISTS listing_similar_items (
+    listing_id BIGINT NOT NULL PRIMARY KEY,
+    similar_items VARCHAR(2048) NOT NULL,
+    source_updated_at DATETIME NULL,
+    computed_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_listing_similar_items_computed_at (computed_at)
+);
@@ -0,0 +1,40 @@
+-- Migration V124: hourly and daily engagement rollups per listing.
+--
+-- Owner analytics used to group the raw views / phone_clicks / saved_listings
+-- rows on every request, and only clicks had a (once-a-day) rollup in
+-- listing_click_daily. EngagementRollupService now rolls all three up per
+-- listing and hour, then re-sums the touched days, so readers scan at most
+-- one row per listing and hour or day.
+--
+-- A bucket holds the events whose timestamp falls in it: views.viewed_at,
+-- phone_clicks.clicked_at and saved_listings.created_at (saves still present
+-- when the bucket was rolled up). bucket_hour is the start of the hour.
+CREATE TABLE IF NOT EXISTS listing_engagement_hourly (
+    listing_id BIGINT NOT NULL,
+    bucket_hour DATETIME NOT NULL,
+    views INT NOT NULL DEFAULT 0,
+    clicks INT NOT NULL DEFAULT 0,
+    saves INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (listing_id, bucket_hour),
+    INDEX idx_listing_engagement_hourly_bucket (bucket_hour)
+);
+
+CREATE TABLE IF NOT EXISTS listing_engagement_daily (
+    listing_id BIGINT NOT NULL,
+    bucket_date DATE NOT NULL,
+    views INT NOT NULL DEFAULT 0,
+    clicks INT NOT NULL DEFAULT 0,
+    saves INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (listing_id, bucket_date),
+    INDEX idx_listing_engagement_daily_bucket (bucket_date)
+);
+
+-- How far each rollup has processed: every hour before rolled_up_to is done.
+CREATE TABLE IF NOT EXISTS rollup_watermarks (
+    rollup_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    rolled_up_to DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- Superseded by listing_engagement_daily.clicks; backfilled from phone_clicks.
+DROP TABLE IF EXISTS listing_click_daily;
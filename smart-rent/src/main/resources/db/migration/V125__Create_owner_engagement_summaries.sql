@@ -0,0 +1,61 @@
+-- Migration V125: per-owner engagement summaries for the seller dashboards.
+--
+-- The owner analytics pages (per-listing click/save leaderboards, owner click
+-- stats, "users who clicked on my listings") aggregated all of an owner's
+-- raw phone_clicks / saved_listings rows on every call. These two tables are
+-- kept current by the same transactions that insert the events, so the
+-- dashboards read one indexed page instead.
+--
+-- listing_engagement_totals: all-time views/clicks/saves per listing, with
+-- the owner denormalised for the leaderboards.
+CREATE TABLE IF NOT EXISTS listing_engagement_totals (
+    listing_id BIGINT NOT NULL PRIMARY KEY,
+    owner_id VARCHAR(36) NOT NULL,
+    views BIGINT NOT NULL DEFAULT 0,
+    clicks BIGINT NOT NULL DEFAULT 0,
+    saves BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_listing_engagement_totals_owner_clicks (owner_id, clicks),
+    INDEX idx_listing_engagement_totals_owner_saves (owner_id, saves),
+    CONSTRAINT fk_listing_engagement_totals_listing FOREIGN KEY (listing_id)
+        REFERENCES listings(listing_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- owner_leads: one row per (owner, user who clicked a phone number on any of
+-- the owner's listings), most recent first via idx_owner_leads_recent.
+CREATE TABLE IF NOT EXISTS owner_leads (
+    owner_id VARCHAR(36) NOT NULL,
+    user_id VARCHAR(36) NOT NULL,
+    click_count INT NOT NULL DEFAULT 0,
+    first_clicked_at DATETIME NOT NULL,
+    last_clicked_at DATETIME NOT NULL,
+    PRIMARY KEY (owner_id, user_id),
+    INDEX idx_owner_leads_recent (owner_id, last_clicked_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Backfill. A re-run overwrites the rows with fresh counts; the updates read
+-- the derived table's columns instead of the deprecated VALUES() function
+-- (a row alias is not allowed on INSERT ... SELECT).
+INSERT INTO listing_engagement_totals (listing_id, owner_id, views, clicks, saves)
+SELECT * FROM (
+    SELECT l.listing_id, l.user_id AS owner, COALESCE(v.n, 0) AS total_views,
+           COALESCE(c.n, 0) AS total_clicks, COALESCE(s.n, 0) AS total_saves
+    FROM listings l
+    LEFT JOIN (SELECT listing_id, COUNT(*) AS n FROM views GROUP BY listing_id) v ON v.listing_id = l.listing_id
+    LEFT JOIN (SELECT listing_id, COUNT(*) AS n FROM phone_clicks GROUP BY listing_id) c ON c.listing_id = l.listing_id
+    LEFT JOIN (SELECT listing_id, COUNT(*) AS n FROM saved_listings GROUP BY listing_id) s ON s.listing_id = l.listing_id
+    WHERE v.n IS NOT NULL OR c.n IS NOT NULL OR s.n IS NOT NULL
+) AS totals
+ON DUPLICATE KEY UPDATE views = total_views, clicks = total_clicks, saves = total_saves;
+
+INSERT INTO owner_leads (owner_id, user_id, click_count, first_clicked_at, last_clicked_at)
+SELECT * FROM (
+    SELECT l.user_id AS owner, pc.user_id AS clicker, COUNT(*) AS clicks,
+           MIN(pc.clicked_at) AS first_click, MAX(pc.clicked_at) AS last_click
+    FROM phone_clicks pc
+    JOIN listings l ON l.listing_id = pc.listing_id
+    GROUP BY l.user_id, pc.user_id
+) AS leads
+ON DUPLICATE KEY UPDATE click_count = clicks,
+                        first_clicked_at = first_click,
+                        last_clicked_at = last_click;
@@ -0,0 +1,22 @@
+-- Migration V126: daily fact cube behind the admin analytics dashboards.
+--
+-- Revenue, user, report and listing analytics re-aggregated the whole
+-- requested range from the raw tables on every request. AdminFactCubeService
+-- now stores one row per metric, closed day and dimension value; a range is
+-- answered by summing cube rows, and only the days after the cube's
+-- watermark in rollup_watermarks (normally just today) are read live.
+--
+-- metric     : AdminFactMetric name (REVENUE, NEW_USERS, ...)
+-- dimension  : the metric's breakdown value (transaction type, report
+--              category, listing type, ...), '' for a NULL value or when the
+--              metric has no breakdown
+-- fact_count : rows created that day with that dimension value
+-- fact_amount: summed amount (REVENUE only, 0 otherwise)
+CREATE TABLE IF NOT EXISTS admin_daily_facts (
+    metric VARCHAR(32) NOT NULL,
+    fact_date DATE NOT NULL,
+    dimension VARCHAR(64) NOT NULL DEFAULT '',
+    fact_count BIGINT NOT NULL DEFAULT 0,
+    fact_amount DECIMAL(19, 0) NOT NULL DEFAULT 0,
+    PRIMARY KEY (metric, fact_date, dimension)
+);
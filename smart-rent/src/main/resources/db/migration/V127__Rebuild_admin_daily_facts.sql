@@ -0,0 +1,5 @@
+-- Migration V127: the admin daily fact cube gains the TRANSACTIONS_BY_STATUS
+-- metric (transaction statistics). Dropping the cube's watermark makes the
+-- next AdminFactCubeService run rebuild every metric from the raw tables;
+-- until then all days are read live.
+DELETE FROM rollup_watermarks WHERE rollup_name = 'admin_daily_facts';
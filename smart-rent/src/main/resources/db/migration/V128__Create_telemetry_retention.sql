@@ -0,0 +1,82 @@
+-- Migration V128: retention for the high-volume telemetry tables.
+--
+-- search_query_impressions, search_suggestion_clicks, views and phone_clicks
+-- grew forever. RetentionServiceImpl now rolls raw rows up and deletes them
+-- once they are older than their table's retention:
+--
+--   * the two search telemetry tables are rolled up per day into the
+--     aggregates below (watermarks in rollup_watermarks), then deleted;
+--   * views are already rolled up into listing_engagement_hourly/_daily and
+--     counted in listing_engagement_totals, so they are simply deleted;
+--   * phone_clicks are compacted: only the latest click of each
+--     (listing, user) pair is kept, so "who clicked" and "my clicked
+--     listings" survive while the click counts live in the rollups.
+
+CREATE TABLE IF NOT EXISTS search_query_daily (
+    stat_date DATE NOT NULL,
+    query_norm VARCHAR(256) NOT NULL,
+    impressions BIGINT NOT NULL DEFAULT 0,
+    zero_result_impressions BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (stat_date, query_norm)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+  COMMENT = 'Daily rollup of search_query_impressions';
+
+CREATE TABLE IF NOT EXISTS search_suggestion_click_daily (
+    stat_date DATE NOT NULL,
+    suggestion_type VARCHAR(20) NOT NULL,
+    suggestion_text VARCHAR(512) NOT NULL,
+    clicks BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (stat_date, suggestion_type, suggestion_text)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+  COMMENT = 'Daily rollup of search_suggestion_clicks';
+
+-- Keyset position of each table's retention sweep, so a sweep cut short by
+-- the per-run batch limit resumes where it stopped.
+CREATE TABLE IF NOT EXISTS retention_cursors (
+    table_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Monthly range partitions on created_at for the two search telemetry
+-- tables, so whole expired months are dropped instead of deleted row by row.
+-- They have no foreign keys (V72), which partitioning requires; views and
+-- phone_clicks do, so they stay unpartitioned. The partition column must be
+-- part of the primary key. Everything before November 2026 starts in one
+-- partition; RetentionServiceImpl adds the monthly ones ahead of time by
+-- splitting p_future. Idempotent: skipped when a table is already partitioned.
+SET @partitioned = (SELECT COUNT(*) FROM information_schema.partitions
+                    WHERE table_schema = DATABASE() AND table_name = 'search_query_impressions'
+                      AND partition_name IS NOT NULL);
+SET @ddl = IF(@partitioned = 0,
+    'ALTER TABLE search_query_impressions DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at)',
+    'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @ddl = IF(@partitioned = 0,
+    'ALTER TABLE search_query_impressions PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION p_initial VALUES LESS THAN (''2026-11-01''),
+        PARTITION p_future VALUES LESS THAN (MAXVALUE))',
+    'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @partitioned = (SELECT COUNT(*) FROM information_schema.partitions
+                    WHERE table_schema = DATABASE() AND table_name = 'search_suggestion_clicks'
+                      AND partition_name IS NOT NULL);
+SET @ddl = IF(@partitioned = 0,
+    'ALTER TABLE search_suggestion_clicks DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at)',
+    'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @ddl = IF(@partitioned = 0,
+    'ALTER TABLE search_suggestion_clicks PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION p_initial VALUES LESS THAN (''2026-11-01''),
+        PARTITION p_future VALUES LESS THAN (MAXVALUE))',
+    'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,29 @@
+-- Migration V129: index the "listings changed since" poll.
+-- ============================================================================
+-- ListingVectorIndex and RegionCandidatePools fold in edited listings every
+-- minute through ListingRepository.findIdsUpdatedSince, a keyset walk on
+-- (updated_at, listing_id) from the last pass. No index leads with
+-- updated_at (the admin sort indexes put it behind is_shadow /
+-- vip_type_sort_order), so each poll was a full scan of listings to return a
+-- handful of rows.
+--
+-- With (updated_at, listing_id) the seek predicate
+--     updated_at >= :since AND (updated_at > :since OR listing_id > :afterId)
+-- is a range scan starting at the watermark, already in ORDER BY order, and
+-- covering for the selected columns — O(rows changed) per poll.
+--
+-- Idempotent via information_schema check, matching the V94-V109 style.
+-- ============================================================================
+
+SET @idx_exists = (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE()
+                     AND table_name = 'listings'
+                     AND index_name = 'idx_listings_updated_at_id');
+SET @sql = IF(@idx_exists = 0,
+    'CREATE INDEX idx_listings_updated_at_id ON listings (updated_at, listing_id)',
+    'SELECT 1');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ANALYZE TABLE listings;
@@ -0,0 +1,15 @@
+-- Migration V130: re-close admin fact cube days whose rows changed.
+--
+-- The listing metrics of admin_daily_facts count non-draft listings by the
+-- day they were created, but a draft can be published and a listing deleted
+-- long after its day was closed. AdminFactCubeService.restateChangedDays
+-- re-closes such days: updated rows are found through their updated_at
+-- (idx_listings_updated_at_id, V129), deleted ones through this table, where
+-- the deleting transaction marks the listing's creation day.
+--
+-- marks counts the marks since the day was last re-closed; a day is only
+-- unmarked if no new mark arrived while it was being re-closed.
+CREATE TABLE IF NOT EXISTS admin_fact_dirty_days (
+    fact_date DATE NOT NULL PRIMARY KEY,
+    marks INT NOT NULL DEFAULT 1
+);
@@ -0,0 +1,24 @@
+-- Migration V131: index the "transactions changed since" scan.
+-- ============================================================================
+-- The REVENUE and TRANSACTIONS_BY_STATUS metrics of admin_daily_facts count
+-- transactions by creation day and status, but a transaction can be
+-- refunded or cancelled long after its day was closed.
+-- AdminFactCubeService.restateChangedDays re-closes the creation days of the
+-- transactions updated since its last pass; without an index leading with
+-- updated_at each pass would scan the whole table.
+--
+-- Idempotent via information_schema check, matching the V94-V109 style.
+-- ============================================================================
+
+SET @idx_exists = (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE()
+                     AND table_name = 'transactions'
+                     AND index_name = 'idx_transactions_updated_at');
+SET @sql = IF(@idx_exists = 0,
+    'CREATE INDEX idx_transactions_updated_at ON transactions (updated_at, created_at)',
+    'SELECT 1');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ANALYZE TABLE transactions;
@@ -0,0 +1,104 @@
+package com.smartrent.service.admin.analytics;
+
+import com.smartrent.infra.repository.RollupWatermarkRepository;
+import com.smartrent.infra.repository.entity.RollupWatermark;
+import com.smartrent.service.admin.analytics.AdminFactCubeReader.Fact;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminFactCubeReaderTest {
+
+    private static final LocalDate WATERMARK = LocalDate.of(2026, 3, 3);
+
+    private RollupWatermarkRepository rollupWatermarkRepository;
+    private EntityManager entityManager;
+    private Query cube;
+    private Query live;
+    private AdminFactCubeReader reader;
+
+    @BeforeEach
+    void setUp() {
+        rollupWatermarkRepository = mock(RollupWatermarkRepository.class);
+        entityManager = mock(EntityManager.class);
+        cube = mock(Query.class, RETURNS_SELF);
+        live = mock(Query.class, RETURNS_SELF);
+        when(cube.getResultList()).thenReturn(List.of());
+        when(live.getResultList()).thenReturn(List.of());
+        when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation ->
+                ((String) invocation.getArgument(0)).contains("FROM admin_daily_facts") ? cube : live);
+        reader = new AdminFactCubeReader(rollupWatermarkRepository);
+        ReflectionTestUtils.setField(reader, "entityManager", entityManager);
+    }
+
+    @Test
+    @DisplayName("days before the watermark come from the cube, the watermark day onwards from the raw tables")
+    void splitsAtWatermark() {
+        watermark(WATERMARK);
+        when(cube.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[] {Date.valueOf("2026-03-02"), "RENT", 2L, new BigDecimal("0")}));
+        when(live.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[] {Date.valueOf("2026-03-03"), "", 1L, 0}));
+
+        List<Fact> facts = reader.facts(AdminFactMetric.LISTINGS_BY_TYPE, LocalDate.of(2026, 3, 1), WATERMARK);
+
+        assertThat(facts).containsExactly(
+                new Fact(LocalDate.of(2026, 3, 2), "RENT", 2, BigDecimal.ZERO),
+                new Fact(WATERMARK, null, 1, BigDecimal.ZERO));
+        verify(cube).setParameter(2, LocalDate.of(2026, 3, 1));
+        verify(cube).setParameter(3, WATERMARK);
+        verify(entityManager).createNativeQuery(AdminFactMetric.LISTINGS_BY_TYPE.dailyQuery());
+        verify(live).setParameter(1, WATERMARK.atStartOfDay());
+        verify(live).setParameter(2, WATERMARK.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    @DisplayName("a range ending the day before the watermark is read from the cube only")
+    void closedRangeFromCube() {
+        watermark(WATERMARK);
+
+        reader.facts(AdminFactMetric.LISTINGS_BY_TYPE, LocalDate.of(2026, 3, 1), WATERMARK.minusDays(1));
+
+        verify(cube).setParameter(3, WATERMARK);
+        verify(live, never()).getResultList();
+    }
+
+    @Test
+    @DisplayName("a range from the watermark on, or any range before the first close, is read live")
+    void openRangeLive() {
+        watermark(WATERMARK);
+        reader.facts(AdminFactMetric.NEW_USERS, WATERMARK, WATERMARK);
+
+        when(rollupWatermarkRepository.findById(AdminFactCubeService.ROLLUP_NAME)).thenReturn(Optional.empty());
+        reader.facts(AdminFactMetric.NEW_USERS, LocalDate.of(2026, 3, 1), WATERMARK);
+
+        verify(cube, never()).getResultList();
+        verify(live).setParameter(1, WATERMARK.atStartOfDay());
+        verify(live).setParameter(1, LocalDate.of(2026, 3, 1).atStartOfDay());
+    }
+
+    private void watermark(LocalDate closedUntil) {
+        when(rollupWatermarkRepository.findById(AdminFactCubeService.ROLLUP_NAME)).thenReturn(Optional.of(
+                RollupWatermark.builder()
+                        .rollupName(AdminFactCubeService.ROLLUP_NAME)
+                        .rolledUpTo(closedUntil.atStartOfDay())
+                        .build()));
+    }
+}
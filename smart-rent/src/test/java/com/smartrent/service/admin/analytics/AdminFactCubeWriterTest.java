@@ -0,0 +1,48 @@
+package com.smartrent.service.admin.analytics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminFactCubeWriterTest {
+
+    @Test
+    @DisplayName("a transaction refunded today restates its creation day, each changed-days query runs once")
+    void changedDaysOfUpdatedRows() {
+        EntityManager entityManager = mock(EntityManager.class);
+        Query transactions = mock(Query.class, RETURNS_SELF);
+        Query listings = mock(Query.class, RETURNS_SELF);
+        when(transactions.getResultList()).thenReturn(List.of(Date.valueOf("2026-02-10")));
+        when(listings.getResultList()).thenReturn(Arrays.asList(Date.valueOf("2026-03-01"), null));
+        when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation ->
+                ((String) invocation.getArgument(0)).contains("FROM transactions") ? transactions : listings);
+        AdminFactCubeWriter writer = new AdminFactCubeWriter();
+        ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+        LocalDateTime from = LocalDateTime.of(2026, 3, 20, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 3, 20, 11, 0);
+
+        assertThat(writer.changedDays(from, to)).containsExactly(LocalDate.of(2026, 2, 10), LocalDate.of(2026, 3, 1));
+
+        verify(entityManager).createNativeQuery(AdminFactMetric.REVENUE.changedDaysQuery());
+        verify(entityManager).createNativeQuery(AdminFactMetric.LISTINGS_BY_TYPE.changedDaysQuery());
+        verify(entityManager, times(2)).createNativeQuery(anyString());
+        verify(transactions).setParameter(1, from);
+        verify(transactions).setParameter(2, to);
+    }
+}
@@ -0,0 +1,92 @@
+package com.smartrent.service.admin.analytics.impl;
+
+import com.smartrent.infra.repository.RollupWatermarkRepository;
+import com.smartrent.infra.repository.entity.RollupWatermark;
+import com.smartrent.service.admin.analytics.AdminFactCubeService;
+import com.smartrent.service.admin.analytics.AdminFactCubeWriter;
+import com.smartrent.service.admin.analytics.impl.AdminFactCubeServiceImpl.Chunk;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminFactCubeServiceImplTest {
+
+    @Test
+    @DisplayName("backfill chunks cover the range exactly, the last one shortened")
+    void chunksCoverRange() {
+        List<Chunk> chunks = AdminFactCubeServiceImpl.chunks(
+                LocalDate.of(2026, 1, 30), LocalDate.of(2026, 3, 5), 30);
+
+        assertThat(chunks).containsExactly(
+                new Chunk(LocalDate.of(2026, 1, 30), LocalDate.of(2026, 3, 1)),
+                new Chunk(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 5)));
+    }
+
+    @Test
+    @DisplayName("an empty range has no chunks")
+    void emptyRange() {
+        LocalDate day = LocalDate.of(2026, 3, 1);
+        assertThat(AdminFactCubeServiceImpl.chunks(day, day, 30)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("changed days are closed again in runs of consecutive days, at most maxDays long")
+    void runsOfChangedDays() {
+        TreeSet<LocalDate> days = new TreeSet<>(List.of(
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 3),
+                LocalDate.of(2026, 3, 7)));
+
+        assertThat(AdminFactCubeServiceImpl.runs(days, 2)).containsExactly(
+                new Chunk(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 3)),
+                new Chunk(LocalDate.of(2026, 3, 3), LocalDate.of(2026, 3, 4)),
+                new Chunk(LocalDate.of(2026, 3, 7), LocalDate.of(2026, 3, 8)));
+    }
+
+    @Test
+    @DisplayName("updated and marked days before the watermark are closed again; marks are cleared, open days skipped")
+    void restatesChangedClosedDays() {
+        AdminFactCubeWriter writer = mock(AdminFactCubeWriter.class);
+        RollupWatermarkRepository watermarks = mock(RollupWatermarkRepository.class);
+        LocalDate closedUntil = LocalDate.now();
+        LocalDateTime lastPass = closedUntil.atStartOfDay().minusHours(2);
+        when(watermarks.findById(AdminFactCubeService.ROLLUP_NAME)).thenReturn(Optional.of(
+                watermark(AdminFactCubeService.ROLLUP_NAME, closedUntil.atStartOfDay())));
+        when(watermarks.findById(AdminFactCubeService.CHANGES_NAME)).thenReturn(Optional.of(
+                watermark(AdminFactCubeService.CHANGES_NAME, lastPass)));
+        when(writer.changedDays(any(), any())).thenReturn(new TreeSet<>(List.of(
+                closedUntil.minusDays(40), closedUntil)));
+        when(writer.markedDays()).thenReturn(Map.of(closedUntil.minusDays(39), 2));
+        AdminFactCubeServiceImpl service = new AdminFactCubeServiceImpl(writer, watermarks);
+        ReflectionTestUtils.setField(service, "backfillChunkDays", 30);
+
+        service.restateChangedDays();
+
+        verify(writer).closeDays(closedUntil.minusDays(40), closedUntil.minusDays(38));
+        verify(writer).unmarkDay(closedUntil.minusDays(39), 2);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(writer).changedDays(eq(lastPass), to.capture());
+        ArgumentCaptor<RollupWatermark> saved = ArgumentCaptor.forClass(RollupWatermark.class);
+        verify(watermarks).save(saved.capture());
+        assertThat(saved.getValue().getRollupName()).isEqualTo(AdminFactCubeService.CHANGES_NAME);
+        assertThat(saved.getValue().getRolledUpTo()).isEqualTo(to.getValue());
+    }
+
+    private static RollupWatermark watermark(String name, LocalDateTime rolledUpTo) {
+        return RollupWatermark.builder().rollupName(name).rolledUpTo(rolledUpTo).build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.smartrent.service.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartrent.dto.request.AiParsedCriteriaDto;
+import com.smartrent.dto.request.SearchRequest;
+import com.smartrent.infra.client.AiServerClient;
+import com.smartrent.infra.repository.ListingRepository;
+import com.smartrent.infra.repository.UserRepository;
+import com.smartrent.infra.repository.entity.Listing;
+import com.smartrent.mapper.AddressMapper;
+import com.smartrent.mapper.ListingMapper;
+import com.smartrent.mapper.UserMapper;
+import com.smartrent.service.discovery.AmenityResolver;
+import com.smartrent.service.discovery.LocationFuzzyIndex;
+import com.smartrent.util.SearchQueryParser;
+import com.smartrent.util.TextNormalizer;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The local fast path in front of the AI parser: a query the local parser
+ * fully accounts for never reaches the AI server, anything else still does,
+ * and the parse source is counted for the local hit ratio.
+ */
+@ExtendWith(MockitoExtension.class)
+class AiSearchServiceFastPathTest {
+
+    @Mock AiServerClient aiServerClient;
+    @Mock ListingRepository listingRepository;
+    @Mock UserRepository userRepository;
+    @Mock ListingMapper listingMapper;
+    @Mock UserMapper userMapper;
+    @Mock AddressMapper addressMapper;
+    @Mock StringRedisTemplate redisTemplate;
+    @Mock AmenityResolver amenityResolver;
+    @Mock LocationFuzzyIndex locationFuzzyIndex;
+
+    SimpleMeterRegistry meterRegistry;
+    AiSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new AiSearchService(aiServerClient, listingRepository, userRepository,
+                listingMapper, userMapper, addressMapper, redisTemplate, new ObjectMapper(),
+                amenityResolver, locationFuzzyIndex, meterRegistry);
+        lenient().when(amenityResolver.resolve(any())).thenReturn(new AmenityResolver.Resolved(Set.of(), List.of()));
+        lenient().when(listingRepository.findAll(any(Specification.class), any(PageRequest.class)))
+                .thenReturn(Page.<Listing>empty());
+    }
+
+    @Test
+    @DisplayName("fully parsed query with a known district skips the AI call")
+    void fullyParsedQuerySkipsAi() {
+        when(locationFuzzyIndex.search(eq("quan 7"), anyDouble(), anyInt()))
+                .thenReturn(List.of(districtMatch("Quận 7")));
+
+        service.searchByNaturalLanguage(request("phòng trọ quận 7 dưới 3 triệu"), PageRequest.of(0, 10));
+
+        verify(aiServerClient, never()).parseNaturalLanguage(any(), any());
+        assertEquals(1.0, parseCount("local"));
+    }
+
+    @Test
+    @DisplayName("unknown leftover words still go to the AI parser")
+    void unresolvedLeftoverCallsAi() {
+        when(aiServerClient.parseNaturalLanguage(any(), any()))
+                .thenReturn(AiParsedCriteriaDto.builder().keyword("masteri").build());
+
+        service.searchByNaturalLanguage(request("căn hộ masteri thảo điền"), PageRequest.of(0, 10));
+
+        verify(aiServerClient).parseNaturalLanguage(any(), any());
+        assertEquals(1.0, parseCount("ai"));
+    }
+
+    @Test
+    @DisplayName("the parse call carries its own strict timeouts")
+    void parseCallHasOwnTimeouts() {
+        Request.Options options = service.parseOptions();
+
+        assertEquals(500, options.connectTimeoutUnit().toMillis(options.connectTimeout()));
+        assertEquals(1500, options.readTimeoutUnit().toMillis(options.readTimeout()));
+    }
+
+    @Test
+    @DisplayName("AI failure or timeout falls back to the local parse")
+    void aiFailureFallsBackToLocal() {
+        when(aiServerClient.parseNaturalLanguage(any(), any())).thenThrow(new RuntimeException("read timed out"));
+
+        service.searchByNaturalLanguage(request("căn hộ masteri thảo điền"), PageRequest.of(0, 10));
+
+        assertEquals(1.0, parseCount("ai_fallback"));
+    }
+
+    @Test
+    @DisplayName("confidence is the share of tokens the local parse accounted for")
+    void confidenceCountsUnaccountedTokens() {
+        String query = "căn hộ masteri thảo điền dưới 10 triệu";
+        SearchQueryParser.ParsedQuery parsed = SearchQueryParser.parse(query);
+        String normalized = TextNormalizer.normalize(query);
+
+        assertEquals(1.0, AiSearchService.localConfidence(parsed, normalized, true, List.of()));
+        // "masteri thao" is left over (2 of 8 tokens) and resolves to no place.
+        assertEquals(1.0 - 2.0 / 8.0,
+                AiSearchService.localConfidence(parsed, normalized, false, List.of()), 1e-9);
+        assertEquals(1.0 - 4.0 / 8.0,
+                AiSearchService.localConfidence(parsed, normalized, false, List.of("ban cong")), 1e-9);
+        assertEquals(0.0, AiSearchService.localConfidence(
+                SearchQueryParser.parse(""), "", true, List.of()), 1e-9);
+    }
+
+    private double parseCount(String source) {
+        return meterRegistry.get("search.nl.parse").tag("source", source).counter().count();
+    }
+
+    private static SearchRequest request(String query) {
+        SearchRequest request = new SearchRequest();
+        request.setQuery(query);
+        return request;
+    }
+
+    private static LocationFuzzyIndex.Match districtMatch(String name) {
+        return new LocationFuzzyIndex.Match(LocationFuzzyIndex.Kind.DISTRICT, name,
+                1, 1, null, null, "79", "778", null, "Hồ Chí Minh", name, null, 1.0);
+    }
+}
@@ -0,0 +1,173 @@
+package com.smartrent.service.analytics;
+
+import com.smartrent.infra.repository.PhoneClickDetailRepository;
+import com.smartrent.infra.repository.RollupWatermarkRepository;
+import com.smartrent.infra.repository.SavedListingRepository;
+import com.smartrent.infra.repository.ViewRepository;
+import com.smartrent.infra.repository.entity.RollupWatermark;
+import com.smartrent.service.analytics.EngagementRollupReader.Day;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EngagementRollupReaderTest {
+
+    private static final Long LISTING = 7L;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private RollupWatermarkRepository rollupWatermarkRepository;
+    private ViewRepository viewRepository;
+    private PhoneClickDetailRepository phoneClickDetailRepository;
+    private SavedListingRepository savedListingRepository;
+    private EntityManager entityManager;
+    private Query hourly;
+    private Query dailySince;
+    private Query dailyAll;
+    private EngagementRollupReader reader;
+
+    @BeforeEach
+    void setUp() {
+        rollupWatermarkRepository = mock(RollupWatermarkRepository.class);
+        viewRepository = mock(ViewRepository.class);
+        phoneClickDetailRepository = mock(PhoneClickDetailRepository.class);
+        savedListingRepository = mock(SavedListingRepository.class);
+        entityManager = mock(EntityManager.class);
+        hourly = query();
+        dailySince = query();
+        dailyAll = query();
+        when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.contains("listing_engagement_hourly")) {
+                return hourly;
+            }
+            return sql.contains("bucket_date > ?") ? dailySince : dailyAll;
+        });
+        when(viewRepository.countViewsGroupedByDateSince(anyLong(), any())).thenReturn(List.of());
+        when(phoneClickDetailRepository.countClicksGroupedByDateSince(anyLong(), any())).thenReturn(List.of());
+        when(savedListingRepository.countSavesGroupedByDateSince(anyLong(), any())).thenReturn(List.of());
+
+        reader = new EngagementRollupReader(rollupWatermarkRepository, viewRepository,
+                phoneClickDetailRepository, savedListingRepository);
+        ReflectionTestUtils.setField(reader, "entityManager", entityManager);
+    }
+
+    @Test
+    @DisplayName("the first day comes from hourly buckets from the hour of since, later days from daily ones, then the raw tail")
+    void firstDayFromHourlyBuckets() {
+        watermark(LocalDateTime.of(2026, 3, 3, 0, 0));
+        when(hourly.getResultList()).thenReturn(rows(new Object[] {Date.valueOf("2026-03-01"), 4L, 1L, 0L}));
+        when(dailySince.getResultList()).thenReturn(rows(new Object[] {Date.valueOf("2026-03-02"), 10, 2, 1}));
+        when(viewRepository.countViewsGroupedByDateSince(LISTING, LocalDateTime.of(2026, 3, 3, 0, 0)))
+                .thenReturn(rows(new Object[] {LocalDate.of(2026, 3, 3), 5L}));
+
+        List<Day> days = reader.daily(LISTING, LocalDateTime.of(2026, 3, 1, 10, 30));
+
+        assertThat(days).containsExactly(
+                new Day(LocalDate.of(2026, 3, 1), 4, 1, 0),
+                new Day(LocalDate.of(2026, 3, 2), 10, 2, 1),
+                new Day(LocalDate.of(2026, 3, 3), 5, 0, 0));
+        verify(hourly).setParameter(2, LocalDateTime.of(2026, 3, 1, 10, 0));
+        verify(hourly).setParameter(3, LocalDateTime.of(2026, 3, 2, 0, 0));
+        verify(dailySince).setParameter(2, LocalDate.of(2026, 3, 1));
+        verify(dailyAll, never()).getResultList();
+    }
+
+    @Test
+    @DisplayName("a watermark inside the first day ends the hourly read there and the raw tail takes over")
+    void watermarkInsideFirstDay() {
+        LocalDateTime watermark = LocalDateTime.of(2026, 3, 1, 14, 0);
+        watermark(watermark);
+        when(hourly.getResultList()).thenReturn(rows(new Object[] {Date.valueOf("2026-03-01"), 4L, 1L, 0L}));
+        when(viewRepository.countViewsGroupedByDateSince(LISTING, watermark))
+                .thenReturn(rows(new Object[] {LocalDate.of(2026, 3, 1), 2L}));
+        when(savedListingRepository.countSavesGroupedByDateSince(LISTING, watermark))
+                .thenReturn(rows(new Object[] {Date.valueOf("2026-03-01"), 1L}));
+
+        List<Day> days = reader.daily(LISTING, LocalDateTime.of(2026, 3, 1, 10, 30));
+
+        assertThat(days).containsExactly(new Day(LocalDate.of(2026, 3, 1), 6, 1, 1));
+        verify(hourly).setParameter(3, watermark);
+        verify(phoneClickDetailRepository).countClicksGroupedByDateSince(LISTING, watermark);
+    }
+
+    @Test
+    @DisplayName("a window starting at or after the watermark is read from the raw tables only")
+    void sinceAfterWatermark() {
+        watermark(LocalDateTime.of(2026, 3, 1, 14, 0));
+        LocalDateTime since = LocalDateTime.of(2026, 3, 1, 15, 0);
+
+        reader.daily(LISTING, since);
+
+        verify(entityManager, never()).createNativeQuery(anyString());
+        verify(viewRepository).countViewsGroupedByDateSince(LISTING, since);
+    }
+
+    @Test
+    @DisplayName("without since, every daily bucket is read and the raw tail starts at the watermark")
+    void allTime() {
+        LocalDateTime watermark = LocalDateTime.of(2026, 3, 3, 0, 0);
+        watermark(watermark);
+        when(dailyAll.getResultList()).thenReturn(rows(
+                new Object[] {Date.valueOf("2026-02-27"), 1L, 0L, 0L},
+                new Object[] {Date.valueOf("2026-03-02"), 3L, 1L, 1L}));
+
+        List<Day> days = reader.daily(LISTING, null);
+
+        assertThat(days).containsExactly(
+                new Day(LocalDate.of(2026, 2, 27), 1, 0, 0),
+                new Day(LocalDate.of(2026, 3, 2), 3, 1, 1));
+        verify(hourly, never()).getResultList();
+        verify(dailySince, never()).getResultList();
+        verify(viewRepository).countViewsGroupedByDateSince(LISTING, watermark);
+    }
+
+    @Test
+    @DisplayName("before the first rollup, everything is counted from the raw tables")
+    void noWatermark() {
+        when(rollupWatermarkRepository.findById(EngagementRollupService.ROLLUP_NAME)).thenReturn(Optional.empty());
+        when(phoneClickDetailRepository.countClicksGroupedByDateSince(LISTING, BEGINNING))
+                .thenReturn(rows(new Object[] {LocalDate.of(2026, 3, 1), 2L}));
+
+        assertThat(reader.daily(LISTING, null)).containsExactly(new Day(LocalDate.of(2026, 3, 1), 0, 2, 0));
+
+        LocalDateTime since = LocalDateTime.of(2026, 3, 1, 10, 30);
+        reader.daily(LISTING, since);
+
+        verify(entityManager, never()).createNativeQuery(anyString());
+        verify(savedListingRepository).countSavesGroupedByDateSince(LISTING, since);
+    }
+
+    private void watermark(LocalDateTime rolledUpTo) {
+        when(rollupWatermarkRepository.findById(EngagementRollupService.ROLLUP_NAME)).thenReturn(Optional.of(
+                RollupWatermark.builder().rollupName(EngagementRollupService.ROLLUP_NAME).rolledUpTo(rolledUpTo).build()));
+    }
+
+    private static Query query() {
+        Query query = mock(Query.class, RETURNS_SELF);
+        when(query.getResultList()).thenReturn(List.of());
+        return query;
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+}
@@ -0,0 +1,93 @@
+package com.smartrent.service.analytics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EngagementRollupWriterTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 3, 1, 10, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private EntityManager entityManager;
+    private Query query;
+    private EngagementRollupWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        query = mock(Query.class, RETURNS_SELF);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+        writer = new EngagementRollupWriter();
+        ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+    }
+
+    @Test
+    @DisplayName("re-rolling a range whose events are gone clears its hours and days instead of keeping the old rows")
+    void rerolledEmptyRangeIsCleared() {
+        assertThat(writer.rollUp(FROM, TO)).isZero();
+
+        List<String> statements = statements();
+        assertThat(statements).noneMatch(sql -> sql.startsWith("INSERT INTO listing_engagement_hourly"));
+        assertThat(statements).contains(
+                "DELETE FROM listing_engagement_hourly WHERE bucket_hour >= ? AND bucket_hour < ?",
+                "DELETE FROM listing_engagement_daily WHERE bucket_date >= ? AND bucket_date < ?");
+        verify(query, atLeastOnce()).setParameter(1, FROM);
+        verify(query, atLeastOnce()).setParameter(2, TO);
+        verify(query).setParameter(1, LocalDate.of(2026, 3, 1));
+        verify(query).setParameter(2, LocalDate.of(2026, 3, 2));
+    }
+
+    @Test
+    @DisplayName("the range is cleared before its remaining buckets are written, and days before they are re-summed")
+    void clearsBeforeWriting() {
+        when(query.getResultList())
+                .thenReturn(List.of((Object) new Object[] {7L, Date.valueOf("2026-03-01"), 11, 3L}))
+                .thenReturn(List.of());
+
+        assertThat(writer.rollUp(FROM, TO)).isEqualTo(1);
+
+        List<String> statements = statements();
+        int clearHours = indexOf(statements, "DELETE FROM listing_engagement_hourly");
+        int upsert = indexOf(statements, "INSERT INTO listing_engagement_hourly");
+        int clearDays = indexOf(statements, "DELETE FROM listing_engagement_daily");
+        int resum = indexOf(statements, "INSERT INTO listing_engagement_daily");
+        assertThat(clearHours).isLessThan(upsert);
+        assertThat(upsert).isLessThan(clearDays);
+        assertThat(clearDays).isLessThan(resum);
+        verify(query).setParameter(2, LocalDateTime.of(2026, 3, 1, 11, 0));
+    }
+
+    private List<String> statements() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager, atLeastOnce()).createNativeQuery(sql.capture());
+        return sql.getAllValues();
+    }
+
+    private static int indexOf(List<String> statements, String prefix) {
+        for (int i = 0; i < statements.size(); i++) {
+            if (statements.get(i).startsWith(prefix)) {
+                return i;
+            }
+        }
+        throw new AssertionError("no statement starting with " + prefix + " in " + statements);
+    }
+}
@@ -0,0 +1,31 @@
+package com.smartrent.service.analytics.impl;
+
+import com.smartrent.service.analytics.impl.EngagementRollupServiceImpl.Chunk;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EngagementRollupServiceImplTest {
+
+    @Test
+    @DisplayName("backfill chunks cover whole hours and break on midnight, so no two chunks share a day")
+    void chunksAreDayAligned() {
+        List<Chunk> chunks = EngagementRollupServiceImpl.chunks(
+                LocalDateTime.of(2026, 3, 1, 10, 25), LocalDateTime.of(2026, 3, 4, 6, 5), 2);
+
+        assertThat(chunks).containsExactly(
+                new Chunk(LocalDateTime.of(2026, 3, 1, 10, 0), LocalDateTime.of(2026, 3, 3, 0, 0)),
+                new Chunk(LocalDateTime.of(2026, 3, 3, 0, 0), LocalDateTime.of(2026, 3, 4, 7, 0)));
+    }
+
+    @Test
+    @DisplayName("an empty range has no chunks")
+    void emptyRange() {
+        LocalDateTime hour = LocalDateTime.of(2026, 3, 1, 10, 0);
+        assertThat(EngagementRollupServiceImpl.chunks(hour, hour, 7)).isEmpty();
+    }
+}
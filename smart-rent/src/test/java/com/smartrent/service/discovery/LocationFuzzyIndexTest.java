@@ -1,5 +1,10 @@
 package com.smartrent.service.discovery;
 
+import com.smartrent.infra.repository.LegacyDistrictRepository;
+import com.smartrent.infra.repository.LegacyProvinceRepository;
+import com.smartrent.infra.repository.LegacyWardRepository;
+import com.smartrent.infra.repository.StreetRepository;
+import com.smartrent.infra.repository.WardRepository;
 import com.smartrent.infra.repository.entity.District;
 import com.smartrent.infra.repository.entity.LegacyProvince;
 import org.junit.jupiter.api.DisplayName;
@@ -10,7 +15,10 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Exercises the Spring-free core of {@link LocationFuzzyIndex}: a misspelt
@@ -192,4 +200,149 @@ class LocationFuzzyIndexTest {
         assertFalse(LocationFuzzyIndex
                 .resolveLocationPhraseIn(sampleIndex(), "tan binh quan 7").isPresent());
     }
+
+    // ── Ward / street segments ───────────────────────────────────────────────
+
+    private List<LocationFuzzyIndex.Segment> wardAndStreetSegments() {
+        LocationFuzzyIndex.Index admin = sampleIndex();
+        LocationFuzzyIndex.Segment wards = LocationFuzzyIndex.buildLegacyWardSegment(admin, List.of(
+                new Object[]{26734, "26734", "Phường Bến Nghé", "Bến Nghé", "79", "760"},
+                new Object[]{26965, "26965", "Phường 2", "2", "79", "766"},
+                new Object[]{26968, "26968", "Phường 4", "4", "79", "766"},
+                new Object[]{124, "00124", "Phường Tràng Tiền", "Tràng Tiền", "01", "007"},
+                // unknown province → skipped, it could never be filtered on
+                new Object[]{1, "00001", "Phường Lạc", "Lạc", "99", "999"}));
+        LocationFuzzyIndex.Segment streets = LocationFuzzyIndex.buildStreetSegment(admin, List.of(
+                new Object[]{501, "Hoàng Văn Thụ", "Đường", 79, 766},
+                new Object[]{502, "Cộng Hòa", "Đường", 79, 766}));
+        return List.of(admin.segment(), wards, streets);
+    }
+
+    @Test
+    @DisplayName("misspelt ward resolves with legacy ward, district and province ids")
+    void misspeltWardResolves() {
+        List<LocationFuzzyIndex.Match> hits = LocationFuzzyIndex.searchSegments(
+                wardAndStreetSegments(), "phuong ben nhge", LocationFuzzyIndex.DEFAULT_MIN_SCORE, 5,
+                LocationFuzzyIndex.PLACE_KINDS);
+
+        // The shared "phuong" marker alone must not drag in "Phường 2/4".
+        assertEquals(1, hits.size());
+        LocationFuzzyIndex.Match top = hits.get(0);
+        assertEquals(LocationFuzzyIndex.Kind.WARD, top.kind());
+        assertEquals(26734, top.legacyWardId().intValue());
+        assertEquals(79, top.legacyProvinceId().intValue());
+        assertEquals("26734", top.wardCode());
+    }
+
+    @Test
+    @DisplayName("street matches with and without its prefix, carrying parent district ids")
+    void streetResolves() {
+        List<LocationFuzzyIndex.Match> hits = LocationFuzzyIndex.searchSegments(
+                wardAndStreetSegments(), "hoang van thu", LocationFuzzyIndex.DEFAULT_MIN_SCORE, 5,
+                java.util.EnumSet.of(LocationFuzzyIndex.Kind.STREET));
+
+        assertEquals(1, hits.size());
+        assertEquals(501, hits.get(0).streetId().intValue());
+        assertEquals(766, hits.get(0).legacyDistrictId().intValue());
+        assertEquals("Đường Hoàng Văn Thụ", hits.get(0).display());
+    }
+
+    @Test
+    @DisplayName("kinds filter keeps streets out of the default place search")
+    void kindsFilterExcludesStreets() {
+        List<LocationFuzzyIndex.Match> hits = LocationFuzzyIndex.searchSegments(
+                wardAndStreetSegments(), "cong hoa", LocationFuzzyIndex.DEFAULT_MIN_SCORE, 5,
+                LocationFuzzyIndex.PLACE_KINDS);
+
+        assertTrue(hits.stream().noneMatch(m -> m.kind() == LocationFuzzyIndex.Kind.STREET));
+    }
+
+    @Test
+    @DisplayName("contains lookup ranks exact before prefix and honours the province scope")
+    void containsLookup() {
+        LocationFuzzyIndex.Segment wards = wardAndStreetSegments().get(1);
+
+        List<LocationFuzzyIndex.Match> all = LocationFuzzyIndex.containsIn(
+                wards, "tien", LocationFuzzyIndex.Kind.WARD, null, 5);
+        assertEquals(List.of("Phường Tràng Tiền"), all.stream().map(LocationFuzzyIndex.Match::display).toList());
+
+        assertTrue(LocationFuzzyIndex.containsIn(
+                wards, "tien", LocationFuzzyIndex.Kind.WARD, "79", 5).isEmpty());
+
+        List<LocationFuzzyIndex.Match> exactFirst = LocationFuzzyIndex.containsIn(
+                wards, "ben nghe", LocationFuzzyIndex.Kind.WARD, "79", 5);
+        assertEquals(26734, exactFirst.get(0).legacyWardId().intValue());
+    }
+
+    @Test
+    @DisplayName("spaceless input matches a ward through its compact name")
+    void containsLookupMatchesCompactKey() {
+        LocationFuzzyIndex.Segment wards = wardAndStreetSegments().get(1);
+
+        List<LocationFuzzyIndex.Match> hits = LocationFuzzyIndex.containsIn(
+                wards, "bennghe", LocationFuzzyIndex.Kind.WARD, null, 5);
+
+        assertEquals(1, hits.size());
+        assertEquals(26734, hits.get(0).legacyWardId().intValue());
+        assertTrue(LocationFuzzyIndex.containsIn(
+                wards, "trangtien", LocationFuzzyIndex.Kind.WARD, "01", 5).stream()
+                .anyMatch(m -> m.legacyWardId() == 124));
+    }
+
+    @Test
+    @DisplayName("a failed segment rebuild is retried on the next refresh")
+    void failedRebuildIsRetried() {
+        LegacyProvinceRepository provinces = mock(LegacyProvinceRepository.class);
+        LegacyDistrictRepository districts = mock(LegacyDistrictRepository.class);
+        LegacyWardRepository legacyWards = mock(LegacyWardRepository.class);
+        WardRepository newWards = mock(WardRepository.class);
+        StreetRepository streets = mock(StreetRepository.class);
+        List<Object[]> unchanged = List.<Object[]>of(new Object[]{1L, "2026-01-01"});
+        when(provinces.findChangeFingerprint()).thenReturn(unchanged);
+        when(districts.findChangeFingerprint()).thenReturn(unchanged);
+        when(newWards.findChangeFingerprint()).thenReturn(unchanged);
+        when(streets.findChangeFingerprint()).thenReturn(unchanged);
+        when(provinces.findAll()).thenReturn(List.of(
+                province(79, "79", "Thành phố Hồ Chí Minh", "Hồ Chí Minh"),
+                province(1, "01", "Thành phố Hà Nội", "Hà Nội")));
+        when(districts.findAll()).thenReturn(List.of(
+                district(760, "760", "79", "Quận 1", "1", "Thành phố Hồ Chí Minh")));
+        when(newWards.findSearchIndexRows()).thenReturn(List.of());
+        when(streets.findSearchIndexRows()).thenReturn(List.of());
+        when(legacyWards.findChangeFingerprint())
+                .thenReturn(unchanged)
+                .thenReturn(List.<Object[]>of(new Object[]{2L, "2026-02-01"}));
+        when(legacyWards.findSearchIndexRows())
+                .thenReturn(List.<Object[]>of(new Object[]{124, "00124", "Phường Tràng Tiền", "Tràng Tiền", "01", "007"}))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(List.<Object[]>of(
+                        new Object[]{124, "00124", "Phường Tràng Tiền", "Tràng Tiền", "01", "007"},
+                        new Object[]{26734, "26734", "Phường Bến Nghé", "Bến Nghé", "79", "760"}));
+        LocationFuzzyIndex index = new LocationFuzzyIndex(provinces, districts, legacyWards, newWards, streets);
+
+        index.refresh();
+        index.refresh();
+        assertTrue(index.findContaining("ben nghe", LocationFuzzyIndex.Kind.WARD, null, 5).isEmpty());
+
+        index.refresh();
+        assertEquals(26734, index.findContaining("ben nghe", LocationFuzzyIndex.Kind.WARD, null, 5)
+                .get(0).legacyWardId().intValue());
+    }
+
+    @Test
+    @DisplayName("new-structure wards carry their ward code and province code only")
+    void newWardSegment() {
+        LocationFuzzyIndex.Segment newWards = LocationFuzzyIndex.buildNewWardSegment(List.<Object[]>of(
+                new Object[]{1L, "26734", "Phường Sài Gòn", "Sài Gòn", "79", "Thành phố Hồ Chí Minh"}));
+
+        List<LocationFuzzyIndex.Match> hits = LocationFuzzyIndex.searchSegments(
+                List.of(newWards), "phuong sai gon", LocationFuzzyIndex.DEFAULT_MIN_SCORE, 5,
+                LocationFuzzyIndex.PLACE_KINDS);
+
+        assertEquals(1, hits.size());
+        assertEquals(LocationFuzzyIndex.Kind.NEW_WARD, hits.get(0).kind());
+        assertEquals("26734", hits.get(0).wardCode());
+        assertEquals("79", hits.get(0).provinceCode());
+        assertNull(hits.get(0).legacyWardId());
+    }
 }
@@ -0,0 +1,111 @@
+package com.smartrent.service.discovery;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SuggestionTierExecutorTest {
+
+    private SimpleMeterRegistry registry;
+    private SuggestionTierExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        executor = new SuggestionTierExecutor(registry, mock(PlatformTransactionManager.class), 50, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("a tier that finishes in budget returns its result and records latency")
+    void onTimeTierIsMerged() {
+        SuggestionTierExecutor.Deadline deadline = executor.deadline();
+        CompletableFuture<List<String>> tier = executor.submit("title", () -> List.of("a", "b"));
+
+        assertThat(executor.await("title", tier, deadline, List.of())).containsExactly("a", "b");
+        assertThat(registry.get("search.suggestions.tier.latency")
+                .tag("tier", "title").tag("outcome", "ok").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a tier that misses the budget is dropped without delaying the others")
+    void slowTierIsDropped() {
+        SuggestionTierExecutor.Deadline deadline = executor.deadline();
+        CompletableFuture<List<String>> slow = executor.submit("popular", () -> {
+            awaitRelease();
+            return List.of("late");
+        });
+        CompletableFuture<List<String>> fast = executor.submit("location", () -> List.of("quan 1"));
+
+        long start = System.nanoTime();
+        assertThat(executor.await("popular", slow, deadline, List.of())).isEmpty();
+        assertThat(executor.await("location", fast, deadline, List.of())).containsExactly("quan 1");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        assertThat(registry.get("search.suggestions.tier.timeouts")
+                .tag("tier", "popular").counter().count()).isEqualTo(1.0);
+        assertThat(deadline.degraded()).isTrue();
+    }
+
+    @Test
+    @DisplayName("a request whose tiers all arrive is not degraded")
+    void onTimeRequestIsNotDegraded() {
+        SuggestionTierExecutor.Deadline deadline = executor.deadline();
+        executor.await("title", executor.submit("title", () -> List.of("a")), deadline, List.of());
+
+        assertThat(deadline.degraded()).isFalse();
+        assertThat(executor.canStart("popular", deadline)).isTrue();
+    }
+
+    @Test
+    @DisplayName("a tier is not started once the budget is spent, and the request is degraded")
+    void spentBudgetSkipsTier() throws InterruptedException {
+        SuggestionTierExecutor.Deadline deadline = executor.deadline();
+        TimeUnit.MILLISECONDS.sleep(60);
+
+        assertThat(executor.canStart("popular", deadline)).isFalse();
+        assertThat(deadline.degraded()).isTrue();
+        assertThat(registry.get("search.suggestions.tier.timeouts")
+                .tag("tier", "popular").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("a failing tier degrades to the fallback")
+    void failingTierFallsBack() {
+        SuggestionTierExecutor.Deadline deadline = executor.deadline();
+        CompletableFuture<List<String>> broken = executor.submit("phonetic", () -> {
+            throw new IllegalStateException("db down");
+        });
+        CompletableFuture<List<String>> chained = executor.then("typo", broken, List::copyOf);
+
+        assertThat(executor.await("phonetic", broken, deadline, List.of())).isEmpty();
+        assertThat(executor.await("typo", chained, deadline, List.of())).isEmpty();
+        assertThat(deadline.degraded()).isTrue();
+        assertThat(registry.get("search.suggestions.tier.latency")
+                .tag("tier", "phonetic").tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.smartrent.service.discovery;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link SymSpellIndex}: candidates within the edit distance are
+ * found through the shared-delete lookup, ranked by distance then frequency,
+ * and multi-word queries are corrected token by token.
+ */
+class SymSpellIndexTest {
+
+    private SymSpellIndex sampleIndex() {
+        return SymSpellIndex.builder()
+                .add("binh thanh", "bình thạnh", 2_000)
+                .add("binh tan", "bình tân", 2_000)
+                .add("tan binh", "tân bình", 2_000)
+                .add("phong tro", "phòng trọ", 5_000)
+                .add("may lanh", "máy lạnh", 3_000)
+                .add("thanh", "thành", 10)
+                .add("binh", "bình", 500)
+                .build();
+    }
+
+    @Test
+    @DisplayName("one dropped char resolves to the intended phrase with its accented display")
+    void singleDeletionIsCorrected() {
+        List<SymSpellIndex.Suggestion> hits = sampleIndex().lookup("bnh thanh", 2, 5);
+
+        assertFalse(hits.isEmpty());
+        assertEquals("binh thanh", hits.get(0).term());
+        assertEquals("bình thạnh", hits.get(0).display());
+        assertEquals(1, hits.get(0).distance());
+    }
+
+    @Test
+    @DisplayName("typos beyond the prefix window are still verified on the full term")
+    void typoAfterPrefixIsFound() {
+        List<SymSpellIndex.Suggestion> hits = sampleIndex().lookup("binh thnah", 2, 5);
+
+        assertEquals("binh thanh", hits.get(0).term());
+        assertEquals(2, hits.get(0).distance());
+    }
+
+    @Test
+    @DisplayName("exact hits come back at distance 0 and outrank near misses")
+    void exactHitRanksFirst() {
+        List<SymSpellIndex.Suggestion> hits = sampleIndex().lookup("binh tan", 2, 5);
+
+        assertEquals("binh tan", hits.get(0).term());
+        assertEquals(0, hits.get(0).distance());
+    }
+
+    @Test
+    @DisplayName("equal distance ties are broken by frequency")
+    void frequencyBreaksTies() {
+        SymSpellIndex idx = SymSpellIndex.builder()
+                .add("quan", "quận", 5_000)
+                .add("quat", "quạt", 10)
+                .build();
+
+        List<SymSpellIndex.Suggestion> hits = idx.lookup("qua", 1, 5);
+
+        assertEquals(List.of("quan", "quat"), hits.stream().map(SymSpellIndex.Suggestion::term).toList());
+    }
+
+    @Test
+    @DisplayName("nothing beyond the edit distance is returned")
+    void distantTermsAreRejected() {
+        assertTrue(sampleIndex().lookup("vinhomes", 2, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("compound lookup fixes each unknown word and keeps known ones")
+    void compoundCorrectsWordByWord() {
+        Optional<SymSpellIndex.Suggestion> fixed = sampleIndex().lookupCompound("binh thnh");
+
+        assertTrue(fixed.isPresent());
+        assertEquals("binh thanh", fixed.get().term());
+        assertEquals("bình thành", fixed.get().display());
+    }
+
+    @Test
+    @DisplayName("the empty index never throws and finds nothing")
+    void emptyIndexIsSafe() {
+        assertTrue(SymSpellIndex.empty().lookup("binh", 2, 5).isEmpty());
+        assertTrue(SymSpellIndex.empty().lookupCompound("binh thanh").isEmpty());
+    }
+}
@@ -0,0 +1,204 @@
+package com.smartrent.service.engagement;
+
+import com.smartrent.infra.repository.ListingEngagementTotalsRepository;
+import com.smartrent.infra.repository.PhoneClickDetailRepository;
+import com.smartrent.infra.repository.SavedListingRepository;
+import com.smartrent.infra.repository.ViewRepository;
+import com.smartrent.infra.repository.entity.ListingEngagementTotals;
+import com.smartrent.service.engagement.EngagementCounters.ListingTotals;
+import com.smartrent.service.engagement.EngagementCounters.PhoneClick;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EngagementCountersTest {
+
+    private static final Long LISTING_ID = 42L;
+
+    private static RedisServer redisServer;
+    private static int port;
+
+    private StringRedisTemplate redisTemplate;
+    private PhoneClickDetailRepository phoneClickDetailRepository;
+    private ViewRepository viewRepository;
+    private SavedListingRepository savedListingRepository;
+    private ListingEngagementTotalsRepository listingEngagementTotalsRepository;
+    private EngagementCounters counters;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.newRedisServer().port(port).build();
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        LettuceConnectionFactory cf = new LettuceConnectionFactory("localhost", port);
+        cf.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(cf);
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+
+        phoneClickDetailRepository = mock(PhoneClickDetailRepository.class);
+        viewRepository = mock(ViewRepository.class);
+        savedListingRepository = mock(SavedListingRepository.class);
+        listingEngagementTotalsRepository = mock(ListingEngagementTotalsRepository.class);
+        counters = new EngagementCounters(redisTemplate, phoneClickDetailRepository, viewRepository,
+                savedListingRepository, listingEngagementTotalsRepository);
+    }
+
+    @Test
+    @DisplayName("a missing key is seeded from the tables once, then read from Redis")
+    void seedsMissingKey() {
+        tables(10, 40);
+        when(phoneClickDetailRepository.findClickerIdsByListingId(LISTING_ID)).thenReturn(List.of("u1", "u2"));
+        when(savedListingRepository.countByIdListingId(LISTING_ID)).thenReturn(2L);
+
+        ListingTotals first = counters.totals(LISTING_ID);
+        ListingTotals second = counters.totals(LISTING_ID);
+
+        assertThat(first).isEqualTo(new ListingTotals(10, 2, 40, 2));
+        assertThat(second).isEqualTo(first);
+        assertThat(redisTemplate.opsForHash().hasKey(EngagementCounters.listingKey(LISTING_ID),
+                EngagementCounters.SEEDED_AT)).isTrue();
+        verify(listingEngagementTotalsRepository, times(1)).findById(LISTING_ID);
+    }
+
+    @Test
+    @DisplayName("increments add to a seeded hash")
+    void incrementsSeededHash() {
+        tables(10, 40);
+        counters.totals(LISTING_ID);
+
+        counters.recordPhoneClicks(List.of(new PhoneClick(LISTING_ID, "u1", LocalDateTime.now())));
+        counters.recordViews(Map.of(LISTING_ID, 3));
+        counters.recordSave(LISTING_ID, 1);
+
+        assertThat(counters.totals(LISTING_ID)).isEqualTo(new ListingTotals(11, 1, 43, 1));
+    }
+
+    @Test
+    @DisplayName("an increment racing a seed is lost until the dirty reconcile re-seeds the listing")
+    void reconcileRepairsRacedIncrement() {
+        AtomicInteger reads = new AtomicInteger();
+        when(listingEngagementTotalsRepository.findById(LISTING_ID)).thenAnswer(invocation -> {
+            if (reads.getAndIncrement() == 0) {
+                // The click is stored and counted while the seed is still reading the tables.
+                counters.recordPhoneClicks(List.of(new PhoneClick(LISTING_ID, "u3", LocalDateTime.now())));
+                return Optional.of(totalsRow(10, 40));
+            }
+            return Optional.of(totalsRow(11, 40));
+        });
+
+        assertThat(counters.totals(LISTING_ID).clicks()).isEqualTo(10);
+        assertThat(redisTemplate.opsForSet().isMember(EngagementCounters.DIRTY_KEY, LISTING_ID.toString())).isTrue();
+
+        assertThat(counters.reconcileDirty(10)).isEqualTo(1);
+
+        assertThat(counters.totals(LISTING_ID).clicks()).isEqualTo(11);
+        assertThat(redisTemplate.opsForSet().size(EngagementCounters.DIRTY_KEY)).isZero();
+    }
+
+    @Test
+    @DisplayName("the reconcile skips listings that are not cached")
+    void reconcileSkipsUnseeded() {
+        redisTemplate.opsForSet().add(EngagementCounters.DIRTY_KEY, LISTING_ID.toString());
+
+        assertThat(counters.reconcileDirty(10)).isZero();
+
+        verify(listingEngagementTotalsRepository, times(0)).findById(any());
+    }
+
+    @Test
+    @DisplayName("7- and 30-day windows are today plus the 6 and 29 calendar days before")
+    void windowBoundaries() {
+        LocalDate today = LocalDate.now();
+        when(phoneClickDetailRepository.countClicksGroupedByDateSince(LISTING_ID,
+                today.minusDays(29).atStartOfDay())).thenReturn(List.of(
+                new Object[] {today, 1L},
+                new Object[] {today.minusDays(6), 2L},
+                new Object[] {today.minusDays(7), 4L},
+                new Object[] {today.minusDays(29), 8L},
+                new Object[] {today.minusDays(30), 16L}));
+
+        // The first read answers from the seed, the second from the day buckets it wrote.
+        for (int read = 0; read < 2; read++) {
+            assertThat(counters.recentClicks(LISTING_ID, 1)).isEqualTo(1);
+            assertThat(counters.recentClicks(LISTING_ID, 7)).isEqualTo(3);
+            assertThat(counters.recentClicks(LISTING_ID, 8)).isEqualTo(7);
+            assertThat(counters.recentClicks(LISTING_ID, 30)).isEqualTo(15);
+        }
+        assertThatThrownBy(() -> counters.recentClicks(LISTING_ID, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> counters.recentClicks(LISTING_ID, 31)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("views recorded today count in the windows")
+    void recordedViewsInWindow() {
+        LocalDate today = LocalDate.now();
+        when(viewRepository.countViewsGroupedByDateSince(LISTING_ID, today.minusDays(29).atStartOfDay()))
+                .thenReturn(List.<Object[]>of(new Object[] {today.minusDays(3), 5L}));
+        counters.recentViews(LISTING_ID, 7);
+
+        counters.recordViews(Map.of(LISTING_ID, 2));
+
+        assertThat(counters.recentViews(LISTING_ID, 1)).isEqualTo(2);
+        assertThat(counters.recentViews(LISTING_ID, 7)).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("all-time views, formerly ListingViewCounter, are the rolled-up total plus recorded views")
+    void viewCountsWithoutListingViewCounter() {
+        tables(10, 40);
+        // Left behind by ListingViewCounter; no longer read.
+        redisTemplate.opsForValue().set("listing:views:" + LISTING_ID, "999");
+        // Views recorded before the first read do not make a hash holding just that batch.
+        counters.recordViews(Map.of(LISTING_ID, 5));
+
+        assertThat(counters.totals(LISTING_ID).views()).isEqualTo(40);
+
+        counters.recordViews(Map.of(LISTING_ID, 3));
+
+        assertThat(counters.totals(LISTING_ID).views()).isEqualTo(43);
+    }
+
+    private void tables(long clicks, long views) {
+        when(listingEngagementTotalsRepository.findById(LISTING_ID)).thenReturn(Optional.of(totalsRow(clicks, views)));
+    }
+
+    private static ListingEngagementTotals totalsRow(long clicks, long views) {
+        return ListingEngagementTotals.builder()
+                .listingId(LISTING_ID).ownerId("owner-1").clicks(clicks).views(views).saves(0L).build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.smartrent.service.engagement;
+
+import com.smartrent.service.engagement.OwnerEngagementStore.LeadClick;
+import com.smartrent.service.engagement.OwnerEngagementStore.ListingDelta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OwnerEngagementStoreTest {
+
+    private static final String V125 = "db/migration/V125__Create_owner_engagement_summaries.sql";
+
+    private EntityManager entityManager;
+    private Query query;
+    private List<Object> parameters;
+    private OwnerEngagementStore store;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        query = mock(Query.class, RETURNS_SELF);
+        parameters = new ArrayList<>();
+        doAnswer(invocation -> {
+            parameters.add(invocation.getArgument(1));
+            return query;
+        }).when(query).setParameter(anyInt(), any());
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        store = new OwnerEngagementStore();
+        ReflectionTestUtils.setField(store, "entityManager", entityManager);
+    }
+
+    @Test
+    @DisplayName("listing deltas are added to the existing totals through the row alias, one row per delta")
+    void listingDeltasAreAdditive() {
+        store.addListingDeltas(List.of(new ListingDelta(1L, "owner", 3, 1, 0), new ListingDelta(2L, "owner", 0, 0, 2)));
+
+        String sql = sql();
+        assertThat(sql).contains("VALUES (?, ?, ?, ?, ?), (?, ?, ?, ?, ?) AS new ON DUPLICATE KEY UPDATE")
+                .contains("views = views + new.views", "clicks = clicks + new.clicks", "saves = saves + new.saves")
+                .doesNotContain("VALUES(");
+        assertThat(parameters).containsExactly(1L, "owner", 3, 1, 0, 2L, "owner", 0, 0, 2);
+        verify(query).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("clicks are merged per owner and user, keeping the earliest and latest click")
+    void leadClicksMergePerOwnerAndUser() {
+        LocalDateTime first = LocalDateTime.of(2026, 3, 1, 9, 0);
+        LocalDateTime last = LocalDateTime.of(2026, 3, 1, 18, 0);
+        store.addLeadClicks(List.of(
+                new LeadClick("owner", "user", last),
+                new LeadClick("owner", "user", first),
+                new LeadClick(null, "user", first)));
+
+        String sql = sql();
+        assertThat(sql).contains("VALUES (?, ?, ?, ?, ?) AS new ON DUPLICATE KEY UPDATE")
+                .contains("click_count = click_count + new.click_count",
+                        "first_clicked_at = LEAST(first_clicked_at, new.first_clicked_at)",
+                        "last_clicked_at = GREATEST(last_clicked_at, new.last_clicked_at)")
+                .doesNotContain("VALUES(");
+        assertThat(parameters).containsExactly("owner", "user", 2, first, last);
+    }
+
+    @Test
+    @DisplayName("nothing to add issues no statement")
+    void emptyBatches() {
+        store.addListingDeltas(List.of());
+        store.addLeadClicks(List.of(new LeadClick(null, "user", LocalDateTime.of(2026, 3, 1, 9, 0))));
+
+        verify(entityManager, never()).createNativeQuery(anyString());
+    }
+
+    @Test
+    @DisplayName("the V125 backfill overwrites on re-run from its derived columns, without VALUES()")
+    void backfillOverwritesFromDerivedColumns() throws IOException {
+        String migration;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(V125)) {
+            assertThat(in).as(V125).isNotNull();
+            migration = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        assertThat(migration).doesNotContain("VALUES(")
+                .contains(") AS totals\nON DUPLICATE KEY UPDATE views = total_views, clicks = total_clicks, saves = total_saves;")
+                .contains(") AS leads\nON DUPLICATE KEY UPDATE click_count = clicks,")
+                .contains("first_clicked_at = first_click,", "last_clicked_at = last_click;");
+    }
+
+    private String sql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createNativeQuery(sql.capture());
+        return sql.getValue();
+    }
+}
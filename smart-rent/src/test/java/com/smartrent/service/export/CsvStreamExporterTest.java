@@ -0,0 +1,60 @@
+package com.smartrent.service.export;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CsvStreamExporterTest {
+
+    @Test
+    @DisplayName("each page seeks past the last row of the previous one; a short page ends the export")
+    void pagesByKeyset() {
+        EntityManager entityManager = mock(EntityManager.class);
+        CsvStreamExporter exporter = new CsvStreamExporter();
+        ReflectionTestUtils.setField(exporter, "entityManager", entityManager);
+        ReflectionTestUtils.setField(exporter, "chunkSize", 2);
+        List<Integer> rows = List.of(1, 2, 3, 4, 5);
+        List<Integer> seekKeys = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exporter.export((Integer last, int size) -> {
+            seekKeys.add(last);
+            int from = last == null ? 0 : rows.indexOf(last) + 1;
+            return rows.subList(from, Math.min(from + size, rows.size()));
+        }, out, new String[] {"id"}, (chunk, csv) -> chunk.forEach(csv::row));
+
+        assertThat(written).isEqualTo(5);
+        assertThat(seekKeys).containsExactly(null, 2, 4);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id\n1\n2\n3\n4\n5\n");
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    @DisplayName("a full last page is followed by one empty page")
+    void fullLastPage() {
+        CsvStreamExporter exporter = new CsvStreamExporter();
+        ReflectionTestUtils.setField(exporter, "entityManager", mock(EntityManager.class));
+        ReflectionTestUtils.setField(exporter, "chunkSize", 2);
+        List<Integer> seekKeys = new ArrayList<>();
+
+        long written = exporter.export((Integer last, int size) -> {
+            seekKeys.add(last);
+            return last == null ? Arrays.asList(1, 2) : List.of();
+        }, new ByteArrayOutputStream(), new String[] {"id"}, (chunk, csv) -> chunk.forEach(csv::row));
+
+        assertThat(written).isEqualTo(2);
+        assertThat(seekKeys).containsExactly(null, 2);
+    }
+}
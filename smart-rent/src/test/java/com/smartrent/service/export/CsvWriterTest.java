@@ -0,0 +1,40 @@
+package com.smartrent.service.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class CsvWriterTest {
+
+  enum Status { COMPLETED }
+
+  @Test
+  void row_quotesTextAndEnums_writesNumbersBare_andNullsEmpty() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    CsvWriter csv = new CsvWriter(out).header("Code", "Note", "Amount", "Area", "Status");
+    csv.row("TX-1", null, new BigDecimal("1E+3"), 45.5f, Status.COMPLETED);
+    csv.row("Trọ \"mới\", Q1", "", 0, null, null);
+    csv.flush();
+
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+        "Code,Note,Amount,Area,Status\n"
+            + "\"TX-1\",,1000,45.5,\"COMPLETED\"\n"
+            + "\"Trọ \"\"mới\"\", Q1\",\"\",0,,\n");
+  }
+
+  @Test
+  void nothingReachesTheStreamBeforeFlush() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    CsvWriter csv = new CsvWriter(out).header("Code");
+    csv.row("TX-1");
+    assertThat(out.size()).isZero();
+
+    csv.flush();
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("Code\n\"TX-1\"\n");
+  }
+}
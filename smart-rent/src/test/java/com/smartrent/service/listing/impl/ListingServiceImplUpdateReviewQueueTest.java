@@ -11,6 +11,7 @@ import com.smartrent.infra.repository.entity.ListingAiModeration;
 import com.smartrent.infra.repository.entity.enums.VerificationStatus;
 import com.smartrent.mapper.ListingMapper;
 import com.smartrent.mapper.UserMapper;
+import com.smartrent.service.listing.cache.ListingCardCache;
 import com.smartrent.service.pricing.PricingHistoryService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -62,6 +63,9 @@ class ListingServiceImplUpdateReviewQueueTest {
     @Mock
     UserMapper userMapper;
 
+    @Mock
+    ListingCardCache listingCardCache;
+
     @InjectMocks
     ListingServiceImpl service;
 
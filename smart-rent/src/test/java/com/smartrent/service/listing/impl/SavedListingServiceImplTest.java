@@ -10,6 +10,10 @@ import com.smartrent.infra.repository.entity.Listing;
 import com.smartrent.infra.repository.entity.SavedListing;
 import com.smartrent.infra.repository.entity.SavedListingId;
 import com.smartrent.mapper.SavedListingMapper;
+import com.smartrent.service.engagement.EngagementCounters;
+import com.smartrent.service.engagement.OwnerEngagementStore;
+import com.smartrent.service.recommendation.RecommendationCacheVersions;
+import com.smartrent.service.recommendation.UserInteractionProfileStore;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -51,6 +56,21 @@ class SavedListingServiceImplTest {
     @Mock
     SavedListingMapper savedListingMapper;
 
+    @Mock
+    RecommendationCacheVersions recommendationCacheVersions;
+
+    @Mock
+    UserInteractionProfileStore interactionProfileStore;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    EngagementCounters engagementCounters;
+
+    @Mock
+    OwnerEngagementStore ownerEngagementStore;
+
     @InjectMocks
     SavedListingServiceImpl service;
 
@@ -120,6 +140,7 @@ class SavedListingServiceImplTest {
         service.saveListing(request);
 
         verify(savedListingRepository, times(1)).save(entity);
+        verify(interactionProfileStore).record(eq(USER_ID), any());
     }
 
     @Test
@@ -0,0 +1,97 @@
+package com.smartrent.service.phoneclickdetail;
+
+import com.smartrent.service.engagement.EngagementCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PhoneClickStreamConsumerTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 10, 19, 9, 0);
+
+    private final PhoneClickStream stream = mock(PhoneClickStream.class);
+    private final PhoneClickBatchWriter writer = mock(PhoneClickBatchWriter.class);
+    private final EngagementCounters counters = mock(EngagementCounters.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final StreamOperations<String, Object, Object> streamOps = mock(StreamOperations.class);
+
+    private PhoneClickStreamConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForStream()).thenReturn(streamOps);
+        when(streamOps.pending(eq(PhoneClickStream.STREAM_KEY), eq(PhoneClickStream.GROUP), any(Range.class), anyLong()))
+                .thenReturn(new PendingMessages(PhoneClickStream.GROUP, List.of()));
+        consumer = new PhoneClickStreamConsumer(stream, writer, counters, redisTemplate, "worker-1", 500, 60_000);
+    }
+
+    @Test
+    @DisplayName("a failed batch is retried row by row and only the failing row is dead-lettered")
+    void failingRowIsDeadLettered() {
+        List<MapRecord<String, Object, Object>> batch = List.of(record("1-0", 1L), record("2-0", 2L), record("3-0", 3L));
+        when(streamOps.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(batch, List.of());
+        when(writer.insert(any())).thenAnswer(invocation -> {
+            List<PendingPhoneClick> clicks = invocation.getArgument(0);
+            if (clicks.size() > 1 || clicks.get(0).listingId() == 2L) {
+                throw new IllegalStateException("Data truncation");
+            }
+            return List.of(new PhoneClickBatchWriter.Inserted(clicks.get(0), "owner"));
+        });
+
+        assertThat(consumer.poll()).isEqualTo(2);
+
+        verify(stream).deadLetter(batch.get(1), "insert failed");
+        verify(stream, never()).deadLetter(eq(batch.get(0)), any());
+        verify(stream, never()).deadLetter(eq(batch.get(2)), any());
+        ArgumentCaptor<RecordId[]> acked = ArgumentCaptor.forClass(RecordId[].class);
+        verify(streamOps).acknowledge(eq(PhoneClickStream.STREAM_KEY), eq(PhoneClickStream.GROUP), acked.capture());
+        assertThat(acked.getValue()).extracting(RecordId::getValue).containsExactly("1-0", "2-0", "3-0");
+    }
+
+    @Test
+    @DisplayName("when no row goes in, the batch stays pending instead of being dead-lettered")
+    void databaseFailureLeavesBatchPending() {
+        List<MapRecord<String, Object, Object>> batch = List.of(record("1-0", 1L), record("2-0", 2L));
+        when(streamOps.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(batch, List.of());
+        when(writer.insert(any())).thenThrow(new IllegalStateException("Connection refused"));
+
+        assertThat(consumer.poll()).isZero();
+
+        verify(stream, never()).deadLetter(any(), any());
+        verify(streamOps, never()).acknowledge(any(String.class), any(String.class), any(RecordId[].class));
+    }
+
+    private static MapRecord<String, Object, Object> record(String id, long listingId) {
+        Map<Object, Object> fields = new HashMap<>(
+                new PendingPhoneClick(listingId, "user-" + listingId, null, null, AT).toFields());
+        return StreamRecords.newRecord().in(PhoneClickStream.STREAM_KEY).withId(RecordId.of(id)).ofMap(fields);
+    }
+}
@@ -0,0 +1,211 @@
+package com.smartrent.service.recentlyviewed.impl;
+
+import com.smartrent.dto.request.RecentlyViewedItemDto;
+import com.smartrent.dto.request.RecentlyViewedSyncRequest;
+import com.smartrent.dto.response.ListingResponse;
+import com.smartrent.dto.response.RecentlyViewedItemResponse;
+import com.smartrent.service.listing.ListingService;
+import com.smartrent.service.listing.cache.ListingCardCache;
+import com.smartrent.service.recommendation.RecommendationCacheVersions;
+import com.smartrent.service.recommendation.UserInteractionProfileStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the recently-viewed sync and reads on an embedded Redis with a real
+ * {@link ListingCardCache}: the pipelined ZADD/trim/read, and the split between
+ * tombstoned listings (answered from the cache) and ids with no entry (loaded
+ * from the database).
+ */
+class RecentlyViewedServiceImplTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String ZSET_KEY = "recently_viewed:" + USER_ID;
+
+    private static RedisServer redisServer;
+    private static int port;
+
+    private StringRedisTemplate redisTemplate;
+    private ListingService listingService;
+    private ListingCardCache listingCardCache;
+    private RecommendationCacheVersions recommendationCacheVersions;
+    private UserInteractionProfileStore interactionProfileStore;
+    private RecentlyViewedServiceImpl service;
+    /** Ids that getDisplayingListingsByIds returns; anything else is deleted or hidden. */
+    private final Set<Long> displayed = new HashSet<>();
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.newRedisServer().port(port).build();
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        LettuceConnectionFactory cf = new LettuceConnectionFactory("localhost", port);
+        cf.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(cf);
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+
+        listingService = mock(ListingService.class);
+        when(listingService.getDisplayingListingsByIds(any())).thenAnswer(invocation -> {
+            Set<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(displayed::contains)
+                    .map(id -> ListingResponse.builder().listingId(id).title("Listing " + id).build())
+                    .toList();
+        });
+        listingCardCache = new ListingCardCache(redisTemplate, 300);
+        recommendationCacheVersions = mock(RecommendationCacheVersions.class);
+        interactionProfileStore = mock(UserInteractionProfileStore.class);
+        service = new RecentlyViewedServiceImpl(redisTemplate, listingService, listingCardCache,
+                recommendationCacheVersions, interactionProfileStore, mock(ApplicationEventPublisher.class));
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(USER_ID, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("a sync adds the client entries, trims to the 20 most recent and returns them newest first")
+    void syncAddsTrimsAndReads() {
+        for (long id = 1; id <= 19; id++) {
+            redisTemplate.opsForZSet().add(ZSET_KEY, Long.toString(id), id * 1_000);
+            displayed.add(id);
+        }
+        displayed.addAll(List.of(100L, 101L));
+
+        List<RecentlyViewedItemResponse> result = service.syncRecentlyViewed(sync(
+                item(100L, 50_000L), item(101L, 60_000L), item(3L, 70_000L), item(102L, -1L)));
+
+        // 21 distinct ids after the ZADD (3 is re-scored, 102 is rejected); the oldest, 1, is trimmed
+        List<Long> expected = new ArrayList<>(List.of(3L, 101L, 100L));
+        for (long id = 19; id >= 2; id--) {
+            if (id != 3) {
+                expected.add(id);
+            }
+        }
+        assertThat(result).extracting(item -> item.getListing().getListingId()).containsExactlyElementsOf(expected);
+        assertThat(result.get(0).getViewedAt()).isEqualTo(70_000L);
+        assertThat(redisTemplate.opsForZSet().size(ZSET_KEY)).isEqualTo(20);
+        assertThat(redisTemplate.opsForZSet().score(ZSET_KEY, "1")).isNull();
+        assertThat(redisTemplate.opsForZSet().score(ZSET_KEY, "102")).isNull();
+        verify(recommendationCacheVersions).bump(USER_ID);
+    }
+
+    @Test
+    @DisplayName("an empty sync only reads the stored entries")
+    void emptySyncReadsOnly() {
+        redisTemplate.opsForZSet().add(ZSET_KEY, "5", 5_000);
+        redisTemplate.opsForZSet().add(ZSET_KEY, "6", 6_000);
+        displayed.addAll(List.of(5L, 6L));
+
+        List<RecentlyViewedItemResponse> result = service.syncRecentlyViewed(sync());
+
+        assertThat(result).extracting(item -> item.getListing().getListingId()).containsExactly(6L, 5L);
+        assertThat(redisTemplate.opsForZSet().size(ZSET_KEY)).isEqualTo(2);
+        verify(interactionProfileStore, never()).record(any(), anyList());
+        verify(recommendationCacheVersions, never()).bump(any());
+    }
+
+    @Test
+    @DisplayName("a sync for a user with no entries returns an empty list")
+    void syncWithNothingStored() {
+        assertThat(service.syncRecentlyViewed(sync())).isEmpty();
+        verify(listingService, never()).getDisplayingListingsByIds(any());
+    }
+
+    @Test
+    @DisplayName("a deleted listing stays negative-cached; later reads do not go back to the database for it")
+    void deletedListingStaysNegativeCached() {
+        redisTemplate.opsForZSet().add(ZSET_KEY, "7", 7_000);
+        redisTemplate.opsForZSet().add(ZSET_KEY, "8", 8_000);
+        displayed.add(8L);
+
+        List<RecentlyViewedItemResponse> first = service.getRecentlyViewed(USER_ID);
+        List<RecentlyViewedItemResponse> second = service.getRecentlyViewed(USER_ID);
+
+        assertThat(first).extracting(item -> item.getListing().getListingId()).containsExactly(8L);
+        assertThat(second).extracting(item -> item.getListing().getListingId()).containsExactly(8L);
+        assertThat(redisTemplate.opsForValue().get("listing:card:7")).isEmpty();
+        verify(listingService, times(1)).getDisplayingListingsByIds(Set.of(7L, 8L));
+        verify(listingService, times(1)).getDisplayingListingsByIds(any());
+    }
+
+    @Test
+    @DisplayName("ids with no cache entry fall through to the database; cached and tombstoned ids do not")
+    void unknownIdsFallThrough() {
+        redisTemplate.opsForZSet().add(ZSET_KEY, "7", 7_000);
+        redisTemplate.opsForZSet().add(ZSET_KEY, "8", 8_000);
+        displayed.addAll(List.of(8L, 9L));
+        service.getRecentlyViewed(USER_ID);
+
+        redisTemplate.opsForZSet().add(ZSET_KEY, "9", 9_000);
+        List<RecentlyViewedItemResponse> result = service.getRecentlyViewed(USER_ID);
+
+        assertThat(result).extracting(item -> item.getListing().getListingId()).containsExactly(9L, 8L);
+        verify(listingService).getDisplayingListingsByIds(Set.of(9L));
+    }
+
+    @Test
+    @DisplayName("an evicted listing is reloaded from the database")
+    void evictedListingIsReloaded() {
+        redisTemplate.opsForZSet().add(ZSET_KEY, "7", 7_000);
+        service.getRecentlyViewed(USER_ID);
+
+        // Listing 7 is shown again (e.g. approved by moderation), which evicts its tombstone
+        displayed.add(7L);
+        listingCardCache.evict(7L);
+        List<RecentlyViewedItemResponse> result = service.getRecentlyViewed(USER_ID);
+
+        assertThat(result).extracting(item -> item.getListing().getListingId()).containsExactly(7L);
+        verify(listingService, times(2)).getDisplayingListingsByIds(Set.of(7L));
+    }
+
+    private static RecentlyViewedSyncRequest sync(RecentlyViewedItemDto... items) {
+        return RecentlyViewedSyncRequest.builder().listings(List.of(items)).build();
+    }
+
+    private static RecentlyViewedItemDto item(Long listingId, Long viewedAt) {
+        return RecentlyViewedItemDto.builder().listingId(listingId).viewedAt(viewedAt).build();
+    }
+}
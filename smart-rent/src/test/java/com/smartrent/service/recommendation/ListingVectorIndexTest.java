@@ -0,0 +1,84 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.infra.repository.entity.Listing;
+import com.smartrent.service.recommendation.ListingVectorIndex.Source;
+import com.smartrent.service.recommendation.ListingVectorIndex.Store;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListingVectorIndexTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    @DisplayName("neighbours rank by distance, price ratio and type, skipping expired and excluded rows")
+    void scanRanksNearestFirst() {
+        Store store = Store.build(List.of(
+                source(1L, 10.7769, 106.7009, 8_000_000.0, 30.0, 0L, Set.of(1L, 2L)),
+                // ~1 km away, same price
+                source(2L, 10.7860, 106.7009, 8_000_000.0, 30.0, 0L, Set.of(1L, 2L)),
+                // same spot, double the price
+                source(3L, 10.7769, 106.7009, 16_000_000.0, 30.0, 0L, Set.of(1L, 2L)),
+                // Hanoi
+                source(4L, 21.0285, 105.8542, 8_000_000.0, 30.0, 0L, Set.of(1L, 2L)),
+                // next door but expired
+                source(5L, 10.7770, 106.7009, 8_000_000.0, 30.0, NOW - 1, Set.of(1L, 2L)),
+                // next door, excluded by the caller
+                source(6L, 10.7771, 106.7009, 8_000_000.0, 30.0, 0L, Set.of(1L, 2L))), List.of(1L, 2L, 3L));
+
+        int slot = store.slotById.get(1L);
+        float[] query = Arrays.copyOfRange(store.vectors, slot * store.dims, (slot + 1) * store.dims);
+        List<Long> ids = ListingVectorIndex.scan(store, query, 0, store.highWater, 10,
+                (byte) -1, (byte) -1, Set.of(1L, 6L), NOW).sortedIds();
+
+        assertThat(ids).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("merged per-chunk heaps keep exactly the global top k")
+    void topKAcrossChunks() {
+        List<Source> sources = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            sources.add(source(id, 10.0 + id * 0.001, 106.7, 5_000_000.0, 25.0, 0L, Set.of()));
+        }
+        Store store = Store.build(sources, List.of());
+        int slot = store.slotById.get(250L);
+        float[] query = Arrays.copyOfRange(store.vectors, slot * store.dims, (slot + 1) * store.dims);
+
+        ListingVectorIndex.TopK merged = new ListingVectorIndex.TopK(4);
+        for (int from = 0; from < store.highWater; from += 64) {
+            ListingVectorIndex.scan(store, query, from, Math.min(store.highWater, from + 64), 4,
+                    (byte) -1, (byte) -1, Set.of(250L), NOW).drainInto(merged);
+        }
+
+        assertThat(merged.sortedIds()).containsExactlyInAnyOrder(248L, 249L, 251L, 252L);
+    }
+
+    @Test
+    @DisplayName("a removed listing frees its slot for the next insert")
+    void removeAndReuseSlot() {
+        Store store = Store.build(List.of(
+                source(1L, 10.77, 106.70, 8_000_000.0, 30.0, 0L, Set.of()),
+                source(2L, 10.78, 106.70, 8_000_000.0, 30.0, 0L, Set.of())), List.of());
+        int freed = store.slotById.get(2L);
+
+        assertThat(store.remove(2L)).isTrue();
+        store.upsert(source(7L, 10.79, 106.70, 9_000_000.0, 30.0, 0L, Set.of()));
+
+        assertThat(store.slotById).doesNotContainKey(2L).containsEntry(7L, freed);
+        assertThat(store.highWater).isEqualTo(2);
+    }
+
+    private static Source source(long id, double lat, double lon, double price, double area,
+                                 long expiresAt, Set<Long> amenities) {
+        return new Source(id, true, expiresAt, Listing.ListingType.RENT, Listing.ProductType.APARTMENT,
+                lat, lon, "w:" + id, "d:1", "p:79", price, area, 2, amenities);
+    }
+}
@@ -0,0 +1,64 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest.ListingFeatureDto;
+import com.smartrent.dto.response.RecommendationItemDto;
+import com.smartrent.service.recommendation.LocalRecommendationRanker.Zone;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRecommendationRankerTest {
+
+    private static final Zone PREFERRED = new Zone("79", 760, 26734, "26734");
+    private static final Zone DISCOVERY = new Zone("01", 1, 4, "00004");
+
+    @Test
+    @DisplayName("preferred ward beats preferred province, and price closeness breaks the tie")
+    void personalizedRanksByZoneThenPrice() {
+        List<RecommendationItemDto> ranked = LocalRecommendationRanker.rankPersonalized(List.of(
+                feature(1L, "79", 761, 26800, "26800", 6_000_000.0, "NORMAL", 2),
+                feature(2L, "79", 760, 26734, "26734", 12_000_000.0, "NORMAL", 2),
+                feature(3L, "79", 760, 26734, "26734", 6_000_000.0, "NORMAL", 2),
+                feature(4L, "48", 490, 20194, "20194", 6_000_000.0, "NORMAL", 0)),
+                PREFERRED, null, 6_000_000.0, 10);
+
+        assertThat(ranked).extracting(RecommendationItemDto::getListingId).containsExactly(3L, 2L, 1L, 4L);
+    }
+
+    @Test
+    @DisplayName("discovery matches only count while the shift condition holds")
+    void discoveryZoneOnlyWithShift() {
+        List<ListingFeatureDto> candidates = List.of(
+                feature(1L, "79", 761, 26800, "26800", 6_000_000.0, "NORMAL", 2),
+                feature(2L, "01", 1, 4, "00004", 6_000_000.0, "NORMAL", 2));
+
+        assertThat(LocalRecommendationRanker.rankPersonalized(candidates, PREFERRED, null, 6_000_000.0, 1))
+                .extracting(RecommendationItemDto::getListingId).containsExactly(1L);
+        assertThat(LocalRecommendationRanker.rankPersonalized(candidates, PREFERRED, DISCOVERY, 6_000_000.0, 1))
+                .extracting(RecommendationItemDto::getListingId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("similar fallback ranks by content similarity and drops the target")
+    void similarRanksByContent() {
+        ListingFeatureDto target = feature(1L, "79", 760, 26734, "26734", 8_000_000.0, "NORMAL", 0);
+        List<RecommendationItemDto> ranked = LocalRecommendationRanker.rankSimilar(target, List.of(
+                target,
+                feature(2L, "79", 760, 26734, "26734", 8_500_000.0, "NORMAL", 3),
+                feature(3L, "79", 765, 26900, "26900", 15_000_000.0, "GOLD", 0)), 5);
+
+        assertThat(ranked).extracting(RecommendationItemDto::getListingId).containsExactly(2L, 3L);
+    }
+
+    private static ListingFeatureDto feature(Long id, String province, Integer districtId, Integer wardId,
+                                             String wardCode, Double price, String vipType, int daysAgo) {
+        return ListingFeatureDto.builder()
+                .listingId(id).productType("APARTMENT").listingType("RENT")
+                .provinceCode(province).districtId(districtId).wardId(wardId).newWardCode(wardCode)
+                .price(price).area(40.0).bedrooms(2).vipType(vipType).postDateDaysAgo(daysAgo)
+                .build();
+    }
+}
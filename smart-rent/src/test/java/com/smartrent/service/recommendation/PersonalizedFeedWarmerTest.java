@@ -0,0 +1,62 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.event.UserInteractionEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PersonalizedFeedWarmerTest {
+
+    @Mock
+    RecommendationService recommendationService;
+
+    @Mock
+    CacheManager cacheManager;
+
+    @Mock
+    RecommendationCacheVersions cacheVersions;
+
+    PersonalizedFeedWarmer warmer;
+
+    @AfterEach
+    void tearDown() {
+        if (warmer != null) {
+            warmer.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("a burst of interactions costs one recompute once the user is quiet")
+    void burstIsWarmedOnce() {
+        warmer = new PersonalizedFeedWarmer(recommendationService, cacheManager, cacheVersions, true, 0, 20);
+
+        warmer.onUserInteraction(new UserInteractionEvent("u1"));
+        warmer.onUserInteraction(new UserInteractionEvent("u1"));
+        warmer.onUserInteraction(new UserInteractionEvent("u1"));
+
+        assertThat(warmer.warmQuietUsers()).isEqualTo(1);
+        verify(recommendationService, timeout(2_000).times(1)).getPersonalizedFeed("u1", 20);
+        assertThat(warmer.warmQuietUsers()).isZero();
+    }
+
+    @Test
+    @DisplayName("users still interacting are left for a later tick")
+    void activeUserIsNotWarmed() {
+        warmer = new PersonalizedFeedWarmer(recommendationService, cacheManager, cacheVersions, true, 60_000, 20);
+
+        warmer.onUserInteraction(new UserInteractionEvent("u1"));
+
+        assertThat(warmer.warmQuietUsers()).isZero();
+        verify(recommendationService, never()).getPersonalizedFeed("u1", 20);
+    }
+}
@@ -0,0 +1,132 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest;
+import com.smartrent.dto.response.RecommendationItemDto;
+import com.smartrent.infra.connector.SmartRentAiConnector;
+import feign.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationAiBatcherTest {
+
+    @Mock
+    SmartRentAiConnector aiConnector;
+
+    RecommendationAiBatcher batcher;
+    final ExecutorService callers = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("concurrent callers share one batch call and each gets its own slice")
+    void fullWindowSendsOneBatch() {
+        when(aiConnector.getSimilarListingsBatch(any(), any())).thenAnswer(invocation -> {
+            AIRecommendationRequest.SimilarListingBatchAiRequest batch = invocation.getArgument(0);
+            List<List<RecommendationItemDto>> results = new ArrayList<>();
+            for (AIRecommendationRequest.SimilarListingAiRequest request : batch.getRequests()) {
+                results.add(List.of(item(request.getTop_n())));
+            }
+            return results;
+        });
+        // A long window, so only the size limit can close it.
+        batcher = new RecommendationAiBatcher(aiConnector, true, 3, 60_000, 5_000);
+
+        List<CompletableFuture<List<RecommendationItemDto>>> answers = new ArrayList<>();
+        for (int topN = 1; topN <= 3; topN++) {
+            AIRecommendationRequest.SimilarListingAiRequest request =
+                    AIRecommendationRequest.SimilarListingAiRequest.builder().top_n(topN).build();
+            answers.add(CompletableFuture.supplyAsync(() -> batcher.getSimilarListings(request, 5_000), callers));
+        }
+
+        for (int i = 0; i < answers.size(); i++) {
+            assertThat(answers.get(i).join()).extracting(RecommendationItemDto::getListingId)
+                    .containsExactly((long) (i + 1));
+        }
+        verify(aiConnector, times(1)).getSimilarListingsBatch(any(), any());
+        verify(aiConnector, never()).getSimilarListings(any(), any());
+    }
+
+    @Test
+    @DisplayName("a failed batch fails every caller in it, without single-call retries")
+    void failedBatchFailsItsCallers() {
+        when(aiConnector.getPersonalizedFeedBatch(any(), any())).thenThrow(new IllegalStateException("batch down"));
+        batcher = new RecommendationAiBatcher(aiConnector, true, 2, 60_000, 5_000);
+
+        CompletableFuture<List<RecommendationItemDto>> first = CompletableFuture.supplyAsync(() ->
+                batcher.getPersonalizedFeed(AIRecommendationRequest.PersonalizedFeedAiRequest.builder()
+                        .user_id("7").build(), 5_000), callers);
+        CompletableFuture<List<RecommendationItemDto>> second = CompletableFuture.supplyAsync(() ->
+                batcher.getPersonalizedFeed(AIRecommendationRequest.PersonalizedFeedAiRequest.builder()
+                        .user_id("8").build(), 5_000), callers);
+
+        assertThatThrownBy(first::join).hasRootCauseMessage("batch down");
+        assertThatThrownBy(second::join).hasRootCauseMessage("batch down");
+        verify(aiConnector, never()).getPersonalizedFeed(any(), any());
+    }
+
+    @Test
+    @DisplayName("an unbatched call waits no longer than the caller's remaining budget")
+    void unbatchedCallUsesCallerBudget() {
+        ArgumentCaptor<Request.Options> options = ArgumentCaptor.forClass(Request.Options.class);
+        when(aiConnector.getSimilarListings(any(), options.capture())).thenReturn(List.of(item(1L)));
+        batcher = new RecommendationAiBatcher(aiConnector, false, 16, 5, 2_500);
+
+        batcher.getSimilarListings(AIRecommendationRequest.SimilarListingAiRequest.builder().top_n(1).build(), 300);
+        batcher.getSimilarListings(AIRecommendationRequest.SimilarListingAiRequest.builder().top_n(1).build(), 60_000);
+
+        assertThat(options.getAllValues()).extracting(Request.Options::readTimeoutMillis).containsExactly(300, 2_500);
+        assertThat(options.getAllValues()).extracting(Request.Options::connectTimeoutMillis).containsExactly(300, 500);
+    }
+
+    @Test
+    @DisplayName("a batch call waits no longer than the largest remaining budget among its callers")
+    void batchCallUsesLargestCallerBudget() {
+        ArgumentCaptor<Request.Options> options = ArgumentCaptor.forClass(Request.Options.class);
+        when(aiConnector.getPersonalizedFeedBatch(any(), options.capture())).thenReturn(List.of(List.of(), List.of()));
+        batcher = new RecommendationAiBatcher(aiConnector, true, 2, 60_000, 5_000);
+
+        CompletableFuture<List<RecommendationItemDto>> first = CompletableFuture.supplyAsync(() ->
+                batcher.getPersonalizedFeed(AIRecommendationRequest.PersonalizedFeedAiRequest.builder()
+                        .user_id("7").build(), 1_000), callers);
+        CompletableFuture<List<RecommendationItemDto>> second = CompletableFuture.supplyAsync(() ->
+                batcher.getPersonalizedFeed(AIRecommendationRequest.PersonalizedFeedAiRequest.builder()
+                        .user_id("8").build(), 3_000), callers);
+        first.join();
+        second.join();
+
+        // The smaller budget would leave the longer-waiting caller without an answer; the Feign
+        // default (30 s) would hold the sender well after both callers gave up.
+        assertThat(options.getValue().readTimeoutMillis()).isGreaterThan(1_000).isLessThanOrEqualTo(3_000);
+        assertThat(options.getValue().connectTimeoutMillis()).isEqualTo(500);
+    }
+
+    private static RecommendationItemDto item(long listingId) {
+        return RecommendationItemDto.builder().listingId(listingId).score(1.0).build();
+    }
+}
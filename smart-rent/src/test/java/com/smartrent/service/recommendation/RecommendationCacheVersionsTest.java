@@ -0,0 +1,158 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.config.Constants;
+import com.smartrent.event.UserInteractionEvent;
+import com.smartrent.service.recommendation.impl.RecommendationServiceImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.expression.AccessException;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import redis.embedded.RedisServer;
+
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pins the recommendation cache keys to the generation counter: the keys are
+ * evaluated from the {@link Cacheable} expressions on {@link RecommendationServiceImpl}
+ * themselves, so a change to them cannot silently break invalidation or the
+ * key {@link PersonalizedFeedWarmer} evicts.
+ */
+class RecommendationCacheVersionsTest {
+
+    private static final List<Integer> TOP_NS = List.of(10, 20, 50);
+
+    private static RedisServer redisServer;
+    private static int port;
+
+    private RecommendationCacheVersions versions;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.newRedisServer().port(port).build();
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        LettuceConnectionFactory cf = new LettuceConnectionFactory("localhost", port);
+        cf.afterPropertiesSet();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(cf);
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        versions = new RecommendationCacheVersions(redisTemplate, 24);
+    }
+
+    @Test
+    @DisplayName("a bump makes every cached personalized topN variant of the user miss, and only theirs")
+    void bumpMissesEveryPersonalizedVariant() throws Exception {
+        Cache cache = new ConcurrentMapCache(Constants.CacheNames.LISTING_RECOMMENDATION_PERSONALIZED);
+        for (int topN : TOP_NS) {
+            cache.put(personalizedKey("u1", topN), "feed-u1-" + topN);
+            cache.put(personalizedKey("u2", topN), "feed-u2-" + topN);
+        }
+
+        versions.bump("u1");
+
+        for (int topN : TOP_NS) {
+            assertThat(cache.get(personalizedKey("u1", topN))).isNull();
+            assertThat(cache.get(personalizedKey("u2", topN))).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("a bump makes the user's similar-listings variants miss; anonymous ones are unaffected")
+    void bumpMissesSimilarVariants() throws Exception {
+        Cache cache = new ConcurrentMapCache(Constants.CacheNames.LISTING_RECOMMENDATION_SIMILAR);
+        for (int topN : TOP_NS) {
+            cache.put(similarKey(7L, topN, "u1"), "similar-u1");
+            cache.put(similarKey(7L, topN, null), "similar-anonymous");
+        }
+
+        versions.bump("u1");
+
+        for (int topN : TOP_NS) {
+            assertThat(cache.get(similarKey(7L, topN, "u1"))).isNull();
+            assertThat(cache.get(similarKey(7L, topN, null))).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("the pre-warmer evicts exactly the key the personalized @Cacheable reads")
+    void warmerEvictsCacheableKey() throws Exception {
+        versions.bump("u1");
+        versions.bump("u1");
+        Cache cache = spy(new ConcurrentMapCache(Constants.CacheNames.LISTING_RECOMMENDATION_PERSONALIZED));
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(Constants.CacheNames.LISTING_RECOMMENDATION_PERSONALIZED)).thenReturn(cache);
+        PersonalizedFeedWarmer warmer = new PersonalizedFeedWarmer(mock(RecommendationService.class), cacheManager,
+                versions, true, 0, 20);
+        try {
+            warmer.onUserInteraction(new UserInteractionEvent("u1"));
+            warmer.warmQuietUsers();
+
+            assertThat(personalizedKey("u1", 20)).isEqualTo("user:u1:v2:topN:20");
+            verify(cache, timeout(2_000)).evict(personalizedKey("u1", 20));
+        } finally {
+            warmer.shutdown();
+        }
+    }
+
+    private String personalizedKey(String userId, int topN) throws Exception {
+        return cacheKey(RecommendationServiceImpl.class.getMethod("getPersonalizedFeed", String.class, int.class),
+                Map.of("userId", userId, "topN", topN));
+    }
+
+    private String similarKey(Long listingId, int topN, String userId) throws Exception {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("listingId", listingId);
+        variables.put("topN", topN);
+        variables.put("userId", userId);
+        return cacheKey(RecommendationServiceImpl.class.getMethod("getSimilarListings", Long.class, int.class,
+                String.class), variables);
+    }
+
+    /** Evaluates the method's {@code @Cacheable} key with {@link #versions} as the versions bean. */
+    private String cacheKey(Method method, Map<String, Object> arguments) {
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        arguments.forEach(context::setVariable);
+        context.setBeanResolver((ctx, beanName) -> {
+            if (!"recommendationCacheVersions".equals(beanName)) {
+                throw new AccessException("Unexpected bean in cache key: " + beanName);
+            }
+            return versions;
+        });
+        String expression = method.getAnnotation(Cacheable.class).key();
+        return new SpelExpressionParser().parseExpression(expression).getValue(context, String.class);
+    }
+}
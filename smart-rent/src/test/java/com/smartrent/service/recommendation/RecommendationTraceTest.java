@@ -0,0 +1,36 @@
+package com.smartrent.service.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendationTraceTest {
+
+    @Test
+    @DisplayName("a channel that misses the deadline is cancelled, cut and replaced by the fallback")
+    void missedChannelIsCancelled() {
+        RecommendationTrace trace = new RecommendationTrace("similar", 0);
+        CompletableFuture<List<Long>> channel = new CompletableFuture<>();
+
+        assertThat(trace.await("price", channel, List.of())).isEmpty();
+
+        assertThat(channel).isCancelled();
+        assertThat(trace.cutStages()).containsExactly("price");
+        assertThat(trace.remainingMillis()).isZero();
+    }
+
+    @Test
+    @DisplayName("the remaining budget shrinks from the deadline")
+    void remainingBudget() {
+        RecommendationTrace trace = new RecommendationTrace("personalized", 60_000);
+
+        assertThat(trace.remainingMillis()).isBetween(59_000L, 60_000L);
+        assertThat(trace.await("fresh", CompletableFuture.completedFuture(List.of(1L, 2L)), List.of()))
+                .containsExactly(1L, 2L);
+        assertThat(trace.partial()).isFalse();
+    }
+}
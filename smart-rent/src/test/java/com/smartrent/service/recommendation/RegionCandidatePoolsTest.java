@@ -0,0 +1,66 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.infra.repository.entity.Listing;
+import com.smartrent.service.recommendation.RegionCandidatePools.Entry;
+import com.smartrent.service.recommendation.RegionCandidatePools.Pools;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegionCandidatePoolsTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+    private static final String DISTRICT = RegionCandidatePools.district(7);
+    private static final String PROVINCE = RegionCandidatePools.newProvince("79");
+
+    @Test
+    @DisplayName("regions merge freshest first, filtered by type, price window, expiry and exclusions")
+    void selectMergesFreshestFirst() {
+        Pools pools = new Pools(10);
+        pools.upsert(entry(1L, 8_000_000, false, 100, 0L, DISTRICT, PROVINCE));
+        pools.upsert(entry(2L, 8_500_000, false, 300, 0L, PROVINCE));
+        // outside the ±20% window
+        pools.upsert(entry(3L, 20_000_000, false, 400, 0L, DISTRICT, PROVINCE));
+        // expired by the clock
+        pools.upsert(entry(4L, 8_000_000, false, 500, NOW - 1, DISTRICT, PROVINCE));
+        // excluded by the caller
+        pools.upsert(entry(5L, 8_000_000, false, 600, 0L, DISTRICT, PROVINCE));
+        pools.upsert(new Entry(6L, Listing.ListingType.SALE, Listing.ProductType.ROOM, 8_000_000, false,
+                700, 700, 0L, new String[] {DISTRICT, PROVINCE}));
+        pools.upsert(entry(7L, 7_000_000, true, 200, 0L, DISTRICT));
+
+        List<Long> ids = pools.select(List.of(DISTRICT, PROVINCE), Listing.ListingType.RENT, Listing.ProductType.ROOM,
+                6_400_000.0, 9_600_000.0, Set.of(5L), 10, NOW);
+
+        assertThat(ids).containsExactly(2L, 7L, 1L);
+    }
+
+    @Test
+    @DisplayName("a band keeps its freshest listings plus every VIP one, and re-filing moves a listing")
+    void bandCapKeepsFreshestAndVip() {
+        Pools pools = new Pools(2);
+        pools.upsert(entry(1L, 5_000_000, false, 100, 0L, DISTRICT));
+        pools.upsert(entry(2L, 5_000_000, false, 200, 0L, DISTRICT));
+        pools.upsert(entry(3L, 5_000_000, false, 300, 0L, DISTRICT));
+        pools.upsert(entry(4L, 5_000_000, true, 50, 0L, DISTRICT));
+
+        assertThat(pools.select(List.of(DISTRICT), null, null, null, null, Set.of(), 10, NOW))
+                .containsExactly(3L, 2L, 4L);
+
+        // Pushed to the top, then hidden.
+        pools.upsert(entry(2L, 5_000_000, false, 900, 0L, DISTRICT));
+        assertThat(pools.select(List.of(DISTRICT), null, null, null, null, Set.of(), 1, NOW)).containsExactly(2L);
+        assertThat(pools.remove(2L)).isTrue();
+        assertThat(pools.select(List.of(DISTRICT), null, null, null, null, Set.of(), 10, NOW))
+                .containsExactly(3L, 4L);
+    }
+
+    private static Entry entry(long id, double price, boolean vip, long pushedAt, long expiresAt, String... regions) {
+        return new Entry(id, Listing.ListingType.RENT, Listing.ProductType.ROOM, price, vip,
+                pushedAt, pushedAt, expiresAt, regions);
+    }
+}
@@ -0,0 +1,107 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest.ListingFeatureDto;
+import com.smartrent.dto.response.RecommendationItemDto;
+import com.smartrent.infra.repository.ListingRepository;
+import com.smartrent.infra.repository.ListingSimilarItemsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimilarListingStoreTest {
+
+    @Test
+    @DisplayName("same district and close price rank first; other product types are dropped")
+    void ranksByContentSimilarity() {
+        ListingFeatureDto target = feature(1L, "APARTMENT", 10_000_000.0, 60.0, 2, 100);
+        ListingFeatureDto sameDistrict = feature(2L, "APARTMENT", 10_500_000.0, 62.0, 2, 100);
+        ListingFeatureDto otherDistrict = feature(3L, "APARTMENT", 10_500_000.0, 62.0, 2, 200);
+        ListingFeatureDto pricier = feature(4L, "APARTMENT", 19_000_000.0, 62.0, 2, 100);
+        ListingFeatureDto room = feature(5L, "ROOM", 10_000_000.0, 60.0, 2, 100);
+
+        List<RecommendationItemDto> ranked = SimilarListingStore.rank(
+                target, List.of(otherDistrict, room, pricier, sameDistrict, target), 10);
+
+        assertThat(ranked).extracting(RecommendationItemDto::getListingId).containsExactly(2L, 3L, 4L);
+        assertThat(SimilarListingStore.rank(target, List.of(otherDistrict, sameDistrict, pricier), 1))
+                .extracting(RecommendationItemDto::getListingId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("stored rows round-trip and tolerate a corrupt pair")
+    void encodeDecodeRoundTrip() {
+        List<RecommendationItemDto> items = List.of(
+                RecommendationItemDto.builder().listingId(42L).score(0.91234).build(),
+                RecommendationItemDto.builder().listingId(7L).score(0.5).build());
+
+        String encoded = SimilarListingStore.encode(items);
+
+        assertThat(encoded).isEqualTo("42:0.9123,7:0.5000");
+        assertThat(SimilarListingStore.decode(encoded + ",x:1,9:"))
+                .extracting(RecommendationItemDto::getListingId).containsExactly(42L, 7L);
+        assertThat(SimilarListingStore.decode(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("the batch turns the whole table over within the max age, within the bounds")
+    void batchSizedFromTable() {
+        Duration tick = Duration.ofMinutes(5);
+        Duration day = Duration.ofHours(24);
+
+        // 288 ticks a day: 576k rows need 2000 per tick, doubled for headroom.
+        assertThat(SimilarListingStore.batchSize(576_000, tick, day, 200, 5000)).isEqualTo(4000);
+        assertThat(SimilarListingStore.batchSize(10_000, tick, day, 200, 5000)).isEqualTo(200);
+        assertThat(SimilarListingStore.batchSize(5_000_000, tick, day, 200, 5000)).isEqualTo(5000);
+    }
+
+    @Test
+    @DisplayName("changes come first, the missing-row sweep runs once per max age, aged rows fill the rest")
+    void refreshPriorityAndSweep() {
+        ListingSimilarItemsRepository repository = mock(ListingSimilarItemsRepository.class);
+        SimilarListingStore store = new SimilarListingStore(mock(ListingRepository.class), repository,
+                mock(ListingFeatureExtractor.class), mock(PlatformTransactionManager.class));
+        Duration maxAge = Duration.ofHours(24);
+        when(repository.count()).thenReturn(0L);
+        when(repository.findChangedListingIdsNeedingRefresh(any(), anyInt())).thenReturn(List.of(1L));
+        when(repository.findMissingListingIdsAfter(0L, 3)).thenReturn(List.of(2L));
+        when(repository.findListingIdsComputedBefore(any(), anyInt())).thenReturn(List.of(3L, 1L));
+
+        assertThat(store.refreshStale(4, 4, Duration.ofMinutes(5), maxAge)).isEqualTo(3);
+        store.refreshStale(4, 4, Duration.ofMinutes(5), maxAge);
+
+        // The sweep came up short, so it completed: orphans pruned, no second sweep within the day.
+        verify(repository, times(1)).findMissingListingIdsAfter(anyLong(), anyInt());
+        verify(repository, times(1)).deleteForNonPublicListings();
+        verify(repository).findListingIdsComputedBefore(any(), eq(2));
+        verify(repository).findListingIdsComputedBefore(any(), eq(3));
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository, times(2)).findChangedListingIdsNeedingRefresh(since.capture(), eq(4));
+        assertThat(since.getAllValues().get(0)).isBefore(LocalDateTime.now().minusHours(23));
+        assertThat(since.getAllValues().get(1)).isAfter(LocalDateTime.now().minusMinutes(2));
+    }
+
+    private static ListingFeatureDto feature(Long id, String productType, Double price, Double area,
+                                             Integer bedrooms, Integer districtId) {
+        return ListingFeatureDto.builder()
+                .listingId(id).productType(productType).listingType("RENT")
+                .price(price).area(area).bedrooms(bedrooms)
+                .provinceCode("79").districtId(districtId)
+                .build();
+    }
+}
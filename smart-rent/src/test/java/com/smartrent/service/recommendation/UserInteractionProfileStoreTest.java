@@ -0,0 +1,144 @@
+package com.smartrent.service.recommendation;
+
+import com.smartrent.dto.request.AIRecommendationRequest.ListingFeatureDto;
+import com.smartrent.service.recommendation.UserInteractionProfileStore.Interaction;
+import com.smartrent.service.recommendation.UserInteractionProfileStore.Item;
+import com.smartrent.service.recommendation.UserInteractionProfileStore.Kind;
+import com.smartrent.service.recommendation.UserInteractionProfileStore.Pending;
+import com.smartrent.service.recommendation.UserInteractionProfileStore.Profile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class UserInteractionProfileStoreTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static final Map<Long, ListingFeatureDto> FEATURES = Map.of(
+            1L, feature(1L, "79", 760, 26734, "26734", 8_000_000.0),
+            2L, feature(2L, "79", 760, 26737, "26737", 9_000_000.0),
+            3L, feature(3L, "01", 1, 4, "00004", 5_000_000.0),
+            4L, feature(4L, "01", 1, 7, "00007", 6_000_000.0),
+            5L, feature(5L, "01", 1, 4, "00004", 5_500_000.0));
+
+    @Test
+    @DisplayName("old saves are outvoted by recent views, and ward votes stay inside the winning province")
+    void decayedVotesFollowTheCurrentSearch() {
+        Profile profile = Profile.parse(UserInteractionProfileStore.buildHash(List.of(
+                new Interaction(Kind.SAVE, 1L, NOW - 90 * DAY),
+                new Interaction(Kind.SAVE, 2L, NOW - 90 * DAY),
+                new Interaction(Kind.VIEW, 3L, NOW - DAY),
+                new Interaction(Kind.VIEW, 5L, NOW),
+                new Interaction(Kind.VIEW, 4L, NOW - 2 * DAY)), FEATURES, 300, NOW));
+
+        assertThat(profile.preferredProvinceCode()).isEqualTo("01");
+        assertThat(profile.preferredWardCode("01")).isEqualTo("00004");
+        assertThat(profile.preferredWardId("79")).isIn(26734, 26737);
+        assertThat(profile.preferredDistrictId("01")).isEqualTo(1);
+        assertThat(profile.savedListingIds()).containsExactly(1L, 2L);
+        assertThat(profile.recentViews(2).keySet()).containsExactly(5L, 3L);
+        assertThat(profile.averagePrice().getAsDouble()).isBetween(5_500_000.0, 6_500_000.0);
+    }
+
+    @Test
+    @DisplayName("incremental updates reach the same votes as a rebuild from full history")
+    void incrementalMatchesRebuild() {
+        List<Interaction> first = List.of(
+                new Interaction(Kind.SAVE, 1L, NOW - 40 * DAY),
+                new Interaction(Kind.VIEW, 3L, NOW - 10 * DAY));
+        List<Interaction> later = List.of(
+                new Interaction(Kind.PHONE_CLICK, 1L, NOW - DAY),
+                new Interaction(Kind.VIEW, 4L, NOW),
+                new Interaction(Kind.VIEW, 3L, NOW));
+
+        Map<String, String> hash = new HashMap<>(UserInteractionProfileStore.buildHash(first, FEATURES, 300, NOW));
+        applyIncrementally(hash, later);
+
+        List<Interaction> all = new ArrayList<>(first);
+        all.addAll(later);
+        Profile rebuilt = Profile.parse(UserInteractionProfileStore.buildHash(all, FEATURES, 300, NOW));
+        Profile incremental = Profile.parse(hash);
+
+        assertThat(incremental.votes().keySet()).isEqualTo(rebuilt.votes().keySet());
+        rebuilt.votes().forEach((field, value) ->
+                assertThat(incremental.votes().get(field)).isCloseTo(value, within(value * 1e-9)));
+        assertThat(incremental.clickedListingIds()).containsExactly(1L);
+        assertThat(hash.get(UserInteractionProfileStore.ITEM_COUNT)).isEqualTo("3");
+    }
+
+    @Test
+    @DisplayName("an unsave withdraws that listing's vote")
+    void forgetWithdrawsVote() {
+        Map<String, String> hash = new HashMap<>(UserInteractionProfileStore.buildHash(List.of(
+                new Interaction(Kind.SAVE, 1L, NOW),
+                new Interaction(Kind.VIEW, 3L, NOW)), FEATURES, 300, NOW));
+        assertThat(Profile.parse(hash).preferredProvinceCode()).isEqualTo("79");
+
+        Map<Long, Item> before = Map.of(1L, Item.decode(hash.get(UserInteractionProfileStore.ITEM + 1L)));
+        Map<Long, Item> after = Map.of(1L, before.get(1L).without(Kind.SAVE));
+        apply(hash, UserInteractionProfileStore.diff(before, after));
+
+        Profile profile = Profile.parse(hash);
+        assertThat(profile.preferredProvinceCode()).isEqualTo("01");
+        assertThat(profile.savedListingIds()).isEmpty();
+        assertThat(hash).doesNotContainKey(UserInteractionProfileStore.ITEM + 1L);
+    }
+
+    @Test
+    @DisplayName("events queued during a rebuild are replayed over the history it read")
+    void rebuildReplaysPendingEvents() {
+        List<Interaction> history = List.of(
+                new Interaction(Kind.SAVE, 1L, NOW - DAY),
+                new Interaction(Kind.VIEW, 3L, NOW - DAY));
+        List<Pending> pending = List.of(
+                Pending.decode(new Pending(false, new Interaction(Kind.SAVE, 4L, NOW)).encode()),
+                Pending.decode(new Pending(true, new Interaction(Kind.SAVE, 1L, 0L)).encode()));
+
+        Profile profile = Profile.parse(UserInteractionProfileStore.buildHash(history, pending, FEATURES, 300, NOW));
+
+        assertThat(pending).doesNotContainNull();
+        assertThat(profile.savedListingIds()).containsExactly(4L);
+        assertThat(profile.preferredProvinceCode()).isEqualTo("01");
+        assertThat(Pending.decode("+|SAVE|x|1")).isNull();
+    }
+
+    /** What {@code record} does against Redis, applied to an in-memory hash. */
+    private static void applyIncrementally(Map<String, String> hash, List<Interaction> interactions) {
+        Map<Long, Item> before = new LinkedHashMap<>();
+        for (Interaction interaction : interactions) {
+            Item item = Item.decode(hash.get(UserInteractionProfileStore.ITEM + interaction.listingId()));
+            if (item != null) {
+                before.put(interaction.listingId(), item);
+            }
+        }
+        Map<Long, Item> after = new LinkedHashMap<>(before);
+        UserInteractionProfileStore.applyInteractions(after, interactions, FEATURES);
+        apply(hash, UserInteractionProfileStore.diff(before, after));
+    }
+
+    private static void apply(Map<String, String> hash, UserInteractionProfileStore.Changes changes) {
+        changes.itemPuts().forEach((id, item) -> hash.put(UserInteractionProfileStore.ITEM + id, item.encode()));
+        changes.itemDeletes().forEach(id -> hash.remove(UserInteractionProfileStore.ITEM + id));
+        changes.voteDeltas().forEach((field, delta) -> hash.merge(field, Double.toString(delta),
+                (a, b) -> Double.toString(Double.parseDouble(a) + Double.parseDouble(b))));
+        hash.merge(UserInteractionProfileStore.ITEM_COUNT, Integer.toString(changes.itemCountDelta()),
+                (a, b) -> Long.toString(Long.parseLong(a) + Long.parseLong(b)));
+    }
+
+    private static ListingFeatureDto feature(Long id, String province, Integer districtId, Integer wardId,
+                                             String wardCode, Double price) {
+        return ListingFeatureDto.builder()
+                .listingId(id).provinceCode(province).districtId(districtId)
+                .wardId(wardId).newWardCode(wardCode).price(price)
+                .build();
+    }
+}
@@ -6,7 +6,6 @@ import com.smartrent.dto.response.ListingResponse;
 import com.smartrent.dto.response.RecentlyViewedItemResponse;
 import com.smartrent.dto.response.RecommendationItemDto;
 import com.smartrent.dto.response.RecommendationResponse;
-import com.smartrent.infra.connector.SmartRentAiConnector;
 import com.smartrent.infra.repository.AddressMappingRepository;
 import com.smartrent.infra.repository.ListingRepository;
 import com.smartrent.infra.repository.PhoneClickDetailRepository;
@@ -17,6 +16,7 @@ import com.smartrent.infra.repository.entity.SavedListing;
 import com.smartrent.infra.repository.entity.Address;
 import com.smartrent.service.listing.ListingService;
 import com.smartrent.service.recentlyviewed.RecentlyViewedService;
+import com.smartrent.service.recommendation.UserInteractionProfileStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,6 +27,7 @@ import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -44,7 +45,7 @@ public class RecommendationServiceImplTest {
     @Mock
     RecentlyViewedService recentlyViewedService;
     @Mock
-    SmartRentAiConnector aiConnector;
+    com.smartrent.service.recommendation.RecommendationAiClient recommendationAiClient;
     @Mock
     ListingService listingService;
     @Mock
@@ -52,6 +53,14 @@ public class RecommendationServiceImplTest {
 
     @Mock
     com.smartrent.service.recommendation.RecommendationExecutor recommendationExecutor;
+    @Mock
+    com.smartrent.service.recommendation.SimilarListingStore similarListingStore;
+    @Mock
+    UserInteractionProfileStore interactionProfileStore;
+    @Mock
+    com.smartrent.service.recommendation.ListingVectorIndex listingVectorIndex;
+    @Mock
+    com.smartrent.service.recommendation.RegionCandidatePools regionCandidatePools;
 
     RecommendationServiceImpl recommendationService;
 
@@ -62,10 +71,16 @@ public class RecommendationServiceImplTest {
                 savedListingRepository,
                 phoneClickDetailRepository,
                 recentlyViewedService,
-                aiConnector,
+                recommendationAiClient,
                 listingService,
-                addressMappingRepository,
-                recommendationExecutor
+                new com.smartrent.service.recommendation.ListingFeatureExtractor(addressMappingRepository),
+                recommendationExecutor,
+                similarListingStore,
+                interactionProfileStore,
+                listingVectorIndex,
+                new com.smartrent.service.recommendation.RecommendationMetrics(
+                        new io.micrometer.core.instrument.simple.SimpleMeterRegistry(), 3_000),
+                regionCandidatePools
         );
         org.mockito.Mockito.lenient().when(recommendationExecutor.pool()).thenReturn(Runnable::run);
     }
@@ -76,6 +91,28 @@ public class RecommendationServiceImplTest {
         assertNotNull(recommendationService);
     }
 
+    @Test
+    void testSimilarListingsServedFromPrecomputedRow() {
+        when(similarListingStore.lookup(1L)).thenReturn(Optional.of(List.of(
+                RecommendationItemDto.builder().listingId(3L).score(0.9).cbfScore(0.9).build(),
+                RecommendationItemDto.builder().listingId(2L).score(0.8).cbfScore(0.8).build(),
+                RecommendationItemDto.builder().listingId(4L).score(0.7).cbfScore(0.7).build())));
+        ListingResponse two = new ListingResponse();
+        two.setListingId(2L);
+        ListingResponse three = new ListingResponse();
+        three.setListingId(3L);
+        // Listing 4 is no longer displayed, so it is skipped.
+        when(listingService.getDisplayingListingsByIds(anySet())).thenReturn(List.of(two, three));
+
+        RecommendationResponse response = recommendationService.getSimilarListings(1L, 5, "user-1");
+
+        assertEquals("similar_precomputed", response.getMode());
+        assertFalse(response.getPartial());
+        assertEquals(List.of(3L, 2L), response.getListings().stream().map(ListingResponse::getListingId).toList());
+        verify(listingRepository, never()).findByIdWithAddress(any());
+        verifyNoInteractions(recommendationAiClient);
+    }
+
     @Test
     void testPersonalizedFeedColdStart() {
         // If there are no user interactions, it should fall back to cold start feed
@@ -85,6 +122,13 @@ public class RecommendationServiceImplTest {
                 .thenReturn(Collections.emptyList());
         when(recentlyViewedService.getRecentlyViewedIdsWithTimestamps("user1"))
                 .thenReturn(new java.util.LinkedHashMap<>());
+        // No stored profile yet: it is rebuilt from the (empty) histories above.
+        when(interactionProfileStore.load("user1")).thenReturn(Optional.empty());
+        when(interactionProfileStore.rebuild(eq("user1"), any())).thenAnswer(invocation -> {
+            Supplier<List<UserInteractionProfileStore.Interaction>> history = invocation.getArgument(1);
+            assertTrue(history.get().isEmpty());
+            return UserInteractionProfileStore.Profile.empty();
+        });
 
         // For cold start
         Listing coldListing = new Listing();
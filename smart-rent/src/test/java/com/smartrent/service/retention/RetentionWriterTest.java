@@ -0,0 +1,150 @@
+package com.smartrent.service.retention;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the statements of {@link RetentionWriter#purge} on an in-memory H2
+ * database, so the phone click compaction is checked on actual rows.
+ */
+class RetentionWriterTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    private Connection connection;
+    private RetentionWriter writer;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE phone_clicks (id BIGINT PRIMARY KEY, listing_id BIGINT NOT NULL, "
+                    + "user_id VARCHAR(36) NOT NULL, clicked_at TIMESTAMP NOT NULL)");
+        }
+        click(1, 10, "a", "2025-01-01 09:00:00");
+        click(2, 10, "a", "2025-02-01 09:00:00");
+        click(3, 10, "b", "2025-01-01 09:00:00");
+        click(4, 11, "a", "2025-01-01 09:00:00");
+        click(5, 11, "a", "2025-01-01 09:00:00");
+        click(6, 12, "a", "2025-01-01 09:00:00");
+        click(7, 12, "a", "2025-09-01 09:00:00");
+
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation -> h2Query(invocation.getArgument(0)));
+        writer = new RetentionWriter();
+        ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("an expired click is deleted only when a later click by the same user on the same listing exists")
+    void compactsPhoneClicks() throws SQLException {
+        int deleted = writer.purge(RetentionTable.PHONE_CLICKS, 0, 7, CUTOFF, false);
+
+        // 2 and 3 are expired but the latest of their (listing, user); 5 ties 4 on time and wins on id
+        assertThat(deleted).isEqualTo(3);
+        assertThat(remainingIds()).containsExactly(2L, 3L, 5L, 7L);
+    }
+
+    @Test
+    @DisplayName("only the ids of the batch are considered")
+    void boundedByBatch() throws SQLException {
+        int deleted = writer.purge(RetentionTable.PHONE_CLICKS, 1, 4, CUTOFF, false);
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(remainingIds()).containsExactly(1L, 2L, 3L, 5L, 6L, 7L);
+    }
+
+    @Test
+    @DisplayName("a dry run counts the rows it would delete and deletes none")
+    void dryRunDeletesNothing() throws SQLException {
+        int counted = writer.purge(RetentionTable.PHONE_CLICKS, 0, 7, CUTOFF, true);
+
+        assertThat(counted).isEqualTo(3);
+        assertThat(remainingIds()).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    private void click(long id, long listingId, String userId, String clickedAt) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO phone_clicks VALUES (?, ?, ?, ?)")) {
+            statement.setLong(1, id);
+            statement.setLong(2, listingId);
+            statement.setString(3, userId);
+            statement.setObject(4, LocalDateTime.parse(clickedAt.replace(' ', 'T')));
+            statement.executeUpdate();
+        }
+    }
+
+    private List<Long> remainingIds() throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT id FROM phone_clicks ORDER BY id")) {
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    /** A native query whose parameters are bound to, and which is run on, the H2 connection. */
+    private Query h2Query(String sql) {
+        Query query = mock(Query.class, RETURNS_SELF);
+        Map<Integer, Object> parameters = new HashMap<>();
+        when(query.setParameter(anyInt(), any())).thenAnswer(invocation -> {
+            parameters.put(invocation.getArgument(0), invocation.getArgument(1));
+            return query;
+        });
+        when(query.getResultList()).thenAnswer(invocation -> {
+            try (PreparedStatement statement = prepare(sql, parameters);
+                 ResultSet rows = statement.executeQuery()) {
+                List<Object> result = new ArrayList<>();
+                while (rows.next()) {
+                    result.add(rows.getObject(1));
+                }
+                return result;
+            }
+        });
+        when(query.executeUpdate()).thenAnswer(invocation -> {
+            try (PreparedStatement statement = prepare(sql, parameters)) {
+                return statement.executeUpdate();
+            }
+        });
+        return query;
+    }
+
+    private PreparedStatement prepare(String sql, Map<Integer, Object> parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            statement.setObject(parameter.getKey(), parameter.getValue());
+        }
+        return statement;
+    }
+}
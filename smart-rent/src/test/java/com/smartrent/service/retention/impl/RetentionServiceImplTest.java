@@ -0,0 +1,166 @@
+package com.smartrent.service.retention.impl;
+
+import com.smartrent.config.RetentionProperties;
+import com.smartrent.infra.repository.RetentionCursorRepository;
+import com.smartrent.infra.repository.RollupWatermarkRepository;
+import com.smartrent.infra.repository.entity.RetentionCursor;
+import com.smartrent.infra.repository.entity.RollupWatermark;
+import com.smartrent.service.retention.RetentionTable;
+import com.smartrent.service.retention.RetentionWriter;
+import com.smartrent.service.retention.RetentionWriter.Partition;
+import com.smartrent.service.retention.RetentionWriter.Window;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetentionServiceImplTest {
+
+    private static final List<Partition> PARTITIONS = List.of(
+            new Partition("p_initial", LocalDate.of(2026, 11, 1)),
+            new Partition("p202611", LocalDate.of(2026, 12, 1)),
+            new Partition("p_future", null));
+
+    @Test
+    @DisplayName("the cutoff never passes the rollup watermark")
+    void cutoffBoundedByWatermark() {
+        LocalDateTime retention = LocalDateTime.of(2026, 7, 1, 0, 0);
+
+        assertThat(RetentionServiceImpl.cutoff(retention, LocalDateTime.of(2026, 6, 1, 0, 0)))
+                .isEqualTo(LocalDateTime.of(2026, 6, 1, 0, 0));
+        assertThat(RetentionServiceImpl.cutoff(retention, LocalDateTime.of(2026, 10, 1, 0, 0)))
+                .isEqualTo(retention);
+    }
+
+    @Test
+    @DisplayName("only partitions wholly before the cutoff are dropped, never p_future")
+    void expiredPartitions() {
+        assertThat(RetentionServiceImpl.expiredPartitions(PARTITIONS, LocalDateTime.of(2026, 11, 30, 12, 0)))
+                .containsExactly("p_initial");
+        assertThat(RetentionServiceImpl.expiredPartitions(PARTITIONS, LocalDateTime.of(2026, 12, 1, 0, 0)))
+                .containsExactly("p_initial", "p202611");
+    }
+
+    @Test
+    @DisplayName("monthly bounds are added after the last one through the months ahead")
+    void missingBounds() {
+        assertThat(RetentionServiceImpl.missingBounds(PARTITIONS, LocalDate.of(2026, 11, 15), 2))
+                .containsExactly(LocalDate.of(2027, 1, 1), LocalDate.of(2027, 2, 1));
+        assertThat(RetentionServiceImpl.missingBounds(PARTITIONS, LocalDate.of(2026, 10, 19), 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a table without a MAXVALUE partition gets no new bounds")
+    void noFuturePartition() {
+        assertThat(RetentionServiceImpl.missingBounds(PARTITIONS.subList(0, 2), LocalDate.of(2026, 11, 15), 2))
+                .isEmpty();
+    }
+
+    /** Rolled up a year ago, so the cutoff is the watermark whatever the retention. */
+    private static final LocalDateTime ROLLED_UP_TO = LocalDate.now().minusYears(1).atStartOfDay();
+
+    private final RetentionWriter retentionWriter = mock(RetentionWriter.class);
+    private final RetentionCursorRepository retentionCursorRepository = mock(RetentionCursorRepository.class);
+    private final RollupWatermarkRepository rollupWatermarkRepository = mock(RollupWatermarkRepository.class);
+    private final RetentionProperties properties = new RetentionProperties();
+
+    @Test
+    @DisplayName("a batch whose oldest row is not expired ends the pass and resets the cursor")
+    void cursorResetsOnUnexpiredWindow() {
+        cursorAt(100);
+        when(retentionWriter.window(RetentionTable.VIEWS, 100, properties.getBatchSize()))
+                .thenReturn(new Window(200, ROLLED_UP_TO.minusDays(1)));
+        when(retentionWriter.window(RetentionTable.VIEWS, 200, properties.getBatchSize()))
+                .thenReturn(new Window(300, ROLLED_UP_TO));
+        when(retentionWriter.purge(RetentionTable.VIEWS, 100, 200, ROLLED_UP_TO, false)).thenReturn(5);
+
+        assertThat(service().sweep(RetentionTable.VIEWS)).isEqualTo(5);
+
+        verify(retentionWriter, never()).purge(eq(RetentionTable.VIEWS), eq(200L), anyLong(), any(), anyBoolean());
+        assertThat(savedCursor()).isZero();
+    }
+
+    @Test
+    @DisplayName("running past the last row resets the cursor too")
+    void cursorResetsPastLastRow() {
+        cursorAt(100);
+
+        assertThat(service().sweep(RetentionTable.VIEWS)).isZero();
+
+        verify(retentionWriter, never()).purge(any(), anyLong(), anyLong(), any(), anyBoolean());
+        assertThat(savedCursor()).isZero();
+    }
+
+    @Test
+    @DisplayName("a pass stopped by the batch limit resumes after its last batch")
+    void cursorAdvancesWhileExpired() {
+        properties.setMaxBatchesPerRun(1);
+        cursorAt(100);
+        when(retentionWriter.window(RetentionTable.VIEWS, 100, properties.getBatchSize()))
+                .thenReturn(new Window(200, ROLLED_UP_TO.minusDays(1)));
+
+        service().sweep(RetentionTable.VIEWS);
+
+        assertThat(savedCursor()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("a dry run deletes nothing and leaves the cursor, the horizon and the partitions unchanged")
+    void dryRunChangesNothing() {
+        properties.setDryRun(true);
+        properties.setMaxBatchesPerRun(1);
+        cursorAt(100);
+        when(retentionWriter.window(RetentionTable.VIEWS, 100, properties.getBatchSize()))
+                .thenReturn(new Window(200, ROLLED_UP_TO.minusDays(1)));
+        when(retentionWriter.purge(RetentionTable.VIEWS, 100, 200, ROLLED_UP_TO, true)).thenReturn(5);
+        when(retentionWriter.partitions(RetentionTable.VIEWS)).thenReturn(List.of(
+                new Partition("p_initial", ROLLED_UP_TO.toLocalDate().minusMonths(1)),
+                new Partition("p_future", null)));
+
+        assertThat(service().sweep(RetentionTable.VIEWS)).isEqualTo(5);
+
+        verify(retentionWriter, never()).purge(any(), anyLong(), anyLong(), any(), eq(false));
+        verify(retentionWriter, never()).dropPartitions(any(), any());
+        verify(retentionWriter, never()).addMonthlyPartitions(any(), any());
+        verify(retentionCursorRepository, never()).save(any());
+        verify(rollupWatermarkRepository, never()).findById(RetentionTable.VIEWS.horizonName());
+        verify(rollupWatermarkRepository, never()).save(any());
+    }
+
+    private RetentionServiceImpl service() {
+        properties.setPauseMs(0);
+        when(rollupWatermarkRepository.findById(RetentionTable.VIEWS.rollupName())).thenReturn(Optional.of(
+                RollupWatermark.builder()
+                        .rollupName(RetentionTable.VIEWS.rollupName())
+                        .rolledUpTo(ROLLED_UP_TO)
+                        .build()));
+        return new RetentionServiceImpl(retentionWriter, retentionCursorRepository, rollupWatermarkRepository,
+                properties, new SimpleMeterRegistry());
+    }
+
+    private void cursorAt(long lastId) {
+        when(retentionCursorRepository.findById(RetentionTable.VIEWS.tableName())).thenReturn(Optional.of(
+                RetentionCursor.builder().tableName(RetentionTable.VIEWS.tableName()).lastId(lastId).build()));
+    }
+
+    private long savedCursor() {
+        ArgumentCaptor<RetentionCursor> saved = ArgumentCaptor.forClass(RetentionCursor.class);
+        verify(retentionCursorRepository).save(saved.capture());
+        return saved.getValue().getLastId();
+    }
+}
@@ -0,0 +1,125 @@
+package com.smartrent.service.transaction.impl;
+
+import com.smartrent.dto.request.TransactionFilterRequest;
+import com.smartrent.dto.response.RevenueSeriesResponse;
+import com.smartrent.dto.response.TransactionStatisticsResponse;
+import com.smartrent.enums.TransactionStatus;
+import com.smartrent.infra.repository.TransactionRepository;
+import com.smartrent.service.admin.analytics.AdminFactCubeReader;
+import com.smartrent.service.admin.analytics.AdminFactCubeReader.Fact;
+import com.smartrent.service.admin.analytics.AdminFactMetric;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Transaction statistics and revenue series are answered from the admin fact
+ * cube when the filter is on the creation date only, and aggregated in SQL
+ * over the filtered transactions otherwise; both sum up the same way.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionHistoryServiceImplStatisticsTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2026, 3, 1);
+    private static final LocalDate MARCH_31 = LocalDate.of(2026, 3, 31);
+
+    @Mock
+    TransactionRepository transactionRepository;
+
+    @Mock
+    AdminFactCubeReader adminFactCubeReader;
+
+    @InjectMocks
+    TransactionHistoryServiceImpl service;
+
+    @Test
+    void dateOnlyStatisticsAreSummedFromTheCube() {
+        when(adminFactCubeReader.facts(AdminFactMetric.TRANSACTIONS_BY_STATUS, MARCH_1, MARCH_31)).thenReturn(List.of(
+                new Fact(MARCH_1, "COMPLETED", 2, new BigDecimal("300000")),
+                new Fact(MARCH_1.plusDays(1), "COMPLETED", 1, new BigDecimal("150000")),
+                new Fact(MARCH_1.plusDays(1), "REFUNDED", 1, new BigDecimal("90000")),
+                new Fact(MARCH_31, "PENDING", 1, new BigDecimal("50000"))));
+
+        TransactionStatisticsResponse stats = service.getStatistics(dateRange());
+
+        assertEquals(5, stats.getTotalTransactions());
+        assertEquals(3, stats.getSuccessfulPayments());
+        assertEquals(1, stats.getRefundedPayments());
+        assertEquals(1, stats.getPendingPayments());
+        assertEquals(0, stats.getFailedPayments());
+        assertEquals(new BigDecimal("450000"), stats.getTotalRevenue());
+        assertEquals(new BigDecimal("150000"), stats.getAverageSuccessfulAmount());
+        assertEquals(60.0, stats.getSuccessRate());
+        verify(transactionRepository, never()).countAndSumByStatus(any());
+    }
+
+    @Test
+    void filteredStatisticsAreAggregatedLive() {
+        TransactionFilterRequest filter = dateRange();
+        filter.setCustomerId("user-1");
+        when(transactionRepository.countAndSumByStatus(any())).thenReturn(List.of(
+                new Object[] {TransactionStatus.COMPLETED, 2L, new BigDecimal("500000")},
+                new Object[] {TransactionStatus.FAILED, 1L, null}));
+
+        TransactionStatisticsResponse stats = service.getStatistics(filter);
+
+        assertEquals(3, stats.getTotalTransactions());
+        assertEquals(2, stats.getSuccessfulPayments());
+        assertEquals(1, stats.getFailedPayments());
+        assertEquals(new BigDecimal("500000"), stats.getTotalRevenue());
+        assertEquals(new BigDecimal("250000"), stats.getAverageSuccessfulAmount());
+        assertEquals(66.67, stats.getSuccessRate());
+        verifyNoInteractions(adminFactCubeReader);
+    }
+
+    @Test
+    void dateOnlyRevenueSeriesIsGroupedByMonthFromTheCube() {
+        when(adminFactCubeReader.facts(AdminFactMetric.REVENUE, MARCH_1, MARCH_31)).thenReturn(List.of(
+                new Fact(MARCH_1, "MEMBERSHIP", 2, new BigDecimal("300000")),
+                new Fact(MARCH_31, "POST_FEE", 1, new BigDecimal("20000"))));
+
+        List<RevenueSeriesResponse> series = service.getRevenueSeries(dateRange(), "MONTH");
+
+        assertEquals(1, series.size());
+        assertEquals("2026-03", series.get(0).getPeriod());
+        assertEquals(new BigDecimal("320000"), series.get(0).getRevenue());
+        assertEquals(3L, series.get(0).getSuccessfulCount());
+        verify(transactionRepository, never()).sumCompletedByPeriod(any(), anyBoolean());
+    }
+
+    @Test
+    void filteredRevenueSeriesIsFormattedFromPeriodParts() {
+        TransactionFilterRequest filter = dateRange();
+        filter.setStatus(TransactionStatus.COMPLETED);
+        when(transactionRepository.sumCompletedByPeriod(any(), anyBoolean())).thenReturn(List.<Object[]>of(
+                new Object[] {2026, 3, 1, 2L, new BigDecimal("300000")},
+                new Object[] {2026, 3, 31, 1L, null}));
+
+        List<RevenueSeriesResponse> series = service.getRevenueSeries(filter, "DAY");
+
+        assertEquals("2026-03-01", series.get(0).getPeriod());
+        assertEquals(new BigDecimal("300000"), series.get(0).getRevenue());
+        assertEquals(2L, series.get(0).getSuccessfulCount());
+        assertEquals("2026-03-31", series.get(1).getPeriod());
+        assertEquals(BigDecimal.ZERO, series.get(1).getRevenue());
+        verifyNoInteractions(adminFactCubeReader);
+    }
+
+    private static TransactionFilterRequest dateRange() {
+        return TransactionFilterRequest.builder().createdAt("2026-03-01..2026-03-31").build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.smartrent.service.user.impl;
+
+import com.smartrent.infra.repository.UserRepository;
+import com.smartrent.infra.repository.entity.User;
+import com.smartrent.service.admin.analytics.AdminFactCubeService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deleting a user marks their creation day in the admin fact cube, so a closed
+ * day stops counting them among its new users.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplDeleteTest {
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    AdminFactCubeService adminFactCubeService;
+
+    @InjectMocks
+    UserServiceImpl service;
+
+    @Test
+    void deleteMarksCreationDay() {
+        User user = User.builder().userId("user-1").createdAt(LocalDateTime.of(2026, 2, 10, 23, 30)).build();
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+
+        service.deleteUser("user-1");
+
+        verify(userRepository).delete(user);
+        verify(adminFactCubeService).markChanged(LocalDate.of(2026, 2, 10));
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartrent.service.view;
+
+import com.smartrent.service.engagement.EngagementCounters;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ViewWriteBehindBufferTest {
+
+    @Mock
+    ViewBatchWriter viewBatchWriter;
+
+    @Mock
+    EngagementCounters engagementCounters;
+
+    @Test
+    @DisplayName("buffered views are inserted in batches and counted per listing")
+    void flushInsertsInBatches() {
+        ViewWriteBehindBuffer buffer = new ViewWriteBehindBuffer(viewBatchWriter, engagementCounters, 10, 2);
+        when(viewBatchWriter.insert(any())).thenReturn(Map.of(1L, 2), Map.of(2L, 1));
+
+        buffer.offer(view(1L));
+        buffer.offer(view(1L));
+        buffer.offer(view(2L));
+
+        assertThat(buffer.flush()).isEqualTo(3);
+        verify(viewBatchWriter, times(2)).insert(any());
+        verify(engagementCounters).recordViews(Map.of(1L, 2));
+        verify(engagementCounters).recordViews(Map.of(2L, 1));
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("a full buffer rejects views and a failed batch is kept for the next flush")
+    void capacityAndRetry() {
+        ViewWriteBehindBuffer buffer = new ViewWriteBehindBuffer(viewBatchWriter, engagementCounters, 2, 10);
+        assertThat(buffer.offer(view(1L))).isTrue();
+        assertThat(buffer.offer(view(2L))).isTrue();
+        assertThat(buffer.offer(view(3L))).isFalse();
+
+        when(viewBatchWriter.insert(any())).thenThrow(new IllegalStateException("db down"));
+        assertThat(buffer.flush()).isZero();
+
+        assertThat(buffer.size()).isEqualTo(2);
+        verify(engagementCounters, never()).add(any());
+    }
+
+    private static PendingView view(Long listingId) {
+        return new PendingView(listingId, null, "10.0.0.1", "test-agent", LocalDateTime.now());
+    }
+}
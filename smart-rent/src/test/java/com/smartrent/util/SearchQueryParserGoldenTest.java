@@ -0,0 +1,80 @@
+package com.smartrent.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Equivalence check for the single-pass parser: every query in
+ * {@code search/query-parser-golden.tsv} must produce exactly the
+ * {@link SearchQueryParser.ParsedQuery} the previous regex/{@code contains()}
+ * implementation produced, field by field.
+ */
+class SearchQueryParserGoldenTest {
+
+    private static final String GOLDEN = "/search/query-parser-golden.tsv";
+    private static final String NULL = "<null>";
+    private static final int COLUMNS = 12;
+
+    @Test
+    @DisplayName("single-pass parser reproduces the golden corpus field by field")
+    void matchesGoldenCorpus() throws Exception {
+        List<String> mismatches = new ArrayList<>();
+        int rows = 0;
+        try (InputStream in = SearchQueryParserGoldenTest.class.getResourceAsStream(GOLDEN)) {
+            assertNotNull(in, "missing golden file " + GOLDEN);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] expected = line.split("\t", -1);
+                assertEquals(COLUMNS, expected.length, "malformed golden row: " + line);
+                String[] actual = row(SearchQueryParser.parse(expected[0]));
+                for (int i = 1; i < COLUMNS; i++) {
+                    if (!expected[i].equals(actual[i - 1])) {
+                        mismatches.add("'" + expected[0] + "' col " + i
+                                + ": expected [" + expected[i] + "] got [" + actual[i - 1] + "]");
+                    }
+                }
+                rows++;
+            }
+        }
+        assertTrue(rows > 200, "golden corpus unexpectedly small: " + rows);
+        assertTrue(mismatches.isEmpty(), String.join("\n", mismatches));
+    }
+
+    private static String[] row(SearchQueryParser.ParsedQuery p) {
+        return new String[] {
+                text(p.productType()),
+                text(p.listingType()),
+                text(p.minPrice()),
+                text(p.maxPrice()),
+                text(p.locationText()),
+                String.join("|", p.amenities()),
+                text(p.residualKeyword()),
+                text(p.fallbackSuggestion()),
+                text(p.minArea()),
+                text(p.maxArea()),
+                text(p.bedrooms())
+        };
+    }
+
+    private static String text(Object value) {
+        if (value == null) return NULL;
+        if (value instanceof BigDecimal decimal) return decimal.toPlainString();
+        return value.toString();
+    }
+}